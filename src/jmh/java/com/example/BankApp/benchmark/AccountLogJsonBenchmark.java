@@ -0,0 +1,74 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.json.BankAppJsonModule;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * 取引履歴（/accountLog のレスポンス）の JSON 変換を計測します。
+ * mapper=reflective は Jackson 既定のリフレクションによる変換、custom は {@link BankAppJsonModule} による変換です。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountLogJsonBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  @Param({"reflective", "custom"})
+  private String mapper;
+
+  private ObjectMapper objectMapper;
+
+  private List<AccountLog> logs;
+
+  @Setup
+  public void setUp() {
+    objectMapper = objectMapper(mapper);
+    logs = new ArrayList<>(size);
+    LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+    for (int i = 0; i < size; i++) {
+      logs.add(AccountLog.builder()
+          .accountLogId(UUID.randomUUID().toString())
+          .accountNumber("0000001")
+          .accountLogType(i % 2 == 0 ? AccountLogType.DEPOSIT : AccountLogType.WITHDRAW)
+          .amount(1000 + i)
+          .balanceAfterTransaction(100000 + i)
+          .timestamp(now.plusMinutes(i))
+          .accountLogStatus(AccountLogStatus.SUCCESS)
+          .build());
+    }
+  }
+
+  // Spring Boot の既定（日時は ISO-8601 文字列）と同じ設定
+  static ObjectMapper objectMapper(String mapper) {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    if ("custom".equals(mapper)) {
+      builder.modulesToInstall(new BankAppJsonModule());
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(logs);
+  }
+}
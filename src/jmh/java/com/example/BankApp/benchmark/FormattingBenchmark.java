@@ -0,0 +1,50 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.Mapper.BankAccountMapper;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.util.MoneyFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 金額の整形とレスポンスへの変換（全リクエストで通る箇所）を計測します。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormattingBenchmark {
+
+  @Param({"0", "1000", "123456789"})
+  private int amount;
+
+  private BankAccount account;
+
+  @Setup
+  public void setUp() {
+    account = new BankAccount("0000001", "encoded", "テスト氏名", amount, true, Role.ACCOUNT_USER);
+  }
+
+  @Benchmark
+  public String moneyFormatYen() {
+    return MoneyFormat.yen(amount);
+  }
+
+  @Benchmark
+  public BankAccountResponse mapperToResponse() {
+    return BankAccountMapper.toResponse(account);
+  }
+
+  @Benchmark
+  public BankAccountResponse mapperToResponseWithMessage() {
+    return BankAccountMapper.toResponse(account, "1,000円入金しました。");
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.BankAppApplication;
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.ledger.BalanceShards;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 1 つの口座に 8 スレッドから入金し続けたときのスループットを、残高を分ける行の数ごとに計測します。
+ * <p>
+ * shards=0 は残高を分割しない通常の処理（bank_account の行ロックで入金が直列になる）です。
+ * インメモリの H2 はコミットが速く行ロックの待ちが表れにくいため、実際の DB のコミット
+ * （ネットワークの往復や fsync）を想定して、トランザクションの最後に 1 ms 待ってからコミットします。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class HotAccountBenchmark {
+
+  private static final String HOT_ACCOUNT = "0000001";
+  private static final long COMMIT_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Param({"0", "1", "4", "16"})
+  int shards;
+
+  ConfigurableApplicationContext context;
+  BankAccountService bankAccountService;
+  TransactionTemplate transactionTemplate;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = new SpringApplicationBuilder(BankAppApplication.class).run(
+        "--spring.profiles.active=embedded",
+        "--server.port=0",
+        "--logging.level.root=WARN",
+        "--bankapp.ledger.hot-accounts=" + (shards > 0 ? HOT_ACCOUNT : ""),
+        "--bankapp.ledger.balance-shards=" + Math.max(shards, 1));
+    bankAccountService = context.getBean(BankAccountService.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+
+    context.getBean(BankAccountRepository.class).save(
+        new BankAccount(HOT_ACCOUNT, "encoded", "収納用", 0, true, Role.ACCOUNT_USER));
+    // 口座を作った後で行を用意する
+    context.getBean(BalanceShards.class).synchronize();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  // ensureOwner はスレッドごとの SecurityContext を見るため、計測スレッドごとに管理者として認証しておく
+  @State(Scope.Thread)
+  public static class Admin {
+
+    @Setup(Level.Trial)
+    public void login() {
+      SecurityContextHolder.getContext().setAuthentication(
+          new UsernamePasswordAuthenticationToken("admin", null,
+              List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void logout() {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  private final AmountRequest oneYen = new AmountRequest(1);
+
+  @Benchmark
+  public BankAccountResponse deposit(Admin admin) {
+    return transactionTemplate.execute(status -> {
+      BankAccountResponse response = bankAccountService.deposit(HOT_ACCOUNT, oneYen);
+      LockSupport.parkNanos(COMMIT_LATENCY_NANOS);
+      return response;
+    });
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.BankAppApplication;
+import com.example.BankApp.interest.InterestAccrualJob;
+import com.example.BankApp.interest.InterestProgress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * インメモリの H2 に用意した 10 万口座へ 1 日分の利息を付ける時間を、1 トランザクションで処理する口座数ごとに計測します。
+ * 1 回の実行ごとに営業日を 1 日進めるため、毎回すべての口座に利息を付けます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class InterestAccrualBenchmark {
+
+  private static final int ACCOUNTS = 100_000;
+
+  @Param({"10", "100", "1000"})
+  int chunkSize;
+
+  ConfigurableApplicationContext context;
+  InterestAccrualJob interestAccrualJob;
+  LocalDate businessDate = LocalDate.of(2025, 1, 1);
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = new SpringApplicationBuilder(BankAppApplication.class).run(
+        "--spring.profiles.active=embedded",
+        "--server.port=0",
+        "--logging.level.root=WARN",
+        "--bankapp.interest.chunk-size=" + chunkSize);
+    interestAccrualJob = context.getBean(InterestAccrualJob.class);
+
+    List<Object[]> accounts = new ArrayList<>(ACCOUNTS);
+    for (int i = 1; i <= ACCOUNTS; i++) {
+      accounts.add(new Object[]{String.format("%07d", i), i * 100});
+    }
+    context.getBean(JdbcTemplate.class).batchUpdate("""
+        INSERT INTO bank_account (account_number, password, account_holder_name, balance,
+                                  is_active, role)
+        VALUES (?, 'encoded', 'テスト氏名', ?, TRUE, 'ACCOUNT_USER')""", accounts);
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public InterestProgress accrue() {
+    businessDate = businessDate.plusDays(1);
+    return interestAccrualJob.run(businessDate);
+  }
+}
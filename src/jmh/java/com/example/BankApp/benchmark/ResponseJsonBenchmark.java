@@ -0,0 +1,56 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.Mapper.BankAccountMapper;
+import com.example.BankApp.dto.AdminBankAccountResponse;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 入出金・残高照会・管理者の口座一覧で返すレスポンス 1 件あたりの JSON 変換を計測します。
+ * -PjmhProfilers=gc を付けると 1 レスポンスあたりの割り当て量（gc.alloc.rate.norm）も出力します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseJsonBenchmark {
+
+  @Param({"reflective", "custom"})
+  private String mapper;
+
+  private ObjectMapper objectMapper;
+
+  private BankAccount account;
+
+  private AdminBankAccountResponse adminResponse;
+
+  @Setup
+  public void setUp() {
+    objectMapper = AccountLogJsonBenchmark.objectMapper(mapper);
+    account = new BankAccount("0000001", "{noop}password", "テスト氏名", 123456789, true,
+        Role.ACCOUNT_USER);
+    adminResponse = new AdminBankAccountResponse("0000001", "テスト氏名", 123456789, true);
+  }
+
+  @Benchmark
+  public byte[] depositResponse() throws JsonProcessingException {
+    BankAccountResponse response = BankAccountMapper.toResponse(account, "1,000円入金しました。");
+    return objectMapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] adminResponse() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(adminResponse);
+  }
+}
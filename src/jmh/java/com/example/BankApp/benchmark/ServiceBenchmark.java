@@ -0,0 +1,104 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.BankAppApplication;
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.service.DbUserDetailsService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * embedded プロファイル（インメモリの H2）で起動し、サービス層の入出金とログイン時のユーザー検索を計測します。
+ * <p>
+ * トランザクション・JPA・コネクションプールを含めた 1 取引あたりの処理時間の目安です。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+  private static final String DEPOSIT_ACCOUNT = "0000001";
+  private static final String WITHDRAW_ACCOUNT = "0000002";
+
+  @State(Scope.Benchmark)
+  public static class Application {
+
+    ConfigurableApplicationContext context;
+    BankAccountService bankAccountService;
+    DbUserDetailsService dbUserDetailsService;
+
+    @Setup(Level.Trial)
+    public void start() {
+      context = new SpringApplicationBuilder(BankAppApplication.class).run(
+          "--spring.profiles.active=embedded",
+          "--server.port=0",
+          "--logging.level.root=WARN");
+      bankAccountService = context.getBean(BankAccountService.class);
+      dbUserDetailsService = context.getBean(DbUserDetailsService.class);
+
+      BankAccountRepository repository = context.getBean(BankAccountRepository.class);
+      repository.saveAll(List.of(
+          new BankAccount(DEPOSIT_ACCOUNT, "encoded", "入金用", 0, true, Role.ACCOUNT_USER),
+          new BankAccount(WITHDRAW_ACCOUNT, "encoded", "出金用", Integer.MAX_VALUE, true,
+              Role.ACCOUNT_USER)));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      context.close();
+    }
+  }
+
+  // ensureOwner はスレッドごとの SecurityContext を見るため、計測スレッドごとに管理者として認証しておく
+  @State(Scope.Thread)
+  public static class Admin {
+
+    @Setup(Level.Trial)
+    public void login() {
+      SecurityContextHolder.getContext().setAuthentication(
+          new UsernamePasswordAuthenticationToken("admin", null,
+              List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void logout() {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  private final AmountRequest oneYen = new AmountRequest(1);
+
+  @Benchmark
+  public BankAccountResponse deposit(Application app, Admin admin) {
+    return app.bankAccountService.deposit(DEPOSIT_ACCOUNT, oneYen);
+  }
+
+  @Benchmark
+  public BankAccountResponse withdraw(Application app, Admin admin) {
+    return app.bankAccountService.withdraw(WITHDRAW_ACCOUNT, oneYen);
+  }
+
+  @Benchmark
+  public UserDetails loadUserByUsername(Application app) {
+    return app.dbUserDetailsService.loadUserByUsername(DEPOSIT_ACCOUNT);
+  }
+}
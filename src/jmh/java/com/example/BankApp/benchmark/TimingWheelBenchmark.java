@@ -0,0 +1,57 @@
+package com.example.BankApp.benchmark;
+
+import com.example.BankApp.standingorder.TimingWheel;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 登録済みの件数ごとに、指示 1 件の登録と取り消しにかかる時間を計測します。
+ * 比較として、実行時刻の順に並べる PriorityQueue への追加と削除も計測します。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimingWheelBenchmark {
+
+  // 1 時間先までの実行時刻を 1 秒単位で登録する
+  private static final long HORIZON_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  @Param({"1000", "100000", "1000000"})
+  private int scheduled;
+
+  private TimingWheel<Long> wheel;
+  private PriorityQueue<Long> queue;
+
+  @Setup
+  public void setUp() {
+    wheel = new TimingWheel<>(1000, 64, 4, 0);
+    queue = new PriorityQueue<>(scheduled + 1);
+    for (int i = 0; i < scheduled; i++) {
+      long deadline = ThreadLocalRandom.current().nextLong(1000, HORIZON_MILLIS);
+      wheel.schedule(deadline, deadline);
+      queue.add(deadline);
+    }
+  }
+
+  @Benchmark
+  public boolean timingWheel() {
+    long deadline = ThreadLocalRandom.current().nextLong(1000, HORIZON_MILLIS);
+    return wheel.schedule(deadline, deadline).cancel();
+  }
+
+  @Benchmark
+  public boolean priorityQueue() {
+    Long deadline = ThreadLocalRandom.current().nextLong(1000, HORIZON_MILLIS);
+    queue.add(deadline);
+    return queue.remove(deadline);
+  }
+}
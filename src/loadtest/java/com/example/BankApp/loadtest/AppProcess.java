@@ -0,0 +1,121 @@
+package com.example.BankApp.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 負荷試験の対象として、bootJar のアプリケーションを別のプロセスで起動します。
+ * <p>
+ * 空いているポートで起動し、readiness が 200 を返すまで待ちます。
+ * 標準出力と標準エラーはファイルに書き出し、停止後に {@link #output()} で読めます。
+ */
+final class AppProcess implements AutoCloseable {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+  private final Process process;
+  private final String baseUrl;
+  private final Path outputFile;
+
+  private AppProcess(Process process, String baseUrl, Path outputFile) {
+    this.process = process;
+    this.baseUrl = baseUrl;
+    this.outputFile = outputFile;
+  }
+
+  /**
+   * アプリケーションを起動し、リクエストを受け付けられるようになるまで待ちます。
+   *
+   * @param jar        bootJar のパス
+   * @param jvmArgs    JVM の引数
+   * @param appArgs    アプリケーションの引数（--spring.profiles.active=... など）
+   * @param outputFile 標準出力の書き出し先
+   * @return 起動したアプリケーション
+   */
+  static AppProcess start(Path jar, List<String> jvmArgs, List<String> appArgs, Path outputFile)
+      throws IOException, InterruptedException {
+    int port = freePort();
+    List<String> command = new ArrayList<>();
+    // 負荷試験ツールと同じ JDK で起動する
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    command.addAll(jvmArgs);
+    command.add("-jar");
+    command.add(jar.toString());
+    command.add("--server.port=" + port);
+    command.addAll(appArgs);
+
+    Files.createDirectories(outputFile.toAbsolutePath().getParent());
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(outputFile.toFile())
+        .start();
+    AppProcess app = new AppProcess(process, "http://localhost:" + port, outputFile);
+    try {
+      app.awaitReady();
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      app.close();
+      throw e;
+    }
+    return app;
+  }
+
+  String baseUrl() {
+    return baseUrl;
+  }
+
+  /**
+   * 起動してからの標準出力を行ごとに返します。
+   */
+  List<String> output() throws IOException {
+    return Files.readAllLines(outputFile, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    process.destroy();
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.destroyForcibly().waitFor();
+    }
+  }
+
+  private void awaitReady() throws IOException, InterruptedException {
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    HttpRequest request = HttpRequest.newBuilder(
+            URI.create(baseUrl + "/actuator/health/readiness"))
+        .timeout(Duration.ofSeconds(1)).GET().build();
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("アプリケーションが起動前に終了しました（終了コード "
+            + process.exitValue() + "、出力 " + outputFile + "）");
+      }
+      try {
+        if (client.send(request, BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // まだ起動していない
+      }
+      Thread.sleep(100);
+    }
+    throw new IllegalStateException(
+        STARTUP_TIMEOUT.toSeconds() + " 秒以内に起動しませんでした（出力 " + outputFile + "）");
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
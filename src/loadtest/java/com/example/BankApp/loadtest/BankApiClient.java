@@ -0,0 +1,169 @@
+package com.example.BankApp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * BankApp の API を呼び出す HTTP クライアントです。
+ * <p>
+ * ログインで受け取ったセッション Cookie は口座ごとに呼び出し側で保持し、各リクエストに付けます。
+ */
+final class BankApiClient {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(TIMEOUT)
+      .build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final String baseUrl;
+
+  BankApiClient(String baseUrl) {
+    this.baseUrl = baseUrl;
+  }
+
+  /**
+   * 口座を開設します。
+   *
+   * @return 開設した口座の口座番号
+   */
+  String createAccount(String holderName, String password)
+      throws IOException, InterruptedException {
+    HttpResponse<String> response = send(post("/createAccount", null,
+        objectMapper.writeValueAsString(
+            Map.of("accountHolderName", holderName, "password", password))));
+    expectOk(response);
+    return objectMapper.readTree(response.body()).get("accountNumber").asText();
+  }
+
+  HttpResponse<String> login(String accountNumber, String password)
+      throws IOException, InterruptedException {
+    return send(post("/login", null, objectMapper.writeValueAsString(
+        Map.of("loginId", accountNumber, "password", password))));
+  }
+
+  /**
+   * ログインのレスポンスからセッション Cookie を取り出します。
+   *
+   * @return セッション Cookie（{@code JSESSIONID=...}）。ログインに失敗していれば null
+   */
+  static String sessionCookie(HttpResponse<String> loginResponse) {
+    return cookie(loginResponse, "JSESSIONID");
+  }
+
+  /**
+   * リアクティブ版に Basic 認証で残高を照会し、認証済みのセッション Cookie を受け取ります。
+   *
+   * @return セッション Cookie（{@code SESSION=...}）。認証に失敗していれば null
+   */
+  String basicSession(String accountNumber, String password)
+      throws IOException, InterruptedException {
+    String credentials = Base64.getEncoder()
+        .encodeToString((accountNumber + ":" + password).getBytes(StandardCharsets.UTF_8));
+    HttpResponse<String> response = send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/balance/" + accountNumber))
+            .timeout(TIMEOUT)
+            .header("Authorization", "Basic " + credentials)
+            .GET()
+            .build());
+    return cookie(response, "SESSION");
+  }
+
+  HttpResponse<String> deposit(String session, String accountNumber, int amount)
+      throws IOException, InterruptedException {
+    return send(post("/deposit/" + accountNumber, session, "{\"amount\":" + amount + "}"));
+  }
+
+  HttpResponse<String> withdraw(String session, String accountNumber, int amount)
+      throws IOException, InterruptedException {
+    return send(post("/withdraw/" + accountNumber, session, "{\"amount\":" + amount + "}"));
+  }
+
+  HttpResponse<String> balance(String session, String accountNumber)
+      throws IOException, InterruptedException {
+    return send(get("/balance/" + accountNumber, session));
+  }
+
+  HttpResponse<String> accountLog(String session, String accountNumber)
+      throws IOException, InterruptedException {
+    return send(get("/accountLog/" + accountNumber, session));
+  }
+
+  /**
+   * 操作を非同期に実行し、応答のステータスコードを返します。本文は読み捨てます。
+   * ログインは対象外です。
+   */
+  CompletableFuture<Integer> executeAsync(Operation operation, String session,
+      String accountNumber, int amount) {
+    HttpRequest request = switch (operation) {
+      case DEPOSIT -> post("/deposit/" + accountNumber, session, "{\"amount\":" + amount + "}");
+      case WITHDRAW -> post("/withdraw/" + accountNumber, session, "{\"amount\":" + amount + "}");
+      case BALANCE -> get("/balance/" + accountNumber, session);
+      case ACCOUNT_LOG -> get("/accountLog/" + accountNumber, session);
+      case LOGIN -> throw new IllegalArgumentException("ログインは非同期に実行できません");
+    };
+    return httpClient.sendAsync(request, BodyHandlers.discarding())
+        .thenApply(HttpResponse::statusCode);
+  }
+
+  JsonNode readJson(HttpResponse<String> response) throws IOException {
+    expectOk(response);
+    return objectMapper.readTree(response.body());
+  }
+
+  private HttpResponse<String> send(HttpRequest request)
+      throws IOException, InterruptedException {
+    return httpClient.send(request, BodyHandlers.ofString());
+  }
+
+  private HttpRequest post(String path, String session, String json) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(json));
+    if (session != null) {
+      builder.header("Cookie", session);
+    }
+    return builder.build();
+  }
+
+  private HttpRequest get(String path, String session) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(TIMEOUT)
+        .header("Cookie", session)
+        .GET()
+        .build();
+  }
+
+  private static String cookie(HttpResponse<String> response, String name) {
+    if (response.statusCode() != 200) {
+      return null;
+    }
+    return response.headers().allValues("Set-Cookie").stream()
+        .filter(cookie -> cookie.startsWith(name + "="))
+        .map(cookie -> cookie.split(";", 2)[0])
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static void expectOk(HttpResponse<String> response) {
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException(
+          response.request().uri() + " が " + response.statusCode() + " を返しました: "
+              + response.body());
+    }
+  }
+}
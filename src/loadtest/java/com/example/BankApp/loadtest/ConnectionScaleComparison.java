@@ -0,0 +1,256 @@
+package com.example.BankApp.loadtest;
+
+import com.example.BankApp.loadtest.LoadGenerator.Account;
+import com.example.BankApp.loadtest.LoadGenerator.Result;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 1 万本の接続を同時に張ったまま、サーブレット版とリアクティブ版（reactive プロファイル）に同じ負荷をかけ、
+ * スループット・p99・エラー数を並べて出力します。
+ * <p>
+ * どちらも組み込みの H2 で起動し、同じファイルの DB を使います。先にサーブレット版で試験用の口座を開設し、
+ * リアクティブ版は同じ口座に Basic 認証でログインして受け取った {@code SESSION} Cookie で呼び出します。
+ * 接続ごとに応答を待ってから次のリクエストを送り、立ち上げ（{@code rampUp}）のあとの
+ * {@code duration} の間に送ったリクエストを集計します。
+ * 残高と取引履歴が一致しない場合は失敗にします（終了コード 1）。
+ *
+ * <pre>
+ * ulimit -n 65536
+ * ./gradlew loadTestConnections -PloadArgs="concurrency=10000 duration=60s"
+ * </pre>
+ * <p>
+ * {@link LoadTestOptions} の引数（{@code login} 以外の操作）に加えて、{@code jar=}（bootJar のパス。
+ * Gradle のタスクが指定する）、{@code stacks=servlet,reactive}（実行する構成。servlet が先頭）、
+ * {@code rampUp=20s}（接続を張り終えるまでの時間）を指定できます。
+ * 既定は同時接続 10000、口座 500、操作比率 {@code balance:80,deposit:10,withdraw:10} です。
+ */
+public final class ConnectionScaleComparison {
+
+  private static final String[] DEFAULTS = {
+      "concurrency=10000", "accounts=500", "duration=60s",
+      "mix=balance:80,deposit:10,withdraw:10"};
+
+  private ConnectionScaleComparison() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    String[] withDefaults = new String[DEFAULTS.length + args.length];
+    System.arraycopy(DEFAULTS, 0, withDefaults, 0, DEFAULTS.length);
+    System.arraycopy(args, 0, withDefaults, DEFAULTS.length, args.length);
+    Map<String, String> values = LoadTestOptions.values(withDefaults);
+    LoadTestOptions options = LoadTestOptions.parse(withDefaults);
+    if (options.mix().getOrDefault(Operation.LOGIN, 0) > 0) {
+      throw new IllegalArgumentException("リアクティブ版には /login が無いため、login は指定できません");
+    }
+    String jar = values.get("jar");
+    if (jar == null) {
+      throw new IllegalArgumentException("jar= を指定してください");
+    }
+    List<String> stacks = List.of(values.getOrDefault("stacks", "servlet,reactive").split(","));
+    if (!stacks.get(0).equals("servlet")) {
+      throw new IllegalArgumentException("口座を開設するため、stacks の先頭は servlet にしてください");
+    }
+    Duration rampUp = LoadTestOptions.parseDuration(values.getOrDefault("rampUp", "20s"));
+
+    // 前回の実行で残った DB は使わない
+    Path db = Path.of("build", "loadtest", "connections").toAbsolutePath();
+    Files.createDirectories(db);
+    Files.deleteIfExists(db.resolve("bankapp.mv.db"));
+    Files.deleteIfExists(db.resolve("bankapp.trace.db"));
+    String file = db.resolve("bankapp") + ";MODE=MySQL;LOCK_TIMEOUT=10000";
+
+    Map<String, Measurement> results = new LinkedHashMap<>();
+    List<String> accountNumbers = new ArrayList<>();
+    for (String stack : stacks) {
+      List<String> appArgs = switch (stack) {
+        case "servlet" -> List.of("--spring.profiles.active=embedded",
+            "--spring.datasource.url=jdbc:h2:file:" + file);
+        // Flyway は spring.datasource の接続先にマイグレーションを適用する
+        case "reactive" -> List.of("--spring.profiles.active=reactive,embedded",
+            "--spring.datasource.url=jdbc:h2:file:" + file,
+            "--spring.r2dbc.url=r2dbc:h2:file:///" + file);
+        default -> throw new IllegalArgumentException("不明な構成です: " + stack);
+      };
+      System.out.printf("%n=== %s ===%n", stack);
+      try (AppProcess app = AppProcess.start(Path.of(jar), List.of(), appArgs,
+          Path.of("build", "loadtest", "connections-" + stack + ".log"))) {
+        BankApiClient client = new BankApiClient(app.baseUrl());
+        if (accountNumbers.isEmpty()) {
+          System.out.printf("口座を %d 件開設しています...%n", options.accounts());
+          for (int i = 0; i < options.accounts(); i++) {
+            accountNumbers.add(client.createAccount("接続数試験" + i, LoadGenerator.PASSWORD));
+          }
+        }
+        List<Account> accounts = login(client, stack, accountNumbers);
+        results.put(stack, run(client, accounts, options, rampUp));
+      }
+    }
+
+    boolean passed = report(options, results);
+    System.exit(passed ? 0 : 1);
+  }
+
+  private static List<Account> login(BankApiClient client, String stack,
+      List<String> accountNumbers) throws IOException, InterruptedException {
+    System.out.printf("%d 口座でログインしています...%n", accountNumbers.size());
+    List<Account> accounts = new ArrayList<>();
+    for (String accountNumber : accountNumbers) {
+      String session = stack.equals("servlet")
+          ? BankApiClient.sessionCookie(client.login(accountNumber, LoadGenerator.PASSWORD))
+          : client.basicSession(accountNumber, LoadGenerator.PASSWORD);
+      if (session == null) {
+        throw new IllegalStateException("ログインできませんでした: " + accountNumber);
+      }
+      accounts.add(new Account(accountNumber, session));
+    }
+    return accounts;
+  }
+
+  /**
+   * 接続ごとに応答を待ってから次のリクエストを非同期に送り、計測時間が過ぎたら全接続の応答を待ちます。
+   * 最後に残高の整合性を確認します。
+   */
+  private static Measurement run(BankApiClient client, List<Account> accounts,
+      LoadTestOptions options, Duration rampUp) throws IOException, InterruptedException {
+    int connections = options.concurrency();
+    System.out.printf("%d 接続を %d 秒かけて張り、%d 秒間、操作比率 %s で実行します...%n",
+        connections, rampUp.toSeconds(), options.duration().toSeconds(), options.mix());
+    Operation[] weighted = LoadGenerator.weightedOperations(options.mix());
+    Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    LongAdder errors = new LongAdder();
+    AtomicInteger connected = new AtomicInteger();
+    CountDownLatch finished = new CountDownLatch(connections);
+    long start = System.nanoTime();
+    long measureFrom = start + rampUp.toNanos();
+    long deadline = measureFrom + options.duration().toNanos();
+
+    for (int i = 0; i < connections; i++) {
+      // 接続を一度に張るとバックログがあふれるため、立ち上げの時間に均等に散らす
+      LockSupport.parkNanos(start + rampUp.toNanos() * i / connections - System.nanoTime());
+      Connection connection = new Connection(client, accounts.get(i % accounts.size()), weighted,
+          options.maxAmount(), histogram, errors, connected, finished, measureFrom, deadline);
+      connection.next();
+    }
+    finished.await();
+
+    long count = histogram.getTotalCount();
+    double throughput = count / (options.duration().toNanos() / 1e9);
+    double p99 = LoadGenerator.millis(histogram, 99);
+    System.out.printf("応答のあった接続 %d、%d 件、%.1f req/s、p99 %.2f ms、エラー %d 件%n",
+        connected.get(), count, throughput, p99, errors.sum());
+    boolean consistent = LoadGenerator.verifyBalances(client, accounts);
+    return new Measurement(connected.get(),
+        new Result(count, throughput, p99, errors.sum(), consistent));
+  }
+
+  private static boolean report(LoadTestOptions options, Map<String, Measurement> results) {
+    System.out.println();
+    System.out.printf("同時接続 %d%n", options.concurrency());
+    System.out.printf("%-9s %9s %9s %10s %9s %8s%n", "stack", "connected", "requests", "req/s",
+        "p99(ms)", "errors");
+    boolean passed = true;
+    for (Map.Entry<String, Measurement> entry : results.entrySet()) {
+      Result result = entry.getValue().result();
+      System.out.printf("%-9s %9d %9d %10.1f %9.2f %8d%n", entry.getKey(),
+          entry.getValue().connected(), result.requests(), result.throughput(),
+          result.p99Millis(), result.errors());
+      passed &= result.consistent();
+    }
+    Measurement servlet = results.get("servlet");
+    Measurement reactive = results.get("reactive");
+    if (servlet != null && reactive != null && servlet.result().throughput() > 0
+        && servlet.result().p99Millis() > 0) {
+      System.out.printf("リアクティブ版 / サーブレット版: スループット %.2f 倍、p99 %.2f 倍%n",
+          reactive.result().throughput() / servlet.result().throughput(),
+          reactive.result().p99Millis() / servlet.result().p99Millis());
+    }
+    return passed;
+  }
+
+  /**
+   * 構成ごとの結果です。
+   *
+   * @param connected 1 回以上 2xx の応答を受け取った接続の数
+   * @param result    全操作を合わせた結果
+   */
+  private record Measurement(int connected, Result result) {
+
+  }
+
+  /**
+   * 1 接続分のクライアントです。応答を受け取ったスレッドで次のリクエストを送ります。
+   */
+  private static final class Connection {
+
+    final BankApiClient client;
+    final Account account;
+    final Operation[] weighted;
+    final int maxAmount;
+    final Histogram histogram;
+    final LongAdder errors;
+    final AtomicInteger connected;
+    final CountDownLatch finished;
+    final long measureFrom;
+    final long deadline;
+    boolean succeeded;
+
+    Connection(BankApiClient client, Account account, Operation[] weighted, int maxAmount,
+        Histogram histogram, LongAdder errors, AtomicInteger connected, CountDownLatch finished,
+        long measureFrom, long deadline) {
+      this.client = client;
+      this.account = account;
+      this.weighted = weighted;
+      this.maxAmount = maxAmount;
+      this.histogram = histogram;
+      this.errors = errors;
+      this.connected = connected;
+      this.finished = finished;
+      this.measureFrom = measureFrom;
+      this.deadline = deadline;
+    }
+
+    void next() {
+      long start = System.nanoTime();
+      if (start >= deadline) {
+        finished.countDown();
+        return;
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      Operation operation = weighted[random.nextInt(weighted.length)];
+      client.executeAsync(operation, account.session(), account.number(),
+              1 + random.nextInt(maxAmount))
+          .whenComplete((status, error) -> {
+            boolean ok = error == null && status >= 200 && status < 300;
+            if (ok && !succeeded) {
+              succeeded = true;
+              connected.incrementAndGet();
+            }
+            if (start >= measureFrom) {
+              histogram.recordValue(
+                  Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                      histogram.getHighestTrackableValue()));
+              // 残高不足（400）は想定内の拒否として、エラーには数えない
+              if (!ok && (error != null || status != 400)) {
+                errors.increment();
+              }
+            }
+            next();
+          });
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package com.example.BankApp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 複数のクライアントから同時に API を呼び出し、スループット・レイテンシ・エラー率を計測します。
+ * <p>
+ * 試験用の口座を開設してから、Zipf 分布で偏らせた口座に対して指定の比率で操作を実行します。
+ * 最後に各口座の残高が、成功した取引履歴の合計と一致するか確認します（不一致があれば終了コード 1）。
+ *
+ * <pre>
+ * ./gradlew bootRun -Pembedded
+ * ./gradlew loadTest -PloadArgs="concurrency=32 duration=60s accounts=50 skew=1.2"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+  static final String PASSWORD = "loadtest123";
+
+  private final LoadTestOptions options;
+  private final BankApiClient client;
+  private final List<Account> accounts = new ArrayList<>();
+
+  private LoadGenerator(LoadTestOptions options) {
+    this.options = options;
+    this.client = new BankApiClient(options.baseUrl());
+  }
+
+  public static void main(String[] args) throws Exception {
+    Result result = measure(LoadTestOptions.parse(args));
+    System.exit(result.consistent() ? 0 : 1);
+  }
+
+  /**
+   * 試験用の口座を開設して負荷をかけ、操作ごとの結果を出力してから残高の整合性を確認します。
+   *
+   * @param options 負荷試験の設定
+   * @return 全操作を合わせた結果
+   */
+  static Result measure(LoadTestOptions options) throws IOException, InterruptedException {
+    LoadGenerator generator = new LoadGenerator(options);
+    generator.openAccounts();
+    OperationStats[] stats = generator.run();
+    OperationStats total = generator.report(stats);
+    boolean consistent = verifyBalances(generator.client, generator.accounts);
+    long count = total.histogram.getTotalCount();
+    return new Result(count, count / (options.duration().toNanos() / 1e9),
+        millis(total.histogram, 99), total.errors, consistent);
+  }
+
+  private void openAccounts() throws IOException, InterruptedException {
+    System.out.printf("口座を %d 件開設しています... (%s)%n", options.accounts(), options.baseUrl());
+    for (int i = 0; i < options.accounts(); i++) {
+      String accountNumber = client.createAccount("負荷試験" + i, PASSWORD);
+      String session = BankApiClient.sessionCookie(client.login(accountNumber, PASSWORD));
+      if (session == null) {
+        throw new IllegalStateException("ログインできませんでした: " + accountNumber);
+      }
+      accounts.add(new Account(accountNumber, session));
+    }
+  }
+
+  private OperationStats[] run() throws InterruptedException {
+    System.out.printf("同時実行数 %d、%d 秒間、口座の偏り %.2f、操作比率 %s で実行します...%n",
+        options.concurrency(), options.duration().toSeconds(), options.skew(), options.mix());
+    ZipfianGenerator accountPicker = new ZipfianGenerator(accounts.size(), options.skew());
+    Operation[] weighted = weightedOperations(options.mix());
+    long deadline = System.nanoTime() + options.duration().toNanos();
+
+    List<Worker> workers = new ArrayList<>();
+    SplittableRandom seed = new SplittableRandom();
+    for (int i = 0; i < options.concurrency(); i++) {
+      Worker worker = new Worker(accountPicker, weighted, deadline, seed.split());
+      workers.add(worker);
+      worker.thread.start();
+    }
+
+    OperationStats[] total = OperationStats.newArray();
+    for (Worker worker : workers) {
+      worker.thread.join();
+      for (int i = 0; i < total.length; i++) {
+        total[i].add(worker.stats[i]);
+      }
+    }
+    return total;
+  }
+
+  private OperationStats report(OperationStats[] stats) {
+    double seconds = options.duration().toNanos() / 1e9;
+    OperationStats total = new OperationStats();
+    System.out.println();
+    System.out.printf("%-11s %9s %9s %9s %8s %9s %9s %9s %9s %9s%n", "operation", "count",
+        "req/s", "rejected", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+    for (Operation operation : Operation.values()) {
+      OperationStats s = stats[operation.ordinal()];
+      long count = s.histogram.getTotalCount();
+      if (count == 0) {
+        continue;
+      }
+      total.add(s);
+      System.out.printf("%-11s %9d %9.1f %9d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+          operation.label(), count, count / seconds, s.rejected, s.errors,
+          millis(s.histogram, 50), millis(s.histogram, 90), millis(s.histogram, 99),
+          millis(s.histogram, 99.9), s.histogram.getMaxValue() / 1000.0);
+    }
+    long totalCount = total.histogram.getTotalCount();
+    System.out.printf("%n合計 %d 件、%.1f req/s、p99 %.2f ms、エラー率 %.3f%%%n", totalCount,
+        totalCount / seconds, millis(total.histogram, 99),
+        totalCount == 0 ? 0 : total.errors * 100.0 / totalCount);
+    return total;
+  }
+
+  static double millis(Histogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  /**
+   * 各口座の残高が、成功した取引履歴の合計と一致するか確認し、不一致の口座を出力します。
+   *
+   * @return すべての口座で一致したかどうか
+   */
+  static boolean verifyBalances(BankApiClient client, List<Account> accounts)
+      throws IOException, InterruptedException {
+    System.out.println();
+    System.out.println("残高と取引履歴の整合性を確認しています...");
+    int mismatches = 0;
+    for (Account account : accounts) {
+      JsonNode balance = client.readJson(client.balance(account.session, account.number));
+      long actual = Long.parseLong(balance.get("balance").asText().replaceAll("[^0-9-]", ""));
+
+      long expected = 0;
+      for (JsonNode log : client.readJson(client.accountLog(account.session, account.number))) {
+        expected += signedAmount(log);
+      }
+      if (actual != expected) {
+        mismatches++;
+        System.out.printf("  不一致: 口座 %s 残高 %,d円 / 取引履歴の合計 %,d円（差 %,d円）%n",
+            account.number, actual, expected, actual - expected);
+      }
+    }
+    if (mismatches == 0) {
+      System.out.printf("全 %d 口座で一致しました。%n", accounts.size());
+    } else {
+      System.out.printf("%d / %d 口座で残高と取引履歴が一致しません。%n", mismatches, accounts.size());
+    }
+    return mismatches == 0;
+  }
+
+  // 取引履歴 1 件が残高を増減させた額。失敗した取引と、開設・解約は残高を変えない
+  private static long signedAmount(JsonNode log) {
+    if (!"SUCCESS".equals(log.get("accountLogStatus").asText())) {
+      return 0;
+    }
+    long amount = log.get("amount").asLong();
+    return switch (log.get("accountLogType").asText()) {
+      case "DEPOSIT", "INTEREST" -> amount;
+      case "WITHDRAW" -> -amount;
+      default -> 0;
+    };
+  }
+
+  static Operation[] weightedOperations(Map<Operation, Integer> mix) {
+    List<Operation> weighted = new ArrayList<>();
+    mix.forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        weighted.add(operation);
+      }
+    });
+    if (weighted.isEmpty()) {
+      throw new IllegalArgumentException("操作の比率が指定されていません");
+    }
+    return weighted.toArray(Operation[]::new);
+  }
+
+  /**
+   * 全操作を合わせた負荷試験の結果です。
+   *
+   * @param requests   実行した件数
+   * @param throughput 1 秒あたりの件数
+   * @param p99Millis  99 パーセンタイルのレイテンシ（ミリ秒）
+   * @param errors     エラー（残高不足以外の 2xx 以外の応答と通信エラー）の件数
+   * @param consistent すべての口座で残高と取引履歴が一致したかどうか
+   */
+  record Result(long requests, double throughput, double p99Millis, long errors,
+                boolean consistent) {
+
+  }
+
+  /**
+   * 試験用の口座と、その口座で認証済みのセッション Cookie です。
+   */
+  record Account(String number, String session) {
+
+  }
+
+  /**
+   * 操作ごとのレイテンシ（マイクロ秒）と結果の件数です。
+   */
+  private static final class OperationStats {
+
+    final Histogram histogram = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+    long rejected;
+    long errors;
+
+    static OperationStats[] newArray() {
+      OperationStats[] stats = new OperationStats[Operation.values().length];
+      for (int i = 0; i < stats.length; i++) {
+        stats[i] = new OperationStats();
+      }
+      return stats;
+    }
+
+    void add(OperationStats other) {
+      histogram.add(other.histogram);
+      rejected += other.rejected;
+      errors += other.errors;
+    }
+  }
+
+  /**
+   * 1 クライアント分の実行スレッドです。集計はスレッドごとに持ち、終了後にまとめます。
+   */
+  private final class Worker implements Runnable {
+
+    final Thread thread = new Thread(this);
+    final OperationStats[] stats = OperationStats.newArray();
+    final ZipfianGenerator accountPicker;
+    final Operation[] weighted;
+    final long deadline;
+    final SplittableRandom random;
+
+    Worker(ZipfianGenerator accountPicker, Operation[] weighted, long deadline,
+        SplittableRandom random) {
+      this.accountPicker = accountPicker;
+      this.weighted = weighted;
+      this.deadline = deadline;
+      this.random = random;
+    }
+
+    @Override
+    public void run() {
+      while (System.nanoTime() < deadline) {
+        Account account = accounts.get(accountPicker.next(random));
+        Operation operation = weighted[random.nextInt(weighted.length)];
+        OperationStats s = stats[operation.ordinal()];
+        long start = System.nanoTime();
+        int status;
+        try {
+          status = execute(operation, account);
+        } catch (IOException e) {
+          status = -1;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        s.histogram.recordValue(
+            Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                s.histogram.getHighestTrackableValue()));
+        // 残高不足（400）は想定内の拒否として、エラーとは分けて数える
+        if (status == 400) {
+          s.rejected++;
+        } else if (status < 200 || status >= 300) {
+          s.errors++;
+        }
+      }
+    }
+
+    private int execute(Operation operation, Account account)
+        throws IOException, InterruptedException {
+      int amount = 1 + random.nextInt(options.maxAmount());
+      HttpResponse<String> response = switch (operation) {
+        case LOGIN -> client.login(account.number, PASSWORD);
+        case DEPOSIT -> client.deposit(account.session, account.number, amount);
+        case WITHDRAW -> client.withdraw(account.session, account.number, amount);
+        case BALANCE -> client.balance(account.session, account.number);
+        case ACCOUNT_LOG -> client.accountLog(account.session, account.number);
+      };
+      return response.statusCode();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.BankApp.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 負荷試験の設定です。{@code key=value} 形式の引数で上書きできます。
+ *
+ * <pre>
+ * baseUrl=http://localhost:8080  対象のアプリケーション
+ * concurrency=16                 同時に実行するクライアント数
+ * duration=30s                   計測時間
+ * accounts=100                   試験用に開設する口座数
+ * skew=0.99                      口座の偏り（Zipf 分布の指数）。0 で一様
+ * mix=balance:40,deposit:25,withdraw:20,accountLog:10,login:5  操作の比率
+ * maxAmount=10000                入出金額の上限（1〜maxAmount の一様乱数）
+ * </pre>
+ */
+record LoadTestOptions(String baseUrl, int concurrency, Duration duration, int accounts,
+                       double skew, Map<Operation, Integer> mix, int maxAmount) {
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = values(args);
+    return new LoadTestOptions(
+        values.getOrDefault("baseUrl", "http://localhost:8080"),
+        Integer.parseInt(values.getOrDefault("concurrency", "16")),
+        parseDuration(values.getOrDefault("duration", "30s")),
+        Integer.parseInt(values.getOrDefault("accounts", "100")),
+        Double.parseDouble(values.getOrDefault("skew", "0.99")),
+        parseMix(values.getOrDefault("mix",
+            "balance:40,deposit:25,withdraw:20,accountLog:10,login:5")),
+        Integer.parseInt(values.getOrDefault("maxAmount", "10000")));
+  }
+
+  /**
+   * {@code key=value} 形式の引数を読みます。同じキーは後の値で上書きします。
+   */
+  static Map<String, String> values(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      for (String token : arg.trim().split("\\s+")) {
+        if (token.isEmpty()) {
+          continue;
+        }
+        int eq = token.indexOf('=');
+        if (eq < 0) {
+          throw new IllegalArgumentException("key=value 形式で指定してください: " + token);
+        }
+        values.put(token.substring(0, eq), token.substring(eq + 1));
+      }
+    }
+    return values;
+  }
+
+  LoadTestOptions withBaseUrl(String baseUrl) {
+    return new LoadTestOptions(baseUrl, concurrency, duration, accounts, skew, mix, maxAmount);
+  }
+
+  static Duration parseDuration(String value) {
+    if (value.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+    }
+    if (value.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+    }
+    if (value.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+    }
+    return Duration.ofSeconds(Long.parseLong(value));
+  }
+
+  private static Map<Operation, Integer> parseMix(String value) {
+    Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    for (String entry : value.split(",")) {
+      String[] pair = entry.split(":");
+      mix.put(Operation.fromName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+    }
+    return mix;
+  }
+}
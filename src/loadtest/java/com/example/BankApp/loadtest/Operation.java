@@ -0,0 +1,31 @@
+package com.example.BankApp.loadtest;
+
+/**
+ * 負荷試験で実行する操作です。
+ */
+enum Operation {
+  LOGIN("login"),
+  DEPOSIT("deposit"),
+  WITHDRAW("withdraw"),
+  BALANCE("balance"),
+  ACCOUNT_LOG("accountLog");
+
+  private final String label;
+
+  Operation(String label) {
+    this.label = label;
+  }
+
+  String label() {
+    return label;
+  }
+
+  static Operation fromName(String name) {
+    for (Operation operation : values()) {
+      if (operation.label.equalsIgnoreCase(name)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("不明な操作です: " + name);
+  }
+}
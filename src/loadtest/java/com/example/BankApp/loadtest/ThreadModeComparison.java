@@ -0,0 +1,129 @@
+package com.example.BankApp.loadtest;
+
+import com.example.BankApp.loadtest.LoadGenerator.Result;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 組み込み DB のアプリケーションをプラットフォームスレッドと仮想スレッドで 1 回ずつ起動し、
+ * 同じ負荷をかけてスループットと p99 を並べて出力します。
+ * <p>
+ * 仮想スレッドのモードは {@code -Djdk.tracePinnedThreads=short} を付けて起動し、
+ * キャリアスレッドへのピン留めのスタックトレースが 1 件でも出力されたら失敗にします（終了コード 1）。
+ * 残高と取引履歴が一致しない場合も失敗にします。
+ *
+ * <pre>
+ * ./gradlew loadTestThreadModes -PjavaVersion=21 -PloadArgs="concurrency=400 duration=60s"
+ * </pre>
+ * <p>
+ * {@link LoadTestOptions} の引数に加えて、{@code jar=}（bootJar のパス。Gradle のタスクが指定する）、
+ * {@code modes=platform,virtual}（実行するモード）を指定できます。同時実行数の既定は 400 です。
+ */
+public final class ThreadModeComparison {
+
+  private static final int DEFAULT_CONCURRENCY = 400;
+  private static final int MAX_PRINTED_TRACES = 40;
+
+  private ThreadModeComparison() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    String[] withDefaults = new String[args.length + 1];
+    withDefaults[0] = "concurrency=" + DEFAULT_CONCURRENCY;
+    System.arraycopy(args, 0, withDefaults, 1, args.length);
+    Map<String, String> values = LoadTestOptions.values(withDefaults);
+    LoadTestOptions options = LoadTestOptions.parse(withDefaults);
+    Path jar = Path.of(required(values, "jar"));
+    List<String> modes = List.of(values.getOrDefault("modes", "platform,virtual").split(","));
+    if (modes.contains("virtual") && Runtime.version().feature() < 21) {
+      throw new IllegalStateException(
+          "仮想スレッドのモードには Java 21 以上が必要です（-PjavaVersion=21 を指定してください）");
+    }
+
+    Map<String, Result> results = new LinkedHashMap<>();
+    Map<String, List<String>> pinned = new LinkedHashMap<>();
+    for (String mode : modes) {
+      boolean virtual = switch (mode) {
+        case "platform" -> false;
+        case "virtual" -> true;
+        default -> throw new IllegalArgumentException("不明なモードです: " + mode);
+      };
+      System.out.printf("%n=== %s ===%n", mode);
+      List<String> jvmArgs = virtual ? List.of("-Djdk.tracePinnedThreads=short") : List.of();
+      String profiles = virtual ? "embedded,virtual" : "embedded";
+      try (AppProcess app = AppProcess.start(jar, jvmArgs,
+          List.of("--spring.profiles.active=" + profiles),
+          Path.of("build", "loadtest", "thread-modes-" + mode + ".log"))) {
+        results.put(mode, LoadGenerator.measure(options.withBaseUrl(app.baseUrl())));
+        pinned.put(mode, pinnedTraces(app.output()));
+      }
+    }
+
+    boolean passed = report(results, pinned);
+    System.exit(passed ? 0 : 1);
+  }
+
+  private static boolean report(Map<String, Result> results, Map<String, List<String>> pinned) {
+    System.out.println();
+    System.out.printf("%-9s %9s %10s %9s %8s %7s%n", "mode", "requests", "req/s", "p99(ms)",
+        "errors", "pinned");
+    boolean passed = true;
+    for (Map.Entry<String, Result> entry : results.entrySet()) {
+      Result result = entry.getValue();
+      List<String> traces = pinned.get(entry.getKey());
+      System.out.printf("%-9s %9d %10.1f %9.2f %8d %7d%n", entry.getKey(), result.requests(),
+          result.throughput(), result.p99Millis(), result.errors(), countTraces(traces));
+      passed &= result.consistent() && traces.isEmpty();
+    }
+    Result platform = results.get("platform");
+    Result virtual = results.get("virtual");
+    if (platform != null && virtual != null && platform.throughput() > 0
+        && platform.p99Millis() > 0) {
+      System.out.printf("仮想スレッド / プラットフォームスレッド: スループット %.2f 倍、p99 %.2f 倍%n",
+          virtual.throughput() / platform.throughput(), virtual.p99Millis() / platform.p99Millis());
+    }
+    pinned.forEach((mode, traces) -> {
+      if (!traces.isEmpty()) {
+        System.out.printf("%n%s でキャリアスレッドへのピン留めが発生しました:%n", mode);
+        traces.stream().limit(MAX_PRINTED_TRACES).forEach(System.out::println);
+      }
+    });
+    return passed;
+  }
+
+  // -Djdk.tracePinnedThreads=short の出力（キャリアスレッドの行と、モニターを保持しているフレーム）を取り出す
+  private static List<String> pinnedTraces(List<String> output) {
+    List<String> traces = new ArrayList<>();
+    boolean inTrace = false;
+    for (String line : output) {
+      if (line.startsWith("Thread[") && line.contains("CarrierThreads")) {
+        inTrace = true;
+        traces.add(line);
+      } else if (inTrace && line.startsWith(" ")) {
+        traces.add(line);
+      } else {
+        inTrace = false;
+        if (line.contains("<== monitors:")) {
+          traces.add(line);
+        }
+      }
+    }
+    return traces;
+  }
+
+  private static long countTraces(List<String> traces) {
+    long threads = traces.stream().filter(line -> line.startsWith("Thread[")).count();
+    return threads == 0 && !traces.isEmpty() ? 1 : threads;
+  }
+
+  private static String required(Map<String, String> values, String key) {
+    String value = values.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException(key + "= を指定してください");
+    }
+    return value;
+  }
+}
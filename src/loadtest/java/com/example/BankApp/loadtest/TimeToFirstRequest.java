@@ -0,0 +1,87 @@
+package com.example.BankApp.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * アプリケーションを起動してから、最初のリクエストに 200 が返るまでの時間を計測します。
+ * <p>
+ * 指定したコマンドでプロセスを起動し、URL（既定は readiness）を 10ms 間隔で呼び出します。
+ * 応答したらプロセスを止め、これを runs 回繰り返して中央値を出力します。
+ *
+ * <pre>
+ * ./gradlew startupTime -PstartupArgs="runs=5 -- java -jar build/libs/BankApp-0.0.1-SNAPSHOT.jar --spring.profiles.active=embedded"
+ * </pre>
+ */
+public final class TimeToFirstRequest {
+
+  private TimeToFirstRequest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    int separator = Arrays.asList(args).indexOf("--");
+    if (separator < 0 || separator == args.length - 1) {
+      throw new IllegalArgumentException("-- の後に起動コマンドを指定してください");
+    }
+    int runs = 3;
+    String url = "http://localhost:8080/actuator/health/readiness";
+    for (String option : Arrays.copyOfRange(args, 0, separator)) {
+      if (option.startsWith("runs=")) {
+        runs = Integer.parseInt(option.substring("runs=".length()));
+      } else if (option.startsWith("url=")) {
+        url = option.substring("url=".length());
+      }
+    }
+    List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+        .timeout(Duration.ofSeconds(1)).GET().build();
+    List<Long> results = new ArrayList<>();
+    for (int run = 1; run <= runs; run++) {
+      long millis = measure(command, client, request);
+      results.add(millis);
+      System.out.printf("%d 回目: %d ms%n", run, millis);
+    }
+    Collections.sort(results);
+    System.out.printf("最初のリクエストまでの時間（中央値）: %d ms%n", results.get(results.size() / 2));
+  }
+
+  private static long measure(List<String> command, HttpClient client, HttpRequest request)
+      throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-time.log"))
+        .start();
+    try {
+      while (process.isAlive()) {
+        try {
+          if (client.send(request, BodyHandlers.discarding()).statusCode() == 200) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+          }
+        } catch (IOException e) {
+          // まだ起動していない
+        }
+        Thread.sleep(10);
+      }
+      throw new IllegalStateException("アプリケーションが起動前に終了しました（終了コード "
+          + process.exitValue() + "）");
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+}
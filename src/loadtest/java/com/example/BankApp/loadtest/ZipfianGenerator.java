@@ -0,0 +1,36 @@
+package com.example.BankApp.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * 0〜n-1 の番号を Zipf 分布で返します。番号が小さいほど選ばれやすく、0 が最も集中する口座になります。
+ * <p>
+ * 累積分布を事前に計算しておき、二分探索で引くため、1 回あたりの処理は O(log n) です。
+ */
+final class ZipfianGenerator {
+
+  private final double[] cumulative;
+
+  /**
+   * @param n        番号の数
+   * @param exponent 分布の指数。0 で一様、大きいほど先頭に集中する
+   */
+  ZipfianGenerator(int n, double exponent) {
+    cumulative = new double[n];
+    double sum = 0;
+    for (int i = 0; i < n; i++) {
+      sum += 1.0 / Math.pow(i + 1, exponent);
+      cumulative[i] = sum;
+    }
+    for (int i = 0; i < n; i++) {
+      cumulative[i] /= sum;
+    }
+  }
+
+  int next(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
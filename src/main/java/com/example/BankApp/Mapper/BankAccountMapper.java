@@ -4,6 +4,7 @@ import static com.example.BankApp.util.MoneyFormat.yen;
 
 import com.example.BankApp.dto.AdminBankAccountResponse;
 import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.ledger.AccountState;
 import com.example.BankApp.model.BankAccount;
 
 public class BankAccountMapper {
@@ -27,6 +28,29 @@ public class BankAccountMapper {
         .build();
   }
 
+  // イベントソーシング時の射影から
+  public static BankAccountResponse toResponse(AccountState s) {
+    return toResponse(s, null);
+  }
+
+  public static BankAccountResponse toResponse(AccountState s, String message) {
+    return BankAccountResponse.builder()
+        .message(message)
+        .accountNumber(s.accountNumber())
+        .accountHolderName(s.accountHolderName())
+        .balance(yen(s.balance()))
+        .build();
+  }
+
+  public static AdminBankAccountResponse toAdminResponse(AccountState state) {
+    return AdminBankAccountResponse.builder()
+        .accountNumber(state.accountNumber())
+        .accountHolderName(state.accountHolderName())
+        .balance(state.balance())
+        .isActive(state.active())
+        .build();
+  }
+
   public static AdminBankAccountResponse toAdminResponse(BankAccount account) {
     return AdminBankAccountResponse.builder()
         .accountNumber(account.getAccountNumber())
@@ -0,0 +1,39 @@
+package com.example.BankApp.analytics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 有効かどうかは AOT でも切り替えられるよう、AnalyticsLoader で実行時に判定する
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class AnalyticsConfig {
+
+  @Bean
+  public ColumnarLogStore columnarLogStore(AnalyticsProperties analyticsProperties,
+      MeterRegistry meterRegistry) {
+    return new ColumnarLogStore(analyticsProperties.getChunkSize(), meterRegistry);
+  }
+
+  @Bean
+  public AnalyticsLoader analyticsLoader(JdbcTemplate jdbcTemplate,
+      AnalyticsProperties analyticsProperties, ColumnarLogStore columnarLogStore,
+      MeterRegistry meterRegistry) {
+    return new AnalyticsLoader(jdbcTemplate, analyticsProperties, columnarLogStore,
+        meterRegistry);
+  }
+
+  // アプリケーションの起動が済んでから、取引履歴の読み込みを始める
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> analyticsLoaderStartup(
+      AnalyticsLoader analyticsLoader) {
+    return event -> analyticsLoader.start();
+  }
+}
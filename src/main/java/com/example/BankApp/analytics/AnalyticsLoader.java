@@ -0,0 +1,141 @@
+package com.example.BankApp.analytics;
+
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 取引履歴を取引日時の順に読み、{@link ColumnarLogStore} に追加します。
+ * <p>
+ * 最初の読み込みでは retention 分の取引履歴を読み、以降は poll-interval ごとに新しい取引履歴だけを読みます。
+ * 取引日時は INSERT の時点で決まり、コミットの順とは限らないため、毎回「読み込み済みの最も新しい取引日時 − lateness」から読み直し、
+ * その範囲で読み込み済みの取引履歴は ID で読み飛ばします。lateness より遅れてコミットされた取引履歴は集計に入りません。
+ */
+@Slf4j
+public class AnalyticsLoader {
+
+  private static final String FETCH = """
+      SELECT account_log_id, account_log_type, account_log_status, amount, timestamp
+      FROM account_log WHERE timestamp >= ? ORDER BY timestamp""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AnalyticsProperties properties;
+  private final ColumnarLogStore store;
+  private final Counter loadedCounter;
+
+  // 読み直す範囲（読み込み済みの最も新しい取引日時 − lateness 以降）で読み込み済みの取引履歴
+  private final Deque<Loaded> recent = new ArrayDeque<>();
+  private final Set<String> recentIds = new HashSet<>();
+  private LocalDateTime newest;
+  private ScheduledExecutorService poller;
+
+  public AnalyticsLoader(JdbcTemplate jdbcTemplate, AnalyticsProperties properties,
+      ColumnarLogStore store, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+    this.store = store;
+    this.loadedCounter = Counter.builder("bankapp.analytics.loaded")
+        .description("集計のために読み込んだ取引履歴の数")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 取引履歴の読み込みを始めます。bankapp.analytics.enabled が false の場合は何もしません。
+   */
+  public synchronized void start() {
+    if (!properties.isEnabled() || poller != null) {
+      return;
+    }
+    long intervalMillis = properties.getPollInterval().toMillis();
+    poller = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "analytics-loader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    poller.scheduleWithFixedDelay(this::pollSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    ScheduledExecutorService poller;
+    synchronized (this) {
+      poller = this.poller;
+    }
+    if (poller != null) {
+      poller.shutdown();
+      poller.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * 新しい取引履歴を読み込み、retention より古いものを捨てます。
+   *
+   * @return 追加した取引履歴の数
+   */
+  synchronized int poll() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime cutoff = now.minus(properties.getRetention());
+    boolean first = !store.isReady();
+    LocalDateTime from = newest == null ? cutoff : newest.minus(properties.getLateness());
+    long start = System.nanoTime();
+    int[] added = {0};
+    jdbcTemplate.query(FETCH, rs -> {
+      String id = rs.getString("account_log_id");
+      LocalDateTime timestamp = rs.getObject("timestamp", LocalDateTime.class);
+      if (recentIds.contains(id)) {
+        return;
+      }
+      store.append(timestamp,
+          AccountLogType.valueOf(rs.getString("account_log_type")),
+          AccountLogStatus.valueOf(rs.getString("account_log_status")),
+          rs.getInt("amount"));
+      added[0]++;
+      remember(id, timestamp);
+    }, from);
+    store.evictBefore(cutoff);
+    store.markLoaded(now);
+    loadedCounter.increment(added[0]);
+    if (first) {
+      log.info("集計のために取引履歴を読み込みました: {} 件, {} ms", added[0],
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    return added[0];
+  }
+
+  private void pollSafely() {
+    try {
+      poll();
+    } catch (RuntimeException e) {
+      log.error("集計のための取引履歴の読み込みに失敗しました", e);
+    }
+  }
+
+  // 取引日時の順に読むため、読み直す範囲から外れたものは先頭から捨てられる
+  private void remember(String id, LocalDateTime timestamp) {
+    if (newest == null || timestamp.isAfter(newest)) {
+      newest = timestamp;
+    }
+    recent.addLast(new Loaded(id, timestamp));
+    recentIds.add(id);
+    LocalDateTime horizon = newest.minus(properties.getLateness());
+    while (recent.peekFirst().timestamp().isBefore(horizon)) {
+      recentIds.remove(recent.pollFirst().id());
+    }
+  }
+
+  private record Loaded(String id, LocalDateTime timestamp) {
+
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.BankApp.analytics;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 取引の集計（/admin/analytics）に関する設定です（bankapp.analytics.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.analytics")
+public class AnalyticsProperties {
+
+  // true の場合、起動時に retention 分の取引履歴をメモリに読み込み、以降は新しい取引履歴を追加していく
+  private boolean enabled = false;
+
+  // メモリに保持する取引履歴の期間。1 件あたり約 14 バイトを使う
+  private Duration retention = Duration.ofDays(90);
+
+  // 新しい取引履歴を読みに行く間隔
+  private Duration pollInterval = Duration.ofSeconds(1);
+
+  // 取引日時よりこれだけ遅れてコミットされた取引履歴まで拾う。最も長いトランザクションより長くする
+  private Duration lateness = Duration.ofSeconds(5);
+
+  // 列の配列を確保する単位（行数）。古い取引履歴はこの単位で捨てる
+  private int chunkSize = 65536;
+
+  // 1 回の集計で返せる区間の数
+  private int maxBuckets = 10000;
+}
@@ -0,0 +1,32 @@
+package com.example.BankApp.analytics;
+
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 取引の集計結果です。
+ *
+ * @param from        集計した期間の開始（この日時を含む）
+ * @param to          集計した期間の終了（この日時を含まない）
+ * @param granularity 区間の幅
+ * @param status      集計した取引履歴のステータス
+ * @param asOf        この日時までに読み込んだ取引履歴を集計した
+ * @param rowsScanned 期間で絞り込む前に読んだ行の数
+ * @param buckets     取引のあった区間と取引種類ごとの件数と金額（区間の開始・取引種類の順）
+ */
+public record AnalyticsReport(LocalDateTime from, LocalDateTime to, Granularity granularity,
+                              AccountLogStatus status, LocalDateTime asOf, long rowsScanned,
+                              List<Bucket> buckets) {
+
+  /**
+   * @param start  区間の開始（ALL の場合は期間の開始）
+   * @param type   取引種類
+   * @param count  件数
+   * @param amount 金額の合計
+   */
+  public record Bucket(LocalDateTime start, AccountLogType type, long count, long amount) {
+
+  }
+}
@@ -0,0 +1,229 @@
+package com.example.BankApp.analytics;
+
+import com.example.BankApp.analytics.AnalyticsReport.Bucket;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 集計に使う取引履歴の列（取引日時・取引種類・ステータス・金額）を、列ごとのプリミティブ配列としてメモリに保持します。
+ * <p>
+ * 行は chunk-size 行ずつの塊（チャンク）に追加し、チャンクごとに取引日時の最小・最大を持ちます。
+ * 集計では期間と重ならないチャンクを読み飛ばし、残りは配列を先頭から順に読むだけの分岐の少ないループで数えます。
+ * <p>
+ * 行を追加するのは 1 つのスレッドだけ（{@link AnalyticsLoader}）で、集計はロックを取らずに何本でも並行して行えます。
+ * 取引日時は時差を持たない LocalDateTime のまま UTC とみなしたミリ秒で持つため、時・日の境界は取引履歴の日時のとおりになります。
+ */
+public class ColumnarLogStore {
+
+  private static final AccountLogType[] TYPES = AccountLogType.values();
+
+  private final int chunkSize;
+  private final Timer queryTimer;
+
+  // 集計側はこの配列を読むだけなので、追加・削除のたびに作り直して差し替える
+  private volatile Chunk[] chunks = new Chunk[0];
+  private volatile LocalDateTime asOf;
+
+  public ColumnarLogStore(int chunkSize, MeterRegistry meterRegistry) {
+    this.chunkSize = chunkSize;
+    this.queryTimer = Timer.builder("bankapp.analytics.query")
+        .description("取引の集計にかかった時間")
+        .register(meterRegistry);
+    Gauge.builder("bankapp.analytics.rows", this, ColumnarLogStore::rows)
+        .description("集計のためにメモリに保持している取引履歴の数")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 取引履歴を 1 行追加します。呼び出せるのは 1 つのスレッドだけです。
+   *
+   * @param timestamp 取引日時
+   * @param type      取引種類
+   * @param status    ステータス
+   * @param amount    金額
+   */
+  void append(LocalDateTime timestamp, AccountLogType type, AccountLogStatus status, int amount) {
+    Chunk[] current = chunks;
+    Chunk tail = current.length > 0 ? current[current.length - 1] : null;
+    if (tail == null || tail.size == chunkSize) {
+      tail = new Chunk(chunkSize);
+      current = Arrays.copyOf(current, current.length + 1);
+      current[current.length - 1] = tail;
+      chunks = current;
+    }
+    tail.add(toMillis(timestamp), (byte) type.ordinal(), (byte) status.ordinal(), amount);
+  }
+
+  /**
+   * 指定した日時より前の取引履歴だけを含むチャンクを捨てます。呼び出せるのは追加と同じスレッドだけです。
+   *
+   * @param cutoff この日時より前の取引履歴は不要
+   */
+  void evictBefore(LocalDateTime cutoff) {
+    long cutoffMillis = toMillis(cutoff);
+    Chunk[] current = chunks;
+    // 書き込み中の最後のチャンクは残す
+    int keepFrom = 0;
+    while (keepFrom < current.length - 1 && current[keepFrom].max < cutoffMillis) {
+      keepFrom++;
+    }
+    if (keepFrom > 0) {
+      chunks = Arrays.copyOfRange(current, keepFrom, current.length);
+    }
+  }
+
+  // 集計の結果に載せる、読み込み済みの日時
+  void markLoaded(LocalDateTime loadedAt) {
+    asOf = loadedAt;
+  }
+
+  /**
+   * 最初の読み込みが済み、集計できる状態かを返します。
+   *
+   * @return 集計できる場合は true
+   */
+  public boolean isReady() {
+    return asOf != null;
+  }
+
+  /**
+   * 保持している取引履歴の数を返します。
+   *
+   * @return 行数
+   */
+  public long rows() {
+    long rows = 0;
+    for (Chunk chunk : chunks) {
+      rows += chunk.size;
+    }
+    return rows;
+  }
+
+  /**
+   * 期間内の取引履歴を、区間と取引種類ごとに数えます。
+   *
+   * @param from        期間の開始（この日時を含む）
+   * @param to          期間の終了（この日時を含まない）
+   * @param granularity 区間の幅
+   * @param status      集計する取引履歴のステータス
+   * @param maxBuckets  区間の数の上限
+   * @return 集計結果
+   * @throws IllegalArgumentException 期間が正しくない場合、または区間の数が上限を超える場合
+   */
+  public AnalyticsReport query(LocalDateTime from, LocalDateTime to, Granularity granularity,
+      AccountLogStatus status, int maxBuckets) {
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("from は to より前の日時である必要があります。");
+    }
+    long fromMillis = toMillis(from);
+    long toMillis = toMillis(to);
+    long origin = granularity.origin(fromMillis);
+    long width = granularity.widthMillis();
+    long bucketCount = granularity == Granularity.ALL ? 1 : (toMillis - origin - 1) / width + 1;
+    if (bucketCount > maxBuckets) {
+      throw new IllegalArgumentException(
+          "区間の数が多すぎます（" + bucketCount + "）。期間を短くするか、区間を広げてください。");
+    }
+    LocalDateTime loadedAt = asOf;
+    return queryTimer.record(() -> {
+      long[] counts = new long[(int) bucketCount * TYPES.length];
+      long[] amounts = new long[counts.length];
+      long scanned = 0;
+      byte wanted = (byte) status.ordinal();
+      for (Chunk chunk : chunks) {
+        int size = chunk.size;
+        if (size == 0 || chunk.max < fromMillis || chunk.min >= toMillis) {
+          continue;
+        }
+        chunk.scan(size, fromMillis, toMillis, wanted, origin, width, counts, amounts);
+        scanned += size;
+      }
+      return new AnalyticsReport(from, to, granularity, status, loadedAt, scanned,
+          buckets(counts, amounts, from, origin, width, granularity));
+    });
+  }
+
+  private static List<Bucket> buckets(long[] counts, long[] amounts, LocalDateTime from,
+      long origin, long width, Granularity granularity) {
+    List<Bucket> buckets = new ArrayList<>();
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] == 0) {
+        continue;
+      }
+      int bucket = i / TYPES.length;
+      LocalDateTime start = granularity == Granularity.ALL
+          ? from : toLocalDateTime(origin + bucket * width);
+      buckets.add(new Bucket(start, TYPES[i % TYPES.length], counts[i], amounts[i]));
+    }
+    return buckets;
+  }
+
+  static long toMillis(LocalDateTime timestamp) {
+    return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  private static LocalDateTime toLocalDateTime(long millis) {
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+        (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+  }
+
+  private static final class Chunk {
+
+    final long[] timestamps;
+    final byte[] types;
+    final byte[] statuses;
+    final int[] amounts;
+    // 最小・最大を先に書き、size を最後に書く。size を読んだ側からは、その行までの値が必ず見える
+    volatile long min = Long.MAX_VALUE;
+    volatile long max = Long.MIN_VALUE;
+    volatile int size;
+
+    Chunk(int capacity) {
+      this.timestamps = new long[capacity];
+      this.types = new byte[capacity];
+      this.statuses = new byte[capacity];
+      this.amounts = new int[capacity];
+    }
+
+    void add(long timestamp, byte type, byte status, int amount) {
+      int i = size;
+      timestamps[i] = timestamp;
+      types[i] = type;
+      statuses[i] = status;
+      amounts[i] = amount;
+      if (timestamp < min) {
+        min = timestamp;
+      }
+      if (timestamp > max) {
+        max = timestamp;
+      }
+      size = i + 1;
+    }
+
+    // ALL では width が Long.MAX_VALUE のため、区間の番号は常に 0 になる
+    void scan(int size, long from, long to, byte status, long origin, long width,
+        long[] counts, long[] sums) {
+      long[] timestamps = this.timestamps;
+      byte[] types = this.types;
+      byte[] statuses = this.statuses;
+      int[] amounts = this.amounts;
+      int typeCount = TYPES.length;
+      for (int i = 0; i < size; i++) {
+        long t = timestamps[i];
+        if (t >= from & t < to & statuses[i] == status) {
+          int slot = (int) ((t - origin) / width) * typeCount + types[i];
+          counts[slot]++;
+          sums[slot] += amounts[i];
+        }
+      }
+    }
+  }
+}
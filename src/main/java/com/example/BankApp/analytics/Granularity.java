@@ -0,0 +1,27 @@
+package com.example.BankApp.analytics;
+
+/**
+ * 取引の集計の区間の幅です。
+ */
+public enum Granularity {
+
+  HOUR(3_600_000L),
+  DAY(86_400_000L),
+  // 指定した期間全体を 1 つの区間として集計する
+  ALL(Long.MAX_VALUE);
+
+  private final long widthMillis;
+
+  Granularity(long widthMillis) {
+    this.widthMillis = widthMillis;
+  }
+
+  long widthMillis() {
+    return widthMillis;
+  }
+
+  // 最初の区間の開始（時・日の境界にそろえる）
+  long origin(long fromMillis) {
+    return this == ALL ? fromMillis : Math.floorDiv(fromMillis, widthMillis) * widthMillis;
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.BankApp.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * エンドポイントを処理の種類ごとの同時実行数の上限とコネクションプールで実行します。
+ * <p>
+ * 上限に達している場合は 503 を返します。付けていないエンドポイントは spring.datasource のプールを使い、上限はありません。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+  /**
+   * @return 処理の種類
+   */
+  Workload value();
+}
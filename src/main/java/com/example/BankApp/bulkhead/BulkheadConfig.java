@@ -0,0 +1,74 @@
+package com.example.BankApp.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// 有効かどうかは AOT でも切り替えられるよう、Bulkheads で実行時に判定する
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+  @Bean
+  public Bulkheads bulkheads(BulkheadProperties bulkheadProperties,
+      DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+    return new Bulkheads(bulkheadProperties, dataSourceProperties, meterRegistry);
+  }
+
+  @Bean
+  public WebMvcConfigurer bulkheadWebMvcConfigurer(Bulkheads bulkheads) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(bulkheads));
+      }
+    };
+  }
+
+  // spring.datasource のプールのすぐ外側で差し替えるため、他のラッパーより先に適用する
+  @Bean
+  public static BeanPostProcessor bulkheadDataSourcePostProcessor(
+      ObjectProvider<BulkheadProperties> propertiesProvider,
+      ObjectProvider<Bulkheads> bulkheadsProvider) {
+    return new BulkheadDataSourcePostProcessor(propertiesProvider, bulkheadsProvider);
+  }
+
+  private static final class BulkheadDataSourcePostProcessor
+      implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<BulkheadProperties> propertiesProvider;
+    private final ObjectProvider<Bulkheads> bulkheadsProvider;
+
+    BulkheadDataSourcePostProcessor(ObjectProvider<BulkheadProperties> propertiesProvider,
+        ObjectProvider<Bulkheads> bulkheadsProvider) {
+      this.propertiesProvider = propertiesProvider;
+      this.bulkheadsProvider = bulkheadsProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource dataSource
+          && !(bean instanceof BulkheadDataSource)
+          && propertiesProvider.getObject().isEnabled()) {
+        return new BulkheadDataSource(dataSource, bulkheadsProvider);
+      }
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.BankApp.bulkhead;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link Bulkhead} を付けたエンドポイントの処理中は、その種類のプールからコネクションを取得します。
+ * それ以外（バックグラウンドの処理など）は元の DataSource を使います。
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+  // DataSource より後に作られるため、コネクションの取得時に解決する
+  private final ObjectProvider<Bulkheads> bulkheadsProvider;
+
+  public BulkheadDataSource(DataSource target, ObjectProvider<Bulkheads> bulkheadsProvider) {
+    super(target);
+    this.bulkheadsProvider = bulkheadsProvider;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    DataSource workload = bulkheadsProvider.getObject().currentDataSource();
+    return workload != null ? workload.getConnection() : super.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    DataSource workload = bulkheadsProvider.getObject().currentDataSource();
+    return workload != null
+        ? workload.getConnection(username, password)
+        : super.getConnection(username, password);
+  }
+}
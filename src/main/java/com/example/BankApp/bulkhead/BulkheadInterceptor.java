@@ -0,0 +1,44 @@
+package com.example.BankApp.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * {@link Bulkhead} を付けたエンドポイントを、処理の種類の同時実行数の上限の中で実行します。
+ */
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+  private static final String WORKLOAD_ATTRIBUTE =
+      BulkheadInterceptor.class.getName() + ".workload";
+
+  private final Bulkheads bulkheads;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (!bulkheads.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+      return true;
+    }
+    Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+    if (bulkhead == null) {
+      return true;
+    }
+    // 上限に達している場合は例外を投げ、GlobalExceptionHandler が 503 を返す
+    bulkheads.enter(bulkhead.value());
+    request.setAttribute(WORKLOAD_ATTRIBUTE, bulkhead.value());
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    if (request.getAttribute(WORKLOAD_ATTRIBUTE) instanceof Workload workload) {
+      request.removeAttribute(WORKLOAD_ATTRIBUTE);
+      bulkheads.leave(workload);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.BankApp.bulkhead;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 処理の種類ごとのコネクションプールと同時実行数の上限に関する設定です（bankapp.bulkhead.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.bulkhead")
+public class BulkheadProperties {
+
+  // true の場合、@Bulkhead を付けたエンドポイントを処理の種類ごとのプールと上限で実行する
+  private boolean enabled = false;
+
+  // 処理の種類ごとの同時実行数の上限とプールのサイズ
+  private Limit write = new Limit(16, 10);
+  private Limit read = new Limit(16, 6);
+  private Limit admin = new Limit(2, 2);
+  private Limit auth = new Limit(8, 2);
+
+  // 上限に達している場合に空きを待つ時間。過ぎたら 503 を返す
+  private Duration maxWait = Duration.ofMillis(20);
+
+  // 処理の種類ごとのプールからコネクションを取得するまで待つ時間
+  private Duration connectionTimeout = Duration.ofSeconds(2);
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Limit {
+
+    // 同時に実行するリクエストの数
+    private int maxConcurrent;
+
+    // コネクションプールの最大サイズ
+    private int poolSize;
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.BankApp.bulkhead;
+
+import com.example.BankApp.bulkhead.BulkheadProperties.Limit;
+import com.example.BankApp.exception.BulkheadFullException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+/**
+ * 処理の種類ごとに、同時実行数の上限とコネクションプールを分けます。
+ * <p>
+ * 一覧や集計のような重い処理が上限まで詰まっても、他の種類の処理はそれぞれの上限とプールの範囲で実行できます。
+ * 上限に達している種類のリクエストは max-wait だけ空きを待ち、空かなければ {@link BulkheadFullException} を投げます。
+ * <p>
+ * 実行中の処理の種類はスレッドごとに持ち、{@link BulkheadDataSource} がその種類のプールからコネクションを取得します。
+ * bankapp.bulkhead.enabled が false の場合、プールは作りません。
+ */
+@Slf4j
+public class Bulkheads {
+
+  private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+  private final BulkheadProperties properties;
+  private final Map<Workload, Semaphore> permits = new EnumMap<>(Workload.class);
+  private final Map<Workload, HikariDataSource> dataSources = new EnumMap<>(Workload.class);
+  private final Map<Workload, Counter> rejected = new EnumMap<>(Workload.class);
+
+  public Bulkheads(BulkheadProperties properties, DataSourceProperties dataSourceProperties,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    if (!properties.isEnabled()) {
+      return;
+    }
+    for (Workload workload : Workload.values()) {
+      Limit limit = limit(workload);
+      Semaphore semaphore = new Semaphore(limit.getMaxConcurrent());
+      permits.put(workload, semaphore);
+      dataSources.put(workload, open(workload, limit, dataSourceProperties, meterRegistry));
+
+      String tag = workload.name().toLowerCase();
+      Gauge.builder("bankapp.bulkhead.active", semaphore,
+              s -> limit.getMaxConcurrent() - s.availablePermits())
+          .description("処理の種類ごとの実行中のリクエストの数")
+          .tag("workload", tag)
+          .register(meterRegistry);
+      rejected.put(workload, Counter.builder("bankapp.bulkhead.rejected")
+          .description("同時実行数の上限に達していたため 503 を返したリクエストの数")
+          .tag("workload", tag)
+          .register(meterRegistry));
+    }
+    log.info("処理の種類ごとにプールと同時実行数の上限を分けます: {}", permits.keySet());
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /**
+   * 処理の種類の上限に空きがあれば、現在のスレッドをその種類の処理として実行中にします。
+   * 呼び出し元は処理が終わったら {@link #leave(Workload)} を呼び出します。
+   *
+   * @param workload 処理の種類
+   * @throws BulkheadFullException max-wait だけ待っても空きが無い場合
+   */
+  public void enter(Workload workload) {
+    boolean acquired;
+    try {
+      acquired = permits.get(workload)
+          .tryAcquire(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      rejected.get(workload).increment();
+      throw BulkheadFullException.BUSY;
+    }
+    CURRENT.set(workload);
+  }
+
+  public void leave(Workload workload) {
+    CURRENT.remove();
+    permits.get(workload).release();
+  }
+
+  /**
+   * 現在のスレッドで実行中の処理の種類のプールを返します。
+   *
+   * @return 処理の種類の外、または無効な場合は null
+   */
+  DataSource currentDataSource() {
+    Workload workload = CURRENT.get();
+    return workload == null ? null : dataSources.get(workload);
+  }
+
+  HikariDataSource dataSource(Workload workload) {
+    return dataSources.get(workload);
+  }
+
+  @PreDestroy
+  public void stop() {
+    dataSources.values().forEach(HikariDataSource::close);
+  }
+
+  private HikariDataSource open(Workload workload, Limit limit,
+      DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+    HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    dataSource.setPoolName("BankAppPool-" + workload.name().toLowerCase());
+    dataSource.setMaximumPoolSize(limit.getPoolSize());
+    // 使われていない種類のプールがコネクションを持ち続けないようにする
+    dataSource.setMinimumIdle(0);
+    dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+    dataSource.setMetricRegistry(meterRegistry);
+    return dataSource;
+  }
+
+  private Limit limit(Workload workload) {
+    return switch (workload) {
+      case WRITE -> properties.getWrite();
+      case READ -> properties.getRead();
+      case ADMIN -> properties.getAdmin();
+      case AUTH -> properties.getAuth();
+    };
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.BankApp.bulkhead;
+
+/**
+ * コネクションプールと同時実行数を分ける処理の種類です。
+ */
+public enum Workload {
+  // 入金・出金・口座の開設と解約
+  WRITE,
+  // 口座保有者の残高照会・取引履歴
+  READ,
+  // 管理者向けの一覧・集計
+  ADMIN,
+  // ログイン・管理者の登録（パスワードのハッシュ計算を含む）
+  AUTH
+}
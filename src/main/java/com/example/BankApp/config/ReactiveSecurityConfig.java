@@ -0,0 +1,72 @@
+package com.example.BankApp.config;
+
+import java.nio.charset.StandardCharsets;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * reactive プロファイル用のセキュリティ設定です。
+ * <p>
+ * ゲートウェイからの呼び出しを想定し、Basic 認証で認証します。
+ * 認証に成功したらセキュリティコンテキストを WebSession に保存し、{@code SESSION} Cookie を付けた以降の
+ * リクエストではパスワード（BCrypt）を照合し直しません。Cookie を付けなければリクエストごとに認証します。
+ */
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+  // Tomcat も依存関係に含まれるため、リアクティブ版では明示的に Netty を使う
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+
+  @Bean
+  public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    ServerSecurityContextRepository sessions = new WebSessionServerSecurityContextRepository();
+    return http
+        .securityContextRepository(sessions)
+        .csrf(ServerHttpSecurity.CsrfSpec::disable)
+        .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+        .logout(ServerHttpSecurity.LogoutSpec::disable)
+        .httpBasic(basic -> basic
+            .securityContextRepository(sessions)
+            // 未ログインで保護リソースにアクセス → 401
+            .authenticationEntryPoint((exchange, ex) ->
+                writeError(exchange.getResponse(), HttpStatus.UNAUTHORIZED, "認証が必要です")))
+        .authorizeExchange(auth -> auth
+            .pathMatchers("/actuator/health/**").permitAll()
+            .pathMatchers("/admin/**").hasRole("ADMIN")
+            .anyExchange().authenticated())
+        .exceptionHandling(e -> e
+            .accessDeniedHandler((exchange, ex) ->
+                writeError(exchange.getResponse(), HttpStatus.FORBIDDEN,
+                    "この口座に対する権限がありません")))
+        .build();
+  }
+
+  private static Mono<Void> writeError(ServerHttpResponse response, HttpStatus status,
+      String message) {
+    response.setStatusCode(status);
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    DataBuffer body = response.bufferFactory()
+        .wrap(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    return response.writeWith(Mono.just(body));
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.BankApp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 仮想スレッドモードで起動したときに、実際に仮想スレッドが使われているかを確認します。
+ * Java 21 未満では spring.threads.virtual.enabled が黙って無視されるため、警告を出します。
+ */
+@Slf4j
+@Component
+@Profile("virtual")
+public class VirtualThreadCheck implements ApplicationListener<ApplicationReadyEvent> {
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    int feature = Runtime.version().feature();
+    if (feature < 21) {
+      log.warn("仮想スレッドモードが指定されていますが、Java {} のためプラットフォームスレッドで動作します。",
+          feature);
+      return;
+    }
+    log.info("仮想スレッドモードで起動しました（Java {}）。", feature);
+  }
+}
@@ -1,17 +1,22 @@
 package com.example.BankApp.controller;
 
+import com.example.BankApp.bulkhead.Bulkhead;
+import com.example.BankApp.bulkhead.Workload;
 import com.example.BankApp.dto.AdminUserRegisterRequest;
 import com.example.BankApp.dto.AdminUserResponse;
 import com.example.BankApp.service.AdminUserService;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 public class AdminUserController {
 
@@ -23,6 +28,7 @@ public class AdminUserController {
    * @return 登録された管理者ユーザー情報
    */
   @PostMapping("/registerAdmin")
+  @Bulkhead(Workload.AUTH)
   public AdminUserResponse registerAdminUser(@Valid @RequestBody AdminUserRegisterRequest request) {
     return adminUserService.registerAdmin(request.getRegisterPassword(), request.getAdminUserName(),
         request.getRawPassword());
@@ -34,6 +40,7 @@ public class AdminUserController {
    * @return 管理者一覧情報
    */
   @GetMapping("/admin/adminUsers")
+  @Bulkhead(Workload.ADMIN)
   public List<AdminUserResponse> getAdminUsers() {
     return adminUserService.getAdminUsers();
   }
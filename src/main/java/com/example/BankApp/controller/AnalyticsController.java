@@ -0,0 +1,51 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.analytics.AnalyticsProperties;
+import com.example.BankApp.analytics.AnalyticsReport;
+import com.example.BankApp.analytics.ColumnarLogStore;
+import com.example.BankApp.analytics.Granularity;
+import com.example.BankApp.metrics.SqlBudget;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequestMapping("/admin/analytics")
+public class AnalyticsController {
+
+  private final ColumnarLogStore columnarLogStore;
+  private final AnalyticsProperties analyticsProperties;
+
+  /*
+   * 期間内の取引を、区間（時・日・期間全体）と取引種類ごとに集計します。データベースには問い合わせません。
+   * @param from        期間の開始（この日時を含む）
+   * @param to          期間の終了（この日時を含まない）
+   * @param granularity 区間の幅（省略時は DAY）
+   * @param status      集計する取引履歴のステータス（省略時は SUCCESS）
+   * @return 集計結果。取引履歴の読み込みが済んでいない（または無効な）場合は 503
+   */
+  @GetMapping
+  @SqlBudget(0)
+  public ResponseEntity<AnalyticsReport> query(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(defaultValue = "DAY") Granularity granularity,
+      @RequestParam(defaultValue = "SUCCESS") AccountLogStatus status) {
+    if (!columnarLogStore.isReady()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    return ResponseEntity.ok(columnarLogStore.query(from, to, granularity, status,
+        analyticsProperties.getMaxBuckets()));
+  }
+}
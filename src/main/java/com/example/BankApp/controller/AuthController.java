@@ -1,11 +1,18 @@
 package com.example.BankApp.controller;
 
+import com.example.BankApp.bulkhead.Bulkhead;
+import com.example.BankApp.bulkhead.Workload;
 import com.example.BankApp.dto.LoginRequest;
+import com.example.BankApp.metrics.BankMetrics;
+import com.example.BankApp.metrics.Operation;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,10 +25,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 public class AuthController {
 
   private final AuthenticationManager authenticationManager;
+  private final BankMetrics bankMetrics;
 
   /**
    * ログイン認証をします。
@@ -29,8 +38,10 @@ public class AuthController {
    * @return　ユーザー情報
    */
   @PostMapping("/login")
+  @Bulkhead(Workload.AUTH)
   public ResponseEntity<?> login(@Valid @RequestBody LoginRequest req, HttpServletRequest request,
       HttpServletResponse response) {
+    long start = System.nanoTime();
     try {
       Authentication auth = authenticationManager.authenticate(
           new UsernamePasswordAuthenticationToken(req.getLoginId(), req.getPassword())
@@ -44,6 +55,7 @@ public class AuthController {
           .saveContext(context, request, response);
 
       var principal = (UserDetails) auth.getPrincipal();
+      bankMetrics.record(Operation.LOGIN, AccountLogStatus.SUCCESS, 0, start);
       return ResponseEntity.ok(Map.of(
           "message", "ログイン成功",
           "username", principal.getUsername(),
@@ -51,6 +63,7 @@ public class AuthController {
               .map(a -> a.getAuthority()).toList()
       ));
     } catch (org.springframework.security.core.AuthenticationException ex) {
+      bankMetrics.record(Operation.LOGIN, AccountLogStatus.FAILED, 0, start);
       return ResponseEntity.status(401).body(Map.of("error", "IDまたはパスワードが違います"));
     }
   }
@@ -0,0 +1,41 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.stream.BalanceStreamRegistry;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Validated
+public class BalanceStreamController {
+
+  private final BankAccountService bankAccountService;
+  private final BalanceStreamRegistry balanceStreamRegistry;
+
+  /*
+   * 残高の通知を開きます。開いた直後と、入金・出金・解約がコミットされるたびに balance イベントで口座情報を送ります。
+   * 解約の通知を送った後と、idle-timeout の間残高が変わらなかった場合は接続を閉じます。
+   * @param accountNumber 口座番号
+   * @return 口座情報を送る Server-Sent Events
+   */
+  @GetMapping(value = "/balance/{accountNumber}/stream",
+      produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public SseEmitter streamBalance(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber) {
+    return balanceStreamRegistry.subscribe(accountNumber,
+        () -> bankAccountService.getBalance(accountNumber));
+  }
+}
@@ -1,18 +1,25 @@
 package com.example.BankApp.controller;
 
+import com.example.BankApp.bulkhead.Bulkhead;
+import com.example.BankApp.bulkhead.Workload;
 import com.example.BankApp.dto.AccountCreationRequest;
 import com.example.BankApp.dto.AdminBankAccountResponse;
 import com.example.BankApp.dto.AmountRequest;
 import com.example.BankApp.dto.BankAccountResponse;
 import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.ledger.GroupCommitter;
+import com.example.BankApp.metrics.SqlBudget;
 import com.example.BankApp.model.AccountLog;
 import com.example.BankApp.model.AccountLog.AccountLogType;
 import com.example.BankApp.repository.AccountLogRepository;
 import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.sharding.ShardKey;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,18 +31,23 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RequiredArgsConstructor
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @Validated
 
 public class BankAccountController {
 
   private final AccountLogRepository accountLogRepository;
   private final BankAccountService bankAccountService;
+  // 有効な場合、入金・出金はトランザクションを開始せずにグループコミットへ渡す
+  private final GroupCommitter groupCommitter;
 
   /*
    * 口座の一覧を取得します。
    * @return 口座のリスト
    */
   @GetMapping("/admin/accounts")
+  @Bulkhead(Workload.ADMIN)
+  @SqlBudget(1)
   public List<AdminBankAccountResponse> getAllAccounts() {
     return bankAccountService.getAllAccountsForAdmin();
   }
@@ -46,6 +58,8 @@ public class BankAccountController {
    * @return 開設された口座の情報
    */
   @PostMapping("/createAccount")
+  @Bulkhead(Workload.WRITE)
+  @SqlBudget(4)
   public BankAccountResponse createAccount(@Valid @RequestBody AccountCreationRequest request) {
     return bankAccountService.createAccount(request);
   }
@@ -56,6 +70,8 @@ public class BankAccountController {
    * @return 指定された口座の情報(残高を含む)
    */
   @GetMapping("/balance/{accountNumber}")
+  @Bulkhead(Workload.READ)
+  @SqlBudget(1)
   @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
   public BankAccountResponse getBalance(
       @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
@@ -70,12 +86,16 @@ public class BankAccountController {
    * @return 入金後の口座情報
    */
   @PostMapping("/deposit/{accountNumber}")
+  @Bulkhead(Workload.WRITE)
+  @SqlBudget(3)
   @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
   public BankAccountResponse deposit(
       @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
       String accountNumber,
       @Valid @RequestBody AmountRequest amountRequest) {
-    return bankAccountService.deposit(accountNumber, amountRequest);
+    return groupCommitter.handles(accountNumber)
+        ? groupCommitter.deposit(accountNumber, amountRequest.getAmount())
+        : bankAccountService.deposit(accountNumber, amountRequest);
   }
 
   /*
@@ -85,12 +105,16 @@ public class BankAccountController {
    * @return 出金後の口座情報
    */
   @PostMapping("/withdraw/{accountNumber}")
+  @Bulkhead(Workload.WRITE)
+  @SqlBudget(3)
   @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
   public BankAccountResponse withdraw(
       @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
       String accountNumber,
       @Valid @RequestBody AmountRequest amountRequest) {
-    return bankAccountService.withdraw(accountNumber, amountRequest);
+    return groupCommitter.handles(accountNumber)
+        ? groupCommitter.withdraw(accountNumber, amountRequest.getAmount())
+        : bankAccountService.withdraw(accountNumber, amountRequest);
   }
 
   /*
@@ -101,9 +125,11 @@ public class BankAccountController {
    * @return 指定された口座の取引履歴のリスト
    */
   @GetMapping("/accountLog/{accountNumber}")
+  @Bulkhead(Workload.READ)
+  @SqlBudget(1)
   @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
   public List<AccountLog> getAccountLog(
-      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      @PathVariable @ShardKey @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
       String accountNumber,
       @RequestParam(required = false) AccountLogType accountLogType) {
 
@@ -119,8 +145,7 @@ public class BankAccountController {
     }
 
     if (accountLogs.isEmpty()) {
-
-      throw new ResourceNotFoundException("指定された口座のログが存在しません。");
+      throw ResourceNotFoundException.ACCOUNT_LOG_NOT_FOUND;
     }
     return accountLogs;
   }
@@ -131,6 +156,8 @@ public class BankAccountController {
    * @return 解約された口座の情報
    */
   @PostMapping("/closeAccount/{accountNumber}")
+  @Bulkhead(Workload.WRITE)
+  @SqlBudget(3)
   @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
   public String closeAccount(
       @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
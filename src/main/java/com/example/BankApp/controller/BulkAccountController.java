@@ -0,0 +1,42 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.onboarding.BulkAccountOpener;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class BulkAccountController {
+
+  private final BulkAccountOpener bulkAccountOpener;
+
+  /*
+   * CSV（口座名義,パスワード）の行ごとに口座を開設し、結果を CSV で返します。
+   * 結果は処理した行から順に書き出すため、途中で失敗した場合はそれまでの行の結果だけが返ります。
+   * @param file UTF-8 の CSV
+   * @param response 行番号・口座番号・CREATED または REJECTED・理由の CSV を書き出すレスポンス
+   */
+  @PostMapping(value = "/admin/accounts/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public void bulkOpen(@RequestParam("file") MultipartFile file, HttpServletResponse response)
+      throws IOException {
+    response.setContentType("text/csv;charset=UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"bulk-open-result.csv\"");
+    try (Reader csv = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+      bulkAccountOpener.open(csv, response.getWriter());
+    }
+  }
+}
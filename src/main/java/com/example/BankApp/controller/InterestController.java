@@ -0,0 +1,48 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.interest.InterestAccrualJob;
+import com.example.BankApp.interest.InterestProgress;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequestMapping("/admin/interest")
+public class InterestController {
+
+  private final InterestAccrualJob interestAccrualJob;
+
+  /*
+   * 利息の入金を開始します。
+   * @param businessDate 利息を付ける営業日（省略時は前日）
+   * @return 開始した場合は 202、既に実行中の場合は 409 と現在の進捗
+   */
+  @PostMapping
+  public ResponseEntity<InterestProgress> start(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      LocalDate businessDate) {
+    LocalDate date = businessDate != null ? businessDate : LocalDate.now().minusDays(1);
+    HttpStatus status = interestAccrualJob.start(date) ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+    return ResponseEntity.status(status).body(interestAccrualJob.progress());
+  }
+
+  /*
+   * 利息の入金の進捗を取得します。
+   * @return 処理済みの口座数・利息を入金した口座数・利息の合計など
+   */
+  @GetMapping
+  public InterestProgress progress() {
+    return interestAccrualJob.progress();
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.service.ReactiveBankAccountService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * reactive プロファイルで起動した場合に {@link BankAccountController} の代わりに使われるコントローラです。
+ * 残高照会・入出金・取引履歴取得を、リクエストごとにスレッドを占有せずに処理します。
+ */
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Validated
+
+public class ReactiveBankAccountController {
+
+  private final ReactiveBankAccountService reactiveBankAccountService;
+
+  /*
+   *　残高照会をします。
+   * @param accountNumber 口座番号
+   * @return 指定された口座の情報(残高を含む)
+   */
+  @GetMapping("/balance/{accountNumber}")
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public Mono<BankAccountResponse> getBalance(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber) {
+    return reactiveBankAccountService.getBalance(accountNumber);
+  }
+
+  /*
+   * 口座に入金をします。
+   * @param accountNumber 口座番号
+   * @param amountRequest 入金金額を含むリクエストボディ
+   * @return 入金後の口座情報
+   */
+  @PostMapping("/deposit/{accountNumber}")
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public Mono<BankAccountResponse> deposit(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber,
+      @Valid @RequestBody AmountRequest amountRequest) {
+    return reactiveBankAccountService.deposit(accountNumber, amountRequest);
+  }
+
+  /*
+   * 口座から出金をします。
+   * @param accountNumber 口座番号
+   * @param amountRequest 出金金額を含むリクエストボディ
+   * @return 出金後の口座情報
+   */
+  @PostMapping("/withdraw/{accountNumber}")
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public Mono<BankAccountResponse> withdraw(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber,
+      @Valid @RequestBody AmountRequest amountRequest) {
+    return reactiveBankAccountService.withdraw(accountNumber, amountRequest);
+  }
+
+  /*
+   * 指定された口座の取引履歴を取引タイプでフィルタリングして取得します。
+   * Accept: application/x-ndjson を指定すると 1 件ずつストリームで返します。
+   * @param accountNumber 口座番号
+   * @param accountLogType 取引タイプ（入金、出金）, nullの場合は全ての取引を取得
+   * @return 指定された口座の取引履歴
+   */
+  @GetMapping(value = "/accountLog/{accountNumber}",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public Flux<AccountLog> getAccountLog(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber,
+      @RequestParam(required = false) AccountLogType accountLogType) {
+    return reactiveBankAccountService.getAccountLog(accountNumber, accountLogType);
+  }
+}
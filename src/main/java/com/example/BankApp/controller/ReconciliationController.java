@@ -0,0 +1,41 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.reconciliation.ReconciliationJob;
+import com.example.BankApp.reconciliation.ReconciliationProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequestMapping("/admin/reconciliation")
+public class ReconciliationController {
+
+  private final ReconciliationJob reconciliationJob;
+
+  /*
+   * 残高の突き合わせを開始します。
+   * @return 開始した場合は 202、既に実行中の場合は 409 と現在の進捗
+   */
+  @PostMapping
+  public ResponseEntity<ReconciliationProgress> start() {
+    HttpStatus status = reconciliationJob.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+    return ResponseEntity.status(status).body(reconciliationJob.progress());
+  }
+
+  /*
+   * 残高の突き合わせの進捗を取得します。
+   * @return 確認済みの口座数・不一致の数・1 秒あたりの処理口座数など
+   */
+  @GetMapping
+  public ReconciliationProgress progress() {
+    return reconciliationJob.progress();
+  }
+}
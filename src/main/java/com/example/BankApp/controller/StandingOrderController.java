@@ -0,0 +1,72 @@
+package com.example.BankApp.controller;
+
+import com.example.BankApp.dto.StandingOrderRequest;
+import com.example.BankApp.standingorder.StandingOrder;
+import com.example.BankApp.standingorder.StandingOrderService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Validated
+
+public class StandingOrderController {
+
+  private final StandingOrderService standingOrderService;
+
+  /*
+   * 自動振替の指示を登録します。
+   * @param accountNumber 出金する口座番号
+   * @param request 種類・振替先・金額・間隔・初回の実行時刻を含むリクエストボディ
+   * @return 登録した指示
+   */
+  @PostMapping("/standingOrder/{accountNumber}")
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public StandingOrder createStandingOrder(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber,
+      @Valid @RequestBody StandingOrderRequest request) {
+    return standingOrderService.create(accountNumber, request);
+  }
+
+  /*
+   * 口座の自動振替の指示を取得します。
+   * @param accountNumber 出金する口座番号
+   * @return 停止したものも含む指示のリスト
+   */
+  @GetMapping("/standingOrder/{accountNumber}")
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public List<StandingOrder> getStandingOrders(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber) {
+    return standingOrderService.list(accountNumber);
+  }
+
+  /*
+   * 自動振替の指示を停止します。
+   * @param accountNumber 出金する口座番号
+   * @param orderId 指示 ID
+   * @return 停止の結果メッセージ
+   */
+  @PostMapping("/cancelStandingOrder/{accountNumber}/{orderId}")
+  @PreAuthorize("#accountNumber == authentication.name or hasRole('ADMIN')")
+  public String cancelStandingOrder(
+      @PathVariable @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+      String accountNumber,
+      @PathVariable String orderId) {
+    standingOrderService.cancel(accountNumber, orderId);
+    return "自動振替を停止しました。指示 ID：" + orderId;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.BankApp.dto;
+
+import com.example.BankApp.standingorder.StandingOrder.Type;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class StandingOrderRequest {
+
+  @NotNull(message = "種類（WITHDRAW または TRANSFER）は必須です。")
+  private Type type;
+
+  // TRANSFER の場合だけ指定する
+  @Pattern(regexp = "\\d{7}", message = "口座番号は7桁の数字である必要があります")
+  private String toAccountNumber;
+
+  @Min(value = 1, message = "金額は1以上でなければなりません。")
+  private int amount;
+
+  // ISO-8601 の期間（例: P1D、P7D）
+  @NotNull(message = "実行する間隔は必須です。")
+  private Duration interval;
+
+  // 初回の実行時刻。省略した場合は現在から interval 後
+  private LocalDateTime firstRunAt;
+}
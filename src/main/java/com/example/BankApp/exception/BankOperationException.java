@@ -0,0 +1,40 @@
+package com.example.BankApp.exception;
+
+import java.util.Map;
+
+/**
+ * 残高不足や解約済み口座など、業務上想定される取引の拒否を表す例外です。
+ * <p>
+ * 頻繁に発生するため、スタックトレースを持たない共有インスタンスとして事前に生成しておき、
+ * エラーレスポンスのボディも組み立て済みのものを返します。
+ * 共有インスタンスに抑制された例外が溜まり続けないよう、addSuppressed も無効にしています。
+ */
+public final class BankOperationException extends RuntimeException {
+
+  public static final BankOperationException ACCOUNT_CLOSED =
+      new BankOperationException("この口座は既に解約されています。");
+  public static final BankOperationException INSUFFICIENT_BALANCE =
+      new BankOperationException("残高が不足しています。");
+  public static final BankOperationException BALANCE_REMAINING =
+      new BankOperationException("残高があるため、口座を解約できません。");
+  public static final BankOperationException ALREADY_CLOSED =
+      new BankOperationException("既に解約済みの口座です。");
+  public static final BankOperationException VELOCITY_LIMIT_EXCEEDED =
+      new BankOperationException("一定時間内の出金の回数または金額が上限を超えています。");
+
+  private final Map<String, String> errorBody;
+
+  private BankOperationException(String message) {
+    super(message, null, false, false);
+    this.errorBody = Map.of("error", message);
+  }
+
+  /**
+   * エラーレスポンスのボディを返します。
+   *
+   * @return 事前に組み立て済みのエラーレスポンス
+   */
+  public Map<String, String> getErrorBody() {
+    return errorBody;
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.BankApp.exception;
+
+import java.util.Map;
+
+public class BulkheadFullException extends RuntimeException {
+
+  // 混雑時に繰り返し投げるため、スタックトレースを持たない共有インスタンスを使う
+  public static final BulkheadFullException BUSY = new BulkheadFullException(
+      "混み合っているため処理できませんでした。しばらくしてから再度お試しください。");
+
+  private final Map<String, String> errorBody;
+
+  private BulkheadFullException(String message) {
+    super(message, null, false, false);
+    this.errorBody = Map.of("error", message);
+  }
+
+  /**
+   * エラーレスポンスのボディを返します。
+   *
+   * @return 事前に組み立て済みのエラーレスポンス
+   */
+  public Map<String, String> getErrorBody() {
+    return errorBody;
+  }
+}
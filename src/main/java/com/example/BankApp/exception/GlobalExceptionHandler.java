@@ -3,12 +3,14 @@ package com.example.BankApp.exception;
 import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -23,13 +25,30 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(errorResponse);
   }
 
+  /**
+   * 残高不足や解約済み口座など、業務上の理由で取引を拒否した場合、HTTPステータス 400 Bad Request を返します。
+   */
+  @ExceptionHandler(BankOperationException.class)
+  public ResponseEntity<Map<String, String>> handleBankOperation(BankOperationException e) {
+    return ResponseEntity.badRequest().body(e.getErrorBody());
+  }
+
   /**
    * 存在しない口座番号が指定された場合、HTTPステータス 404 Not Found を返します。
    */
   @ExceptionHandler(ResourceNotFoundException.class)
   public ResponseEntity<Map<String, String>> handleResourceNotFound(ResourceNotFoundException e) {
-    Map<String, String> errorResponse = Map.of("error", e.getMessage());
-    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getErrorBody());
+  }
+
+  /**
+   * 処理の種類ごとの同時実行数の上限に達している場合、HTTPステータス 503 Service Unavailable を返します。
+   */
+  @ExceptionHandler(BulkheadFullException.class)
+  public ResponseEntity<Map<String, String>> handleBulkheadFull(BulkheadFullException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(e.getErrorBody());
   }
 
   /**
@@ -44,6 +63,18 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(errors);
   }
 
+  /**
+   * リクエストボディのバリデーションエラーを処理します（reactive プロファイル）。
+   */
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<Map<String, String>> handleWebExchangeBindException(
+      WebExchangeBindException ex) {
+    Map<String, String> errors = new HashMap<>();
+    ex.getFieldErrors().forEach(error ->
+        errors.put(error.getField(), error.getDefaultMessage()));
+    return ResponseEntity.badRequest().body(errors);
+  }
+
   /**
    * メソッド引数（@PathVariable や @RequestParam）のバリデーションエラーを処理します。
    */
@@ -1,8 +1,35 @@
 package com.example.BankApp.exception;
 
+import java.util.Map;
+
 public class ResourceNotFoundException extends RuntimeException {
 
+  // 業務上想定される「存在しない」結果は、スタックトレースを持たない共有インスタンスを使う
+  public static final ResourceNotFoundException ACCOUNT_NOT_FOUND =
+      new ResourceNotFoundException("口座が存在しません。", false);
+  public static final ResourceNotFoundException ACCOUNT_LOG_NOT_FOUND =
+      new ResourceNotFoundException("指定された口座のログが存在しません。", false);
+  public static final ResourceNotFoundException STANDING_ORDER_NOT_FOUND =
+      new ResourceNotFoundException("自動振替の指示が存在しません。", false);
+
+  private final Map<String, String> errorBody;
+
   public ResourceNotFoundException(String message) {
     super(message);
+    this.errorBody = Map.of("error", message);
+  }
+
+  private ResourceNotFoundException(String message, boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+    this.errorBody = Map.of("error", message);
+  }
+
+  /**
+   * エラーレスポンスのボディを返します。
+   *
+   * @return 事前に組み立て済みのエラーレスポンス
+   */
+  public Map<String, String> getErrorBody() {
+    return errorBody;
   }
 }
@@ -0,0 +1,316 @@
+package com.example.BankApp.interest;
+
+import com.example.BankApp.interest.InterestProgress.Status;
+import com.example.BankApp.ledger.BalanceShards;
+import com.example.BankApp.ledger.LedgerProperties;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 有効なすべての口座に、営業日ごとの利息を入金します。
+ * <p>
+ * 口座番号の順に chunk-size 件ずつ範囲に区切り、範囲ごとのトランザクションを ForkJoinPool で並行して実行します。
+ * 各トランザクションは範囲内の口座を 1 文でロックして利息を計算し、残高の更新と取引履歴（INTEREST）の追加を
+ * それぞれバッチで実行します。利息を付けた営業日は bank_account.interest_accrued_on に記録し、
+ * 同じ営業日で再実行しても二重に入金しません（途中で失敗した場合は、再実行すると残りの口座だけを処理します）。
+ * シャーディングが有効な場合は、シャードごとに範囲を切り出し、そのシャードのトランザクションで入金します。
+ * イベントソーシングのモードでは、射影と食い違うため実行できません。
+ */
+@Slf4j
+public class InterestAccrualJob {
+
+  private static final String NEXT_RANGE = """
+      SELECT account_number FROM bank_account WHERE account_number > ?
+      ORDER BY account_number LIMIT ?""";
+
+  private static final String LOCK_RANGE = """
+      SELECT account_number, balance, ledger_sequence FROM bank_account
+      WHERE account_number >= ? AND account_number <= ? AND is_active = TRUE
+        AND (interest_accrued_on IS NULL OR interest_accrued_on < ?)
+      ORDER BY account_number FOR UPDATE""";
+
+  private static final String CREDIT = """
+      UPDATE bank_account SET balance = balance + ?, ledger_sequence = ?, interest_accrued_on = ?
+      WHERE account_number = ?""";
+
+  // 利息が 1 円未満だった口座も、同じ営業日に再計算しないよう記録しておく
+  private static final String MARK_RANGE = """
+      UPDATE bank_account SET interest_accrued_on = ?
+      WHERE account_number >= ? AND account_number <= ? AND is_active = TRUE
+        AND (interest_accrued_on IS NULL OR interest_accrued_on < ?)""";
+
+  private static final String INSERT_LOG = """
+      INSERT INTO account_log (account_log_id, account_number, account_log_type, amount,
+                               balance_after_transaction, timestamp, account_log_status,
+                               sequence_number)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final InterestProperties properties;
+  private final LedgerProperties ledgerProperties;
+  private final BalanceShards balanceShards;
+  private final OutboxWriter outboxWriter;
+  private final ShardRouter shardRouter;
+  private final Counter interestCounter;
+
+  private final AtomicReference<Status> status = new AtomicReference<>(Status.IDLE);
+  private final AtomicLong accountsScanned = new AtomicLong();
+  private final AtomicLong accountsCredited = new AtomicLong();
+  private final AtomicLong totalInterest = new AtomicLong();
+  private volatile LocalDate businessDate;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+
+  public InterestAccrualJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      InterestProperties properties, LedgerProperties ledgerProperties,
+      BalanceShards balanceShards, OutboxWriter outboxWriter, ShardRouter shardRouter,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+    this.ledgerProperties = ledgerProperties;
+    this.balanceShards = balanceShards;
+    this.outboxWriter = outboxWriter;
+    this.shardRouter = shardRouter;
+    this.interestCounter = Counter.builder("bankapp.interest.amount")
+        .description("入金した利息の合計")
+        .baseUnit("yen")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 1 日分の利息を計算します。1 円未満は切り捨てます。
+   *
+   * @param balance      残高
+   * @param rateNanos    年利を 10 億倍した値
+   * @param businessDate 営業日（その年の日数で割る）
+   * @return 利息
+   */
+  static int dailyInterest(long balance, long rateNanos, LocalDate businessDate) {
+    if (balance <= 0) {
+      return 0;
+    }
+    return (int) (Math.multiplyExact(balance, rateNanos)
+        / (1_000_000_000L * businessDate.lengthOfYear()));
+  }
+
+  /**
+   * 現在の進捗を返します。
+   *
+   * @return 進捗
+   */
+  public InterestProgress progress() {
+    Instant start = startedAt;
+    Instant end = finishedAt;
+    long scanned = accountsScanned.get();
+    double perSecond = 0;
+    if (start != null) {
+      long millis = (end != null ? end : Instant.now()).toEpochMilli() - start.toEpochMilli();
+      perSecond = millis > 0 ? scanned * 1000.0 / millis : 0;
+    }
+    return new InterestProgress(status.get(), businessDate, start, end, scanned,
+        accountsCredited.get(), totalInterest.get(), perSecond);
+  }
+
+  /**
+   * 別スレッドで利息の入金を開始します。
+   *
+   * @param businessDate 利息を付ける営業日
+   * @return 開始した場合は true、既に実行中の場合は false
+   */
+  public boolean start(LocalDate businessDate) {
+    if (!begin(businessDate)) {
+      return false;
+    }
+    Thread thread = new Thread(this::runAndRecord, "interest-accrual");
+    thread.setDaemon(true);
+    thread.start();
+    return true;
+  }
+
+  /**
+   * bankapp.interest.cron に従って、前日分の利息を入金します（既定は無効）。
+   */
+  @Scheduled(cron = "${bankapp.interest.cron:-}")
+  public void scheduled() {
+    if (begin(LocalDate.now().minusDays(1))) {
+      runAndRecord();
+    }
+  }
+
+  /**
+   * 呼び出したスレッドで利息を入金し、結果を返します。
+   *
+   * @param businessDate 利息を付ける営業日
+   * @return 完了時の進捗
+   * @throws IllegalStateException 既に実行中の場合
+   */
+  public InterestProgress run(LocalDate businessDate) {
+    if (!begin(businessDate)) {
+      throw new IllegalStateException("利息の入金は既に実行中です");
+    }
+    runAndRecord();
+    return progress();
+  }
+
+  private boolean begin(LocalDate date) {
+    if (ledgerProperties.isEventSourced()) {
+      throw new IllegalStateException("イベントソーシングのモードでは利息の入金を実行できません");
+    }
+    if (!status.compareAndSet(Status.IDLE, Status.RUNNING)
+        && !status.compareAndSet(Status.COMPLETED, Status.RUNNING)
+        && !status.compareAndSet(Status.FAILED, Status.RUNNING)) {
+      return false;
+    }
+    accountsScanned.set(0);
+    accountsCredited.set(0);
+    totalInterest.set(0);
+    businessDate = date;
+    startedAt = Instant.now();
+    finishedAt = null;
+    return true;
+  }
+
+  private void runAndRecord() {
+    try {
+      accrue(businessDate);
+      finishedAt = Instant.now();
+      status.set(Status.COMPLETED);
+      log.info("利息を入金しました: {}", progress());
+    } catch (RuntimeException e) {
+      finishedAt = Instant.now();
+      status.set(Status.FAILED);
+      log.error("利息の入金に失敗しました: businessDate={}", businessDate, e);
+      throw e;
+    }
+  }
+
+  private void accrue(LocalDate date) {
+    long rateNanos = properties.getAnnualRate().movePointRight(9)
+        .setScale(0, RoundingMode.DOWN).longValueExact();
+    ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+    // 範囲の切り出しが入金より先に進みすぎないよう、同時に抱える範囲の数を抑える
+    Semaphore inFlight = new Semaphore(properties.getParallelism() * 2);
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    try {
+      for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+        submitRanges(shard, pool, inFlight, tasks, date, rateNanos);
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("利息の入金が中断されました", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("利息の入金に失敗しました", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // シャードの口座を範囲に区切り、範囲ごとの入金を同じシャードに向けて投入する
+  private void submitRanges(int shard, ForkJoinPool pool, Semaphore inFlight,
+      List<ForkJoinTask<?>> tasks, LocalDate date, long rateNanos) throws InterruptedException {
+    String last = "";
+    while (true) {
+      String after = last;
+      List<String> keys = shardRouter.onShard(shard, () -> jdbcTemplate.queryForList(NEXT_RANGE,
+          String.class, after, properties.getChunkSize()));
+      if (keys.isEmpty()) {
+        return;
+      }
+      String from = keys.get(0);
+      String to = keys.get(keys.size() - 1);
+      inFlight.acquire();
+      tasks.add(pool.submit(() -> {
+        try {
+          shardRouter.onShard(shard, () -> {
+            accrueRange(from, to, date, rateNanos);
+            return null;
+          });
+        } finally {
+          inFlight.release();
+        }
+      }));
+      last = to;
+    }
+  }
+
+  private void accrueRange(String from, String to, LocalDate date, long rateNanos) {
+    long[] result = transactionTemplate.execute(status -> {
+      List<Object[]> accounts = jdbcTemplate.query(LOCK_RANGE,
+          (rs, rowNum) -> new Object[]{rs.getString("account_number"), rs.getInt("balance"),
+              rs.getLong("ledger_sequence")},
+          from, to, date);
+      List<Object[]> credits = new ArrayList<>(accounts.size());
+      List<Object[]> logs = new ArrayList<>(accounts.size());
+      List<Object[]> failures = new ArrayList<>();
+      long interestTotal = 0;
+      LocalDateTime now = LocalDateTime.now();
+      for (Object[] account : accounts) {
+        String accountNumber = (String) account[0];
+        long balance = (int) account[1];
+        if (balanceShards.isSharded(accountNumber)) {
+          balance += balanceShards.shardTotal(accountNumber);
+        }
+        int interest = dailyInterest(balance, rateNanos, date);
+        if (interest == 0) {
+          continue;
+        }
+        // 残高が int の上限を超える場合は入金せず、失敗として記録する（この営業日は付け直さない）
+        if (balance + interest > Integer.MAX_VALUE) {
+          log.warn("残高が上限を超えるため利息を入金しませんでした: accountNumber={}, interest={}",
+              accountNumber, interest);
+          failures.add(new Object[]{UUID.randomUUID().toString(), accountNumber,
+              AccountLogType.INTEREST.name(), interest, (int) Math.min(balance, Integer.MAX_VALUE),
+              now, AccountLogStatus.FAILED.name(), account[2]});
+          continue;
+        }
+        long sequence = (long) account[2] + 1;
+        credits.add(new Object[]{interest, sequence, date, accountNumber});
+        logs.add(new Object[]{UUID.randomUUID().toString(), accountNumber,
+            AccountLogType.INTEREST.name(), interest, (int) (balance + interest), now,
+            AccountLogStatus.SUCCESS.name(), sequence});
+        interestTotal += interest;
+      }
+      if (!credits.isEmpty()) {
+        jdbcTemplate.batchUpdate(CREDIT, credits);
+        jdbcTemplate.batchUpdate(INSERT_LOG, logs);
+        outboxWriter.appendRows(logs);
+      }
+      // 失敗した取引は、出金と同じく送信箱には載せない
+      if (!failures.isEmpty()) {
+        jdbcTemplate.batchUpdate(INSERT_LOG, failures);
+      }
+      jdbcTemplate.update(MARK_RANGE, date, from, to, date);
+      return new long[]{accounts.size(), credits.size(), interestTotal};
+    });
+    accountsScanned.addAndGet(result[0]);
+    accountsCredited.addAndGet(result[1]);
+    totalInterest.addAndGet(result[2]);
+    interestCounter.increment(result[2]);
+  }
+}
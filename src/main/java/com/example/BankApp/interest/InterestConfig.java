@@ -0,0 +1,29 @@
+package com.example.BankApp.interest;
+
+import com.example.BankApp.ledger.BalanceShards;
+import com.example.BankApp.ledger.LedgerProperties;
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(InterestProperties.class)
+public class InterestConfig {
+
+  @Bean
+  public InterestAccrualJob interestAccrualJob(JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate, InterestProperties interestProperties,
+      LedgerProperties ledgerProperties, BalanceShards balanceShards, OutboxWriter outboxWriter,
+      ShardRouter shardRouter, MeterRegistry meterRegistry) {
+    return new InterestAccrualJob(jdbcTemplate, transactionTemplate, interestProperties,
+        ledgerProperties, balanceShards, outboxWriter, shardRouter, meterRegistry);
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.BankApp.interest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 利息の入金処理の進捗です。
+ *
+ * @param status            状態
+ * @param businessDate      利息を付ける営業日
+ * @param startedAt         開始日時
+ * @param finishedAt        終了日時（実行中は null）
+ * @param accountsScanned   確認した口座の数
+ * @param accountsCredited  利息を入金した口座の数
+ * @param totalInterest     入金した利息の合計
+ * @param accountsPerSecond 1 秒あたりに確認した口座の数
+ */
+public record InterestProgress(Status status, LocalDate businessDate, Instant startedAt,
+                               Instant finishedAt, long accountsScanned, long accountsCredited,
+                               long totalInterest, double accountsPerSecond) {
+
+  public enum Status {
+    IDLE, RUNNING, COMPLETED, FAILED
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.BankApp.interest;
+
+import java.math.BigDecimal;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 利息の計算と入金に関する設定です（bankapp.interest.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.interest")
+public class InterestProperties {
+
+  // 年利（0.001 で 0.1%）。1 日分は残高 × 年利 ÷ その年の日数で、1 円未満は切り捨てる
+  private BigDecimal annualRate = new BigDecimal("0.001");
+
+  // 1 つのトランザクションで利息を付ける口座の数
+  private int chunkSize = 1000;
+
+  // 範囲を並行して処理するスレッドの数
+  private int parallelism = 4;
+}
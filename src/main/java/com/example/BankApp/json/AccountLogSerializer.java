@@ -0,0 +1,64 @@
+package com.example.BankApp.json;
+
+import com.example.BankApp.model.AccountLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * {@link AccountLog} のシリアライザです。
+ * <p>
+ * 日時は ObjectMapper に登録されたシリアライザに任せ、spring.jackson.* の設定（ISO 形式など）に従います。
+ */
+class AccountLogSerializer extends StdSerializer<AccountLog> {
+
+  private static final SerializedString ACCOUNT_LOG_ID = new SerializedString("accountLogId");
+  private static final SerializedString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+  private static final SerializedString ACCOUNT_LOG_TYPE = new SerializedString("accountLogType");
+  private static final SerializedString AMOUNT = new SerializedString("amount");
+  private static final SerializedString BALANCE_AFTER_TRANSACTION =
+      new SerializedString("balanceAfterTransaction");
+  private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+  private static final SerializedString ACCOUNT_LOG_STATUS =
+      new SerializedString("accountLogStatus");
+
+  AccountLogSerializer() {
+    super(AccountLog.class);
+  }
+
+  @Override
+  public void serialize(AccountLog value, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+    gen.writeStartObject(value);
+    gen.writeFieldName(ACCOUNT_LOG_ID);
+    gen.writeString(value.getAccountLogId());
+    gen.writeFieldName(ACCOUNT_NUMBER);
+    gen.writeString(value.getAccountNumber());
+    gen.writeFieldName(ACCOUNT_LOG_TYPE);
+    writeEnum(gen, value.getAccountLogType());
+    gen.writeFieldName(AMOUNT);
+    gen.writeNumber(value.getAmount());
+    gen.writeFieldName(BALANCE_AFTER_TRANSACTION);
+    gen.writeNumber(value.getBalanceAfterTransaction());
+    gen.writeFieldName(TIMESTAMP);
+    if (value.getTimestamp() == null) {
+      gen.writeNull();
+    } else {
+      provider.findValueSerializer(value.getTimestamp().getClass())
+          .serialize(value.getTimestamp(), gen, provider);
+    }
+    gen.writeFieldName(ACCOUNT_LOG_STATUS);
+    writeEnum(gen, value.getAccountLogStatus());
+    gen.writeEndObject();
+  }
+
+  private static void writeEnum(JsonGenerator gen, Enum<?> value) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeString(value.name());
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.BankApp.json;
+
+import com.example.BankApp.dto.AdminBankAccountResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * {@link AdminBankAccountResponse} のシリアライザです。
+ * Lombok の isActive() に合わせて、有効フラグは "active" として出力します。
+ */
+class AdminBankAccountResponseSerializer extends StdSerializer<AdminBankAccountResponse> {
+
+  private static final SerializedString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+  private static final SerializedString ACCOUNT_HOLDER_NAME =
+      new SerializedString("accountHolderName");
+  private static final SerializedString BALANCE = new SerializedString("balance");
+  private static final SerializedString ACTIVE = new SerializedString("active");
+
+  AdminBankAccountResponseSerializer() {
+    super(AdminBankAccountResponse.class);
+  }
+
+  @Override
+  public void serialize(AdminBankAccountResponse value, JsonGenerator gen,
+      SerializerProvider provider) throws IOException {
+    gen.writeStartObject(value);
+    gen.writeFieldName(ACCOUNT_NUMBER);
+    gen.writeString(value.getAccountNumber());
+    gen.writeFieldName(ACCOUNT_HOLDER_NAME);
+    gen.writeString(value.getAccountHolderName());
+    gen.writeFieldName(BALANCE);
+    gen.writeNumber(value.getBalance());
+    gen.writeFieldName(ACTIVE);
+    gen.writeBoolean(value.isActive());
+    gen.writeEndObject();
+  }
+}
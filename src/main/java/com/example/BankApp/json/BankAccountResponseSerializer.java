@@ -0,0 +1,43 @@
+package com.example.BankApp.json;
+
+import com.example.BankApp.dto.BankAccountResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * {@link BankAccountResponse} のシリアライザです。null の項目は出力しません（@JsonInclude(NON_NULL) と同じ）。
+ */
+class BankAccountResponseSerializer extends StdSerializer<BankAccountResponse> {
+
+  private static final SerializedString MESSAGE = new SerializedString("message");
+  private static final SerializedString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+  private static final SerializedString ACCOUNT_HOLDER_NAME =
+      new SerializedString("accountHolderName");
+  private static final SerializedString BALANCE = new SerializedString("balance");
+
+  BankAccountResponseSerializer() {
+    super(BankAccountResponse.class);
+  }
+
+  @Override
+  public void serialize(BankAccountResponse value, JsonGenerator gen,
+      SerializerProvider provider) throws IOException {
+    gen.writeStartObject(value);
+    writeIfPresent(gen, MESSAGE, value.getMessage());
+    writeIfPresent(gen, ACCOUNT_NUMBER, value.getAccountNumber());
+    writeIfPresent(gen, ACCOUNT_HOLDER_NAME, value.getAccountHolderName());
+    writeIfPresent(gen, BALANCE, value.getBalance());
+    gen.writeEndObject();
+  }
+
+  private static void writeIfPresent(JsonGenerator gen, SerializedString name, String value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      gen.writeString(value);
+    }
+  }
+}
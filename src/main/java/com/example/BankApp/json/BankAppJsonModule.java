@@ -0,0 +1,24 @@
+package com.example.BankApp.json;
+
+import com.example.BankApp.dto.AdminBankAccountResponse;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.model.AccountLog;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.stereotype.Component;
+
+/**
+ * レスポンスで頻繁に返すクラスを、リフレクションを使わずに JSON に変換するシリアライザを登録します。
+ * <p>
+ * Spring Boot は Module の Bean を自動で ObjectMapper に登録します。
+ * 出力される JSON は、リフレクションによる既定の変換結果と同じです。
+ */
+@Component
+public class BankAppJsonModule extends SimpleModule {
+
+  public BankAppJsonModule() {
+    super("BankAppJsonModule");
+    addSerializer(BankAccountResponse.class, new BankAccountResponseSerializer());
+    addSerializer(AdminBankAccountResponse.class, new AdminBankAccountResponseSerializer());
+    addSerializer(AccountLog.class, new AccountLogSerializer());
+  }
+}
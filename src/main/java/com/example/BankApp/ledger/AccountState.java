@@ -0,0 +1,51 @@
+package com.example.BankApp.ledger;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.BankAccount;
+
+/**
+ * 取引履歴を順に適用して得られる口座の状態です。
+ *
+ * @param accountNumber     口座番号
+ * @param accountHolderName 口座名義
+ * @param balance           残高
+ * @param active            口座が有効かどうか
+ * @param sequence          適用済みの最後の取引履歴の連番
+ */
+public record AccountState(String accountNumber, String accountHolderName, int balance,
+                           boolean active, long sequence) {
+
+  /**
+   * bank_account のスナップショットから状態を作ります。
+   *
+   * @param account 口座
+   * @return 口座の状態
+   */
+  public static AccountState of(BankAccount account) {
+    return new AccountState(account.getAccountNumber(), account.getAccountHolderName(),
+        account.getBalance(), account.isActive(), account.getLedgerSequence());
+  }
+
+  /**
+   * 取引履歴を 1 件適用した後の状態を返します。失敗した取引は状態を変えません。
+   *
+   * @param event 取引履歴
+   * @return 適用後の状態
+   */
+  public AccountState apply(AccountLog event) {
+    if (event.getAccountLogStatus() != AccountLogStatus.SUCCESS) {
+      return this;
+    }
+    return switch (event.getAccountLogType()) {
+      case OPEN -> new AccountState(accountNumber, accountHolderName, 0, true,
+          event.getSequenceNumber());
+      case DEPOSIT, INTEREST -> new AccountState(accountNumber, accountHolderName,
+          balance + event.getAmount(), active, event.getSequenceNumber());
+      case WITHDRAW -> new AccountState(accountNumber, accountHolderName,
+          balance - event.getAmount(), active, event.getSequenceNumber());
+      case CLOSE -> new AccountState(accountNumber, accountHolderName, balance, false,
+          event.getSequenceNumber());
+    };
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.BankApp.ledger;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 入金が集中する口座（bankapp.ledger.hot-accounts）の残高を、balance_shard の複数の行に分けて管理します。
+ * <p>
+ * 口座の残高は bank_account.balance と各行の合計です。入金はランダムに選んだ 1 行だけを更新するため、
+ * 同じ口座への入金どうしは別の行ロックを取り、bank_account の行ロックも取りません。
+ * 出金・解約は bank_account の行をロックし、bank_account.balance だけで足りない場合に限り
+ * すべての行をロックして bank_account.balance へ集約します。
+ * 起動時には分けた残高をいったん bank_account.balance に戻し、設定どおりの行を作り直します。
+ */
+@Slf4j
+public class BalanceShards {
+
+  private static final String ADD = """
+      UPDATE balance_shard SET balance = balance + ?
+      WHERE account_number = ? AND shard_no = ?""";
+
+  private static final String BALANCE = """
+      SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM balance_shard s
+                                   WHERE s.account_number = a.account_number), 0)
+      FROM bank_account a WHERE a.account_number = ?""";
+
+  private static final String LOCK_SHARDS = """
+      SELECT balance FROM balance_shard WHERE account_number = ? ORDER BY shard_no FOR UPDATE""";
+
+  private static final String INSERT_SHARD = """
+      INSERT INTO balance_shard (account_number, shard_no, balance)
+      SELECT a.account_number, ?, 0 FROM bank_account a WHERE a.account_number = ?""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final LedgerProperties properties;
+
+  // synchronize() で行を用意した口座だけを分割の対象にする
+  private volatile Set<String> shardedAccounts = Set.of();
+
+  public BalanceShards(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      LedgerProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+  }
+
+  public boolean isSharded(String accountNumber) {
+    return shardedAccounts.contains(accountNumber);
+  }
+
+  /**
+   * 分けた残高を bank_account.balance に戻し、設定された口座ごとに残高 0 の行を作り直します。
+   * イベントソーシングのモードでは分割を使わないため、戻すだけにします。
+   * 取引を受け付ける前に呼び出してください。
+   */
+  public void synchronize() {
+    transactionTemplate.executeWithoutResult(status -> {
+      int merged = jdbcTemplate.update("""
+          UPDATE bank_account a SET balance = balance
+              + (SELECT SUM(s.balance) FROM balance_shard s WHERE s.account_number = a.account_number)
+          WHERE EXISTS (SELECT 1 FROM balance_shard s WHERE s.account_number = a.account_number)""");
+      jdbcTemplate.update("DELETE FROM balance_shard");
+      if (merged > 0) {
+        log.info("分割していた残高を bank_account に戻しました: {} 口座", merged);
+      }
+    });
+    if (properties.isEventSourced() || properties.getHotAccounts().isEmpty()) {
+      shardedAccounts = Set.of();
+      return;
+    }
+    Set<String> sharded = new LinkedHashSet<>();
+    transactionTemplate.executeWithoutResult(status -> {
+      for (String accountNumber : properties.getHotAccounts()) {
+        int created = 0;
+        for (int shard = 0; shard < properties.getBalanceShards(); shard++) {
+          created += jdbcTemplate.update(INSERT_SHARD, shard, accountNumber);
+        }
+        if (created > 0) {
+          sharded.add(accountNumber);
+        } else {
+          log.warn("残高を分割する口座が存在しません: accountNumber={}", accountNumber);
+        }
+      }
+    });
+    shardedAccounts = Set.copyOf(sharded);
+    log.info("残高を {} 行に分割する口座: {}", properties.getBalanceShards(), sharded);
+  }
+
+  /**
+   * ランダムに選んだ 1 行に入金額を加えます。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        入金額
+   * @return 更新できた場合は true（行が無い場合は false）
+   */
+  public boolean add(String accountNumber, int amount) {
+    int shard = ThreadLocalRandom.current().nextInt(properties.getBalanceShards());
+    return jdbcTemplate.update(ADD, amount, accountNumber, shard) > 0;
+  }
+
+  /**
+   * bank_account.balance と各行の合計を 1 文で読み取ります。ロックは取りません。
+   *
+   * @param accountNumber 口座番号
+   * @return 口座の残高
+   */
+  public int balance(String accountNumber) {
+    Integer balance = jdbcTemplate.queryForObject(BALANCE, Integer.class, accountNumber);
+    return balance != null ? balance : 0;
+  }
+
+  /**
+   * 各行の合計を読み取ります。ロックは取りません。
+   *
+   * @param accountNumber 口座番号
+   * @return 分けて持っている残高の合計
+   */
+  public int shardTotal(String accountNumber) {
+    Integer total = jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(balance), 0) FROM balance_shard WHERE account_number = ?",
+        Integer.class, accountNumber);
+    return total != null ? total : 0;
+  }
+
+  /**
+   * すべての行をロックして残高を 0 にし、集めた金額を返します。
+   * 呼び出し元は同じトランザクションで bank_account の行をロックし、返した金額を残高に加えてください。
+   *
+   * @param accountNumber 口座番号
+   * @return 各行から集めた金額
+   */
+  public int drain(String accountNumber) {
+    List<Integer> balances = jdbcTemplate.queryForList(LOCK_SHARDS, Integer.class, accountNumber);
+    int total = 0;
+    for (int balance : balances) {
+      total += balance;
+    }
+    if (total != 0) {
+      jdbcTemplate.update(
+          "UPDATE balance_shard SET balance = 0 WHERE account_number = ? AND balance <> 0",
+          accountNumber);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,298 @@
+package com.example.BankApp.ledger;
+
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.velocity.VelocityTracker;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 取引履歴（AccountLog）をイベントとして追加することだけで取引を処理し、残高はメモリ上の射影で管理します。
+ * <p>
+ * 口座ごとのロックはメモリ上で取り、bank_account の行ロックは取りません。
+ * 射影の状態は取引のコミット後に更新し、ロックはトランザクションの完了まで保持します。
+ * 射影の残高は一定間隔で bank_account にスナップショットとして書き戻し、
+ * 起動時はスナップショットとそれ以降の取引履歴から射影を復元します。
+ * 射影はアプリケーションのインスタンスごとに持つため、同じ口座への書き込みは 1 つのインスタンスに限る必要があります。
+ */
+@Slf4j
+public class EventSourcedLedger {
+
+  private static final String UPDATE_SNAPSHOT = """
+      UPDATE bank_account SET balance = ?, is_active = ?, ledger_sequence = ?
+      WHERE account_number = ? AND ledger_sequence < ?""";
+
+  private final BankAccountRepository bankAccountRepository;
+  private final AccountLogRepository accountLogRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final LedgerProperties properties;
+  private final OutboxWriter outboxWriter;
+  private final VelocityTracker velocityTracker;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  public EventSourcedLedger(BankAccountRepository bankAccountRepository,
+      AccountLogRepository accountLogRepository, JdbcTemplate jdbcTemplate,
+      LedgerProperties properties, OutboxWriter outboxWriter, VelocityTracker velocityTracker) {
+    this.bankAccountRepository = bankAccountRepository;
+    this.accountLogRepository = accountLogRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+    this.outboxWriter = outboxWriter;
+    this.velocityTracker = velocityTracker;
+  }
+
+  public boolean isEnabled() {
+    return properties.isEventSourced();
+  }
+
+  /**
+   * bank_account のスナップショットを読み込み、それ以降の取引履歴を再生して射影を作り直します。
+   * 取引を受け付ける前に呼び出してください。
+   */
+  public void recover() {
+    Map<String, Entry> recovered = new HashMap<>();
+    for (BankAccount account : bankAccountRepository.findAll()) {
+      recovered.put(account.getAccountNumber(),
+          new Entry(AccountState.of(account), account.getLedgerSequence()));
+    }
+    int replayed = 0;
+    for (AccountLog event : accountLogRepository.findEventsAfterSnapshot()) {
+      Entry entry = recovered.get(event.getAccountNumber());
+      if (entry != null) {
+        entry.state = entry.state.apply(event);
+        replayed++;
+      }
+    }
+    entries.clear();
+    entries.putAll(recovered);
+    log.info("残高の射影を復元しました: 口座={} 再生した取引履歴={}", recovered.size(), replayed);
+  }
+
+  /**
+   * 口座の現在の状態を返します。
+   *
+   * @param accountNumber 口座番号
+   * @return 口座の状態。口座が存在しなければ空
+   */
+  public Optional<AccountState> current(String accountNumber) {
+    return Optional.ofNullable(entry(accountNumber)).map(entry -> entry.state);
+  }
+
+  /**
+   * 入金の取引履歴を追加します。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        入金額
+   * @return 入金後の状態
+   */
+  public AccountState deposit(String accountNumber, int amount) {
+    return append(accountNumber, state -> {
+      if (!state.active()) {
+        throw BankOperationException.ACCOUNT_CLOSED;
+      }
+      return event(state, AccountLogType.DEPOSIT, amount, state.balance() + amount,
+          AccountLogStatus.SUCCESS);
+    }).state();
+  }
+
+  /**
+   * 出金の取引履歴を追加します。残高不足や出金の上限を超える場合も失敗として記録してから例外を投げます。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        出金額
+   * @return 出金後の状態
+   */
+  public AccountState withdraw(String accountNumber, int amount) {
+    Appended appended = append(accountNumber, state -> {
+      if (!state.active()) {
+        throw BankOperationException.ACCOUNT_CLOSED;
+      }
+      if (amount > state.balance() || velocityTracker.limitExceeded(accountNumber, amount)) {
+        return event(state, AccountLogType.WITHDRAW, amount, state.balance(),
+            AccountLogStatus.FAILED);
+      }
+      return event(state, AccountLogType.WITHDRAW, amount, state.balance() - amount,
+          AccountLogStatus.SUCCESS);
+    });
+    if (appended.event().getAccountLogStatus() == AccountLogStatus.FAILED) {
+      // 失敗した取引では残高が変わらないため、残高が足りていれば上限を超えたことによる失敗
+      throw amount > appended.state().balance()
+          ? BankOperationException.INSUFFICIENT_BALANCE
+          : BankOperationException.VELOCITY_LIMIT_EXCEEDED;
+    }
+    return appended.state();
+  }
+
+  /**
+   * 解約の取引履歴を追加します。
+   *
+   * @param accountNumber 口座番号
+   * @return 解約後の状態
+   */
+  public AccountState close(String accountNumber) {
+    return append(accountNumber, state -> {
+      if (state.balance() > 0) {
+        throw BankOperationException.BALANCE_REMAINING;
+      }
+      if (!state.active()) {
+        throw BankOperationException.ALREADY_CLOSED;
+      }
+      return event(state, AccountLogType.CLOSE, 0, 0, AccountLogStatus.SUCCESS);
+    }).state();
+  }
+
+  /**
+   * スナップショット以降に変化した口座の残高を bank_account に書き戻します。
+   *
+   * @return 書き戻した口座の数
+   */
+  @Scheduled(fixedDelayString = "${bankapp.ledger.snapshot-interval:10s}")
+  public int snapshot() {
+    if (!isEnabled()) {
+      return 0;
+    }
+    List<Entry> changed = new ArrayList<>();
+    List<AccountState> states = new ArrayList<>();
+    List<Object[]> batch = new ArrayList<>();
+    for (Entry entry : entries.values()) {
+      AccountState state = entry.state;
+      if (state.sequence() > entry.snapshotSequence) {
+        changed.add(entry);
+        states.add(state);
+        batch.add(new Object[]{state.balance(), state.active(), state.sequence(),
+            state.accountNumber(), state.sequence()});
+      }
+    }
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT, batch);
+    for (int i = 0; i < changed.size(); i++) {
+      changed.get(i).snapshotSequence = states.get(i).sequence();
+    }
+    log.debug("残高のスナップショットを書き戻しました: 口座={}", batch.size());
+    return batch.size();
+  }
+
+  @PreDestroy
+  void snapshotOnShutdown() {
+    snapshot();
+  }
+
+  private Appended append(String accountNumber, Function<AccountState, AccountLog> decide) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("取引履歴の追加はトランザクション内で呼び出す必要があります");
+    }
+    Entry entry = entry(accountNumber);
+    if (entry == null) {
+      throw ResourceNotFoundException.ACCOUNT_NOT_FOUND;
+    }
+    entry.lock.lock();
+    AccountLog event;
+    AccountState next;
+    try {
+      // 同じトランザクションで続けて追加する場合は、まだコミットしていない状態に積み上げる
+      AccountState current = entry.pending != null ? entry.pending : entry.state;
+      event = decide.apply(current);
+      accountLogRepository.save(event);
+      outboxWriter.append(event);
+      next = current.apply(event);
+    } catch (RuntimeException e) {
+      entry.lock.unlock();
+      throw e;
+    }
+    entry.pending = next;
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED && entry.pending != null) {
+          entry.state = entry.pending;
+        }
+        entry.pending = null;
+        entry.lock.unlock();
+      }
+    });
+    return new Appended(event, next);
+  }
+
+  private Entry entry(String accountNumber) {
+    Entry entry = entries.get(accountNumber);
+    if (entry != null) {
+      return entry;
+    }
+    // 射影に無い口座（復元後に開設された口座）は、スナップショットとそれ以降の取引履歴から読み込む
+    return entries.computeIfAbsent(accountNumber, this::load);
+  }
+
+  private Entry load(String accountNumber) {
+    return bankAccountRepository.findById(accountNumber)
+        .map(account -> {
+          AccountState state = AccountState.of(account);
+          for (AccountLog event : accountLogRepository
+              .findByAccountNumberAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                  accountNumber, account.getLedgerSequence())) {
+            state = state.apply(event);
+          }
+          return new Entry(state, account.getLedgerSequence());
+        })
+        .orElse(null);
+  }
+
+  private static AccountLog event(AccountState state, AccountLogType type, int amount,
+      int balanceAfter, AccountLogStatus status) {
+    return AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber(state.accountNumber())
+        .accountLogType(type)
+        .amount(amount)
+        .balanceAfterTransaction(balanceAfter)
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(status)
+        .sequenceNumber(status == AccountLogStatus.SUCCESS ? state.sequence() + 1 : state.sequence())
+        .build();
+  }
+
+  private record Appended(AccountLog event, AccountState state) {
+  }
+
+  private static final class Entry {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // コミット済みの状態（ロックを取らずに読み取る）
+    private volatile AccountState state;
+
+    // このトランザクションで追加した、まだコミットしていない状態（ロックを保持しているスレッドだけが触る）
+    private AccountState pending;
+
+    // bank_account に書き戻し済みの連番
+    private volatile long snapshotSequence;
+
+    private Entry(AccountState state, long snapshotSequence) {
+      this.state = state;
+      this.snapshotSequence = snapshotSequence;
+    }
+  }
+}
@@ -0,0 +1,315 @@
+package com.example.BankApp.ledger;
+
+import com.example.BankApp.Mapper.BankAccountMapper;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.metrics.Measured;
+import com.example.BankApp.metrics.Operation;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.stream.BalanceStreamRegistry;
+import com.example.BankApp.util.MoneyFormat;
+import com.example.BankApp.velocity.VelocityTracker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 同時に届いた入金・出金をキューに集め、専用のスレッドが 1 つのトランザクションでまとめてコミットします。
+ * <p>
+ * 最初の取引が届いてから bankapp.ledger.group-commit.window の間、または max-batch-size 件に達するまで取引を集め、
+ * 対象の口座を口座番号の順に 1 文でロックしてから、届いた順に残高を計算します。
+ * 残高の更新と取引履歴の追加はそれぞれバッチで実行し、コミット後に取引ごとの結果を呼び出し元へ返します。
+ * 残高不足や解約済みといった業務上の失敗はその取引だけの結果になり、同じトランザクションの他の取引は成功します。
+ * イベントソーシングのモードと、残高を分割した口座（{@link BalanceShards}）には使いません。
+ */
+@Slf4j
+public class GroupCommitter {
+
+  private static final String LOCK_ACCOUNTS = """
+      SELECT account_number, account_holder_name, balance, is_active, ledger_sequence
+      FROM bank_account WHERE account_number IN (%s) ORDER BY account_number FOR UPDATE""";
+
+  private static final String UPDATE_ACCOUNT = """
+      UPDATE bank_account SET balance = ?, ledger_sequence = ? WHERE account_number = ?""";
+
+  private static final String INSERT_LOG = """
+      INSERT INTO account_log (account_log_id, account_number, account_log_type, amount,
+                               balance_after_transaction, timestamp, account_log_status,
+                               sequence_number)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final LedgerProperties properties;
+  private final BalanceShards balanceShards;
+  private final OutboxWriter outboxWriter;
+  private final BalanceStreamRegistry balanceStreamRegistry;
+  private final VelocityTracker velocityTracker;
+  private final DistributionSummary batchSizes;
+
+  private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+  private Thread committer;
+  private volatile boolean stopped;
+
+  public GroupCommitter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      LedgerProperties properties, BalanceShards balanceShards, OutboxWriter outboxWriter,
+      BalanceStreamRegistry balanceStreamRegistry, VelocityTracker velocityTracker,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+    this.balanceShards = balanceShards;
+    this.outboxWriter = outboxWriter;
+    this.balanceStreamRegistry = balanceStreamRegistry;
+    this.velocityTracker = velocityTracker;
+    this.batchSizes = DistributionSummary.builder("bankapp.ledger.group-commit.batch-size")
+        .description("1 つのトランザクションにまとめてコミットした取引の数")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 口座への入出金をグループコミットで処理するかどうかを返します。
+   *
+   * @param accountNumber 口座番号
+   * @return グループコミットで処理する場合は true
+   */
+  public boolean handles(String accountNumber) {
+    return properties.getGroupCommit().isEnabled() && !properties.isEventSourced()
+        && !balanceShards.isSharded(accountNumber);
+  }
+
+  /**
+   * 入金をキューに追加し、コミットされるまで待ちます。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        入金額
+   * @return 入金後の口座情報
+   */
+  @Measured(Operation.DEPOSIT)
+  public BankAccountResponse deposit(String accountNumber, int amount) {
+    return submit(new Request(AccountLogType.DEPOSIT, accountNumber, amount));
+  }
+
+  /**
+   * 出金をキューに追加し、コミットされるまで待ちます。残高不足の場合も失敗の取引履歴はコミットされます。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        出金額
+   * @return 出金後の口座情報
+   */
+  @Measured(Operation.WITHDRAW)
+  public BankAccountResponse withdraw(String accountNumber, int amount) {
+    return submit(new Request(AccountLogType.WITHDRAW, accountNumber, amount));
+  }
+
+  private BankAccountResponse submit(Request request) {
+    enqueue(request);
+    try {
+      return request.result.get();
+    } catch (InterruptedException e) {
+      // 取引はキューに残るため、呼び出し元が中断されてもコミットされることがある
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("グループコミットの完了を待つ間に中断されました", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("グループコミットに失敗しました", e.getCause());
+    }
+  }
+
+  // 有効にした場合だけスレッドを持つよう、最初の取引が届いたときに起動する
+  private synchronized void enqueue(Request request) {
+    if (stopped) {
+      throw new IllegalStateException("グループコミットは停止しています");
+    }
+    if (committer == null) {
+      committer = new Thread(this::run, "group-committer");
+      committer.setDaemon(true);
+      committer.start();
+    }
+    queue.add(request);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    Thread thread;
+    synchronized (this) {
+      stopped = true;
+      thread = committer;
+    }
+    if (thread != null) {
+      thread.interrupt();
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  private void run() {
+    int maxBatchSize = properties.getGroupCommit().getMaxBatchSize();
+    long windowNanos = properties.getGroupCommit().getWindow().toNanos();
+    List<Request> batch = new ArrayList<>(maxBatchSize);
+    boolean interrupted = false;
+    while (!interrupted) {
+      try {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+          Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        // 停止時も、集め終わった取引はコミットしてから終える
+        interrupted = true;
+      }
+      queue.drainTo(batch, maxBatchSize - batch.size());
+      if (!batch.isEmpty()) {
+        commit(batch);
+        batch.clear();
+      }
+    }
+    List<Request> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    IllegalStateException stoppedException =
+        new IllegalStateException("グループコミットは停止しています");
+    remaining.forEach(request -> request.result.completeExceptionally(stoppedException));
+  }
+
+  private void commit(List<Request> batch) {
+    List<Outcome> outcomes;
+    try {
+      outcomes = transactionTemplate.execute(status -> apply(batch));
+    } catch (RuntimeException e) {
+      log.error("グループコミットに失敗しました: {} 件", batch.size(), e);
+      batch.forEach(request -> request.result.completeExceptionally(e));
+      return;
+    }
+    batchSizes.record(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      Outcome outcome = outcomes.get(i);
+      if (outcome.failure() != null) {
+        batch.get(i).result.completeExceptionally(outcome.failure());
+      } else {
+        batch.get(i).result.complete(outcome.response());
+      }
+    }
+  }
+
+  private List<Outcome> apply(List<Request> batch) {
+    Set<String> accountNumbers = new TreeSet<>();
+    batch.forEach(request -> accountNumbers.add(request.accountNumber));
+    Map<String, AccountState> states = new HashMap<>();
+    Map<String, Long> lockedSequences = new HashMap<>();
+    jdbcTemplate.query(
+        LOCK_ACCOUNTS.formatted(String.join(",", Collections.nCopies(accountNumbers.size(), "?"))),
+        rs -> {
+          AccountState state = new AccountState(rs.getString("account_number"),
+              rs.getString("account_holder_name"), rs.getInt("balance"),
+              rs.getBoolean("is_active"), rs.getLong("ledger_sequence"));
+          states.put(state.accountNumber(), state);
+          lockedSequences.put(state.accountNumber(), state.sequence());
+        },
+        accountNumbers.toArray());
+
+    List<Outcome> outcomes = new ArrayList<>(batch.size());
+    List<Object[]> logs = new ArrayList<>(batch.size());
+    for (Request request : batch) {
+      AccountState state = states.get(request.accountNumber);
+      if (state == null) {
+        outcomes.add(Outcome.failed(ResourceNotFoundException.ACCOUNT_NOT_FOUND));
+        continue;
+      }
+      if (!state.active()) {
+        outcomes.add(Outcome.failed(BankOperationException.ACCOUNT_CLOSED));
+        continue;
+      }
+      if (request.type == AccountLogType.WITHDRAW && request.amount > state.balance()) {
+        logs.add(logRow(request, state.balance(), AccountLogStatus.FAILED, state.sequence()));
+        outcomes.add(Outcome.failed(BankOperationException.INSUFFICIENT_BALANCE));
+        continue;
+      }
+      if (request.type == AccountLogType.WITHDRAW
+          && velocityTracker.limitExceeded(request.accountNumber, request.amount)) {
+        logs.add(logRow(request, state.balance(), AccountLogStatus.FAILED, state.sequence()));
+        outcomes.add(Outcome.failed(BankOperationException.VELOCITY_LIMIT_EXCEEDED));
+        continue;
+      }
+      int balance = request.type == AccountLogType.DEPOSIT
+          ? state.balance() + request.amount
+          : state.balance() - request.amount;
+      state = new AccountState(state.accountNumber(), state.accountHolderName(), balance, true,
+          state.sequence() + 1);
+      states.put(state.accountNumber(), state);
+      logs.add(logRow(request, balance, AccountLogStatus.SUCCESS, state.sequence()));
+      String message = MoneyFormat.yen(request.amount)
+          + (request.type == AccountLogType.DEPOSIT ? "入金しました。" : "出金しました。");
+      BankAccountResponse response = BankAccountMapper.toResponse(state, message);
+      balanceStreamRegistry.publishAfterCommit(response);
+      outcomes.add(new Outcome(response, null));
+    }
+
+    List<Object[]> updates = new ArrayList<>();
+    for (AccountState state : states.values()) {
+      if (state.sequence() != lockedSequences.get(state.accountNumber())) {
+        updates.add(new Object[]{state.balance(), state.sequence(), state.accountNumber()});
+      }
+    }
+    if (!updates.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPDATE_ACCOUNT, updates);
+    }
+    if (!logs.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_LOG, logs);
+      outboxWriter.appendRows(logs);
+    }
+    return outcomes;
+  }
+
+  private static Object[] logRow(Request request, int balanceAfter, AccountLogStatus status,
+      long sequence) {
+    return new Object[]{UUID.randomUUID().toString(), request.accountNumber, request.type.name(),
+        request.amount, balanceAfter, LocalDateTime.now(), status.name(), sequence};
+  }
+
+  private static final class Request {
+
+    final AccountLogType type;
+    final String accountNumber;
+    final int amount;
+    final CompletableFuture<BankAccountResponse> result = new CompletableFuture<>();
+
+    Request(AccountLogType type, String accountNumber, int amount) {
+      this.type = type;
+      this.accountNumber = accountNumber;
+      this.amount = amount;
+    }
+  }
+
+  private record Outcome(BankAccountResponse response, RuntimeException failure) {
+
+    static Outcome failed(RuntimeException failure) {
+      return new Outcome(null, failure);
+    }
+  }
+}
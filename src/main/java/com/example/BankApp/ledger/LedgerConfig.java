@@ -0,0 +1,72 @@
+package com.example.BankApp.ledger;
+
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.stream.BalanceStreamRegistry;
+import com.example.BankApp.velocity.VelocityTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// AOT では @ConditionalOnProperty がビルド時に固定されるため、イベントソーシングを使うかどうかは実行時に判定する
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(LedgerProperties.class)
+public class LedgerConfig {
+
+  @Bean
+  public EventSourcedLedger eventSourcedLedger(BankAccountRepository bankAccountRepository,
+      AccountLogRepository accountLogRepository, JdbcTemplate jdbcTemplate,
+      LedgerProperties ledgerProperties, OutboxWriter outboxWriter,
+      VelocityTracker velocityTracker) {
+    return new EventSourcedLedger(bankAccountRepository, accountLogRepository, jdbcTemplate,
+        ledgerProperties, outboxWriter, velocityTracker);
+  }
+
+  @Bean
+  public LedgerRebuilder ledgerRebuilder(BankAccountRepository bankAccountRepository,
+      AccountLogRepository accountLogRepository, JdbcTemplate jdbcTemplate,
+      LedgerProperties ledgerProperties) {
+    return new LedgerRebuilder(bankAccountRepository, accountLogRepository, jdbcTemplate,
+        ledgerProperties.getRebuildParallelism());
+  }
+
+  @Bean
+  public BalanceShards balanceShards(JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate, LedgerProperties ledgerProperties) {
+    return new BalanceShards(jdbcTemplate, transactionTemplate, ledgerProperties);
+  }
+
+  @Bean
+  public GroupCommitter groupCommitter(JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate, LedgerProperties ledgerProperties,
+      BalanceShards balanceShards, OutboxWriter outboxWriter,
+      BalanceStreamRegistry balanceStreamRegistry, VelocityTracker velocityTracker,
+      MeterRegistry meterRegistry) {
+    return new GroupCommitter(jdbcTemplate, transactionTemplate, ledgerProperties, balanceShards,
+        outboxWriter, balanceStreamRegistry, velocityTracker, meterRegistry);
+  }
+
+  // Web サーバーがリクエストを受け付ける前に、分割した残高の集約、残高の作り直し、射影の復元を済ませる
+  @Bean
+  public SmartInitializingSingleton ledgerRecovery(EventSourcedLedger eventSourcedLedger,
+      LedgerRebuilder ledgerRebuilder, BalanceShards balanceShards,
+      LedgerProperties ledgerProperties) {
+    return () -> {
+      balanceShards.synchronize();
+      if (ledgerProperties.isRebuildOnStartup()) {
+        ledgerRebuilder.rebuild();
+      }
+      if (eventSourcedLedger.isEnabled()) {
+        eventSourcedLedger.recover();
+      }
+    };
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.BankApp.ledger;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 残高の管理方式に関する設定です（bankapp.ledger.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.ledger")
+public class LedgerProperties {
+
+  // true の場合、取引履歴の追加だけで取引を処理し、残高はメモリ上の射影から返す
+  private boolean eventSourced = false;
+
+  // 射影の残高を bank_account にスナップショットとして書き戻す間隔
+  private Duration snapshotInterval = Duration.ofSeconds(10);
+
+  // 起動時に、すべての取引履歴を再生して bank_account の残高を作り直す
+  private boolean rebuildOnStartup = false;
+
+  // 作り直しで並行に処理する口座の数
+  private int rebuildParallelism = 4;
+
+  // 入金が集中する口座。残高を balance_shard の複数の行に分けて持ち、入金どうしが行ロックを奪い合わないようにする
+  private List<String> hotAccounts = List.of();
+
+  // hotAccounts の口座ごとに残高を分ける行の数
+  private int balanceShards = 8;
+
+  private GroupCommit groupCommit = new GroupCommit();
+
+  @Data
+  public static class GroupCommit {
+
+    // true の場合、同時に届いた入金・出金をまとめて 1 つのトランザクションでコミットする
+    private boolean enabled = false;
+
+    // 最初の取引が届いてから、まとめる取引を待つ最大の時間
+    private Duration window = Duration.ofMillis(2);
+
+    // 1 つのトランザクションにまとめる取引の最大数
+    private int maxBatchSize = 64;
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.BankApp.ledger;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * すべての取引履歴を口座ごとに並行して再生し、bank_account の残高・状態・連番を作り直します。
+ * <p>
+ * 取引履歴が 1 件も無い口座はそのままにします。
+ * 記録されている取引後残高が再生した残高と一致しない取引履歴は、警告としてログに出します。
+ */
+@Slf4j
+public class LedgerRebuilder {
+
+  private final BankAccountRepository bankAccountRepository;
+  private final AccountLogRepository accountLogRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final int parallelism;
+
+  public LedgerRebuilder(BankAccountRepository bankAccountRepository,
+      AccountLogRepository accountLogRepository, JdbcTemplate jdbcTemplate, int parallelism) {
+    this.bankAccountRepository = bankAccountRepository;
+    this.accountLogRepository = accountLogRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * 作り直しの結果です。
+   *
+   * @param accounts           処理した口座の数
+   * @param corrected          残高・状態・連番を書き換えた口座の数
+   * @param inconsistentEvents 取引後残高が再生結果と一致しなかった取引履歴の数
+   */
+  public record Result(int accounts, int corrected, int inconsistentEvents) {
+  }
+
+  public Result rebuild() {
+    List<BankAccount> accounts = bankAccountRepository.findAll();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      List<Future<Result>> futures = new ArrayList<>(accounts.size());
+      for (BankAccount account : accounts) {
+        futures.add(executor.submit(() -> rebuild(account)));
+      }
+      int corrected = 0;
+      int inconsistentEvents = 0;
+      for (Future<Result> future : futures) {
+        Result result = future.get();
+        corrected += result.corrected();
+        inconsistentEvents += result.inconsistentEvents();
+      }
+      Result result = new Result(accounts.size(), corrected, inconsistentEvents);
+      log.info("取引履歴から残高を作り直しました: {}", result);
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("残高の作り直しが中断されました", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("残高の作り直しに失敗しました", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Result rebuild(BankAccount account) {
+    List<AccountLog> events = accountLogRepository
+        .findByAccountNumberAndSequenceNumberGreaterThanOrderBySequenceNumber(
+            account.getAccountNumber(), -1);
+    if (events.isEmpty()) {
+      return new Result(1, 0, 0);
+    }
+    AccountState state = new AccountState(account.getAccountNumber(),
+        account.getAccountHolderName(), 0, false, 0);
+    int inconsistentEvents = 0;
+    for (AccountLog event : events) {
+      state = state.apply(event);
+      if (event.getAccountLogStatus() == AccountLogStatus.SUCCESS
+          && event.getBalanceAfterTransaction() != state.balance()) {
+        log.warn("取引後残高が再生結果と一致しません: accountLogId={} 記録={} 再生={}",
+            event.getAccountLogId(), event.getBalanceAfterTransaction(), state.balance());
+        inconsistentEvents++;
+      }
+    }
+    if (state.balance() == account.getBalance() && state.active() == account.isActive()
+        && state.sequence() == account.getLedgerSequence()) {
+      return new Result(1, 0, inconsistentEvents);
+    }
+    log.warn("口座の残高を取引履歴から作り直します: accountNumber={} 残高 {} -> {} 連番 {} -> {}",
+        account.getAccountNumber(), account.getBalance(), state.balance(),
+        account.getLedgerSequence(), state.sequence());
+    jdbcTemplate.update(
+        "UPDATE bank_account SET balance = ?, is_active = ?, ledger_sequence = ? "
+            + "WHERE account_number = ?",
+        state.balance(), state.active(), state.sequence(), account.getAccountNumber());
+    return new Result(1, 1, inconsistentEvents);
+  }
+}
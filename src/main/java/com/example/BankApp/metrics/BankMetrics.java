@@ -0,0 +1,67 @@
+package com.example.BankApp.metrics;
+
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * 業務操作ごとの処理時間・成否・金額を記録します。
+ * <p>
+ * メーターは起動時にすべて登録しておき、記録時は配列から取り出すだけにしています。
+ * リクエストごとにタグやメーターを組み立てないため、記録処理でオブジェクトを生成しません。
+ */
+@Component
+public class BankMetrics {
+
+  private static final Operation[] OPERATIONS = Operation.values();
+  private static final AccountLogStatus[] STATUSES = AccountLogStatus.values();
+
+  private final Timer[] latencies = new Timer[OPERATIONS.length];
+  private final Counter[][] results = new Counter[OPERATIONS.length][STATUSES.length];
+  private final DistributionSummary[] amounts = new DistributionSummary[OPERATIONS.length];
+
+  public BankMetrics(MeterRegistry meterRegistry) {
+    for (Operation operation : OPERATIONS) {
+      int i = operation.ordinal();
+      latencies[i] = Timer.builder("bankapp.operation.latency")
+          .description("業務操作の処理時間")
+          .tag("operation", operation.getTagValue())
+          .publishPercentileHistogram()
+          .register(meterRegistry);
+      for (AccountLogStatus status : STATUSES) {
+        results[i][status.ordinal()] = Counter.builder("bankapp.operation.results")
+            .description("業務操作の成功・失敗件数")
+            .tag("operation", operation.getTagValue())
+            .tag("status", status.name())
+            .register(meterRegistry);
+      }
+      amounts[i] = DistributionSummary.builder("bankapp.operation.amount")
+          .description("成功した取引の金額")
+          .baseUnit("yen")
+          .tag("operation", operation.getTagValue())
+          .publishPercentileHistogram()
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * 業務操作の結果を記録します。
+   *
+   * @param operation  操作の種類
+   * @param status     成否
+   * @param amount     取引金額（金額を伴わない操作は 0）
+   * @param startNanos 操作開始時の System.nanoTime()
+   */
+  public void record(Operation operation, AccountLogStatus status, int amount, long startNanos) {
+    int i = operation.ordinal();
+    latencies[i].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    results[i][status.ordinal()].increment();
+    if (status == AccountLogStatus.SUCCESS && amount > 0) {
+      amounts[i].record(amount);
+    }
+  }
+}
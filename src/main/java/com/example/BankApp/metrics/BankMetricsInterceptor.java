@@ -0,0 +1,50 @@
+package com.example.BankApp.metrics;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * {@link Measured} を付けたメソッドの処理時間・成否・金額を記録します。
+ * <p>
+ * 例外を投げずに戻れば成功、例外を投げれば失敗として記録します。金額は最初の {@link AmountRequest} または
+ * int の引数から取り、どちらも無い操作は 0 とします。
+ */
+@RequiredArgsConstructor
+public class BankMetricsInterceptor implements MethodInterceptor {
+
+  private final ObjectProvider<BankMetrics> bankMetrics;
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Measured measured = invocation.getMethod().getAnnotation(Measured.class);
+    if (measured == null) {
+      return invocation.proceed();
+    }
+    long start = System.nanoTime();
+    AccountLogStatus status = AccountLogStatus.FAILED;
+    try {
+      Object result = invocation.proceed();
+      status = AccountLogStatus.SUCCESS;
+      return result;
+    } finally {
+      bankMetrics.getObject()
+          .record(measured.value(), status, amount(invocation.getArguments()), start);
+    }
+  }
+
+  private static int amount(Object[] arguments) {
+    for (Object argument : arguments) {
+      if (argument instanceof AmountRequest request) {
+        return request.getAmount();
+      }
+      if (argument instanceof Integer amount) {
+        return amount;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.BankApp.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * メソッドを業務操作として、処理時間・成否・金額を {@link BankMetrics} に記録します。
+ * <p>
+ * トランザクションより外側で記録するため、処理時間にはコミットも含みます。
+ * 呼び出し元（API、自動振替、起動時のウォームアップなど）によらず記録されます。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Measured {
+
+  /**
+   * @return 操作の種類
+   */
+  Operation value();
+}
@@ -0,0 +1,73 @@
+package com.example.BankApp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(SqlProfilingProperties.class)
+public class MetricsConfig {
+
+  // JDBC の呼び出しを横取りして、リクエスト単位の SQL 件数・行数・時間を数える。
+  // コネクションの保持者の記録（PoolConfig）が最も外側になるよう、その 1 つ内側で適用する
+  @Bean
+  public static BeanPostProcessor sqlProfilingPostProcessor(
+      ObjectProvider<SqlProfilingProperties> propertiesProvider) {
+    return new SqlProfilingPostProcessor(propertiesProvider);
+  }
+
+  // 業務操作の処理時間にコミットも含めるため、シャードの選択（ShardingConfig）のすぐ内側、トランザクションより外側で記録する
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor bankMetricsAdvisor(ObjectProvider<BankMetrics> bankMetrics) {
+    DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+        AnnotationMatchingPointcut.forMethodAnnotation(Measured.class),
+        new BankMetricsInterceptor(bankMetrics));
+    advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    return advisor;
+  }
+
+  @Bean
+  public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(
+      MeterRegistry meterRegistry, SqlProfilingProperties properties) {
+    return new FilterRegistrationBean<>(new SqlProfilingFilter(meterRegistry, properties));
+  }
+
+  private static final class SqlProfilingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<SqlProfilingProperties> propertiesProvider;
+
+    SqlProfilingPostProcessor(ObjectProvider<SqlProfilingProperties> propertiesProvider) {
+      this.propertiesProvider = propertiesProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource dataSource
+          && !(bean instanceof SqlProfilingDataSource)
+          && propertiesProvider.getObject().isProfilingEnabled()) {
+        return new SqlProfilingDataSource(dataSource);
+      }
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+  }
+}
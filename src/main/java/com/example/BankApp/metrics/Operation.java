@@ -0,0 +1,22 @@
+package com.example.BankApp.metrics;
+
+/**
+ * メトリクスを記録する業務操作の種類です。
+ */
+public enum Operation {
+  DEPOSIT("deposit"),
+  WITHDRAW("withdraw"),
+  CREATE_ACCOUNT("createAccount"),
+  CLOSE_ACCOUNT("closeAccount"),
+  LOGIN("login");
+
+  private final String tagValue;
+
+  Operation(String tagValue) {
+    this.tagValue = tagValue;
+  }
+
+  public String getTagValue() {
+    return tagValue;
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.BankApp.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 1 リクエストの間に発行された SQL の件数・行数・DB 時間を、リクエストを処理しているスレッドごとに集計します。
+ * <p>
+ * 同じ SQL が {@code repeatThreshold} 回以上発行された場合は N+1 の疑いとして記録します。
+ */
+public final class RequestDbStats {
+
+  private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+  private final int repeatThreshold;
+
+  private int statements;
+  private long rows;
+  private long dbNanos;
+  private Map<String, Integer> executions;
+  private String repeatedSql;
+
+  private RequestDbStats(int repeatThreshold) {
+    this.repeatThreshold = repeatThreshold;
+  }
+
+  /**
+   * 現在のスレッドで集計を開始します。
+   *
+   * @param repeatThreshold 同じ SQL をこの回数以上発行したら N+1 の疑いとみなす
+   * @return 集計結果
+   */
+  public static RequestDbStats begin(int repeatThreshold) {
+    RequestDbStats stats = new RequestDbStats(repeatThreshold);
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /**
+   * 現在のスレッドの集計を返します。
+   *
+   * @return 集計結果。集計中でなければ null
+   */
+  public static RequestDbStats current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * 現在のスレッドの集計を終了します。
+   */
+  public static void end() {
+    CURRENT.remove();
+  }
+
+  void statementExecuted(String sql, long nanos) {
+    statements++;
+    dbNanos += nanos;
+    if (sql == null || repeatedSql != null) {
+      return;
+    }
+    if (executions == null) {
+      executions = new HashMap<>();
+    }
+    if (executions.merge(sql, 1, Integer::sum) >= repeatThreshold) {
+      repeatedSql = sql;
+    }
+  }
+
+  void rowsProcessed(long count) {
+    rows += count;
+  }
+
+  public int getStatements() {
+    return statements;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getDbNanos() {
+    return dbNanos;
+  }
+
+  /**
+   * N+1 の疑いがある SQL を返します。
+   *
+   * @return 繰り返し発行された SQL。無ければ null
+   */
+  public String getRepeatedSql() {
+    return repeatedSql;
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.BankApp.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * エンドポイント 1 回の呼び出しで発行してよい SQL の上限です。
+ * <p>
+ * 上限を超えると {@link SqlProfilingFilter} が警告を出します。
+ * {@code bankapp.sql.enforce-budget=true} の場合はリクエストをエラーにします。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+  /**
+   * @return 発行してよい SQL の件数
+   */
+  int value();
+}
@@ -0,0 +1,132 @@
+package com.example.BankApp.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * JDBC の呼び出しを横取りして、発行された SQL の件数・処理行数・実行時間を {@link RequestDbStats} に記録します。
+ * <p>
+ * 件数と時間は execute 系メソッドの呼び出し単位、行数は更新件数と ResultSet から読み込んだ行数です。
+ * リクエストの外（集計していないスレッド）からの呼び出しはそのまま元のオブジェクトに渡します。
+ */
+public class SqlProfilingDataSource extends DelegatingDataSource {
+
+  private static final ClassLoader CLASS_LOADER = SqlProfilingDataSource.class.getClassLoader();
+
+  public SqlProfilingDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrapConnection(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrapConnection(super.getConnection(username, password));
+  }
+
+  private static Connection wrapConnection(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class},
+        (proxy, method, args) -> {
+          Object result = invoke(proxy, connection, method, args);
+          if (result instanceof Statement statement) {
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return wrapStatement(statement, sql);
+          }
+          return result;
+        });
+  }
+
+  private static Statement wrapStatement(Statement statement, String preparedSql) {
+    Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    InvocationHandler handler = (proxy, method, args) -> {
+      RequestDbStats stats = RequestDbStats.current();
+      String name = method.getName();
+      if (stats == null || !name.startsWith("execute")) {
+        Object result = invoke(proxy, statement, method, args);
+        return stats != null && result instanceof ResultSet resultSet
+            ? wrapResultSet(resultSet, stats) : result;
+      }
+
+      String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+      long start = System.nanoTime();
+      Object result = invoke(proxy, statement, method, args);
+      stats.statementExecuted(sql, System.nanoTime() - start);
+
+      if (result instanceof ResultSet resultSet) {
+        return wrapResultSet(resultSet, stats);
+      }
+      if (result instanceof Integer count) {
+        stats.rowsProcessed(count);
+      } else if (result instanceof Long count) {
+        stats.rowsProcessed(count);
+      } else if (result instanceof int[] counts) {
+        for (int count : counts) {
+          stats.rowsProcessed(Math.max(count, 0));
+        }
+      }
+      return result;
+    };
+    return (Statement) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{type}, handler);
+  }
+
+  private static ResultSet wrapResultSet(ResultSet resultSet, RequestDbStats stats) {
+    return (ResultSet) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{ResultSet.class},
+        (proxy, method, args) -> {
+          Object result = invoke(proxy, resultSet, method, args);
+          if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+            stats.rowsProcessed(1);
+          }
+          return result;
+        });
+  }
+
+  // equals・hashCode はプロキシ自身で判定する。unwrap・isWrapperFor は、横取りしているインターフェースなら
+  // プロキシを返し、呼び出し側が元のオブジェクトを取り出して集計から外れないようにする
+  private static Object invoke(Object proxy, Object target, Method method, Object[] args)
+      throws Throwable {
+    int parameters = method.getParameterCount();
+    switch (method.getName()) {
+      case "equals" -> {
+        if (parameters == 1) {
+          return proxy == args[0];
+        }
+      }
+      case "hashCode" -> {
+        if (parameters == 0) {
+          return System.identityHashCode(proxy);
+        }
+      }
+      case "unwrap" -> {
+        if (parameters == 1 && ((Class<?>) args[0]).isInstance(proxy)) {
+          return proxy;
+        }
+      }
+      case "isWrapperFor" -> {
+        if (parameters == 1 && ((Class<?>) args[0]).isInstance(proxy)) {
+          return true;
+        }
+      }
+      default -> {
+      }
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
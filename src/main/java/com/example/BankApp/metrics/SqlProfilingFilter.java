@@ -0,0 +1,118 @@
+package com.example.BankApp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * リクエストごとに発行された SQL の件数・行数・DB 時間を、アクセスログとエンドポイント（URI パターン）別のメトリクスに記録します。
+ * <p>
+ * 同じ SQL の繰り返し（N+1 の疑い）と、{@link SqlBudget} で宣言した上限の超過を警告します。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+  // 本体のログと分けて出力先を切り替えられるよう、アクセスログは専用のロガーに出す
+  private static final Logger ACCESS_LOG = LoggerFactory.getLogger("bankapp.access");
+
+  /**
+   * リクエストの集計結果を格納するリクエスト属性の名前です。
+   */
+  public static final String STATS_ATTRIBUTE = SqlProfilingFilter.class.getName() + ".stats";
+
+  private final MeterRegistry meterRegistry;
+  private final SqlProfilingProperties properties;
+
+  private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    long start = System.nanoTime();
+    RequestDbStats stats = RequestDbStats.begin(properties.getRepeatThreshold());
+    request.setAttribute(STATS_ATTRIBUTE, stats);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestDbStats.end();
+    }
+
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    EndpointMeters endpoint = meters.computeIfAbsent(uri, this::endpointMeters);
+    endpoint.statements.record(stats.getStatements());
+    endpoint.rows.record(stats.getRows());
+    endpoint.dbTime.record(stats.getDbNanos(), TimeUnit.NANOSECONDS);
+
+    if (ACCESS_LOG.isInfoEnabled()) {
+      ACCESS_LOG.info("{} {} status={} time={}ms sql={} rows={} db={}ms",
+          request.getMethod(), request.getRequestURI(), response.getStatus(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+          stats.getStatements(), stats.getRows(),
+          TimeUnit.NANOSECONDS.toMillis(stats.getDbNanos()));
+    }
+
+    if (stats.getRepeatedSql() != null) {
+      endpoint.repeated.increment();
+      log.warn("N+1 の疑いがあります: {} で同じ SQL が {} 回以上発行されました: {}",
+          uri, properties.getRepeatThreshold(), stats.getRepeatedSql());
+    }
+
+    Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+    if (handler instanceof HandlerMethod handlerMethod) {
+      SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+      if (budget != null && stats.getStatements() > budget.value()) {
+        String message = uri + " の SQL 件数が上限を超えました: " + stats.getStatements()
+            + " > " + budget.value();
+        if (properties.isEnforceBudget()) {
+          throw new IllegalStateException(message);
+        }
+        log.warn(message);
+      }
+    }
+  }
+
+  private EndpointMeters endpointMeters(String uri) {
+    return new EndpointMeters(
+        DistributionSummary.builder("bankapp.db.statements")
+            .description("1 リクエストで発行された SQL の件数")
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry),
+        DistributionSummary.builder("bankapp.db.rows")
+            .description("1 リクエストで読み書きした行数")
+            .tag("uri", uri)
+            .register(meterRegistry),
+        Timer.builder("bankapp.db.time")
+            .description("1 リクエストで SQL の実行にかかった時間の合計")
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry),
+        Counter.builder("bankapp.db.repeated.statements")
+            .description("同じ SQL を繰り返し発行した（N+1 の疑いがある）リクエストの数")
+            .tag("uri", uri)
+            .register(meterRegistry));
+  }
+
+  private record EndpointMeters(DistributionSummary statements, DistributionSummary rows,
+                                Timer dbTime, Counter repeated) {
+
+  }
+}
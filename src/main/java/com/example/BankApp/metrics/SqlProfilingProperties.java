@@ -0,0 +1,21 @@
+package com.example.BankApp.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * リクエストごとの SQL 計測に関する設定です（bankapp.sql.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.sql")
+public class SqlProfilingProperties {
+
+  // JDBC の呼び出しを計測する。無効にするとアクセスログ・メトリクスの SQL 件数は 0 になる
+  private boolean profilingEnabled = true;
+
+  // 1 リクエストで同じ SQL をこの回数以上発行したら N+1 の疑いとして警告する
+  private int repeatThreshold = 5;
+
+  // @SqlBudget を超えたリクエストを警告ではなくエラーにする（テスト用）
+  private boolean enforceBudget = false;
+}
@@ -1,30 +1,41 @@
 package com.example.BankApp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
 import java.time.LocalDateTime;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
-@Builder
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity
 
-public class AccountLog {
+public class AccountLog implements Persistable<String> {
 
   @Id
   private String accountLogId;
 
   private String accountNumber;
 
+  // MySQL でも ENUM 型ではなく VARCHAR の列にする（db/migration と一致させる）
   @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
   @Column(length = 10)
 
   private AccountLogType accountLogType;
@@ -33,16 +44,65 @@ public class AccountLog {
 
   private int balanceAfterTransaction;
 
+  // 月ごとのパーティションのキー
+  @Column(nullable = false)
   private LocalDateTime timestamp;
 
   @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
   @Column(length = 10)
 
 
   private AccountLogStatus accountLogStatus;
 
+  // 口座ごとの連番。成功した取引ごとに 1 ずつ増え、失敗した取引は直前の成功した取引と同じ番号になる
+  @JsonIgnore
+  private long sequenceNumber;
+
+  @Transient
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private boolean persisted;
+
+  // persisted は保存・読み込みの時にだけ立てるため、ビルダーとコンストラクタでは指定させない
+  @Builder
+  public AccountLog(String accountLogId, String accountNumber, AccountLogType accountLogType,
+      int amount, int balanceAfterTransaction, LocalDateTime timestamp,
+      AccountLogStatus accountLogStatus, long sequenceNumber) {
+    this.accountLogId = accountLogId;
+    this.accountNumber = accountNumber;
+    this.accountLogType = accountLogType;
+    this.amount = amount;
+    this.balanceAfterTransaction = balanceAfterTransaction;
+    this.timestamp = timestamp;
+    this.accountLogStatus = accountLogStatus;
+    this.sequenceNumber = sequenceNumber;
+  }
+
+  @JsonIgnore
+  @Override
+  public String getId() {
+    return accountLogId;
+  }
+
+  // ID を採番済みでも、まだ保存していなければ新規として INSERT する（save 時の存在確認の SELECT を省く）
+  @JsonIgnore
+  @Override
+  public boolean isNew() {
+    return !persisted;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markPersisted() {
+    this.persisted = true;
+  }
+
   public enum AccountLogType {
-    DEPOSIT, WITHDRAW, OPEN, CLOSE
+    DEPOSIT, WITHDRAW, OPEN, CLOSE, INTEREST
   }
 
   public enum AccountLogStatus {
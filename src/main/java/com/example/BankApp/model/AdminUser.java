@@ -9,6 +9,8 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 
 @Data
@@ -28,8 +30,9 @@ public class AdminUser {
 
   private String adminUserName;
 
-  @Column(nullable = false)
+  @Column(nullable = false, length = 20)
   @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
   private Role role;
 
   public enum Role {
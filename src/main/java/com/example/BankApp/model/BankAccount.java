@@ -8,6 +8,8 @@ import jakarta.persistence.Id;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 
 @Data
@@ -31,9 +33,18 @@ public class BankAccount {
   private boolean isActive;
 
   @Enumerated(EnumType.STRING)
-  @Column(nullable = false)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(nullable = false, length = 20)
   private Role role = Role.ACCOUNT_USER;
 
+  // 残高に反映済みの最後の取引履歴の連番（AccountLog.sequenceNumber）
+  private long ledgerSequence;
+
+  public BankAccount(String accountNumber, String password, String accountHolderName, int balance,
+      boolean isActive, Role role) {
+    this(accountNumber, password, accountHolderName, balance, isActive, role, 0);
+  }
+
   public enum Role {
     ACCOUNT_USER
   }
@@ -0,0 +1,346 @@
+package com.example.BankApp.onboarding;
+
+import com.example.BankApp.dto.AccountCreationRequest;
+import com.example.BankApp.metrics.BankMetrics;
+import com.example.BankApp.metrics.Operation;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * CSV（口座名義,パスワード）を 1 行ずつ読み、口座をまとめて開設します。
+ * <p>
+ * chunk-size 行ごとに、{@link AccountCreationRequest} と同じ規則で検証し、パスワードを共有のスレッドプールで
+ * 並行してハッシュ化してから、1 つのトランザクションで口座番号を連続した範囲で割り当て、
+ * bank_account と OPEN の取引履歴をそれぞれバッチで INSERT します。
+ * 結果は行ごとに（行番号,口座番号,CREATED または REJECTED,理由）の CSV として書き出します。
+ * 同時に開設された口座と番号が重なった場合は、範囲を割り当て直します。
+ * <p>
+ * シャーディングが有効な場合は、チャンクの行をシャードの数に分け、シャードごとのトランザクションで
+ * そのシャードに置かれる口座番号（{@link ShardRouter#nextAccountNumber(long)} から、シャードの数おき）を割り当てます。
+ * <p>
+ * 開設した口座は 1 件ずつ口座開設（createAccount）のメトリクスに記録します。処理時間はチャンクの処理を始めてから
+ * コミットまでです。
+ */
+@Slf4j
+public class BulkAccountOpener {
+
+  private static final String HEADER = "accountHolderName,password";
+  private static final String RESULT_HEADER = "line,account_number,status,message\n";
+  private static final long MAX_ACCOUNT_NUMBER = 9_999_999L;
+  private static final int ALLOCATION_ATTEMPTS = 3;
+  private static final int MAX_NAME_LENGTH = 255;
+
+  private static final String INSERT_ACCOUNT = """
+      INSERT INTO bank_account (account_number, password, account_holder_name, balance,
+                                is_active, role, ledger_sequence)
+      VALUES (?, ?, ?, 0, TRUE, ?, 1)""";
+
+  private static final String INSERT_LOG = """
+      INSERT INTO account_log (account_log_id, account_number, account_log_type, amount,
+                               balance_after_transaction, timestamp, account_log_status,
+                               sequence_number)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final PasswordEncoder passwordEncoder;
+  private final Validator validator;
+  private final BulkOpenProperties properties;
+  private final OutboxWriter outboxWriter;
+  private final ShardRouter shardRouter;
+  private final BankMetrics bankMetrics;
+  private final ExecutorService hashPool;
+
+  public BulkAccountOpener(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      PasswordEncoder passwordEncoder, Validator validator, BulkOpenProperties properties,
+      OutboxWriter outboxWriter, ShardRouter shardRouter, BankMetrics bankMetrics) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.passwordEncoder = passwordEncoder;
+    this.validator = validator;
+    this.properties = properties;
+    this.outboxWriter = outboxWriter;
+    this.shardRouter = shardRouter;
+    this.bankMetrics = bankMetrics;
+    AtomicInteger threads = new AtomicInteger();
+    this.hashPool = Executors.newFixedThreadPool(properties.getHashParallelism(), r -> {
+      Thread thread = new Thread(r, "bulk-open-hash-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * 開設の集計です。
+   *
+   * @param rows     見出し行と空行を除いた行の数
+   * @param created  開設した口座の数
+   * @param rejected 開設しなかった行の数
+   */
+  public record Summary(int rows, int created, int rejected) {
+
+  }
+
+  /**
+   * CSV を読み、口座を開設して行ごとの結果を書き出します。1 行目が見出し行（accountHolderName,password）の場合は読み飛ばします。
+   *
+   * @param csv     アップロードされた CSV
+   * @param results 行ごとの結果の書き出し先
+   * @return 開設の集計
+   * @throws IOException CSV の読み取りや結果の書き出しに失敗した場合
+   */
+  public Summary open(Reader csv, Writer results) throws IOException {
+    BufferedReader reader = new BufferedReader(csv);
+    results.write(RESULT_HEADER);
+    List<Row> chunk = new ArrayList<>(properties.getChunkSize());
+    int lineNumber = 0;
+    int rows = 0;
+    int created = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (lineNumber == 1) {
+        line = stripBom(line);
+        if (line.trim().equalsIgnoreCase(HEADER)) {
+          continue;
+        }
+      }
+      if (line.isBlank()) {
+        continue;
+      }
+      rows++;
+      Row row = new Row(lineNumber, line);
+      if (rows > properties.getMaxRows()) {
+        row.reject("1 回に開設できるのは " + properties.getMaxRows() + " 行までです。");
+      }
+      chunk.add(row);
+      if (chunk.size() == properties.getChunkSize()) {
+        created += process(chunk, results);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      created += process(chunk, results);
+    }
+    results.flush();
+    log.info("口座を一括開設しました: {} 行中 {} 口座", rows, created);
+    return new Summary(rows, created, rows - created);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    hashPool.shutdownNow();
+  }
+
+  private int process(List<Row> chunk, Writer results) throws IOException {
+    long start = System.nanoTime();
+    List<Row> valid = new ArrayList<>(chunk.size());
+    for (Row row : chunk) {
+      if (row.message == null) {
+        validate(row);
+      }
+      if (row.message == null) {
+        valid.add(row);
+      }
+    }
+    if (!valid.isEmpty()) {
+      AccountLogStatus status = AccountLogStatus.FAILED;
+      try {
+        insertAll(valid);
+        status = AccountLogStatus.SUCCESS;
+      } finally {
+        for (int i = 0; i < valid.size(); i++) {
+          bankMetrics.record(Operation.CREATE_ACCOUNT, status, 0, start);
+        }
+      }
+    }
+    for (Row row : chunk) {
+      results.write(row.lineNumber + "," + (row.accountNumber != null ? row.accountNumber : "")
+          + "," + (row.message == null ? "CREATED" : "REJECTED") + ","
+          + (row.message == null ? "" : csvField(row.message)) + "\n");
+    }
+    return valid.size();
+  }
+
+  // パスワードをハッシュ化し、シャードごとのトランザクションで INSERT する
+  private void insertAll(List<Row> valid) {
+    List<CompletableFuture<String>> hashes = valid.stream()
+        .map(row -> CompletableFuture.supplyAsync(
+            () -> passwordEncoder.encode(row.password), hashPool))
+        .toList();
+    for (int i = 0; i < valid.size(); i++) {
+      valid.get(i).encodedPassword = hashes.get(i).join();
+    }
+    int shards = shardRouter.shardCount();
+    if (shards == 1) {
+      insert(valid);
+      return;
+    }
+    for (int shard = 0; shard < shards; shard++) {
+      List<Row> group = new ArrayList<>(valid.size() / shards + 1);
+      for (int i = shard; i < valid.size(); i += shards) {
+        group.add(valid.get(i));
+      }
+      if (!group.isEmpty()) {
+        shardRouter.onShard(shard, () -> {
+          insert(group);
+          return null;
+        });
+      }
+    }
+  }
+
+  private void validate(Row row) {
+    List<String> fields = parseCsvLine(row.line);
+    if (fields == null || fields.size() != 2) {
+      row.reject("口座名義とパスワードの 2 列にしてください。");
+      return;
+    }
+    AccountCreationRequest request = new AccountCreationRequest(fields.get(0), fields.get(1));
+    List<String> messages = validator.validate(request).stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .toList();
+    if (!messages.isEmpty()) {
+      row.reject(String.join(" ", messages));
+      return;
+    }
+    if (request.getAccountHolderName().length() > MAX_NAME_LENGTH) {
+      row.reject("口座名義は " + MAX_NAME_LENGTH + " 文字以内にしてください。");
+      return;
+    }
+    row.accountHolderName = request.getAccountHolderName();
+    row.password = request.getPassword();
+  }
+
+  private void insert(List<Row> rows) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> insertRange(rows));
+        return;
+      } catch (DuplicateKeyException e) {
+        if (attempt == ALLOCATION_ATTEMPTS) {
+          throw e;
+        }
+        log.debug("口座番号が同時に開設された口座と重なったため、割り当て直します");
+      }
+    }
+  }
+
+  private void insertRange(List<Row> rows) {
+    String max = jdbcTemplate.queryForObject(
+        "SELECT MAX(account_number) FROM bank_account", String.class);
+    // シャーディングが無効な場合は最大値 + 1 から連続した番号になる
+    long first = shardRouter.nextAccountNumber(max != null ? Long.parseLong(max) : 0);
+    int step = shardRouter.shardCount();
+    if (first + (long) (rows.size() - 1) * step > MAX_ACCOUNT_NUMBER) {
+      throw new IllegalStateException("口座番号の上限に達しました。");
+    }
+    LocalDateTime now = LocalDateTime.now();
+    List<Object[]> accounts = new ArrayList<>(rows.size());
+    List<Object[]> logs = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      Row row = rows.get(i);
+      row.accountNumber = String.format("%07d", first + (long) i * step);
+      accounts.add(new Object[]{row.accountNumber, row.encodedPassword, row.accountHolderName,
+          Role.ACCOUNT_USER.name()});
+      logs.add(new Object[]{UUID.randomUUID().toString(), row.accountNumber,
+          AccountLogType.OPEN.name(), 0, 0, now, AccountLogStatus.SUCCESS.name(), 1L});
+    }
+    jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accounts);
+    jdbcTemplate.batchUpdate(INSERT_LOG, logs);
+    outboxWriter.appendRows(logs);
+  }
+
+  /**
+   * CSV の 1 行を列に分けます。ダブルクォートで囲んだ列（"" はダブルクォート 1 文字）に対応します。
+   *
+   * @param line 行
+   * @return 列のリスト。クォートが閉じていない場合は null
+   */
+  static List<String> parseCsvLine(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static String csvField(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+      return value;
+    }
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  // Excel で保存した UTF-8 の CSV は先頭に BOM が付く
+  private static String stripBom(String line) {
+    return line.startsWith("\uFEFF") ? line.substring(1) : line;
+  }
+
+  private static final class Row {
+
+    final int lineNumber;
+    final String line;
+    String accountHolderName;
+    String password;
+    String encodedPassword;
+    String accountNumber;
+    String message;
+
+    Row(int lineNumber, String line) {
+      this.lineNumber = lineNumber;
+      this.line = line;
+    }
+
+    void reject(String message) {
+      this.message = message;
+    }
+  }
+}
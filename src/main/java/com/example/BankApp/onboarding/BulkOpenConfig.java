@@ -0,0 +1,29 @@
+package com.example.BankApp.onboarding;
+
+import com.example.BankApp.metrics.BankMetrics;
+import com.example.BankApp.outbox.OutboxWriter;
+import com.example.BankApp.sharding.ShardRouter;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(BulkOpenProperties.class)
+public class BulkOpenConfig {
+
+  @Bean
+  public BulkAccountOpener bulkAccountOpener(JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate, PasswordEncoder passwordEncoder,
+      Validator validator, BulkOpenProperties bulkOpenProperties, OutboxWriter outboxWriter,
+      ShardRouter shardRouter, BankMetrics bankMetrics) {
+    return new BulkAccountOpener(jdbcTemplate, transactionTemplate, passwordEncoder, validator,
+        bulkOpenProperties, outboxWriter, shardRouter, bankMetrics);
+  }
+}
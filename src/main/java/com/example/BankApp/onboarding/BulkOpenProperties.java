@@ -0,0 +1,21 @@
+package com.example.BankApp.onboarding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * CSV による口座の一括開設に関する設定です（bankapp.bulk-open.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.bulk-open")
+public class BulkOpenProperties {
+
+  // パスワードのハッシュ化に使うスレッドの数。すべてのアップロードで共有し、CPU を使い切らないよう抑える
+  private int hashParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  // ハッシュ化と INSERT をまとめて行う行の数
+  private int chunkSize = 500;
+
+  // 1 回のアップロードで受け付ける行の数（見出し行を除く）
+  private int maxRows = 10_000;
+}
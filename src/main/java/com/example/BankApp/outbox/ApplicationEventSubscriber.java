@@ -0,0 +1,27 @@
+package com.example.BankApp.outbox;
+
+import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * イベントを Spring のアプリケーションイベントとして発行し、同じプロセスの
+ * {@code @EventListener(OutboxEvent.class)} へ届けます。リスナーが例外を投げた場合は、まとめて渡し直します。
+ */
+public class ApplicationEventSubscriber implements OutboxSubscriber {
+
+  private final ApplicationEventPublisher publisher;
+
+  public ApplicationEventSubscriber(ApplicationEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @Override
+  public String name() {
+    return "application-event";
+  }
+
+  @Override
+  public void deliver(List<OutboxEvent> events) {
+    events.forEach(publisher::publishEvent);
+  }
+}
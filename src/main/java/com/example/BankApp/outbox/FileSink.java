@@ -0,0 +1,53 @@
+package com.example.BankApp.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * イベントを 1 行 1 件の JSON としてファイルの末尾に追記します。
+ * <p>
+ * 追記した内容をディスクへ書き出して（fsync）から戻るため、配信済みと記録したイベントがファイルから失われることはありません。
+ * 書き出しの途中で止まった場合は同じイベントを再び追記するため、ファイルには重複した行が含まれることがあります。
+ */
+public class FileSink implements OutboxSubscriber {
+
+  private final Path path;
+  private final ObjectMapper objectMapper;
+
+  public FileSink(Path path, ObjectMapper objectMapper) {
+    this.path = path;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public String name() {
+    return "file";
+  }
+
+  @Override
+  public void deliver(List<OutboxEvent> events) throws IOException {
+    StringBuilder lines = new StringBuilder(events.size() * 256);
+    for (OutboxEvent event : events) {
+      lines.append(objectMapper.writeValueAsString(event)).append('\n');
+    }
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    }
+  }
+}
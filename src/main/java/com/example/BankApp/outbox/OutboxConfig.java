@@ -0,0 +1,48 @@
+package com.example.BankApp.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 有効かどうかは AOT でも切り替えられるよう、OutboxWriter と OutboxRelay で実行時に判定する
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+  @Bean
+  public OutboxWriter outboxWriter(JdbcTemplate jdbcTemplate, OutboxProperties outboxProperties) {
+    return new OutboxWriter(jdbcTemplate, outboxProperties);
+  }
+
+  @Bean
+  public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, OutboxProperties outboxProperties,
+      ApplicationEventPublisher applicationEventPublisher, ObjectMapper objectMapper,
+      ObjectProvider<OutboxSubscriber> additionalSubscribers, MeterRegistry meterRegistry) {
+    List<OutboxSubscriber> subscribers = new ArrayList<>();
+    subscribers.add(new ApplicationEventSubscriber(applicationEventPublisher));
+    if (outboxProperties.getFile().isEnabled()) {
+      subscribers.add(new FileSink(Path.of(outboxProperties.getFile().getPath()), objectMapper));
+    }
+    additionalSubscribers.orderedStream().forEach(subscribers::add);
+    return new OutboxRelay(jdbcTemplate, outboxProperties, subscribers, meterRegistry);
+  }
+
+  // アプリケーションの起動が済んでから、送信箱の読み取りを始める
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> outboxRelayStartup(OutboxRelay outboxRelay) {
+    return event -> outboxRelay.start();
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.BankApp.outbox;
+
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import java.time.LocalDateTime;
+
+/**
+ * 送信箱から配信する口座のイベントです。成功した取引の取引履歴 1 件に対応します。
+ *
+ * @param eventId                 送信箱での連番（配信の順序）
+ * @param accountLogId            取引履歴 ID。配信先で重複を取り除くのに使う
+ * @param accountNumber           口座番号
+ * @param type                    取引種類
+ * @param amount                  金額
+ * @param balanceAfterTransaction 取引後の残高
+ * @param sequenceNumber          口座ごとの取引履歴の連番
+ * @param occurredAt              取引日時
+ */
+public record OutboxEvent(long eventId, String accountLogId, String accountNumber,
+                          AccountLogType type, int amount, int balanceAfterTransaction,
+                          long sequenceNumber, LocalDateTime occurredAt) {
+
+}
@@ -0,0 +1,37 @@
+package com.example.BankApp.outbox;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 口座のイベントの送信箱と配信に関する設定です（bankapp.outbox.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.outbox")
+public class OutboxProperties {
+
+  // true の場合、成功した取引の取引履歴と同じトランザクションで outbox_event にイベントを追加する
+  private boolean enabled = false;
+
+  // true の場合、このインスタンスで送信箱を読み、配信先へ届ける。複数のインスタンスで動かす場合は 1 つだけ true にする
+  private boolean relayEnabled = true;
+
+  // 送信箱を読みに行く間隔と、1 回に読むイベントの数
+  private Duration pollInterval = Duration.ofMillis(200);
+  private int batchSize = 500;
+
+  // event_id の欠番を、ロールバックされたものとして読み飛ばすまでの時間。最も長いトランザクションより長くする
+  private Duration gapTimeout = Duration.ofSeconds(5);
+
+  private File file = new File();
+
+  @Data
+  public static class File {
+
+    // true の場合、イベントを 1 行 1 件の JSON としてファイルに追記する
+    private boolean enabled = false;
+
+    private String path = "outbox/account-events.jsonl";
+  }
+}
@@ -0,0 +1,250 @@
+package com.example.BankApp.outbox;
+
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 送信箱（outbox_event）を event_id の順に読み、配信先（{@link OutboxSubscriber}）へまとめて届けます。
+ * <p>
+ * 配信先ごとに配信済みの最後の event_id を outbox_cursor に記録し、すべての配信先へ届けたイベントは送信箱から削除します。
+ * 記録は配信先が受け取った後に行うため、配信は少なくとも 1 回（at-least-once）になります。
+ * 口座ごとのイベントは取引の順に届きます。
+ * <p>
+ * event_id はコミットの順ではなく追加の順に採番されるため、まだコミットされていない（またはロールバックされた）欠番があると、
+ * そこで読み取りを止めます。gap-timeout を過ぎても埋まらない欠番は、ロールバックされたものとして読み飛ばします。
+ */
+@Slf4j
+public class OutboxRelay {
+
+  private static final String FETCH = """
+      SELECT event_id, account_log_id, account_number, event_type, amount,
+             balance_after_transaction, sequence_number, occurred_at
+      FROM outbox_event WHERE event_id > ? ORDER BY event_id LIMIT ?""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final OutboxProperties properties;
+  private final List<OutboxSubscriber> subscribers;
+  private final Map<String, Meters> meters = new HashMap<>();
+  private final Map<String, Long> cursors = new LinkedHashMap<>();
+  private final AtomicLong pending = new AtomicLong();
+
+  // 読み取りを止めている欠番の event_id と、最初に見つけた時刻
+  private long gapEventId = -1;
+  private long gapSeenAt;
+  private ScheduledExecutorService poller;
+
+  public OutboxRelay(JdbcTemplate jdbcTemplate, OutboxProperties properties,
+      List<OutboxSubscriber> subscribers, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+    this.subscribers = List.copyOf(subscribers);
+    for (OutboxSubscriber subscriber : this.subscribers) {
+      if (meters.put(subscriber.name(), new Meters(subscriber.name(), meterRegistry)) != null) {
+        throw new IllegalStateException("配信先の名前が重複しています: " + subscriber.name());
+      }
+    }
+    Gauge.builder("bankapp.outbox.pending", pending, AtomicLong::get)
+        .description("送信箱に残っている、すべての配信先へはまだ届けていないイベントの数（欠番を含む）")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 配信済みの位置を読み込み、送信箱の読み取りを始めます。
+   * bankapp.outbox.enabled または relay-enabled が false の場合は何もしません。
+   */
+  public synchronized void start() {
+    if (!properties.isEnabled() || !properties.isRelayEnabled() || poller != null) {
+      return;
+    }
+    loadCursors();
+    long intervalMillis = properties.getPollInterval().toMillis();
+    poller = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "outbox-relay");
+      thread.setDaemon(true);
+      return thread;
+    });
+    poller.scheduleWithFixedDelay(this::pollSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    log.info("送信箱の配信を開始しました: 配信先={}", cursors);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    ScheduledExecutorService poller;
+    synchronized (this) {
+      poller = this.poller;
+    }
+    if (poller != null) {
+      poller.shutdown();
+      poller.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * 送信箱を読み、配信先へ届けます。読んだイベントが batch-size 件に達した場合は、続けて次を読みます。
+   *
+   * @return すべての配信先へ届けたイベントの数
+   */
+  synchronized int poll() {
+    int relayed = 0;
+    while (true) {
+      long from = minCursor();
+      List<OutboxEvent> batch = jdbcTemplate.query(FETCH, OutboxRelay::map, from,
+          properties.getBatchSize());
+      List<OutboxEvent> ready = contiguous(from, batch, System.currentTimeMillis());
+      boolean delivered = true;
+      for (OutboxSubscriber subscriber : subscribers) {
+        delivered &= deliver(subscriber, ready);
+      }
+      long to = minCursor();
+      if (to > from) {
+        jdbcTemplate.update("DELETE FROM outbox_event WHERE event_id <= ?", to);
+      }
+      if (delivered) {
+        relayed += ready.size();
+      }
+      if (!delivered || ready.isEmpty() || ready.size() < properties.getBatchSize()) {
+        break;
+      }
+    }
+    Long maxEventId = jdbcTemplate.queryForObject("SELECT MAX(event_id) FROM outbox_event",
+        Long.class);
+    pending.set(maxEventId != null ? Math.max(0, maxEventId - minCursor()) : 0);
+    return relayed;
+  }
+
+  private void pollSafely() {
+    try {
+      poll();
+    } catch (RuntimeException e) {
+      log.error("送信箱の配信に失敗しました", e);
+    }
+  }
+
+  private void loadCursors() {
+    Map<String, Long> stored = new HashMap<>();
+    jdbcTemplate.query("SELECT subscriber, last_event_id FROM outbox_cursor",
+        rs -> {
+          stored.put(rs.getString("subscriber"), rs.getLong("last_event_id"));
+        });
+    // 新しく追加した配信先は、送信箱に残っているイベントから受け取る
+    long start = stored.values().stream().mapToLong(Long::longValue).min()
+        .orElseGet(() -> jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MIN(event_id) - 1, 0) FROM outbox_event", Long.class));
+    for (OutboxSubscriber subscriber : subscribers) {
+      Long cursor = stored.get(subscriber.name());
+      if (cursor == null) {
+        cursor = start;
+        jdbcTemplate.update(
+            "INSERT INTO outbox_cursor (subscriber, last_event_id) VALUES (?, ?)",
+            subscriber.name(), cursor);
+      }
+      cursors.put(subscriber.name(), cursor);
+    }
+  }
+
+  // from の次から欠番なく続くイベントを返す。gap-timeout を過ぎた欠番は読み飛ばす
+  private List<OutboxEvent> contiguous(long from, List<OutboxEvent> batch, long now) {
+    long expected = from + 1;
+    int end = 0;
+    for (OutboxEvent event : batch) {
+      if (event.eventId() != expected) {
+        if (gapEventId != expected) {
+          gapEventId = expected;
+          gapSeenAt = now;
+          break;
+        }
+        if (now - gapSeenAt < properties.getGapTimeout().toMillis()) {
+          break;
+        }
+        log.debug("送信箱の欠番を読み飛ばします: {}〜{}", expected, event.eventId() - 1);
+      }
+      end++;
+      expected = event.eventId() + 1;
+    }
+    return batch.subList(0, end);
+  }
+
+  private boolean deliver(OutboxSubscriber subscriber, List<OutboxEvent> ready) {
+    long cursor = cursors.get(subscriber.name());
+    int first = 0;
+    while (first < ready.size() && ready.get(first).eventId() <= cursor) {
+      first++;
+    }
+    if (first == ready.size()) {
+      return true;
+    }
+    List<OutboxEvent> events = ready.subList(first, ready.size());
+    Meters meters = this.meters.get(subscriber.name());
+    try {
+      subscriber.deliver(events);
+    } catch (IOException | RuntimeException e) {
+      // 配信済みの位置を進めず、次の読み取りで同じイベントから渡し直す
+      meters.failures.increment();
+      log.warn("送信箱のイベントを配信できませんでした: 配信先={}, event_id={}〜{}",
+          subscriber.name(), events.get(0).eventId(), events.get(events.size() - 1).eventId(), e);
+      return false;
+    }
+    long last = events.get(events.size() - 1).eventId();
+    jdbcTemplate.update("UPDATE outbox_cursor SET last_event_id = ? WHERE subscriber = ?",
+        last, subscriber.name());
+    cursors.put(subscriber.name(), last);
+    meters.delivered.increment(events.size());
+    LocalDateTime now = LocalDateTime.now();
+    for (OutboxEvent event : events) {
+      meters.lag.record(Duration.between(event.occurredAt(), now));
+    }
+    return true;
+  }
+
+  private long minCursor() {
+    return cursors.values().stream().mapToLong(Long::longValue).min().orElse(0);
+  }
+
+  private static OutboxEvent map(ResultSet rs, int rowNum) throws SQLException {
+    return new OutboxEvent(rs.getLong("event_id"), rs.getString("account_log_id"),
+        rs.getString("account_number"), AccountLogType.valueOf(rs.getString("event_type")),
+        rs.getInt("amount"), rs.getInt("balance_after_transaction"),
+        rs.getLong("sequence_number"), rs.getObject("occurred_at", LocalDateTime.class));
+  }
+
+  private static final class Meters {
+
+    final Counter delivered;
+    final Counter failures;
+    final Timer lag;
+
+    Meters(String subscriber, MeterRegistry meterRegistry) {
+      delivered = Counter.builder("bankapp.outbox.delivered")
+          .description("配信先へ届けたイベントの数")
+          .tag("subscriber", subscriber)
+          .register(meterRegistry);
+      failures = Counter.builder("bankapp.outbox.delivery-failures")
+          .description("配信先がイベントを受け取れず、渡し直すことになった回数")
+          .tag("subscriber", subscriber)
+          .register(meterRegistry);
+      lag = Timer.builder("bankapp.outbox.lag")
+          .description("取引日時から配信先へ届けるまでの時間")
+          .tag("subscriber", subscriber)
+          .register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.BankApp.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 送信箱のイベントの配信先です。{@link OutboxRelay} が event_id の順にまとめて渡します。
+ * <p>
+ * 配信は少なくとも 1 回（at-least-once）のため、例外を投げた場合や受け取った後に配信済みの記録に失敗した場合は、
+ * 同じイベントをもう一度渡します。重複は {@link OutboxEvent#accountLogId()} で取り除いてください。
+ * このインタフェースを実装した Bean は、配信先として自動的に追加されます。
+ */
+public interface OutboxSubscriber {
+
+  /**
+   * 配信済みの位置を記録する名前です。配信先ごとに一意にしてください。
+   *
+   * @return 配信先の名前（64 文字以内）
+   */
+  String name();
+
+  /**
+   * イベントを受け取ります。
+   *
+   * @param events event_id の順のイベント
+   * @throws IOException 受け取りに失敗した場合（次の読み取りで同じイベントから渡し直す）
+   */
+  void deliver(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,70 @@
+package com.example.BankApp.outbox;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 成功した取引のイベントを outbox_event に追加します。
+ * <p>
+ * 取引履歴を追加するトランザクションの中で呼び出すため、取引がロールバックされればイベントも残りません。
+ * 失敗した取引（残高不足など）は残高が変わらないため、イベントにしません。
+ * bankapp.outbox.enabled が false の場合は何もしません。
+ */
+public class OutboxWriter {
+
+  private static final String INSERT = """
+      INSERT INTO outbox_event (account_log_id, account_number, event_type, amount,
+                                balance_after_transaction, sequence_number, occurred_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final OutboxProperties properties;
+
+  public OutboxWriter(JdbcTemplate jdbcTemplate, OutboxProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /**
+   * 取引履歴 1 件のイベントを追加します。
+   *
+   * @param accountLog 取引履歴
+   */
+  public void append(AccountLog accountLog) {
+    if (!isEnabled() || accountLog.getAccountLogStatus() != AccountLogStatus.SUCCESS) {
+      return;
+    }
+    jdbcTemplate.update(INSERT, accountLog.getAccountLogId(), accountLog.getAccountNumber(),
+        accountLog.getAccountLogType().name(), accountLog.getAmount(),
+        accountLog.getBalanceAfterTransaction(), accountLog.getSequenceNumber(),
+        accountLog.getTimestamp());
+  }
+
+  /**
+   * JDBC でバッチ INSERT した取引履歴のイベントをまとめて追加します。
+   *
+   * @param logRows account_log の INSERT と同じ並び（取引履歴 ID・口座番号・取引種類・金額・取引後の残高・取引日時・
+   *                ステータス・連番）のパラメータ
+   */
+  public void appendRows(List<Object[]> logRows) {
+    if (!isEnabled()) {
+      return;
+    }
+    List<Object[]> events = new ArrayList<>(logRows.size());
+    for (Object[] row : logRows) {
+      if (AccountLogStatus.SUCCESS.name().equals(row[6])) {
+        events.add(new Object[]{row[0], row[1], row[2], row[3], row[4], row[7], row[5]});
+      }
+    }
+    if (!events.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT, events);
+    }
+  }
+}
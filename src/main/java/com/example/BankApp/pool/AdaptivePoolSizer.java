@@ -0,0 +1,122 @@
+package com.example.BankApp.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 接続待ち時間と DB の応答時間を見て、HikariCP の最大プールサイズを上限・下限の範囲で調整します。
+ * <p>
+ * 接続待ちが長く DB に余裕がある場合は増やし、接続待ちがほぼ無く空きコネクションがある場合は減らします。
+ * DB の応答自体が遅い場合は、コネクションを増やしても DB の負荷が上がるだけなので増やしません。
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(prefix = "bankapp.pool.adaptive", name = "enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+
+  private final HikariDataSource hikariDataSource;
+  private final PoolProperties.Adaptive properties;
+  private final MeterRegistry meterRegistry;
+
+  // プールが初期化されるまでは HikariCP のメトリクスが登録されないため、初回の調整時に取得する
+  private Timer acquireTimer;
+  private Timer usageTimer;
+
+  private long lastAcquireCount;
+  private double lastAcquireNanos;
+  private long lastUsageCount;
+  private double lastUsageNanos;
+
+  public AdaptivePoolSizer(DataSource dataSource, PoolProperties poolProperties,
+      MeterRegistry meterRegistry) throws SQLException {
+    this.hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+    this.properties = poolProperties.getAdaptive();
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Scheduled(fixedDelayString = "${bankapp.pool.adaptive.interval:10s}")
+  public void adjust() {
+    var pool = hikariDataSource.getHikariPoolMXBean();
+    if (pool == null) {
+      return;
+    }
+    if (acquireTimer == null || usageTimer == null) {
+      String poolName = hikariDataSource.getPoolName();
+      acquireTimer = meterRegistry.find("hikaricp.connections.acquire")
+          .tag("pool", poolName).timer();
+      usageTimer = meterRegistry.find("hikaricp.connections.usage")
+          .tag("pool", poolName).timer();
+      if (acquireTimer == null || usageTimer == null) {
+        return;
+      }
+    }
+
+    long acquireCount = acquireTimer.count();
+    double acquireNanos = acquireTimer.totalTime(TimeUnit.NANOSECONDS);
+    long usageCount = usageTimer.count();
+    double usageNanos = usageTimer.totalTime(TimeUnit.NANOSECONDS);
+
+    long meanAcquireNanos = mean(acquireNanos - lastAcquireNanos, acquireCount - lastAcquireCount);
+    long meanUsageNanos = mean(usageNanos - lastUsageNanos, usageCount - lastUsageCount);
+    lastAcquireCount = acquireCount;
+    lastAcquireNanos = acquireNanos;
+    lastUsageCount = usageCount;
+    lastUsageNanos = usageNanos;
+
+    var config = hikariDataSource.getHikariConfigMXBean();
+    int current = config.getMaximumPoolSize();
+    int next = nextPoolSize(properties, current, meanAcquireNanos, meanUsageNanos,
+        pool.getThreadsAwaitingConnection(), pool.getIdleConnections());
+    if (next == current) {
+      return;
+    }
+
+    config.setMinimumIdle(Math.min(config.getMinimumIdle(), next));
+    config.setMaximumPoolSize(next);
+    log.info("コネクションプールのサイズを {} から {} に変更しました（接続待ち平均 {} µs, 使用時間平均 {} µs）",
+        current, next, meanAcquireNanos / 1000, meanUsageNanos / 1000);
+  }
+
+  /**
+   * 次のプールサイズを決めます。
+   *
+   * @param properties       調整の設定
+   * @param current          現在の最大プールサイズ
+   * @param meanAcquireNanos 前回からの接続待ち時間の平均
+   * @param meanUsageNanos   前回からのコネクション使用時間の平均
+   * @param pending          接続待ちのスレッド数
+   * @param idle             空きコネクション数
+   * @return 次の最大プールサイズ
+   */
+  static int nextPoolSize(PoolProperties.Adaptive properties, int current, long meanAcquireNanos,
+      long meanUsageNanos, int pending, int idle) {
+    boolean dbSaturated = meanUsageNanos > properties.getDbLatencyHigh().toNanos();
+    boolean starving = pending > 0 || meanAcquireNanos > properties.getAcquireWaitHigh().toNanos();
+    boolean overProvisioned = pending == 0
+        && meanAcquireNanos < properties.getAcquireWaitLow().toNanos()
+        && idle > properties.getStep();
+
+    int next = current;
+    if (starving && !dbSaturated) {
+      next = current + properties.getStep();
+    } else if (overProvisioned) {
+      next = current - properties.getStep();
+    }
+    return Math.max(properties.getMinSize(), Math.min(properties.getMaxSize(), next));
+  }
+
+  private static long mean(double totalNanos, long count) {
+    return count <= 0 ? 0 : (long) (totalNanos / count);
+  }
+}
@@ -0,0 +1,153 @@
+package com.example.BankApp.pool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.StackWalker.StackFrame;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * コネクションを取得したアプリケーションのメソッド（例: BankAccountService.deposit）を記録し、
+ * しきい値を超えて返却されないコネクションがあれば、その保持者をログとメトリクスに出します。
+ * <p>
+ * HikariCP 標準のリーク検出はスタックトレース全体を出すだけなので、どのサービスのメソッドが
+ * コネクションを握っているかを一目で分かるようにしています。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ConnectionHolderTracker {
+
+  private static final String APP_PACKAGE = "com.example.BankApp.";
+  // DataSource のラッパーを置いているパッケージ。呼び出し元のメソッドとしては扱わない
+  private static final List<String> WRAPPER_PACKAGES = List.of(
+      APP_PACKAGE + "pool.",
+      APP_PACKAGE + "metrics.",
+      APP_PACKAGE + "bulkhead.",
+      APP_PACKAGE + "sharding.");
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+  private final PoolProperties poolProperties;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<Connection, Holder> holders = new ConcurrentHashMap<>();
+
+  /**
+   * リーク検出のしきい値が設定されているかどうかを返します。
+   *
+   * @return 設定されている場合 true
+   */
+  public boolean isEnabled() {
+    Duration threshold = poolProperties.getLeakDetectionThreshold();
+    return !threshold.isZero() && !threshold.isNegative();
+  }
+
+  /**
+   * コネクションの取得・返却を記録する DataSource を返します。
+   *
+   * @param target 元の DataSource
+   * @return 記録用の DataSource
+   */
+  public DataSource wrap(DataSource target) {
+    return new DelegatingDataSource(target) {
+      @Override
+      public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+      }
+
+      @Override
+      public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+      }
+    };
+  }
+
+  private Connection track(Connection target) {
+    Connection proxy = (Connection) Proxy.newProxyInstance(
+        ConnectionHolderTracker.class.getClassLoader(), new Class<?>[]{Connection.class},
+        (self, method, args) -> switch (method.getName()) {
+          case "equals" -> self == args[0];
+          case "hashCode" -> System.identityHashCode(self);
+          default -> {
+            if (method.getName().equals("close")) {
+              holders.remove(self);
+            }
+            try {
+              yield method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+          }
+        });
+    holders.put(proxy, new Holder(callerMethod(), Thread.currentThread().getName(),
+        System.nanoTime()));
+    return proxy;
+  }
+
+  /**
+   * しきい値を超えてコネクションを保持している呼び出し元を報告します。同じコネクションは 1 回だけ報告します。
+   */
+  @Scheduled(fixedDelayString = "${bankapp.pool.leak-check-interval:5s}")
+  public void reportLongHeldConnections() {
+    long thresholdNanos = poolProperties.getLeakDetectionThreshold().toNanos();
+    long now = System.nanoTime();
+    holders.values().forEach(holder -> {
+      long heldNanos = now - holder.acquiredAt;
+      if (heldNanos > thresholdNanos && !holder.reported) {
+        holder.reported = true;
+        meterRegistry.counter("bankapp.pool.connection.leaks", "method", holder.method)
+            .increment();
+        log.warn("コネクションが {} ms 返却されていません: {} (thread={})",
+            heldNanos / 1_000_000, holder.method, holder.thread);
+      }
+    });
+  }
+
+  /**
+   * コネクション取得時のスタックから、最も近いアプリケーションのメソッドを「クラス名.メソッド名」で返します。
+   */
+  static String callerMethod() {
+    return STACK_WALKER.walk(ConnectionHolderTracker::callerMethod);
+  }
+
+  // ラッパーがこのトラッカーより外側にあっても、ラッパーの getConnection を保持者にしない
+  static String callerMethod(Stream<StackFrame> frames) {
+    return frames
+        .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+            && WRAPPER_PACKAGES.stream().noneMatch(frame.getClassName()::startsWith))
+        .findFirst()
+        .map(frame -> simpleClassName(frame.getClassName()) + "." + frame.getMethodName())
+        .orElse("unknown");
+  }
+
+  // CGLIB のプロキシ（BankAccountService$$SpringCGLIB$$0）は元のクラス名にそろえる
+  static String simpleClassName(String className) {
+    int proxySuffix = className.indexOf("$$");
+    String name = proxySuffix < 0 ? className : className.substring(0, proxySuffix);
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
+  private static final class Holder {
+
+    private final String method;
+    private final String thread;
+    private final long acquiredAt;
+    private volatile boolean reported;
+
+    private Holder(String method, String thread, long acquiredAt) {
+      this.method = method;
+      this.thread = thread;
+      this.acquiredAt = acquiredAt;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.BankApp.pool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(PoolProperties.class)
+public class PoolConfig {
+
+  @Bean
+  public ConnectionHolderTracker connectionHolderTracker(PoolProperties poolProperties,
+      MeterRegistry meterRegistry) {
+    return new ConnectionHolderTracker(poolProperties, meterRegistry);
+  }
+
+  // DataSource を差し替えるため static にして、他の Bean より先に登録する。
+  // 保持者をラッパーではなくアプリケーションのメソッドにするため、他のラッパーより外側（最後）で適用する
+  @Bean
+  public static BeanPostProcessor connectionHolderTrackingPostProcessor(
+      ObjectProvider<ConnectionHolderTracker> trackerProvider) {
+    return new ConnectionHolderTrackingPostProcessor(trackerProvider);
+  }
+
+  private static final class ConnectionHolderTrackingPostProcessor
+      implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ConnectionHolderTracker> trackerProvider;
+
+    ConnectionHolderTrackingPostProcessor(
+        ObjectProvider<ConnectionHolderTracker> trackerProvider) {
+      this.trackerProvider = trackerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource dataSource)) {
+        return bean;
+      }
+      ConnectionHolderTracker tracker = trackerProvider.getObject();
+      return tracker.isEnabled() ? tracker.wrap(dataSource) : bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+  }
+}
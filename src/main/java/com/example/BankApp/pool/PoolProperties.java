@@ -0,0 +1,40 @@
+package com.example.BankApp.pool;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * コネクションプールの監視・サイズ調整に関する設定です（bankapp.pool.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.pool")
+public class PoolProperties {
+
+  // この時間を超えてコネクションを保持している呼び出し元をログに出す。0 で無効
+  private Duration leakDetectionThreshold = Duration.ZERO;
+
+  private Adaptive adaptive = new Adaptive();
+
+  @Data
+  public static class Adaptive {
+
+    private boolean enabled = false;
+
+    // プールサイズの下限・上限
+    private int minSize = 10;
+    private int maxSize = 50;
+
+    // 1 回の調整で増減させるコネクション数
+    private int step = 2;
+
+    // 接続待ちの平均がこれを超えたら増やし、これを下回ったら減らす
+    private Duration acquireWaitHigh = Duration.ofMillis(20);
+    private Duration acquireWaitLow = Duration.ofMillis(1);
+
+    // コネクションの平均使用時間（DB の応答時間）がこれを超えている間は、DB 側が詰まっているとみなして増やさない
+    private Duration dbLatencyHigh = Duration.ofMillis(200);
+
+    private Duration interval = Duration.ofSeconds(10);
+  }
+}
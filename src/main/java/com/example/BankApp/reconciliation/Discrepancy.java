@@ -0,0 +1,21 @@
+package com.example.BankApp.reconciliation;
+
+/**
+ * 突き合わせで見つかった不一致です。
+ *
+ * @param accountNumber 口座番号
+ * @param type          不一致の種類
+ * @param expected      取引履歴から求めた値
+ * @param actual        bank_account の残高
+ */
+public record Discrepancy(String accountNumber, Type type, long expected, long actual) {
+
+  public enum Type {
+    // 残高が、成功した入金の合計から出金の合計を引いた値と一致しない
+    BALANCE_NOT_EQUAL_TO_LOG_TOTAL,
+    // 残高が、最後の取引履歴の取引後残高と一致しない
+    BALANCE_NOT_EQUAL_TO_LATEST_LOG,
+    // 残高に反映済みとされている連番（ledger_sequence）の取引履歴が存在しない
+    LATEST_LOG_MISSING
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.BankApp.reconciliation;
+
+import com.example.BankApp.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(ReconciliationProperties.class)
+public class ReconciliationConfig {
+
+  @Bean
+  public ReconciliationJob reconciliationJob(JdbcTemplate jdbcTemplate,
+      ReconciliationProperties reconciliationProperties, ShardRouter shardRouter,
+      MeterRegistry meterRegistry) {
+    return new ReconciliationJob(jdbcTemplate, reconciliationProperties, shardRouter,
+        meterRegistry);
+  }
+}
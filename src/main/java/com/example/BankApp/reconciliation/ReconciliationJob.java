@@ -0,0 +1,296 @@
+package com.example.BankApp.reconciliation;
+
+import com.example.BankApp.reconciliation.Discrepancy.Type;
+import com.example.BankApp.reconciliation.ReconciliationProgress.Status;
+import com.example.BankApp.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * bank_account の残高が取引履歴と一致しているかを、口座番号の範囲ごとに並行して確認します。
+ * <p>
+ * 口座番号の順に一定数ずつ範囲に区切り、範囲ごとに 1 回の集計クエリで
+ * 「成功した入金・利息の合計 − 出金の合計」と「最後の取引履歴の取引後残高」を求めて残高と比べます。
+ * 集計は ledger_sequence（残高に反映済みの連番）までの取引履歴に限るため、イベントソーシングのモードでも使えます。
+ * ロックを取らない読み取りだけで、1 つの範囲を 1 文で読むため、取引を止めずに実行できます。
+ * シャーディングが有効な場合は、シャードごとに範囲を切り出して、そのシャードで集計します。
+ */
+@Slf4j
+public class ReconciliationJob {
+
+  private static final String NEXT_RANGE = """
+      SELECT account_number FROM bank_account WHERE account_number > ?
+      ORDER BY account_number LIMIT ?""";
+
+  // 残高を分割している口座（balance_shard）は、各行の合計を bank_account.balance に加えて比べる
+  private static final String CHECK_RANGE = """
+      SELECT a.account_number, a.balance, a.ledger_sequence, s.total AS shard_total,
+             COUNT(l.account_log_id) AS events,
+             COALESCE(SUM(CASE l.account_log_type
+                 WHEN 'DEPOSIT' THEN l.amount WHEN 'INTEREST' THEN l.amount
+                 WHEN 'WITHDRAW' THEN -l.amount ELSE 0 END), 0) AS net,
+             MAX(CASE WHEN l.sequence_number = a.ledger_sequence
+                 THEN l.balance_after_transaction END) AS latest_balance
+      FROM bank_account a
+      LEFT JOIN (SELECT account_number, SUM(balance) AS total FROM balance_shard
+                 GROUP BY account_number) s
+        ON s.account_number = a.account_number
+      LEFT JOIN account_log l
+        ON l.account_number = a.account_number
+       AND l.account_log_status = 'SUCCESS'
+       AND l.sequence_number <= a.ledger_sequence
+      WHERE a.account_number >= ? AND a.account_number <= ?
+      GROUP BY a.account_number, a.balance, a.ledger_sequence, s.total""";
+
+  private static final DateTimeFormatter REPORT_NAME =
+      DateTimeFormatter.ofPattern("'reconciliation-'yyyyMMdd-HHmmss'.csv'");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ReconciliationProperties properties;
+  private final ShardRouter shardRouter;
+  private final Counter accountsCounter;
+
+  private final AtomicReference<Status> status = new AtomicReference<>(Status.IDLE);
+  private final AtomicLong accountsChecked = new AtomicLong();
+  private final AtomicLong rangesChecked = new AtomicLong();
+  private final AtomicLong discrepancyCount = new AtomicLong();
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile String reportFile;
+
+  public ReconciliationJob(JdbcTemplate jdbcTemplate, ReconciliationProperties properties,
+      ShardRouter shardRouter, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+    this.shardRouter = shardRouter;
+    this.accountsCounter = Counter.builder("bankapp.reconciliation.accounts")
+        .description("突き合わせで確認した口座数")
+        .register(meterRegistry);
+    Gauge.builder("bankapp.reconciliation.discrepancies", discrepancyCount, AtomicLong::get)
+        .description("直近の突き合わせで見つかった不一致の数")
+        .register(meterRegistry);
+    Gauge.builder("bankapp.reconciliation.running", status, s -> s.get() == Status.RUNNING ? 1 : 0)
+        .description("突き合わせを実行中なら 1")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 現在の進捗を返します。
+   *
+   * @return 進捗
+   */
+  public ReconciliationProgress progress() {
+    Instant start = startedAt;
+    Instant end = finishedAt;
+    long checked = accountsChecked.get();
+    double perSecond = 0;
+    if (start != null) {
+      long millis = (end != null ? end : Instant.now()).toEpochMilli() - start.toEpochMilli();
+      perSecond = millis > 0 ? checked * 1000.0 / millis : 0;
+    }
+    return new ReconciliationProgress(status.get(), start, end, checked, rangesChecked.get(),
+        discrepancyCount.get(), perSecond, reportFile);
+  }
+
+  /**
+   * 別スレッドで突き合わせを開始します。
+   *
+   * @return 開始した場合は true、既に実行中の場合は false
+   */
+  public boolean start() {
+    if (!begin()) {
+      return false;
+    }
+    Thread thread = new Thread(this::runAndRecord, "reconciliation");
+    thread.setDaemon(true);
+    thread.start();
+    return true;
+  }
+
+  /**
+   * bankapp.reconciliation.cron に従って定期的に実行します（既定は無効）。
+   */
+  @Scheduled(cron = "${bankapp.reconciliation.cron:-}")
+  public void scheduled() {
+    if (begin()) {
+      runAndRecord();
+    }
+  }
+
+  /**
+   * 呼び出したスレッドで突き合わせを実行し、不一致を返します。
+   *
+   * @return 見つかった不一致（口座番号の順）
+   * @throws IllegalStateException 既に実行中の場合
+   */
+  public List<Discrepancy> run() {
+    if (!begin()) {
+      throw new IllegalStateException("残高の突き合わせは既に実行中です");
+    }
+    return runAndRecord();
+  }
+
+  private boolean begin() {
+    if (!status.compareAndSet(Status.IDLE, Status.RUNNING)
+        && !status.compareAndSet(Status.COMPLETED, Status.RUNNING)
+        && !status.compareAndSet(Status.FAILED, Status.RUNNING)) {
+      return false;
+    }
+    accountsChecked.set(0);
+    rangesChecked.set(0);
+    discrepancyCount.set(0);
+    startedAt = Instant.now();
+    finishedAt = null;
+    reportFile = null;
+    return true;
+  }
+
+  private List<Discrepancy> runAndRecord() {
+    try {
+      List<Discrepancy> discrepancies = reconcile();
+      reportFile = writeReport(discrepancies).toString();
+      finishedAt = Instant.now();
+      status.set(Status.COMPLETED);
+      log.info("残高の突き合わせが完了しました: {}", progress());
+      return discrepancies;
+    } catch (RuntimeException e) {
+      finishedAt = Instant.now();
+      status.set(Status.FAILED);
+      log.error("残高の突き合わせに失敗しました", e);
+      throw e;
+    }
+  }
+
+  private List<Discrepancy> reconcile() {
+    Queue<Discrepancy> found = new ConcurrentLinkedQueue<>();
+    ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+    // 範囲の切り出しが確認より先に進みすぎないよう、同時に抱える範囲の数を抑える
+    Semaphore inFlight = new Semaphore(properties.getParallelism() * 2);
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    try {
+      for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+        submitRanges(shard, pool, inFlight, tasks, found);
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("残高の突き合わせが中断されました", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("残高の突き合わせに失敗しました", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    List<Discrepancy> discrepancies = new ArrayList<>(found);
+    discrepancies.sort(Comparator.comparing(Discrepancy::accountNumber)
+        .thenComparing(Discrepancy::type));
+    return discrepancies;
+  }
+
+  // シャードの口座を範囲に区切り、範囲ごとの確認を同じシャードに向けて投入する
+  private void submitRanges(int shard, ForkJoinPool pool, Semaphore inFlight,
+      List<ForkJoinTask<?>> tasks, Queue<Discrepancy> found) throws InterruptedException {
+    String last = "";
+    while (true) {
+      String after = last;
+      List<String> keys = shardRouter.onShard(shard, () -> jdbcTemplate.queryForList(NEXT_RANGE,
+          String.class, after, properties.getRangeSize()));
+      if (keys.isEmpty()) {
+        return;
+      }
+      String from = keys.get(0);
+      String to = keys.get(keys.size() - 1);
+      inFlight.acquire();
+      tasks.add(pool.submit(() -> {
+        try {
+          shardRouter.onShard(shard, () -> {
+            checkRange(from, to, found);
+            return null;
+          });
+        } finally {
+          inFlight.release();
+        }
+      }));
+      last = to;
+    }
+  }
+
+  private void checkRange(String from, String to, Queue<Discrepancy> found) {
+    int[] accounts = {0};
+    jdbcTemplate.query(CHECK_RANGE, rs -> {
+      accounts[0]++;
+      String accountNumber = rs.getString("account_number");
+      long balance = rs.getLong("balance");
+      long shardTotal = rs.getLong("shard_total");
+      // 分割した口座の取引後残高は同時に入金した他の取引を含むことがあるため、最後の取引履歴とは比べない
+      boolean sharded = !rs.wasNull();
+      balance += shardTotal;
+      long ledgerSequence = rs.getLong("ledger_sequence");
+      long events = rs.getLong("events");
+      long net = rs.getLong("net");
+      long latestBalance = rs.getLong("latest_balance");
+      boolean latestMissing = rs.wasNull();
+      if ((events > 0 || balance != 0) && balance != net) {
+        report(found, new Discrepancy(accountNumber, Type.BALANCE_NOT_EQUAL_TO_LOG_TOTAL, net,
+            balance));
+      }
+      if (ledgerSequence > 0 && latestMissing) {
+        report(found, new Discrepancy(accountNumber, Type.LATEST_LOG_MISSING, ledgerSequence,
+            balance));
+      } else if (ledgerSequence > 0 && !sharded && latestBalance != balance) {
+        report(found, new Discrepancy(accountNumber, Type.BALANCE_NOT_EQUAL_TO_LATEST_LOG,
+            latestBalance, balance));
+      }
+    }, from, to);
+    accountsChecked.addAndGet(accounts[0]);
+    accountsCounter.increment(accounts[0]);
+    rangesChecked.incrementAndGet();
+  }
+
+  private void report(Queue<Discrepancy> found, Discrepancy discrepancy) {
+    found.add(discrepancy);
+    discrepancyCount.incrementAndGet();
+  }
+
+  private Path writeReport(List<Discrepancy> discrepancies) {
+    try {
+      Path dir = Files.createDirectories(Path.of(properties.getReportDir()));
+      Path file = dir.resolve(LocalDateTime.now().format(REPORT_NAME));
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        writer.write("account_number,type,expected,actual\n");
+        for (Discrepancy d : discrepancies) {
+          writer.write(d.accountNumber() + "," + d.type() + "," + d.expected() + ","
+              + d.actual() + "\n");
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException("突き合わせのレポートを書き出せませんでした", e);
+    }
+  }
+}
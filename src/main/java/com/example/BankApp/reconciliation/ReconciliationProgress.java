@@ -0,0 +1,24 @@
+package com.example.BankApp.reconciliation;
+
+import java.time.Instant;
+
+/**
+ * 突き合わせの進捗です。
+ *
+ * @param status            状態
+ * @param startedAt         開始日時（未実行なら null）
+ * @param finishedAt        終了日時（実行中なら null）
+ * @param accountsChecked   確認済みの口座数
+ * @param rangesChecked     確認済みの範囲の数
+ * @param discrepancies     見つかった不一致の数
+ * @param accountsPerSecond 1 秒あたりに確認した口座数
+ * @param reportFile        不一致のレポートのパス（完了後のみ）
+ */
+public record ReconciliationProgress(Status status, Instant startedAt, Instant finishedAt,
+                                     long accountsChecked, long rangesChecked, long discrepancies,
+                                     double accountsPerSecond, String reportFile) {
+
+  public enum Status {
+    IDLE, RUNNING, COMPLETED, FAILED
+  }
+}
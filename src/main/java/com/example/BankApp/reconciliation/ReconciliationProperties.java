@@ -0,0 +1,21 @@
+package com.example.BankApp.reconciliation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 残高の突き合わせに関する設定です（bankapp.reconciliation.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.reconciliation")
+public class ReconciliationProperties {
+
+  // 1 回の集計クエリで確認する口座の数
+  private int rangeSize = 1000;
+
+  // 範囲を並行して確認するスレッドの数
+  private int parallelism = 4;
+
+  // 不一致のレポート（CSV）を書き出すディレクトリ
+  private String reportDir = "reconciliation";
+}
@@ -4,6 +4,7 @@ import com.example.BankApp.model.AccountLog;
 import com.example.BankApp.model.AccountLog.AccountLogType;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface AccountLogRepository extends JpaRepository<AccountLog, String> {
 
@@ -11,4 +12,19 @@ public interface AccountLogRepository extends JpaRepository<AccountLog, String>
 
   List<AccountLog> findByAccountNumberAndAccountLogTypeOrderByTimestampDesc(
       String accountNumber, AccountLogType type);
+
+  List<AccountLog> findByAccountNumberAndSequenceNumberGreaterThanOrderBySequenceNumber(
+      String accountNumber, long sequenceNumber);
+
+  /**
+   * bank_account のスナップショット（ledgerSequence）より後の、成功した取引履歴を口座・連番の順に取得します。
+   *
+   * @return スナップショットに反映されていない取引履歴
+   */
+  @Query("""
+      SELECT l FROM AccountLog l JOIN BankAccount a ON a.accountNumber = l.accountNumber
+      WHERE l.sequenceNumber > a.ledgerSequence
+        AND l.accountLogStatus = com.example.BankApp.model.AccountLog.AccountLogStatus.SUCCESS
+      ORDER BY l.accountNumber, l.sequenceNumber""")
+  List<AccountLog> findEventsAfterSnapshot();
 }
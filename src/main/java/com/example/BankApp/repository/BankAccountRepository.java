@@ -1,10 +1,22 @@
 package com.example.BankApp.repository;
 
 import com.example.BankApp.model.BankAccount;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, String> {
 
+  /**
+   * 口座を行ロック（SELECT ... FOR UPDATE）付きで取得します。
+   * 残高を読み込んでから書き戻すまでの間に、同じ口座への他の取引が割り込まないようにします。
+   *
+   * @param accountNumber 口座番号
+   * @return 口座
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<BankAccount> findForUpdateByAccountNumber(String accountNumber);
 }
@@ -0,0 +1,117 @@
+package com.example.BankApp.schema;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * account_log の月ごとのパーティション（p202501 など）を、当月から指定した月数先まで追加します。
+ * <p>
+ * 末尾の pmax（MAXVALUE）を分割して追加するため、日時が未来の行が無ければテーブルのコピーは発生しません。
+ * 月は UTC で数えます（V3 のマイグレーションと同じ）。
+ * <p>
+ * 複数のインスタンスが同時に実行しても同じパーティションを二重に追加しないよう、{@code GET_LOCK} で排他し、
+ * ロックを取得してから既存のパーティションを読み直します。
+ */
+@Slf4j
+public class AccountLogPartitionMaintainer {
+
+  private static final Pattern MONTHLY_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+  private static final String LOCK_NAME = "bankapp.account_log.partitions";
+  private static final int LOCK_TIMEOUT_SECONDS = 10;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final SchemaProperties.Partitions properties;
+
+  public AccountLogPartitionMaintainer(JdbcTemplate jdbcTemplate,
+      SchemaProperties.Partitions properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${bankapp.schema.partitions.cron:0 0 3 * * *}")
+  public void addPartitions() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    // GET_LOCK は接続（セッション）単位のため、ロックの取得から解放までを 1 つの接続で行う
+    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+      JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+      Integer locked = session.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class,
+          LOCK_NAME, LOCK_TIMEOUT_SECONDS);
+      if (locked == null || locked != 1) {
+        log.info("他のインスタンスが account_log のパーティションを追加しているため、今回は追加しません");
+        return null;
+      }
+      try {
+        addPartitions(session);
+      } finally {
+        session.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+      }
+      return null;
+    });
+  }
+
+  private void addPartitions(JdbcTemplate session) {
+    List<String> partitions = session.queryForList("""
+        SELECT partition_name FROM information_schema.partitions
+        WHERE table_schema = DATABASE() AND table_name = 'account_log'
+          AND partition_name IS NOT NULL""", String.class);
+    String ddl = reorganizeDdl(partitions, YearMonth.now(ZoneOffset.UTC),
+        properties.getAheadMonths());
+    if (ddl == null) {
+      return;
+    }
+    log.info("account_log のパーティションを追加します: {}", ddl);
+    session.execute(ddl);
+  }
+
+  /**
+   * pmax を分割して、不足している月のパーティションを追加する DDL を組み立てます。
+   *
+   * @param partitions  既存のパーティション名
+   * @param current     当月
+   * @param aheadMonths 当月からこの月数先まで用意する
+   * @return DDL。追加するパーティションが無い、またはパーティション分割されていない場合は null
+   */
+  static String reorganizeDdl(Collection<String> partitions, YearMonth current,
+      int aheadMonths) {
+    if (!partitions.contains("pmax")) {
+      return null;
+    }
+    YearMonth last = current.minusMonths(1);
+    for (String name : partitions) {
+      Matcher matcher = MONTHLY_PARTITION.matcher(name);
+      if (matcher.matches()) {
+        YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)),
+            Integer.parseInt(matcher.group(2)));
+        if (month.isAfter(last)) {
+          last = month;
+        }
+      }
+    }
+    YearMonth until = current.plusMonths(aheadMonths);
+    if (!last.isBefore(until)) {
+      return null;
+    }
+    StringBuilder ddl = new StringBuilder("ALTER TABLE account_log REORGANIZE PARTITION pmax INTO (");
+    for (YearMonth month = last.plusMonths(1); !month.isAfter(until); month = month.plusMonths(1)) {
+      ddl.append("PARTITION p").append(month.format(PARTITION_SUFFIX))
+          .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+    }
+    return ddl.append("PARTITION pmax VALUES LESS THAN (MAXVALUE))").toString();
+  }
+}
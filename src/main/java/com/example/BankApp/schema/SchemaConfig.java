@@ -0,0 +1,35 @@
+package com.example.BankApp.schema;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(SchemaProperties.class)
+public class SchemaConfig {
+
+  // マイグレーションをデプロイ時に別途適用する環境では、起動時は未適用のものが無いかの検証だけにする
+  @Bean
+  public FlywayMigrationStrategy flywayMigrationStrategy(SchemaProperties schemaProperties) {
+    return flyway -> {
+      if (schemaProperties.isMigrateOnStartup()) {
+        flyway.migrate();
+      } else {
+        flyway.validate();
+      }
+    };
+  }
+
+  // AOT では @ConditionalOnProperty がビルド時に固定されるため、実行するかどうかは実行時に判定する。
+  // JdbcTemplate の無いリアクティブ版では作らない
+  @Bean
+  @ConditionalOnWebApplication(type = Type.SERVLET)
+  public AccountLogPartitionMaintainer accountLogPartitionMaintainer(JdbcTemplate jdbcTemplate,
+      SchemaProperties schemaProperties) {
+    return new AccountLogPartitionMaintainer(jdbcTemplate, schemaProperties.getPartitions());
+  }
+}
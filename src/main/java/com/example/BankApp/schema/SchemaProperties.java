@@ -0,0 +1,27 @@
+package com.example.BankApp.schema;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * スキーマのマイグレーションとパーティションの管理に関する設定です（bankapp.schema.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.schema")
+public class SchemaProperties {
+
+  // false の場合、起動時にマイグレーションを適用せず、適用済みかどうかの検証だけを行う
+  private boolean migrateOnStartup = true;
+
+  private Partitions partitions = new Partitions();
+
+  @Data
+  public static class Partitions {
+
+    // account_log の月ごとのパーティションを追加する（MySQL のみ）
+    private boolean enabled = false;
+
+    // 当月からこの月数先までのパーティションを用意しておく
+    private int aheadMonths = 3;
+  }
+}
@@ -5,19 +5,34 @@ import com.example.BankApp.dto.AccountCreationRequest;
 import com.example.BankApp.dto.AdminBankAccountResponse;
 import com.example.BankApp.dto.AmountRequest;
 import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
 import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.ledger.AccountState;
+import com.example.BankApp.ledger.BalanceShards;
+import com.example.BankApp.ledger.EventSourcedLedger;
+import com.example.BankApp.metrics.Measured;
+import com.example.BankApp.metrics.Operation;
 import com.example.BankApp.model.AccountLog;
 import com.example.BankApp.model.AccountLog.AccountLogStatus;
 import com.example.BankApp.model.AccountLog.AccountLogType;
 import com.example.BankApp.model.BankAccount;
 import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.outbox.OutboxWriter;
 import com.example.BankApp.repository.AccountLogRepository;
 import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.sharding.NewAccountShard;
+import com.example.BankApp.sharding.ShardKey;
+import com.example.BankApp.sharding.ShardRouter;
+import com.example.BankApp.stream.BalanceStreamRegistry;
 import com.example.BankApp.util.MoneyFormat;
+import com.example.BankApp.velocity.VelocityTracker;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,24 +42,48 @@ import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 public class BankAccountService {
 
   private final BankAccountRepository bankAccountRepository;
   private final AccountLogRepository accountLogRepository;
   private final PasswordEncoder passwordEncoder;
+  private final EventSourcedLedger eventSourcedLedger;
+  private final BalanceShards balanceShards;
+  private final OutboxWriter outboxWriter;
+  private final BalanceStreamRegistry balanceStreamRegistry;
+  private final VelocityTracker velocityTracker;
+  // 有効な場合、口座番号の引数（@ShardKey）で選んだシャードで各メソッドを実行する
+  private final ShardRouter shardRouter;
 
   /**
    * すべての口座情報を取得します。
+   * <p>
+   * シャーディングが有効な場合は、全シャードに並列に問い合わせて口座番号の降順に併合します。
    *
    * @return 口座のリスト
    */
   @Transactional
   public List<AdminBankAccountResponse> getAllAccountsForAdmin() {
-    List<BankAccount> accounts = bankAccountRepository.findAll(
-        Sort.by(Sort.Direction.DESC, "accountNumber"));
+    Sort order = Sort.by(Sort.Direction.DESC, "accountNumber");
+    List<BankAccount> accounts = shardRouter.isEnabled()
+        ? shardRouter.scatterSorted(() -> bankAccountRepository.findAll(order),
+            Comparator.comparing(BankAccount::getAccountNumber).reversed())
+        : bankAccountRepository.findAll(order);
+    if (eventSourcedLedger.isEnabled()) {
+      // スナップショットより新しい射影の残高を返す
+      return accounts.stream()
+          .map(a -> eventSourcedLedger.current(a.getAccountNumber())
+              .map(BankAccountMapper::toAdminResponse)
+              .orElseGet(() -> BankAccountMapper.toAdminResponse(a)))
+          .toList();
+    }
     return accounts.stream()
-        .map(BankAccountMapper::toAdminResponse)
+        .map(a -> balanceShards.isSharded(a.getAccountNumber())
+            ? BankAccountMapper.toAdminResponse(
+                withBalance(a, balanceShards.balance(a.getAccountNumber())))
+            : BankAccountMapper.toAdminResponse(a))
         .toList();
   }
 
@@ -55,6 +94,8 @@ public class BankAccountService {
    * @return 作成された口座の情報
    */
   @Transactional
+  @NewAccountShard
+  @Measured(Operation.CREATE_ACCOUNT)
   public BankAccountResponse createAccount(AccountCreationRequest request) {
     String accountNumber = generateSequentialAccountNumber();
     String encoded = passwordEncoder.encode(request.getPassword());
@@ -65,7 +106,8 @@ public class BankAccountService {
         request.getAccountHolderName(),
         0,
         true,
-        Role.ACCOUNT_USER
+        Role.ACCOUNT_USER,
+        1
     );
 
     bankAccountRepository.save(account);
@@ -77,14 +119,18 @@ public class BankAccountService {
         .balanceAfterTransaction(account.getBalance())
         .timestamp(LocalDateTime.now())
         .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(account.getLedgerSequence())
         .build();
     accountLogRepository.save(accountLog);
+    outboxWriter.append(accountLog);
 
     return BankAccountMapper.toResponse(account, "口座開設が完了しました。");
   }
 
   /**
    * 口座番号を自動生成します。 このメソッドは、既存の口座番号の最大値を取得し、それに1を加えた値を新しい口座番号として返します。 もし既存の口座がない場合は、"0000001"を返します。
+   * <p>
+   * シャーディングが有効な場合は、口座を開くシャードの中の最大値より大きく、そのシャードに置かれる最小の番号を返します。
    *
    * @return 新しい口座番号
    */
@@ -93,11 +139,11 @@ public class BankAccountService {
     List<BankAccount> allAccounts = bankAccountRepository.findAll(
         Sort.by(Sort.Direction.DESC, "accountNumber"));
 
-    long nextAccountNumber = 1;
+    long max = 0;
     if (!allAccounts.isEmpty()) {
-      long max = Long.parseLong(allAccounts.get(0).getAccountNumber());
-      nextAccountNumber = max + 1;
+      max = Long.parseLong(allAccounts.get(0).getAccountNumber());
     }
+    long nextAccountNumber = shardRouter.isEnabled() ? shardRouter.nextAccountNumber(max) : max + 1;
 
     if (nextAccountNumber > 9999999) {
       throw new IllegalStateException("口座番号の上限に達しました。");
@@ -112,11 +158,21 @@ public class BankAccountService {
    * @return 指定された口座の情報
    */
   @Transactional
-  public BankAccountResponse getBalance(String accountNumber) {
+  public BankAccountResponse getBalance(@ShardKey String accountNumber) {
     ensureOwner(accountNumber);
 
+    if (eventSourcedLedger.isEnabled()) {
+      return eventSourcedLedger.current(accountNumber)
+          .map(BankAccountMapper::toResponse)
+          .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
+    }
+
     BankAccount account = bankAccountRepository.findById(accountNumber)
-        .orElseThrow(() -> new ResourceNotFoundException("口座が存在しません。"));
+        .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
+    if (balanceShards.isSharded(accountNumber)) {
+      return BankAccountMapper.toResponse(
+          withBalance(account, balanceShards.balance(accountNumber)));
+    }
     return BankAccountMapper.toResponse(account);
   }
 
@@ -128,17 +184,30 @@ public class BankAccountService {
    * @return 入金後の口座情報
    */
   @Transactional
-  public BankAccountResponse deposit(String accountNumber, AmountRequest amountRequest) {
+  @Measured(Operation.DEPOSIT)
+  public BankAccountResponse deposit(@ShardKey String accountNumber, AmountRequest amountRequest) {
     ensureOwner(accountNumber);
+    String msg = MoneyFormat.yen(amountRequest.getAmount()) + "入金しました。";
 
-    BankAccount account = bankAccountRepository.findById(accountNumber)
-        .orElseThrow(() -> new ResourceNotFoundException("口座が存在しません。"));
+    if (eventSourcedLedger.isEnabled()) {
+      AccountState state = eventSourcedLedger.deposit(accountNumber, amountRequest.getAmount());
+      return published(BankAccountMapper.toResponse(state, msg));
+    }
+
+    if (balanceShards.isSharded(accountNumber)
+        && balanceShards.add(accountNumber, amountRequest.getAmount())) {
+      return published(depositToShard(accountNumber, amountRequest.getAmount(), msg));
+    }
+
+    BankAccount account = bankAccountRepository.findForUpdateByAccountNumber(accountNumber)
+        .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
 
     if (!account.isActive()) {
-      throw new IllegalArgumentException("この口座は既に解約されています。");
+      throw BankOperationException.ACCOUNT_CLOSED;
     }
 
     account.setBalance(account.getBalance() + amountRequest.getAmount());
+    account.setLedgerSequence(account.getLedgerSequence() + 1);
     bankAccountRepository.save(account);
 
     AccountLog accountLog = AccountLog.builder()
@@ -149,11 +218,12 @@ public class BankAccountService {
         .balanceAfterTransaction(account.getBalance())
         .timestamp(LocalDateTime.now())
         .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(account.getLedgerSequence())
         .build();
     accountLogRepository.save(accountLog);
+    outboxWriter.append(accountLog);
 
-    String msg = MoneyFormat.yen(amountRequest.getAmount()) + "入金しました。";
-    return BankAccountMapper.toResponse(account, msg);
+    return published(BankAccountMapper.toResponse(account, msg));
   }
 
   /**
@@ -163,30 +233,53 @@ public class BankAccountService {
    * @param amountRequest 出金金額を含むリクエスト
    * @return 出金後の口座情報
    */
-  @Transactional
-  public BankAccountResponse withdraw(String accountNumber, AmountRequest amountRequest) {
+  @Transactional(noRollbackFor = BankOperationException.class)
+  @Measured(Operation.WITHDRAW)
+  public BankAccountResponse withdraw(@ShardKey String accountNumber, AmountRequest amountRequest) {
     ensureOwner(accountNumber);
+    String msg = MoneyFormat.yen(amountRequest.getAmount()) + "出金しました。";
 
-    BankAccount account = bankAccountRepository.findById(accountNumber)
-        .orElseThrow(() -> new ResourceNotFoundException("口座が存在しません。"));
+    if (eventSourcedLedger.isEnabled()) {
+      AccountState state = eventSourcedLedger.withdraw(accountNumber, amountRequest.getAmount());
+      return published(BankAccountMapper.toResponse(state, msg));
+    }
+
+    BankAccount account = bankAccountRepository.findForUpdateByAccountNumber(accountNumber)
+        .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
 
     if (!account.isActive()) {
-      throw new IllegalArgumentException("この口座は既に解約されています。");
+      throw BankOperationException.ACCOUNT_CLOSED;
+    }
+
+    int shardBalance = 0;
+    if (balanceShards.isSharded(accountNumber)) {
+      // bank_account の残高で足りない場合だけ分割した残高を集約し、それ以外は入金を待たせない
+      if (amountRequest.getAmount() > account.getBalance()) {
+        account.setBalance(account.getBalance() + balanceShards.drain(accountNumber));
+      }
+      shardBalance = balanceShards.shardTotal(accountNumber);
     }
 
-    if (amountRequest.getAmount() <= account.getBalance()) {
+    boolean sufficient = amountRequest.getAmount() <= account.getBalance();
+    // 残高が足りる出金だけを、出金の回数と金額の上限に数える
+    boolean limited = sufficient
+        && velocityTracker.limitExceeded(accountNumber, amountRequest.getAmount());
+    if (sufficient && !limited) {
       account.setBalance(account.getBalance() - amountRequest.getAmount());
+      account.setLedgerSequence(account.getLedgerSequence() + 1);
 
       AccountLog accountLog = AccountLog.builder()
           .accountLogId(UUID.randomUUID().toString())
           .accountNumber(account.getAccountNumber())
           .accountLogType(AccountLogType.WITHDRAW)
           .amount(amountRequest.getAmount())
-          .balanceAfterTransaction(account.getBalance())
+          .balanceAfterTransaction(account.getBalance() + shardBalance)
           .timestamp(LocalDateTime.now())
           .accountLogStatus(AccountLogStatus.SUCCESS)
+          .sequenceNumber(account.getLedgerSequence())
           .build();
       accountLogRepository.save(accountLog);
+      outboxWriter.append(accountLog);
       bankAccountRepository.save(account);
     } else {
       AccountLog accountLog = AccountLog.builder()
@@ -194,16 +287,22 @@ public class BankAccountService {
           .accountNumber(account.getAccountNumber())
           .accountLogType(AccountLogType.WITHDRAW)
           .amount(amountRequest.getAmount())
-          .balanceAfterTransaction(account.getBalance())
+          .balanceAfterTransaction(account.getBalance() + shardBalance)
           .timestamp(LocalDateTime.now())
           .accountLogStatus(AccountLogStatus.FAILED)
+          .sequenceNumber(account.getLedgerSequence())
           .build();
       accountLogRepository.save(accountLog);
-      throw new IllegalArgumentException("残高が不足しています。");
+      throw limited
+          ? BankOperationException.VELOCITY_LIMIT_EXCEEDED
+          : BankOperationException.INSUFFICIENT_BALANCE;
     }
 
-    String msg = MoneyFormat.yen(amountRequest.getAmount()) + "出金しました。";
-    return BankAccountMapper.toResponse(account, msg);
+    if (shardBalance != 0) {
+      return published(BankAccountMapper.toResponse(
+          withBalance(account, account.getBalance() + shardBalance), msg));
+    }
+    return published(BankAccountMapper.toResponse(account, msg));
   }
 
   /**
@@ -213,19 +312,31 @@ public class BankAccountService {
    * @return 口座解約の結果メッセージ
    */
   @Transactional
-  public String closeAccount(String accountNumber) {
+  @Measured(Operation.CLOSE_ACCOUNT)
+  public String closeAccount(@ShardKey String accountNumber) {
     ensureOwner(accountNumber);
 
-    BankAccount account = bankAccountRepository.findById(accountNumber)
-        .orElseThrow(() -> new ResourceNotFoundException("口座が存在しません。"));
+    String msg = "口座解約が完了しました。口座番号：" + accountNumber;
+
+    if (eventSourcedLedger.isEnabled()) {
+      AccountState state = eventSourcedLedger.close(accountNumber);
+      balanceStreamRegistry.closeAfterCommit(BankAccountMapper.toResponse(state, msg));
+      return msg;
+    }
+
+    BankAccount account = bankAccountRepository.findForUpdateByAccountNumber(accountNumber)
+        .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
+    if (balanceShards.isSharded(accountNumber)) {
+      account.setBalance(account.getBalance() + balanceShards.drain(accountNumber));
+    }
     if (account.getBalance() > 0) {
-      throw new IllegalArgumentException("残高があるため、口座を解約できません。");
+      throw BankOperationException.BALANCE_REMAINING;
     }
     if (!account.isActive()) {
-      ;
-      throw new IllegalArgumentException("既に解約済みの口座です。");
+      throw BankOperationException.ALREADY_CLOSED;
     }
     account.setActive(false);
+    account.setLedgerSequence(account.getLedgerSequence() + 1);
     bankAccountRepository.save(account);
 
     AccountLog accountLog = AccountLog.builder()
@@ -236,10 +347,59 @@ public class BankAccountService {
         .balanceAfterTransaction(0)
         .timestamp(LocalDateTime.now())
         .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(account.getLedgerSequence())
         .build();
     accountLogRepository.save(accountLog);
+    outboxWriter.append(accountLog);
+    balanceStreamRegistry.closeAfterCommit(BankAccountMapper.toResponse(account, msg));
+
+    return msg;
+  }
+
+  /**
+   * 残高を分割している口座に入金します。入金額は呼び出し元で分割した行の 1 つに加え済みです。
+   * <p>
+   * bank_account の行はロックせずに読み取ります。解約済みの場合は例外を投げ、行への加算ごとロールバックします。
+   * 取引履歴の連番は、残高に反映済みの最後の連番（ledger_sequence）をそのまま使います。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        入金額
+   * @param msg           レスポンスのメッセージ
+   * @return 入金後の口座情報
+   */
+  private BankAccountResponse depositToShard(String accountNumber, int amount, String msg) {
+    BankAccount account = bankAccountRepository.findById(accountNumber)
+        .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
+    if (!account.isActive()) {
+      throw BankOperationException.ACCOUNT_CLOSED;
+    }
+    AccountState state = withBalance(account, balanceShards.balance(accountNumber));
+
+    AccountLog accountLog = AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber(accountNumber)
+        .accountLogType(AccountLogType.DEPOSIT)
+        .amount(amount)
+        .balanceAfterTransaction(state.balance())
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(account.getLedgerSequence())
+        .build();
+    accountLogRepository.save(accountLog);
+    outboxWriter.append(accountLog);
+
+    return BankAccountMapper.toResponse(state, msg);
+  }
+
+  // コミットされたら、残高の通知を開いている接続へ送る
+  private BankAccountResponse published(BankAccountResponse response) {
+    balanceStreamRegistry.publishAfterCommit(response);
+    return response;
+  }
 
-    return "口座解約が完了しました。口座番号：" + accountNumber;
+  private static AccountState withBalance(BankAccount account, int balance) {
+    return new AccountState(account.getAccountNumber(), account.getAccountHolderName(), balance,
+        account.isActive(), account.getLedgerSequence());
   }
 
   /**
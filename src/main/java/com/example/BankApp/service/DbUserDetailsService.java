@@ -4,23 +4,30 @@ import com.example.BankApp.model.AdminUser;
 import com.example.BankApp.model.BankAccount;
 import com.example.BankApp.repository.AdminUserRepository;
 import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.sharding.ShardRouter;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 public class DbUserDetailsService implements UserDetailsService {
 
   private final AdminUserRepository adminUserRepository;
   private final BankAccountRepository bankAccountRepository;
+  private final ShardRouter shardRouter;
 
 
   /**
    * ユーザー検索
+   * <p>
+   * 管理者はシャード 0 で検索します。シャーディングが有効な場合、口座ユーザはログイン ID の口座番号が置かれたシャードで検索します。
    *
    * @param username
    * @return
@@ -41,7 +48,9 @@ public class DbUserDetailsService implements UserDetailsService {
     }
 
     // 2) 口座ユーザ(accountNumber=ログインID)として検索
-    Optional<BankAccount> foundAccount = bankAccountRepository.findById(username);
+    Optional<BankAccount> foundAccount = shardRouter.isEnabled()
+        ? shardRouter.onShardOf(username, () -> bankAccountRepository.findById(username))
+        : bankAccountRepository.findById(username);
     if (foundAccount.isPresent()) {
       BankAccount u = foundAccount.get();
       return org.springframework.security.core.userdetails.User
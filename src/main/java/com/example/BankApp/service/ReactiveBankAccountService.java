@@ -0,0 +1,211 @@
+package com.example.BankApp.service;
+
+import com.example.BankApp.Mapper.BankAccountMapper;
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.util.MoneyFormat;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link BankAccountService} の残高照会・入出金・取引履歴取得を、R2DBC でノンブロッキングに実行します。
+ * <p>
+ * 残高の更新は条件付きの UPDATE 1 文で行うため、行を読み込んでから書き戻す間に他の取引が割り込むことはありません。
+ */
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveBankAccountService {
+
+  private static final String SELECT_ACCOUNT = """
+      SELECT account_number, password, account_holder_name, balance, is_active, role, ledger_sequence
+      FROM bank_account WHERE account_number = :accountNumber""";
+
+  private static final String SELECT_LOGS = """
+      SELECT account_log_id, account_number, account_log_type, amount,
+             balance_after_transaction, timestamp, account_log_status
+      FROM account_log WHERE account_number = :accountNumber""";
+
+  private final DatabaseClient databaseClient;
+  private final TransactionalOperator transactionalOperator;
+
+  /**
+   * 残高情報を取得します。
+   *
+   * @param accountNumber 口座番号
+   * @return 指定された口座の情報
+   */
+  public Mono<BankAccountResponse> getBalance(String accountNumber) {
+    return ensureOwner(accountNumber)
+        .then(findAccount(accountNumber))
+        .map(BankAccountMapper::toResponse);
+  }
+
+  /**
+   * 口座に入金を行います。
+   *
+   * @param accountNumber 口座番号
+   * @param amountRequest 入金金額を含むリクエスト
+   * @return 入金後の口座情報
+   */
+  public Mono<BankAccountResponse> deposit(String accountNumber, AmountRequest amountRequest) {
+    int amount = amountRequest.getAmount();
+    Mono<BankAccountResponse> deposit = databaseClient.sql("""
+            UPDATE bank_account SET balance = balance + :amount, ledger_sequence = ledger_sequence + 1
+            WHERE account_number = :accountNumber AND is_active = TRUE""")
+        .bind("amount", amount)
+        .bind("accountNumber", accountNumber)
+        .fetch().rowsUpdated()
+        .flatMap(updated -> findAccount(accountNumber)
+            .flatMap(account -> {
+              if (updated == 0) {
+                return Mono.error(BankOperationException.ACCOUNT_CLOSED);
+              }
+              return insertLog(account, AccountLogType.DEPOSIT, amount, AccountLogStatus.SUCCESS)
+                  .thenReturn(BankAccountMapper.toResponse(account,
+                      MoneyFormat.yen(amount) + "入金しました。"));
+            }));
+    return ensureOwner(accountNumber).then(transactionalOperator.transactional(deposit));
+  }
+
+  /**
+   * 口座から出金を行います。残高不足の場合も取引履歴には失敗として記録します。
+   *
+   * @param accountNumber 口座番号
+   * @param amountRequest 出金金額を含むリクエスト
+   * @return 出金後の口座情報
+   */
+  public Mono<BankAccountResponse> withdraw(String accountNumber, AmountRequest amountRequest) {
+    int amount = amountRequest.getAmount();
+    Mono<BankAccountResponse> withdraw = databaseClient.sql("""
+            UPDATE bank_account SET balance = balance - :amount, ledger_sequence = ledger_sequence + 1
+            WHERE account_number = :accountNumber AND is_active = TRUE AND balance >= :amount""")
+        .bind("amount", amount)
+        .bind("accountNumber", accountNumber)
+        .fetch().rowsUpdated()
+        .flatMap(updated -> findAccount(accountNumber)
+            .flatMap(account -> {
+              if (updated > 0) {
+                return insertLog(account, AccountLogType.WITHDRAW, amount, AccountLogStatus.SUCCESS)
+                    .thenReturn(BankAccountMapper.toResponse(account,
+                        MoneyFormat.yen(amount) + "出金しました。"));
+              }
+              if (!account.isActive()) {
+                return Mono.error(BankOperationException.ACCOUNT_CLOSED);
+              }
+              return insertLog(account, AccountLogType.WITHDRAW, amount, AccountLogStatus.FAILED)
+                  .then(Mono.error(BankOperationException.INSUFFICIENT_BALANCE));
+            }));
+    // 残高不足の失敗ログはロールバックせずにコミットし、その後でエラーを返す
+    return ensureOwner(accountNumber)
+        .then(transactionalOperator.transactional(
+            withdraw.onErrorResume(e -> e == BankOperationException.INSUFFICIENT_BALANCE,
+                e -> Mono.empty())))
+        .switchIfEmpty(Mono.error(BankOperationException.INSUFFICIENT_BALANCE));
+  }
+
+  /**
+   * 取引履歴を新しい順に取得します。結果は 1 件ずつストリームとして返します。
+   *
+   * @param accountNumber  口座番号
+   * @param accountLogType 取引タイプ, nullの場合は全ての取引を取得
+   * @return 取引履歴
+   */
+  public Flux<AccountLog> getAccountLog(String accountNumber, AccountLogType accountLogType) {
+    DatabaseClient.GenericExecuteSpec spec;
+    if (accountLogType != null) {
+      spec = databaseClient.sql(SELECT_LOGS
+              + " AND account_log_type = :accountLogType ORDER BY timestamp DESC")
+          .bind("accountLogType", accountLogType.name());
+    } else {
+      spec = databaseClient.sql(SELECT_LOGS + " ORDER BY timestamp DESC");
+    }
+    Flux<AccountLog> logs = spec.bind("accountNumber", accountNumber)
+        .map(ReactiveBankAccountService::toAccountLog)
+        .all()
+        .switchIfEmpty(Flux.error(ResourceNotFoundException.ACCOUNT_LOG_NOT_FOUND));
+    return ensureOwner(accountNumber).thenMany(logs);
+  }
+
+  private Mono<BankAccount> findAccount(String accountNumber) {
+    return databaseClient.sql(SELECT_ACCOUNT)
+        .bind("accountNumber", accountNumber)
+        .map(ReactiveBankAccountService::toBankAccount)
+        .one()
+        .switchIfEmpty(Mono.error(ResourceNotFoundException.ACCOUNT_NOT_FOUND));
+  }
+
+  private Mono<Long> insertLog(BankAccount account, AccountLogType type, int amount,
+      AccountLogStatus status) {
+    return databaseClient.sql("""
+            INSERT INTO account_log (account_log_id, account_number, account_log_type, amount,
+                                     balance_after_transaction, timestamp, account_log_status,
+                                     sequence_number)
+            VALUES (:id, :accountNumber, :type, :amount, :balance, :timestamp, :status,
+                    :sequence)""")
+        .bind("id", UUID.randomUUID().toString())
+        .bind("accountNumber", account.getAccountNumber())
+        .bind("type", type.name())
+        .bind("amount", amount)
+        .bind("balance", account.getBalance())
+        .bind("timestamp", LocalDateTime.now())
+        .bind("status", status.name())
+        .bind("sequence", account.getLedgerSequence())
+        .fetch().rowsUpdated();
+  }
+
+  /**
+   * 口座保有者かどうか確認します。
+   *
+   * @param accountNumber 口座番号
+   */
+  private Mono<Void> ensureOwner(String accountNumber) {
+    return ReactiveSecurityContextHolder.getContext()
+        .map(context -> context.getAuthentication())
+        .filter(auth -> auth.getName().equals(accountNumber) ||
+            auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")))
+        .switchIfEmpty(Mono.error(new AccessDeniedException("この口座に対する権限がありません")))
+        .then();
+  }
+
+  private static BankAccount toBankAccount(Readable row) {
+    return new BankAccount(
+        row.get("account_number", String.class),
+        row.get("password", String.class),
+        row.get("account_holder_name", String.class),
+        row.get("balance", Integer.class),
+        Boolean.TRUE.equals(row.get("is_active", Boolean.class)),
+        Role.valueOf(row.get("role", String.class)),
+        row.get("ledger_sequence", Long.class));
+  }
+
+  private static AccountLog toAccountLog(Readable row) {
+    return AccountLog.builder()
+        .accountLogId(row.get("account_log_id", String.class))
+        .accountNumber(row.get("account_number", String.class))
+        .accountLogType(AccountLogType.valueOf(row.get("account_log_type", String.class)))
+        .amount(row.get("amount", Integer.class))
+        .balanceAfterTransaction(row.get("balance_after_transaction", Integer.class))
+        .timestamp(row.get("timestamp", LocalDateTime.class))
+        .accountLogStatus(AccountLogStatus.valueOf(row.get("account_log_status", String.class)))
+        .build();
+  }
+}
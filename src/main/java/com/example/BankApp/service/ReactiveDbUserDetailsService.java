@@ -0,0 +1,53 @@
+package com.example.BankApp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link DbUserDetailsService} のリアクティブ版です。reactive プロファイルでは JPA を使わないため、R2DBC で検索します。
+ */
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveDbUserDetailsService implements ReactiveUserDetailsService {
+
+  private final DatabaseClient databaseClient;
+
+  /**
+   * ユーザー検索
+   *
+   * @param username 管理者ID または 口座番号
+   * @return ユーザー情報。見つからない場合は空
+   */
+  @Override
+  public Mono<UserDetails> findByUsername(String username) {
+    // 1) 管理者(adminId)として検索
+    Mono<UserDetails> admin = databaseClient.sql(
+            "SELECT admin_id, password, role FROM admin_user WHERE admin_id = :username")
+        .bind("username", username)
+        .map(row -> User.withUsername(row.get("admin_id", String.class))
+            .password(row.get("password", String.class))
+            .roles(row.get("role", String.class))
+            .build())
+        .one();
+
+    // 2) 口座ユーザ(accountNumber=ログインID)として検索
+    Mono<UserDetails> account = databaseClient.sql(
+            "SELECT account_number, password, role FROM bank_account WHERE account_number = :username")
+        .bind("username", username)
+        .map(row -> User.withUsername(row.get("account_number", String.class))
+            .password(row.get("password", String.class))
+            .roles(row.get("role", String.class))
+            .build())
+        .one();
+
+    return admin.switchIfEmpty(account);
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.BankApp.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 新しい口座を開くシャードを順番に選び、そのシャードでメソッドを実行します。
+ * <p>
+ * メソッドの中では {@link ShardRouter#nextAccountNumber(long)} で、選んだシャードに置かれる口座番号を採番します。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NewAccountShard {
+
+}
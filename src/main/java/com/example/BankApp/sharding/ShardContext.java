@@ -0,0 +1,36 @@
+package com.example.BankApp.sharding;
+
+/**
+ * 現在のスレッドで使うシャードです。未設定の場合はシャード 0（spring.datasource）を使います。
+ */
+final class ShardContext {
+
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private ShardContext() {
+  }
+
+  static Integer get() {
+    return CURRENT.get();
+  }
+
+  static int current() {
+    Integer shard = CURRENT.get();
+    return shard == null ? 0 : shard;
+  }
+
+  // 呼び出し元で、戻り値を restore に渡して元に戻す
+  static Integer bind(int shard) {
+    Integer previous = CURRENT.get();
+    CURRENT.set(shard);
+    return previous;
+  }
+
+  static void restore(Integer previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
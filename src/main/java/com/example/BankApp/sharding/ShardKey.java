@@ -0,0 +1,20 @@
+package com.example.BankApp.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * この引数の口座番号が置かれたシャードでメソッドを実行します。
+ * <p>
+ * トランザクションの開始より前にシャードを選ぶため、メソッドの中のトランザクションはすべてそのシャードで実行されます。
+ * 別のシャードのトランザクションの中から呼び出した場合は {@link IllegalStateException} を投げます。
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+}
@@ -0,0 +1,72 @@
+package com.example.BankApp.sharding;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link ShardKey} の引数、または {@link NewAccountShard} で選んだシャードを現在のスレッドに設定してからメソッドを呼び出します。
+ */
+class ShardKeyInterceptor implements MethodInterceptor {
+
+  // 新しい口座を開くメソッドを表す引数の位置
+  static final int NEW_ACCOUNT = -1;
+  // シャードを選ばないメソッドを表す引数の位置
+  static final int NONE = -2;
+
+  private final ObjectProvider<ShardRouter> routerProvider;
+  private final Map<Method, Integer> keyIndexes = new ConcurrentHashMap<>();
+
+  ShardKeyInterceptor(ObjectProvider<ShardRouter> routerProvider) {
+    this.routerProvider = routerProvider;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    ShardRouter router = routerProvider.getObject();
+    if (!router.isEnabled()) {
+      return invocation.proceed();
+    }
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(),
+        AopUtils.getTargetClass(invocation.getThis()));
+    int keyIndex = keyIndexes.computeIfAbsent(method, ShardKeyInterceptor::keyIndex);
+    int shard;
+    if (keyIndex == NEW_ACCOUNT) {
+      shard = router.nextShardForNewAccount();
+    } else if (keyIndex >= 0 && invocation.getArguments()[keyIndex] instanceof String key) {
+      shard = router.shardOf(key);
+    } else {
+      return invocation.proceed();
+    }
+    // 開始済みのトランザクションのコネクションは別のシャードに切り替えられない
+    if (TransactionSynchronizationManager.isActualTransactionActive()
+        && ShardContext.current() != shard) {
+      throw new IllegalStateException(
+          "別のシャードのトランザクションの中からは呼び出せません: " + method.getName());
+    }
+    Integer previous = ShardContext.bind(shard);
+    try {
+      return invocation.proceed();
+    } finally {
+      ShardContext.restore(previous);
+    }
+  }
+
+  static int keyIndex(Method method) {
+    if (method.isAnnotationPresent(NewAccountShard.class)) {
+      return NEW_ACCOUNT;
+    }
+    var parameters = method.getParameters();
+    for (int i = 0; i < parameters.length; i++) {
+      if (parameters[i].isAnnotationPresent(ShardKey.class)) {
+        return i;
+      }
+    }
+    return NONE;
+  }
+}
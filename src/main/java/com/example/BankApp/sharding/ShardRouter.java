@@ -0,0 +1,256 @@
+package com.example.BankApp.sharding;
+
+import com.example.BankApp.sharding.ShardingProperties.Shard;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+
+/**
+ * 口座番号から、口座と取引履歴を置くシャードを選びます。
+ * <p>
+ * シャードは口座番号をシャードの数で割った余りで決めます。口座番号は開設したシャードで
+ * {@link #nextAccountNumber(long)} により採番するため、他のシャードに問い合わせずに一意になります。
+ * 管理者 ID のように数字でないキーはシャード 0 に置きます。
+ * <p>
+ * bankapp.sharding.enabled が false の場合、シャードは spring.datasource の 1 つだけです。
+ */
+@Slf4j
+public class ShardRouter {
+
+  private final ShardingProperties properties;
+  private final boolean migrateOnStartup;
+  private final int shardCount;
+  private final AtomicInteger nextShard = new AtomicInteger();
+  private final List<HikariDataSource> ownedDataSources = new ArrayList<>();
+  private ExecutorService scatterExecutor;
+
+  public ShardRouter(ShardingProperties properties, boolean migrateOnStartup) {
+    this.properties = properties;
+    this.migrateOnStartup = migrateOnStartup;
+    this.shardCount = properties.isEnabled() ? 1 + properties.getShards().size() : 1;
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  public int shardCount() {
+    return shardCount;
+  }
+
+  /**
+   * 口座番号が置かれたシャードを返します。
+   *
+   * @param accountNumber 口座番号
+   * @return シャード番号。数字でない場合は 0
+   */
+  public int shardOf(String accountNumber) {
+    if (shardCount == 1) {
+      return 0;
+    }
+    try {
+      return (int) Math.floorMod(Long.parseLong(accountNumber), (long) shardCount);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * 口座番号が置かれたシャードで処理を実行します。
+   * 処理の中で開始したトランザクションはそのシャードのコネクションを使います。
+   *
+   * @param accountNumber 口座番号
+   * @param action        処理
+   * @return 処理の結果
+   */
+  public <T> T onShardOf(String accountNumber, Supplier<T> action) {
+    return onShard(shardOf(accountNumber), action);
+  }
+
+  /**
+   * 指定したシャードで処理を実行します。
+   * 処理の中で開始したトランザクションはそのシャードのコネクションを使います。
+   *
+   * @param shard  シャード番号
+   * @param action 処理
+   * @return 処理の結果
+   */
+  public <T> T onShard(int shard, Supplier<T> action) {
+    Integer previous = ShardContext.bind(shard);
+    try {
+      return action.get();
+    } finally {
+      ShardContext.restore(previous);
+    }
+  }
+
+  /**
+   * 新しい口座を開くシャードを順番に返します。
+   */
+  int nextShardForNewAccount() {
+    return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+  }
+
+  /**
+   * 現在のシャードに置かれる口座番号のうち、max より大きい最小の番号を返します。
+   *
+   * @param max 現在のシャードにある口座番号の最大値。口座が無い場合は 0
+   * @return 新しい口座番号
+   */
+  public long nextAccountNumber(long max) {
+    long next = max + 1;
+    return next + Math.floorMod(ShardContext.current() - next, (long) shardCount);
+  }
+
+  /**
+   * すべてのシャードで並列に問い合わせ、それぞれ order の順に並んだ結果を 1 つの順序に併合します。
+   * <p>
+   * 問い合わせはシャードごとに別のスレッドで実行するため、呼び出し元のトランザクションには参加しません。
+   *
+   * @param query 1 つのシャードに対する問い合わせ。結果は order の順に並んでいること
+   * @param order 結果の順序
+   * @return 併合した結果
+   */
+  public <T> List<T> scatterSorted(Supplier<List<T>> query, Comparator<? super T> order) {
+    if (shardCount == 1) {
+      return query.get();
+    }
+    List<Future<List<T>>> futures = new ArrayList<>(shardCount);
+    for (int shard = 0; shard < shardCount; shard++) {
+      int target = shard;
+      futures.add(scatterExecutor.submit(() -> {
+        Integer previous = ShardContext.bind(target);
+        try {
+          return query.get();
+        } finally {
+          ShardContext.restore(previous);
+        }
+      }));
+    }
+    List<List<T>> results = new ArrayList<>(shardCount);
+    try {
+      for (Future<List<T>> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(f -> f.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("シャードへの問い合わせが中断されました。", e);
+    } catch (ExecutionException e) {
+      futures.forEach(f -> f.cancel(true));
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("シャードへの問い合わせに失敗しました。", e.getCause());
+    }
+    return merge(results, order);
+  }
+
+  // 各シャードの結果の先頭どうしを比べて取り出す k 方向の併合
+  static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order) {
+    int total = sorted.stream().mapToInt(List::size).sum();
+    List<T> merged = new ArrayList<>(total);
+    PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+        (a, b) -> order.compare(a.head(), b.head()));
+    for (List<T> list : sorted) {
+      if (!list.isEmpty()) {
+        heads.add(new Cursor<>(list));
+      }
+    }
+    while (!heads.isEmpty()) {
+      Cursor<T> cursor = heads.poll();
+      merged.add(cursor.head());
+      if (++cursor.index < cursor.list.size()) {
+        heads.add(cursor);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * spring.datasource をシャード 0 とし、追加したシャードを含めて振り分ける DataSource を返します。
+   * 追加したシャードには spring.datasource と同じマイグレーションを適用します。
+   *
+   * @param primary spring.datasource の DataSource
+   * @return 無効な場合、または既に振り分けている場合は primary をそのまま返す
+   */
+  synchronized DataSource route(DataSource primary) {
+    if (!properties.isEnabled() || scatterExecutor != null) {
+      return primary;
+    }
+    List<DataSource> shards = new ArrayList<>(shardCount);
+    shards.add(primary);
+    for (int i = 0; i < properties.getShards().size(); i++) {
+      shards.add(open(i + 1, properties.getShards().get(i)));
+    }
+    scatterExecutor = Executors.newFixedThreadPool(properties.getScatterThreads(), r -> {
+      Thread thread = new Thread(r, "shard-scatter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    log.info("口座を {} 個のシャードに振り分けます", shardCount);
+    return new ShardRoutingDataSource(shards);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (scatterExecutor != null) {
+      scatterExecutor.shutdownNow();
+    }
+    ownedDataSources.forEach(HikariDataSource::close);
+    ownedDataSources.clear();
+  }
+
+  private HikariDataSource open(int index, Shard shard) {
+    HikariDataSource dataSource = DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .url(shard.getUrl())
+        .username(shard.getUsername())
+        .password(shard.getPassword())
+        .build();
+    dataSource.setPoolName("BankAppPool-shard" + index);
+    dataSource.setMaximumPoolSize(properties.getPoolSize());
+    ownedDataSources.add(dataSource);
+
+    Flyway flyway = Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration/" + DatabaseDriver.fromJdbcUrl(shard.getUrl()).getId())
+        .baselineOnMigrate(true)
+        .baselineVersion("0")
+        .load();
+    if (migrateOnStartup) {
+      flyway.migrate();
+    } else {
+      flyway.validate();
+    }
+    return dataSource;
+  }
+
+  private static final class Cursor<T> {
+
+    final List<T> list;
+    int index;
+
+    Cursor(List<T> list) {
+      this.list = list;
+    }
+
+    T head() {
+      return list.get(index);
+    }
+  }
+}
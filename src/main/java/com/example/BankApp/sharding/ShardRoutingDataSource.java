@@ -0,0 +1,34 @@
+package com.example.BankApp.sharding;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 現在のスレッドのシャードに対応する DataSource からコネクションを取得します。
+ * <p>
+ * トランザクションはコネクションを開始時に取得するため、シャードはトランザクションの開始前に選んでおく必要があります。
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+  /**
+   * @param shards シャード番号の順の DataSource。先頭は spring.datasource
+   */
+  public ShardRoutingDataSource(List<DataSource> shards) {
+    Map<Object, Object> targets = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      targets.put(i, shards.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(shards.get(0));
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return ShardContext.current();
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.BankApp.sharding;
+
+import com.example.BankApp.schema.SchemaProperties;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+// 有効かどうかは AOT でも切り替えられるよう、ShardRouter で実行時に判定する
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+  // 口座をまとめて扱う機能は spring.datasource だけを読み書きするため、シャーディングとは同時に使えない。
+  // 処理の種類ごとのプールも spring.datasource の接続先にしか作らないため、他のシャードには効かない
+  private static final List<String> PRIMARY_ONLY_FEATURES = List.of(
+      "bankapp.ledger.event-sourced",
+      "bankapp.ledger.group-commit.enabled",
+      "bankapp.standing-order.enabled",
+      "bankapp.outbox.enabled",
+      "bankapp.analytics.enabled",
+      "bankapp.velocity.enabled",
+      "bankapp.bulkhead.enabled");
+
+  @Bean
+  public ShardRouter shardRouter(ShardingProperties shardingProperties,
+      SchemaProperties schemaProperties, Environment environment) {
+    if (shardingProperties.isEnabled()) {
+      checkCompatibility(environment);
+    }
+    return new ShardRouter(shardingProperties, schemaProperties.isMigrateOnStartup());
+  }
+
+  // 他の DataSource のラッパーより内側で振り分けるよう、処理の種類ごとのプールへの差し替えの次に適用する
+  @Bean
+  public static BeanPostProcessor shardRoutingPostProcessor(
+      ObjectProvider<ShardRouter> routerProvider) {
+    return new ShardRoutingPostProcessor(routerProvider);
+  }
+
+  // トランザクションより先にシャードを選ぶため、最も外側で適用する
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor shardKeyAdvisor(ObjectProvider<ShardRouter> routerProvider) {
+    DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+      @Override
+      public boolean matches(Method method, Class<?> targetClass) {
+        return ShardKeyInterceptor.keyIndex(AopUtils.getMostSpecificMethod(method, targetClass))
+            != ShardKeyInterceptor.NONE;
+      }
+    }, new ShardKeyInterceptor(routerProvider));
+    advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return advisor;
+  }
+
+  private static void checkCompatibility(Environment environment) {
+    List<String> enabled = new ArrayList<>();
+    for (String property : PRIMARY_ONLY_FEATURES) {
+      if (environment.getProperty(property, Boolean.class, false)) {
+        enabled.add(property);
+      }
+    }
+    // hot-accounts[0]=... の形でも指定できるため、文字列ではなくリストとして読む
+    if (!Binder.get(environment)
+        .bind("bankapp.ledger.hot-accounts", Bindable.listOf(String.class))
+        .orElse(List.of()).isEmpty()) {
+      enabled.add("bankapp.ledger.hot-accounts");
+    }
+    if (!enabled.isEmpty()) {
+      throw new IllegalStateException(
+          "bankapp.sharding.enabled=true の場合は次の設定を無効にしてください: " + enabled);
+    }
+  }
+
+  private static final class ShardRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ShardRouter> routerProvider;
+
+    ShardRoutingPostProcessor(ObjectProvider<ShardRouter> routerProvider) {
+      this.routerProvider = routerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource dataSource) || bean instanceof ShardRoutingDataSource) {
+        return bean;
+      }
+      return routerProvider.getObject().route(dataSource);
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+  }
+}
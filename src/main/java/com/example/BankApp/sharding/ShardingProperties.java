@@ -0,0 +1,35 @@
+package com.example.BankApp.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 口座と取引履歴を複数のデータベースに分ける設定です（bankapp.sharding.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.sharding")
+public class ShardingProperties {
+
+  // true の場合、口座番号ごとに口座と取引履歴を置くデータベースを選ぶ
+  private boolean enabled = false;
+
+  // spring.datasource をシャード 0 とし、ここに並べた順にシャード 1, 2, ... とする。
+  // シャードの数を変えると既存の口座の置き場所が変わるため、運用開始後は変えない
+  private List<Shard> shards = new ArrayList<>();
+
+  // 追加したシャードごとのコネクションプールの最大サイズ
+  private int poolSize = 10;
+
+  // 全シャードへの問い合わせを並列に実行するスレッドの数
+  private int scatterThreads = 8;
+
+  @Data
+  public static class Shard {
+
+    private String url;
+    private String username;
+    private String password;
+  }
+}
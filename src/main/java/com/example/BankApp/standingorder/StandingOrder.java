@@ -0,0 +1,26 @@
+package com.example.BankApp.standingorder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 自動振替の指示です。
+ *
+ * @param orderId         指示 ID
+ * @param accountNumber   出金する口座番号
+ * @param type            出金のみか、他の口座への振替か
+ * @param toAccountNumber 振替先の口座番号（出金のみの場合は null）
+ * @param amount          1 回の金額
+ * @param interval        実行する間隔
+ * @param nextRunAt       次に実行する時刻
+ * @param attempts        連続して失敗した回数
+ * @param active          有効かどうか
+ */
+public record StandingOrder(String orderId, String accountNumber, Type type,
+                            String toAccountNumber, int amount, Duration interval,
+                            LocalDateTime nextRunAt, int attempts, boolean active) {
+
+  public enum Type {
+    WITHDRAW, TRANSFER
+  }
+}
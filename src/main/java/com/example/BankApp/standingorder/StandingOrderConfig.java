@@ -0,0 +1,58 @@
+package com.example.BankApp.standingorder;
+
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 有効かどうかは AOT でも切り替えられるよう、StandingOrderScheduler.start() で実行時に判定する
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(StandingOrderProperties.class)
+public class StandingOrderConfig {
+
+  @Bean
+  public StandingOrderStore standingOrderStore(JdbcTemplate jdbcTemplate) {
+    return new StandingOrderStore(jdbcTemplate);
+  }
+
+  @Bean
+  public StandingOrderRunner standingOrderRunner(BankAccountService bankAccountService,
+      StandingOrderStore standingOrderStore, JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate, StandingOrderProperties standingOrderProperties) {
+    return new StandingOrderRunner(bankAccountService, standingOrderStore, jdbcTemplate,
+        transactionTemplate, standingOrderProperties);
+  }
+
+  @Bean
+  public StandingOrderScheduler standingOrderScheduler(StandingOrderStore standingOrderStore,
+      StandingOrderRunner standingOrderRunner, StandingOrderProperties standingOrderProperties,
+      MeterRegistry meterRegistry) {
+    return new StandingOrderScheduler(standingOrderStore, standingOrderRunner,
+        standingOrderProperties, Clock.systemDefaultZone(), meterRegistry);
+  }
+
+  @Bean
+  public StandingOrderService standingOrderService(StandingOrderStore standingOrderStore,
+      StandingOrderScheduler standingOrderScheduler,
+      BankAccountRepository bankAccountRepository) {
+    return new StandingOrderService(standingOrderStore, standingOrderScheduler,
+        bankAccountRepository, Clock.systemDefaultZone());
+  }
+
+  // 残高の集約やイベントソーシングの射影の復元が済んでから、期限の来た指示を実行し始める
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> standingOrderStartup(
+      StandingOrderScheduler standingOrderScheduler) {
+    return event -> standingOrderScheduler.start();
+  }
+}
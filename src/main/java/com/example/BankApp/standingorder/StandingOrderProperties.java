@@ -0,0 +1,34 @@
+package com.example.BankApp.standingorder;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 自動振替に関する設定です（bankapp.standing-order.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.standing-order")
+public class StandingOrderProperties {
+
+  // true の場合、起動時に近いうちに実行する指示を読み込み、実行時刻になったら実行する
+  private boolean enabled = false;
+
+  // タイミングホイールの最下位の 1 スロットの時間（実行時刻の精度）
+  private Duration tick = Duration.ofSeconds(1);
+
+  // タイミングホイールの 1 階層あたりのスロット数と階層の数（既定では約 194 日先まで振り分けられる）
+  private int wheelSize = 64;
+  private int wheelLevels = 4;
+
+  // この時間内に実行する指示をメモリに読み込む。読み込みは horizon の半分ごとに繰り返す
+  private Duration horizon = Duration.ofHours(1);
+
+  // 期限の来た指示を実行するスレッドの数と、1 つのスレッドにまとめて渡す指示の数
+  private int parallelism = 4;
+  private int batchSize = 100;
+
+  // 失敗した指示を再実行するまでの時間と、指示を停止するまでの連続失敗回数
+  private Duration retryDelay = Duration.ofMinutes(1);
+  private int maxAttempts = 3;
+}
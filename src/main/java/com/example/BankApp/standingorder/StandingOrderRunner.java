@@ -0,0 +1,165 @@
+package com.example.BankApp.standingorder;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.standingorder.StandingOrder.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 期限の来た自動振替の指示を 1 件ずつ {@link BankAccountService} で実行します。
+ * <p>
+ * 指示の行をロックし、次に実行する時刻が読み込んだときと同じ場合だけ実行するため、
+ * 同じ回を二重に実行しません。出金・振替と次の実行時刻の更新は同じトランザクションでコミットします。
+ * 失敗した場合は出金ごと取り消し、別のトランザクションで失敗の取引履歴と連続失敗回数を記録します。
+ */
+@Slf4j
+public class StandingOrderRunner {
+
+  private static final String INSERT_FAILED_LOG = """
+      INSERT INTO account_log (account_log_id, account_number, account_log_type, amount,
+                               balance_after_transaction, timestamp, account_log_status,
+                               sequence_number)
+      SELECT ?, account_number, 'WITHDRAW', ?, balance, ?, 'FAILED', ledger_sequence
+      FROM bank_account WHERE account_number = ?""";
+
+  public enum Outcome {
+    // 実行して次の回を予約した
+    SUCCEEDED,
+    // 失敗したため、同じ回を retry-delay 後に再実行する
+    RETRY,
+    // max-attempts 回続けて失敗したため、この回を諦めて次の回を予約した
+    GAVE_UP,
+    // 口座が解約済み・存在しないため、指示を停止した
+    STOPPED,
+    // 停止済み、または他で実行済みのため何もしなかった
+    SKIPPED
+  }
+
+  /**
+   * 実行の結果です。
+   *
+   * @param outcome 結果
+   * @param next    次に実行する指示（予約しない場合は null）
+   * @param runAt   next を実行する時刻
+   */
+  public record Result(Outcome outcome, StandingOrder next, LocalDateTime runAt) {
+
+    static Result of(Outcome outcome) {
+      return new Result(outcome, null, null);
+    }
+  }
+
+  private final BankAccountService bankAccountService;
+  private final StandingOrderStore store;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final StandingOrderProperties properties;
+
+  public StandingOrderRunner(BankAccountService bankAccountService, StandingOrderStore store,
+      JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      StandingOrderProperties properties) {
+    this.bankAccountService = bankAccountService;
+    this.store = store;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+  }
+
+  /**
+   * 指示を実行します。BankAccountService の権限の確認を通るよう、管理者として認証したスレッドで呼び出してください。
+   *
+   * @param scheduled タイミングホイールに登録していた指示
+   * @param now       現在時刻
+   * @return 実行の結果
+   */
+  public Result run(StandingOrder scheduled, LocalDateTime now) {
+    RuntimeException[] failure = new RuntimeException[1];
+    Result result = transactionTemplate.execute(status -> {
+      StandingOrder order = store.lock(scheduled.orderId()).orElse(null);
+      if (order == null || !order.active() || !order.nextRunAt().equals(scheduled.nextRunAt())) {
+        return Result.of(Outcome.SKIPPED);
+      }
+      AmountRequest amount = new AmountRequest(order.amount());
+      try {
+        bankAccountService.withdraw(order.accountNumber(), amount);
+        if (order.type() == Type.TRANSFER) {
+          bankAccountService.deposit(order.toAccountNumber(), amount);
+        }
+      } catch (BankOperationException | ResourceNotFoundException e) {
+        // 振替先への入金に失敗した場合も出金ごと取り消す
+        status.setRollbackOnly();
+        failure[0] = e;
+        return null;
+      }
+      return advance(order, now, Outcome.SUCCEEDED);
+    });
+    if (result != null) {
+      return result;
+    }
+    return transactionTemplate.execute(status -> recordFailure(scheduled, failure[0], now));
+  }
+
+  private Result recordFailure(StandingOrder scheduled, RuntimeException failure,
+      LocalDateTime now) {
+    StandingOrder order = store.lock(scheduled.orderId()).orElse(null);
+    if (order == null || !order.active() || !order.nextRunAt().equals(scheduled.nextRunAt())) {
+      return Result.of(Outcome.SKIPPED);
+    }
+    jdbcTemplate.update(INSERT_FAILED_LOG, UUID.randomUUID().toString(), order.amount(), now,
+        order.accountNumber());
+    if (failure == BankOperationException.ACCOUNT_CLOSED
+        || failure == ResourceNotFoundException.ACCOUNT_NOT_FOUND) {
+      store.deactivate(order.orderId(), order.accountNumber());
+      log.warn("口座が利用できないため自動振替を停止しました: orderId={}, reason={}",
+          order.orderId(), failure.getMessage());
+      return Result.of(Outcome.STOPPED);
+    }
+    int attempts = order.attempts() + 1;
+    if (attempts >= properties.getMaxAttempts()) {
+      log.warn("自動振替が {} 回続けて失敗したため、この回を見送ります: orderId={}, reason={}",
+          attempts, order.orderId(), failure.getMessage());
+      return advance(order, now, Outcome.GAVE_UP);
+    }
+    store.reschedule(order.orderId(), order.nextRunAt(), attempts);
+    return new Result(Outcome.RETRY, withSchedule(order, order.nextRunAt(), attempts),
+        now.plus(properties.getRetryDelay()));
+  }
+
+  private Result advance(StandingOrder order, LocalDateTime now, Outcome outcome) {
+    LocalDateTime next = nextRunAfter(order.nextRunAt(), order.interval(), now);
+    store.reschedule(order.orderId(), next, 0);
+    return new Result(outcome, withSchedule(order, next, 0), next);
+  }
+
+  /**
+   * 前回の実行時刻から間隔ずつ進めた、現在より後の最初の時刻を返します。停止していた間の回はまとめて見送ります。
+   *
+   * @param previous 前回の実行時刻
+   * @param interval 実行する間隔
+   * @param now      現在時刻
+   * @return 次に実行する時刻
+   */
+  static LocalDateTime nextRunAfter(LocalDateTime previous, Duration interval,
+      LocalDateTime now) {
+    long seconds = interval.toSeconds();
+    LocalDateTime next = previous.plusSeconds(seconds);
+    if (!next.isAfter(now)) {
+      long missed = Duration.between(next, now).toSeconds() / seconds + 1;
+      next = next.plusSeconds(missed * seconds);
+    }
+    return next;
+  }
+
+  private static StandingOrder withSchedule(StandingOrder order, LocalDateTime nextRunAt,
+      int attempts) {
+    return new StandingOrder(order.orderId(), order.accountNumber(), order.type(),
+        order.toAccountNumber(), order.amount(), order.interval(), nextRunAt, attempts, true);
+  }
+}
@@ -0,0 +1,215 @@
+package com.example.BankApp.standingorder;
+
+import com.example.BankApp.standingorder.StandingOrderRunner.Outcome;
+import com.example.BankApp.standingorder.StandingOrderRunner.Result;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * 自動振替の指示を実行時刻まで {@link TimingWheel} で待ち、期限が来たらまとめて実行します。
+ * <p>
+ * DB をポーリングせず、horizon 以内に実行する指示だけを horizon の半分ごとにまとめて読み込みます。
+ * 起動時の読み込みには停止中に実行時刻を過ぎた指示も含まれるため、再起動しても取りこぼしません。
+ * 期限の来た指示は batch-size 件ずつ parallelism 本のスレッドへ渡し、{@link StandingOrderRunner} で実行します。
+ * 失敗した回は retry-delay 後にホイールへ登録し直し、DB の次の実行時刻はそのままにしておきます。
+ */
+@Slf4j
+public class StandingOrderScheduler {
+
+  // BankAccountService の口座保有者の確認を通すため、指示の実行は管理者として行う
+  private static final Authentication SYSTEM = new UsernamePasswordAuthenticationToken(
+      "standing-order", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+  private final StandingOrderStore store;
+  private final StandingOrderRunner runner;
+  private final StandingOrderProperties properties;
+  private final Clock clock;
+  private final Map<Outcome, Counter> executions = new EnumMap<>(Outcome.class);
+
+  // ホイールに登録中または実行中の指示。二重に登録しないよう、読み込み時にこれを確認する
+  private final Map<String, TimingWheel<StandingOrder>.Timer> scheduled = new HashMap<>();
+  private TimingWheel<StandingOrder> wheel;
+  private LocalDateTime loadedUntil;
+  private ScheduledExecutorService ticker;
+  private ExecutorService workers;
+
+  public StandingOrderScheduler(StandingOrderStore store, StandingOrderRunner runner,
+      StandingOrderProperties properties, Clock clock, MeterRegistry meterRegistry) {
+    this.store = store;
+    this.runner = runner;
+    this.properties = properties;
+    this.clock = clock;
+    for (Outcome outcome : Outcome.values()) {
+      executions.put(outcome, Counter.builder("bankapp.standing-order.executions")
+          .description("自動振替の指示を実行した回数")
+          .tag("outcome", outcome.name().toLowerCase())
+          .register(meterRegistry));
+    }
+    Gauge.builder("bankapp.standing-order.scheduled", this, StandingOrderScheduler::scheduledCount)
+        .description("タイミングホイールに登録中の指示の数")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 指示を読み込み、タイミングホイールを動かし始めます。bankapp.standing-order.enabled が false の場合は何もしません。
+   */
+  public synchronized void start() {
+    if (!properties.isEnabled() || wheel != null) {
+      return;
+    }
+    wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(),
+        properties.getWheelLevels(), clock.millis());
+    load();
+    long tickMillis = properties.getTick().toMillis();
+    long loadMillis = properties.getHorizon().toMillis() / 2;
+    ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "standing-order-ticker"));
+    ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    ticker.scheduleWithFixedDelay(this::loadSafely, loadMillis, loadMillis, TimeUnit.MILLISECONDS);
+    workers = Executors.newFixedThreadPool(properties.getParallelism(),
+        r -> daemon(r, "standing-order-worker"));
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    ExecutorService ticker;
+    ExecutorService workers;
+    synchronized (this) {
+      ticker = this.ticker;
+      workers = this.workers;
+    }
+    if (ticker != null) {
+      ticker.shutdownNow();
+      workers.shutdown();
+      workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * 新しく作った指示を、horizon 以内に実行するものであればすぐにホイールへ登録します。
+   * それより先のものは、後の読み込みで登録します。
+   *
+   * @param order 指示
+   */
+  public synchronized void register(StandingOrder order) {
+    if (wheel != null && order.nextRunAt().isBefore(loadedUntil)) {
+      schedule(order, order.nextRunAt());
+    }
+  }
+
+  /**
+   * 指示をホイールから取り除きます。実行中の場合は、実行時に停止済みとして読み飛ばします。
+   *
+   * @param orderId 指示 ID
+   */
+  public synchronized void cancel(String orderId) {
+    TimingWheel<StandingOrder>.Timer timer = scheduled.get(orderId);
+    if (timer != null && timer.cancel()) {
+      scheduled.remove(orderId);
+    }
+  }
+
+  /**
+   * horizon 以内に実行する指示のうち、まだホイールにないものを登録します。
+   */
+  synchronized void load() {
+    LocalDateTime until = LocalDateTime.now(clock).plus(properties.getHorizon());
+    int loaded = 0;
+    for (StandingOrder order : store.findDueBefore(until)) {
+      if (!scheduled.containsKey(order.orderId())) {
+        schedule(order, order.nextRunAt());
+        loaded++;
+      }
+    }
+    loadedUntil = until;
+    if (loaded > 0) {
+      log.info("自動振替の指示を読み込みました: {} 件（{} まで）", loaded, until);
+    }
+  }
+
+  private void loadSafely() {
+    try {
+      load();
+    } catch (RuntimeException e) {
+      log.error("自動振替の指示の読み込みに失敗しました", e);
+    }
+  }
+
+  private void tick() {
+    List<StandingOrder> due;
+    synchronized (this) {
+      due = wheel.advance(clock.millis());
+    }
+    try {
+      for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+        List<StandingOrder> batch =
+            List.copyOf(due.subList(from, Math.min(from + properties.getBatchSize(), due.size())));
+        workers.execute(() -> runBatch(batch));
+      }
+    } catch (RuntimeException e) {
+      // 停止中に渡せなかった指示は、次に起動したときの読み込みで実行する
+      log.warn("期限の来た自動振替を実行スレッドへ渡せませんでした: {} 件", due.size(), e);
+    }
+  }
+
+  private void runBatch(List<StandingOrder> batch) {
+    SecurityContextHolder.getContext().setAuthentication(SYSTEM);
+    try {
+      for (StandingOrder order : batch) {
+        runOne(order);
+      }
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  private void runOne(StandingOrder order) {
+    Result result;
+    try {
+      result = runner.run(order, LocalDateTime.now(clock));
+    } catch (RuntimeException e) {
+      // DB の障害などは回数に数えず、同じ回を後で再実行する
+      log.error("自動振替の実行に失敗しました: orderId={}", order.orderId(), e);
+      result = new Result(Outcome.RETRY, order,
+          LocalDateTime.now(clock).plus(properties.getRetryDelay()));
+    }
+    executions.get(result.outcome()).increment();
+    synchronized (this) {
+      scheduled.remove(order.orderId());
+      if (result.next() != null && result.runAt().isBefore(loadedUntil)) {
+        schedule(result.next(), result.runAt());
+      }
+    }
+  }
+
+  private void schedule(StandingOrder order, LocalDateTime runAt) {
+    long deadline = runAt.atZone(clock.getZone()).toInstant().toEpochMilli();
+    scheduled.put(order.orderId(), wheel.schedule(order, deadline));
+  }
+
+  private synchronized int scheduledCount() {
+    return wheel != null ? wheel.size() : 0;
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.BankApp.standingorder;
+
+import com.example.BankApp.dto.StandingOrderRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.standingorder.StandingOrder.Type;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 自動振替の指示の登録・一覧・停止を行います。口座保有者の確認はコントローラで行います。
+ */
+public class StandingOrderService {
+
+  private final StandingOrderStore store;
+  private final StandingOrderScheduler scheduler;
+  private final BankAccountRepository bankAccountRepository;
+  private final Clock clock;
+
+  public StandingOrderService(StandingOrderStore store, StandingOrderScheduler scheduler,
+      BankAccountRepository bankAccountRepository, Clock clock) {
+    this.store = store;
+    this.scheduler = scheduler;
+    this.bankAccountRepository = bankAccountRepository;
+    this.clock = clock;
+  }
+
+  /**
+   * 指示を登録します。初回の実行時刻を過ぎている場合は、すぐに実行します。
+   *
+   * @param accountNumber 出金する口座番号
+   * @param request       指示の内容
+   * @return 登録した指示
+   */
+  public StandingOrder create(String accountNumber, StandingOrderRequest request) {
+    if (request.getInterval().toSeconds() < 1) {
+      throw new IllegalArgumentException("実行する間隔は 1 秒以上にしてください。");
+    }
+    ensureActive(accountNumber);
+    String toAccountNumber = null;
+    if (request.getType() == Type.TRANSFER) {
+      toAccountNumber = request.getToAccountNumber();
+      if (toAccountNumber == null || toAccountNumber.equals(accountNumber)) {
+        throw new IllegalArgumentException("振替先には別の口座番号を指定してください。");
+      }
+      ensureActive(toAccountNumber);
+    }
+    LocalDateTime firstRunAt = request.getFirstRunAt() != null
+        ? request.getFirstRunAt()
+        : LocalDateTime.now(clock).plus(request.getInterval());
+    StandingOrder order = new StandingOrder(UUID.randomUUID().toString(), accountNumber,
+        request.getType(), toAccountNumber, request.getAmount(),
+        request.getInterval().truncatedTo(ChronoUnit.SECONDS),
+        firstRunAt.truncatedTo(ChronoUnit.SECONDS), 0, true);
+    store.insert(order);
+    scheduler.register(order);
+    return order;
+  }
+
+  /**
+   * 口座の指示を、停止したものも含めて次の実行時刻の順に返します。
+   *
+   * @param accountNumber 出金する口座番号
+   * @return 指示のリスト
+   */
+  public List<StandingOrder> list(String accountNumber) {
+    return store.findByAccountNumber(accountNumber);
+  }
+
+  /**
+   * 指示を停止します。
+   *
+   * @param accountNumber 出金する口座番号
+   * @param orderId       指示 ID
+   */
+  public void cancel(String accountNumber, String orderId) {
+    if (!store.deactivate(orderId, accountNumber)) {
+      throw ResourceNotFoundException.STANDING_ORDER_NOT_FOUND;
+    }
+    scheduler.cancel(orderId);
+  }
+
+  private void ensureActive(String accountNumber) {
+    BankAccount account = bankAccountRepository.findById(accountNumber)
+        .orElseThrow(() -> ResourceNotFoundException.ACCOUNT_NOT_FOUND);
+    if (!account.isActive()) {
+      throw BankOperationException.ACCOUNT_CLOSED;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.BankApp.standingorder;
+
+import com.example.BankApp.standingorder.StandingOrder.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * standing_order テーブルの読み書きです。
+ */
+public class StandingOrderStore {
+
+  private static final String COLUMNS = """
+      order_id, account_number, order_type, to_account_number, amount, interval_seconds,
+      next_run_at, attempts, is_active""";
+
+  private static final String INSERT = """
+      INSERT INTO standing_order (%s) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""".formatted(COLUMNS);
+
+  private static final String FIND_DUE = """
+      SELECT %s FROM standing_order WHERE is_active = TRUE AND next_run_at < ?
+      ORDER BY next_run_at""".formatted(COLUMNS);
+
+  private static final String LOCK = """
+      SELECT %s FROM standing_order WHERE order_id = ? FOR UPDATE""".formatted(COLUMNS);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public StandingOrderStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void insert(StandingOrder order) {
+    jdbcTemplate.update(INSERT, order.orderId(), order.accountNumber(), order.type().name(),
+        order.toAccountNumber(), order.amount(), order.interval().toSeconds(), order.nextRunAt(),
+        order.attempts(), order.active());
+  }
+
+  public List<StandingOrder> findByAccountNumber(String accountNumber) {
+    return jdbcTemplate.query(
+        "SELECT " + COLUMNS + " FROM standing_order WHERE account_number = ? ORDER BY next_run_at",
+        StandingOrderStore::map, accountNumber);
+  }
+
+  /**
+   * 指定した時刻より前に実行する有効な指示を、実行時刻の順に返します。
+   *
+   * @param until この時刻より前に実行する指示を返す
+   * @return 指示のリスト
+   */
+  public List<StandingOrder> findDueBefore(LocalDateTime until) {
+    return jdbcTemplate.query(FIND_DUE, StandingOrderStore::map, until);
+  }
+
+  /**
+   * 指示の行をロックして読み取ります。呼び出し元のトランザクションの中で使ってください。
+   *
+   * @param orderId 指示 ID
+   * @return 指示（存在しない場合は空）
+   */
+  public Optional<StandingOrder> lock(String orderId) {
+    return jdbcTemplate.query(LOCK, StandingOrderStore::map, orderId).stream().findFirst();
+  }
+
+  /**
+   * 次に実行する時刻と連続失敗回数を更新します。
+   *
+   * @param orderId   指示 ID
+   * @param nextRunAt 次に実行する時刻
+   * @param attempts  連続して失敗した回数
+   */
+  public void reschedule(String orderId, LocalDateTime nextRunAt, int attempts) {
+    jdbcTemplate.update(
+        "UPDATE standing_order SET next_run_at = ?, attempts = ? WHERE order_id = ?",
+        nextRunAt, attempts, orderId);
+  }
+
+  /**
+   * 指示を停止します。
+   *
+   * @param orderId       指示 ID
+   * @param accountNumber 出金する口座番号（他の口座の指示を停止しないよう条件に含める）
+   * @return 停止した場合は true
+   */
+  public boolean deactivate(String orderId, String accountNumber) {
+    return jdbcTemplate.update("""
+        UPDATE standing_order SET is_active = FALSE
+        WHERE order_id = ? AND account_number = ? AND is_active = TRUE""",
+        orderId, accountNumber) > 0;
+  }
+
+  private static StandingOrder map(ResultSet rs, int rowNum) throws SQLException {
+    return new StandingOrder(rs.getString("order_id"), rs.getString("account_number"),
+        Type.valueOf(rs.getString("order_type")), rs.getString("to_account_number"),
+        rs.getInt("amount"), Duration.ofSeconds(rs.getLong("interval_seconds")),
+        rs.getObject("next_run_at", LocalDateTime.class), rs.getInt("attempts"),
+        rs.getBoolean("is_active"));
+  }
+}
@@ -0,0 +1,174 @@
+package com.example.BankApp.standingorder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 階層型のタイミングホイールです。登録と取り消しは件数によらず O(1) で、時刻を進めると期限の来た要素を返します。
+ * <p>
+ * 各階層は wheelSize 個のスロットを持ち、階層 n の 1 スロットは tick × wheelSize^n の時間を表します。
+ * 期限までの残りに応じた階層のスロットへ入れ、上の階層のスロットの時間になったら中身を下の階層へ入れ直します。
+ * 最上位の階層でも届かない先の期限は最上位の最も遠いスロットに入れ、入れ直すときに改めて振り分けます。
+ * スレッドセーフではないため、呼び出し元で排他してください。
+ *
+ * @param <T> 登録する要素の型
+ */
+public class TimingWheel<T> {
+
+  private final long tickMillis;
+  private final int wheelSize;
+  private final long[] spans;
+  private final List<List<ArrayDeque<Timer>>> levels;
+  private final List<Timer> expired = new ArrayList<>();
+  private long currentTick;
+  private int size;
+
+  /**
+   * @param tickMillis 最下位の 1 スロットの時間（ミリ秒）
+   * @param wheelSize  1 階層あたりのスロット数
+   * @param levelCount 階層の数
+   * @param nowMillis  開始時刻（エポックミリ秒）
+   */
+  public TimingWheel(long tickMillis, int wheelSize, int levelCount, long nowMillis) {
+    if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+      throw new IllegalArgumentException("タイミングホイールの設定が不正です");
+    }
+    this.tickMillis = tickMillis;
+    this.wheelSize = wheelSize;
+    this.spans = new long[levelCount + 1];
+    this.levels = new ArrayList<>(levelCount);
+    long span = 1;
+    for (int level = 0; level <= levelCount; level++) {
+      spans[level] = span;
+      span = Math.multiplyExact(span, wheelSize);
+    }
+    for (int level = 0; level < levelCount; level++) {
+      List<ArrayDeque<Timer>> slots = new ArrayList<>(wheelSize);
+      for (int slot = 0; slot < wheelSize; slot++) {
+        slots.add(new ArrayDeque<>());
+      }
+      levels.add(slots);
+    }
+    this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+  }
+
+  /**
+   * 要素を登録します。期限が過ぎている場合は、次に時刻を進めたときに返します。
+   *
+   * @param item           要素
+   * @param deadlineMillis 期限（エポックミリ秒）
+   * @return 取り消しに使うハンドル
+   */
+  public Timer schedule(T item, long deadlineMillis) {
+    Timer timer = new Timer(item, deadlineMillis);
+    place(timer);
+    size++;
+    return timer;
+  }
+
+  /**
+   * 時刻を進め、期限の来た要素を期限の順とは限らない順で返します。取り消した要素は返しません。
+   *
+   * @param nowMillis 現在時刻（エポックミリ秒）
+   * @return 期限の来た要素
+   */
+  public List<T> advance(long nowMillis) {
+    long nowTick = Math.floorDiv(nowMillis, tickMillis);
+    List<T> due = new ArrayList<>();
+    collect(expired, due);
+    expired.clear();
+    while (currentTick < nowTick) {
+      currentTick++;
+      // 上の階層から順に入れ直し、今のスロットに降りてきた要素も同じ tick で取り出す
+      for (int level = levels.size() - 1; level > 0; level--) {
+        if (currentTick % spans[level] == 0) {
+          ArrayDeque<Timer> slot = slot(level, currentTick);
+          List<Timer> cascaded = new ArrayList<>(slot);
+          slot.clear();
+          for (Timer timer : cascaded) {
+            if (!timer.cancelled) {
+              place(timer);
+            }
+          }
+        }
+      }
+      ArrayDeque<Timer> slot = slot(0, currentTick);
+      collect(slot, due);
+      slot.clear();
+      collect(expired, due);
+      expired.clear();
+    }
+    return due;
+  }
+
+  /**
+   * 取り消していない登録中の要素の数を返します。
+   *
+   * @return 要素の数
+   */
+  public int size() {
+    return size;
+  }
+
+  private void place(Timer timer) {
+    long deadlineTick = Math.floorDiv(timer.deadlineMillis, tickMillis);
+    long delta = deadlineTick - currentTick;
+    if (delta <= 0) {
+      expired.add(timer);
+      return;
+    }
+    int top = levels.size() - 1;
+    for (int level = 0; level <= top; level++) {
+      if (delta < spans[level + 1]) {
+        slot(level, deadlineTick).add(timer);
+        return;
+      }
+    }
+    // 最上位でも届かない期限は、一周する直前のスロットで改めて振り分ける
+    slot(top, currentTick + spans[top] * (wheelSize - 1)).add(timer);
+  }
+
+  private ArrayDeque<Timer> slot(int level, long tick) {
+    return levels.get(level).get((int) ((tick / spans[level]) % wheelSize));
+  }
+
+  private void collect(Iterable<Timer> timers, List<T> due) {
+    for (Timer timer : timers) {
+      if (!timer.cancelled) {
+        timer.cancelled = true;
+        size--;
+        due.add(timer.item);
+      }
+    }
+  }
+
+  /**
+   * 登録した要素のハンドルです。
+   */
+  public final class Timer {
+
+    private final T item;
+    private final long deadlineMillis;
+    private boolean cancelled;
+
+    private Timer(T item, long deadlineMillis) {
+      this.item = item;
+      this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * 登録を取り消します。スロットからは取り除かず、期限が来たときに読み飛ばします。
+     *
+     * @return 取り消した場合は true、既に期限が来ているか取り消し済みの場合は false
+     */
+    public boolean cancel() {
+      if (cancelled) {
+        return false;
+      }
+      cancelled = true;
+      size--;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.BankApp.startup;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * 指定したパッケージ・クラスの Bean を、最初に使われるまで生成しないようにします。
+ * <p>
+ * 起動直後には呼ばれない管理者向け API や Swagger UI の初期化を後回しにして、起動時間を短くします。
+ * spring.main.lazy-initialization と違い、取引の処理に使う Bean は起動時に生成したままにします。
+ */
+public class LazyBeansPostProcessor implements BeanFactoryPostProcessor {
+
+  private final List<String> prefixes;
+
+  /**
+   * @param prefixes 遅延生成にする Bean のクラス名の前方一致（パッケージ名またはクラス名）
+   */
+  public LazyBeansPostProcessor(List<String> prefixes) {
+    this.prefixes = prefixes;
+  }
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    for (String beanName : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+      if (matches(definition)) {
+        definition.setLazyInit(true);
+      }
+    }
+  }
+
+  private boolean matches(BeanDefinition definition) {
+    if (matches(definition.getBeanClassName())) {
+      return true;
+    }
+    // @Bean メソッドで定義された Bean は、メソッドを宣言している設定クラスで判定する
+    if (definition instanceof AnnotatedBeanDefinition annotated) {
+      MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+      return factoryMethod != null && matches(factoryMethod.getDeclaringClassName());
+    }
+    return false;
+  }
+
+  private boolean matches(String className) {
+    if (className == null) {
+      return false;
+    }
+    for (String prefix : prefixes) {
+      if (className.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
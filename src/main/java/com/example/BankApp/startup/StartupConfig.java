@@ -0,0 +1,41 @@
+package com.example.BankApp.startup;
+
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.service.DbUserDetailsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfig {
+
+  // Bean 定義を書き換えるため static にして、他の Bean より先に登録する
+  @Bean
+  public static LazyBeansPostProcessor lazyBeansPostProcessor(Environment environment) {
+    return new LazyBeansPostProcessor(Binder.get(environment)
+        .bind("bankapp.startup.lazy-beans", Bindable.listOf(String.class))
+        .orElse(List.of()));
+  }
+
+  // AOT では @ConditionalOnProperty がビルド時に固定されるため、実行するかどうかは起動時に判定する
+  @Bean
+  @ConditionalOnWebApplication(type = Type.SERVLET)
+  public StartupWarmup startupWarmup(BankAccountService bankAccountService,
+      BankAccountRepository bankAccountRepository, AccountLogRepository accountLogRepository,
+      DbUserDetailsService dbUserDetailsService, PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper, StartupProperties startupProperties) {
+    return new StartupWarmup(bankAccountService, bankAccountRepository, accountLogRepository,
+        dbUserDetailsService, transactionManager, objectMapper, startupProperties.getWarmup());
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.BankApp.startup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 起動時間の短縮に関する設定です（bankapp.startup.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.startup")
+public class StartupProperties {
+
+  // 最初に使われるまで生成しない Bean のクラス名の前方一致
+  private List<String> lazyBeans = new ArrayList<>();
+
+  private Warmup warmup = new Warmup();
+
+  @Data
+  public static class Warmup {
+
+    // readiness を ACCEPTING_TRAFFIC にする前に取引の処理を繰り返して JIT コンパイルを進める
+    private boolean enabled = false;
+
+    private int iterations = 200;
+
+    // 回数に達していなくても、この時間を過ぎたら打ち切ってリクエストの受け付けを始める
+    private Duration maxDuration = Duration.ofSeconds(10);
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.BankApp.startup;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.service.DbUserDetailsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 起動直後、リクエストを受け付ける前に取引の処理を繰り返し実行し、JIT コンパイルを進めておきます。
+ * <p>
+ * ApplicationRunner は readiness が ACCEPTING_TRAFFIC になる前に実行されるため、
+ * ウォームアップが終わるまでロードバランサからリクエストが振り分けられません。
+ * 処理はすべてロールバックするトランザクションの中で行い、データは残しません。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class StartupWarmup implements ApplicationRunner {
+
+  // 口座番号は 7 桁の数字のため、実在の口座と重ならない
+  private static final String WARMUP_ACCOUNT = "WARMUP";
+
+  private final BankAccountService bankAccountService;
+  private final BankAccountRepository bankAccountRepository;
+  private final AccountLogRepository accountLogRepository;
+  private final DbUserDetailsService dbUserDetailsService;
+  private final PlatformTransactionManager transactionManager;
+  private final ObjectMapper objectMapper;
+  private final StartupProperties.Warmup properties;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    long start = System.nanoTime();
+    long deadline = start + properties.getMaxDuration().toNanos();
+    int iterations = 0;
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    // ensureOwner を通すため、このスレッドだけ管理者として実行する
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("warmup", null,
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    try {
+      for (; iterations < properties.getIterations() && System.nanoTime() < deadline;
+          iterations++) {
+        transaction.executeWithoutResult(status -> {
+          status.setRollbackOnly();
+          exerciseTransactionPaths();
+        });
+      }
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+    log.info("ウォームアップが完了しました（{} 回、{} ms）", iterations,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private void exerciseTransactionPaths() {
+    bankAccountRepository.save(
+        new BankAccount(WARMUP_ACCOUNT, "warmup", "warmup", 1000, true, Role.ACCOUNT_USER));
+    try {
+      serialize(bankAccountService.getBalance(WARMUP_ACCOUNT));
+      serialize(bankAccountService.deposit(WARMUP_ACCOUNT, new AmountRequest(1000)));
+      serialize(bankAccountService.withdraw(WARMUP_ACCOUNT, new AmountRequest(500)));
+      try {
+        bankAccountService.withdraw(WARMUP_ACCOUNT, new AmountRequest(Integer.MAX_VALUE));
+      } catch (BankOperationException e) {
+        // 残高不足の経路も通しておく
+      }
+      serialize(accountLogRepository.findByAccountNumberOrderByTimestampDesc(WARMUP_ACCOUNT));
+      dbUserDetailsService.loadUserByUsername(WARMUP_ACCOUNT);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void serialize(Object value) throws JsonProcessingException {
+    objectMapper.writeValueAsBytes(value);
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.BankApp.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(BalanceStreamProperties.class)
+public class BalanceStreamConfig {
+
+  @Bean
+  public BalanceStreamRegistry balanceStreamRegistry(
+      BalanceStreamProperties balanceStreamProperties, MeterRegistry meterRegistry) {
+    return new BalanceStreamRegistry(balanceStreamProperties, meterRegistry);
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.BankApp.stream;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 残高の通知（SSE）に関する設定です（bankapp.balance-stream.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.balance-stream")
+public class BalanceStreamProperties {
+
+  // 通知のない接続にコメント行を送る間隔。途中のプロキシに接続を切られないようにし、切断された接続を見つける
+  private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+  // この時間、通知もハートビートも書き込めなかった接続は閉じる（EventSource は自動的に接続し直す）。
+  // 書き込みに失敗した接続はその時点で閉じる
+  private Duration idleTimeout = Duration.ofMinutes(1);
+
+  // 1 つの接続で送信を待てる通知の数。超えた場合は古い通知から捨てる（各通知は最新の残高を含むため）
+  private int bufferSize = 8;
+
+  // 1 つの口座で同時に開ける接続の数。超えた場合は最も古い接続を閉じる
+  private int maxSubscriptionsPerAccount = 8;
+
+  // 通知を書き込むスレッドの数。接続ごとにスレッドは使わない
+  private int senderThreads = 2;
+}
@@ -0,0 +1,353 @@
+package com.example.BankApp.stream;
+
+import com.example.BankApp.dto.BankAccountResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 口座ごとの残高の通知（SSE）の接続を管理し、入金・出金・解約がコミットされたら最新の残高を届けます。
+ * <p>
+ * 接続はサーブレットの非同期処理で保持するため、待機中の接続はスレッドを使いません。
+ * 通知する側は接続ごとの小さなバッファ（buffer-size 件）に追加するだけで戻り、書き込みは sender-threads 本のスレッドが
+ * 接続ごとに 1 つずつ順に行います。書き込みが追いつかない接続では古い通知から捨てますが、
+ * 各通知は取引後の残高を含むため、最後に届く通知は常に最新の残高になります。
+ * バッファは送信を待つ通知がある間だけ確保するため、待機中の接続が使うメモリは接続の管理に必要な分だけです。
+ * <p>
+ * 切断された接続は、ハートビートや通知の書き込みに失敗した時点で閉じます。書き込みが idle-timeout の間 1 度も
+ * 成功しない接続も閉じます。残高が変わらないだけの接続は、ハートビートを書き込める限り閉じません。
+ */
+@Slf4j
+public class BalanceStreamRegistry {
+
+  private static final Object HEARTBEAT = new Object();
+  private static final Object CLOSE = new Object();
+
+  private final BalanceStreamProperties properties;
+  private final ConcurrentMap<String, Deque<Subscription>> subscriptions =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger active = new AtomicInteger();
+  private final Counter sent;
+  private final Counter dropped;
+  private final ExecutorService sender;
+  private final ScheduledExecutorService heartbeat;
+
+  public BalanceStreamRegistry(BalanceStreamProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.sent = Counter.builder("bankapp.balance-stream.sent")
+        .description("残高の通知を送った数")
+        .register(meterRegistry);
+    this.dropped = Counter.builder("bankapp.balance-stream.dropped")
+        .description("書き込みが追いつかず、新しい通知で置き換えた通知の数")
+        .register(meterRegistry);
+    Gauge.builder("bankapp.balance-stream.subscriptions", active, AtomicInteger::get)
+        .description("開いている残高の通知の接続の数")
+        .register(meterRegistry);
+    this.sender = Executors.newFixedThreadPool(properties.getSenderThreads(),
+        r -> daemon(r, "balance-stream-sender"));
+    this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+        r -> daemon(r, "balance-stream-heartbeat"));
+    long intervalMillis = properties.getHeartbeatInterval().toMillis();
+    heartbeat.scheduleAtFixedRate(this::sweep, intervalMillis, intervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 口座の残高の通知を開きます。開いた直後に現在の残高を送り、その後は残高が変わるたびに送ります。
+   *
+   * @param accountNumber 口座番号
+   * @param snapshot      現在の残高を返す処理（口座が存在しない場合は例外を投げる）
+   * @return 通知を送る SseEmitter
+   */
+  public SseEmitter subscribe(String accountNumber, Supplier<BankAccountResponse> snapshot) {
+    // 接続を閉じる時刻はこのクラスで管理するため、サーブレットの非同期処理のタイムアウトは使わない
+    SseEmitter emitter = new SseEmitter(-1L);
+    Subscription subscription = new Subscription(accountNumber, emitter);
+    emitter.onCompletion(() -> remove(subscription));
+    emitter.onTimeout(() -> remove(subscription));
+    emitter.onError(e -> remove(subscription));
+
+    Subscription[] evicted = new Subscription[1];
+    subscriptions.compute(accountNumber, (key, deque) -> {
+      Deque<Subscription> target = deque != null ? deque : new ConcurrentLinkedDeque<>();
+      target.addLast(subscription);
+      if (target.size() > properties.getMaxSubscriptionsPerAccount()) {
+        evicted[0] = target.pollFirst();
+      }
+      return target;
+    });
+    active.incrementAndGet();
+    if (evicted[0] != null && evicted[0].removed.compareAndSet(false, true)) {
+      active.decrementAndGet();
+      evicted[0].offer(CLOSE);
+    }
+
+    // 登録してから読み取るため、読み取った後にコミットされた取引も通知で届く
+    try {
+      subscription.offerSnapshot(snapshot.get());
+    } catch (RuntimeException e) {
+      remove(subscription);
+      throw e;
+    }
+    return emitter;
+  }
+
+  /**
+   * 現在のトランザクションがコミットされたら、取引後の残高を通知します。トランザクションの外では直ちに通知します。
+   *
+   * @param response 取引後の口座情報
+   */
+  public void publishAfterCommit(BankAccountResponse response) {
+    afterCommit(() -> publish(response, false));
+  }
+
+  /**
+   * 現在のトランザクションがコミットされたら、解約後の口座情報を通知して口座の通知をすべて閉じます。
+   *
+   * @param response 解約後の口座情報
+   */
+  public void closeAfterCommit(BankAccountResponse response) {
+    afterCommit(() -> publish(response, true));
+  }
+
+  /**
+   * 開いている接続をすべて閉じます。
+   */
+  void closeAll() {
+    for (Deque<Subscription> deque : subscriptions.values()) {
+      for (Subscription subscription : deque) {
+        remove(subscription);
+        subscription.offer(CLOSE);
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    heartbeat.shutdownNow();
+    for (Deque<Subscription> deque : subscriptions.values()) {
+      for (Subscription subscription : deque) {
+        subscription.emitter.complete();
+      }
+    }
+    sender.shutdown();
+  }
+
+  int subscriptionCount() {
+    return active.get();
+  }
+
+  // 購読のない口座でも同期処理を登録する。コミット前に開いた接続が、読み取った残高より新しい通知を取りこぼさないようにするため
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private void publish(BankAccountResponse response, boolean last) {
+    Deque<Subscription> deque = subscriptions.get(response.getAccountNumber());
+    if (deque == null) {
+      return;
+    }
+    Message message = new Message(response, last);
+    for (Subscription subscription : deque) {
+      subscription.offer(message);
+    }
+  }
+
+  private void sweep() {
+    long now = System.nanoTime();
+    long idleNanos = properties.getIdleTimeout().toNanos();
+    long intervalNanos = properties.getHeartbeatInterval().toNanos();
+    List<Subscription> due = new ArrayList<>();
+    for (Deque<Subscription> deque : subscriptions.values()) {
+      for (Subscription subscription : deque) {
+        long sinceWritten = now - subscription.lastWrittenAt;
+        if (sinceWritten > idleNanos) {
+          remove(subscription);
+          subscription.offer(CLOSE);
+        } else if (sinceWritten >= intervalNanos && subscription.claimHeartbeat()) {
+          due.add(subscription);
+        }
+      }
+    }
+
+    // 接続ごとにタスクを作らず、送信スレッドの数に分けてまとめて書き込む
+    int threads = properties.getSenderThreads();
+    int chunk = (due.size() + threads - 1) / threads;
+    for (int from = 0; from < due.size(); from += chunk) {
+      List<Subscription> batch = due.subList(from, Math.min(from + chunk, due.size()));
+      sender.execute(() -> batch.forEach(Subscription::heartbeat));
+    }
+  }
+
+  private void remove(Subscription subscription) {
+    if (!subscription.removed.compareAndSet(false, true)) {
+      return;
+    }
+    active.decrementAndGet();
+    subscriptions.computeIfPresent(subscription.accountNumber, (key, deque) -> {
+      deque.remove(subscription);
+      return deque.isEmpty() ? null : deque;
+    });
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private record Message(BankAccountResponse response, boolean last) {
+
+  }
+
+  private final class Subscription {
+
+    final String accountNumber;
+    final SseEmitter emitter;
+    final AtomicBoolean removed = new AtomicBoolean();
+    // 最後に書き込みが成功した時刻
+    volatile long lastWrittenAt = System.nanoTime();
+
+    // 送信を待つ通知。待つものがない間は null にしておく
+    private ArrayDeque<Object> buffer;
+    private boolean draining;
+    private boolean published;
+
+    Subscription(String accountNumber, SseEmitter emitter) {
+      this.accountNumber = accountNumber;
+      this.emitter = emitter;
+    }
+
+    void offer(Object item) {
+      boolean schedule;
+      synchronized (this) {
+        if (item instanceof Message) {
+          published = true;
+        }
+        if (buffer == null) {
+          buffer = new ArrayDeque<>(4);
+        } else if (buffer.size() >= properties.getBufferSize()) {
+          buffer.pollFirst();
+          dropped.increment();
+        }
+        buffer.addLast(item);
+        schedule = !draining;
+        draining = true;
+      }
+      if (schedule) {
+        sender.execute(this::drain);
+      }
+    }
+
+    // 開いた後に届いた通知があれば、それが読み取った残高以上に新しいため送らない
+    void offerSnapshot(BankAccountResponse snapshot) {
+      synchronized (this) {
+        if (published) {
+          return;
+        }
+      }
+      offer(new Message(snapshot, false));
+    }
+
+    // 書き込み中でなければ書き込みを引き受ける。引き受けたら heartbeat() を呼ぶこと
+    synchronized boolean claimHeartbeat() {
+      if (draining) {
+        return false;
+      }
+      draining = true;
+      return true;
+    }
+
+    // 引き受けている間に届いた通知は、ハートビートに続けて書き込む
+    void heartbeat() {
+      if (send(HEARTBEAT)) {
+        drain();
+      } else {
+        synchronized (this) {
+          buffer = null;
+        }
+      }
+    }
+
+    private void drain() {
+      while (true) {
+        Object item;
+        synchronized (this) {
+          item = buffer != null ? buffer.pollFirst() : null;
+          if (item == null) {
+            buffer = null;
+            draining = false;
+            return;
+          }
+        }
+        // 閉じた接続では draining を true のままにし、以降の通知で書き込まない
+        if (!send(item)) {
+          synchronized (this) {
+            buffer = null;
+          }
+          return;
+        }
+      }
+    }
+
+    private boolean send(Object item) {
+      try {
+        if (item == HEARTBEAT) {
+          emitter.send(SseEmitter.event().comment("heartbeat"));
+          lastWrittenAt = System.nanoTime();
+          return true;
+        }
+        if (item == CLOSE) {
+          emitter.complete();
+          return false;
+        }
+        Message message = (Message) item;
+        emitter.send(SseEmitter.event().name("balance")
+            .data(message.response(), MediaType.APPLICATION_JSON));
+        sent.increment();
+        lastWrittenAt = System.nanoTime();
+        if (message.last()) {
+          remove(this);
+          emitter.complete();
+          return false;
+        }
+        return true;
+      } catch (IOException | IllegalStateException e) {
+        // クライアントが切断した、または既に閉じた接続
+        log.debug("残高の通知を送れなかったため接続を閉じます: {}", accountNumber, e);
+        remove(this);
+        return false;
+      }
+    }
+  }
+}
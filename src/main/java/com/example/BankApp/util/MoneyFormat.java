@@ -1,14 +1,55 @@
 package com.example.BankApp.util;
 
-import java.text.NumberFormat;
-import java.util.Locale;
-
+/**
+ * 金額を「1,234円」の形式に整形します。
+ * <p>
+ * NumberFormat を使わず、3 桁区切りの数字をスレッドごとに再利用するバッファへ直接書き込むため、
+ * 結果の文字列以外のオブジェクトを生成しません。
+ */
 public final class MoneyFormat {
 
+  /**
+   * {@link #writeYen} に渡すバッファに必要な長さです（"-2,147,483,648円"）。
+   */
+  public static final int MAX_YEN_LENGTH = 15;
+
+  // 仮想スレッドでも使えるよう、ロックではなくスレッドごとのバッファにする
+  private static final ThreadLocal<char[]> BUFFER =
+      ThreadLocal.withInitial(() -> new char[MAX_YEN_LENGTH]);
+
   private MoneyFormat() {
   }
 
   public static String yen(int amount) {
-    return NumberFormat.getNumberInstance(Locale.JAPAN).format(amount) + "円";
+    char[] buffer = BUFFER.get();
+    int start = writeYen(amount, buffer);
+    return new String(buffer, start, buffer.length - start);
+  }
+
+  /**
+   * 整形した金額をバッファの末尾に右詰めで書き込みます。
+   *
+   * @param amount 金額
+   * @param buffer 長さ {@link #MAX_YEN_LENGTH} 以上のバッファ
+   * @return 書き込んだ先頭の位置（末尾までが整形結果）
+   */
+  public static int writeYen(int amount, char[] buffer) {
+    int pos = buffer.length;
+    buffer[--pos] = '円';
+    // Integer.MIN_VALUE の符号を反転できるよう long で扱う
+    long value = Math.abs((long) amount);
+    int digits = 0;
+    do {
+      if (digits > 0 && digits % 3 == 0) {
+        buffer[--pos] = ',';
+      }
+      buffer[--pos] = (char) ('0' + value % 10);
+      value /= 10;
+      digits++;
+    } while (value > 0);
+    if (amount < 0) {
+      buffer[--pos] = '-';
+    }
+    return pos;
   }
 }
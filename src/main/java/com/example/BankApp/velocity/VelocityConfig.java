@@ -0,0 +1,31 @@
+package com.example.BankApp.velocity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 有効かどうかは AOT でも切り替えられるよう、VelocityTracker で実行時に判定する
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityConfig {
+
+  @Bean
+  public VelocityTracker velocityTracker(JdbcTemplate jdbcTemplate,
+      VelocityProperties velocityProperties, MeterRegistry meterRegistry) {
+    return new VelocityTracker(jdbcTemplate, velocityProperties, Clock.systemDefaultZone(),
+        meterRegistry);
+  }
+
+  // Web サーバーがリクエストを受け付ける前に、直近の出金の取引履歴で状態を作り直す
+  @Bean
+  public SmartInitializingSingleton velocityTrackerStartup(VelocityTracker velocityTracker) {
+    return velocityTracker::start;
+  }
+}
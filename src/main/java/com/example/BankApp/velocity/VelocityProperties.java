@@ -0,0 +1,41 @@
+package com.example.BankApp.velocity;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 出金の回数と金額の上限に関する設定です（bankapp.velocity.*）。
+ */
+@Data
+@ConfigurationProperties(prefix = "bankapp.velocity")
+public class VelocityProperties {
+
+  // true の場合、口座ごとに直近の出金の回数と金額を数え、上限を超える出金を拒否する
+  private boolean enabled = false;
+
+  // 直近 1 分・1 時間・1 日の上限
+  private Limit minute = new Limit(5, 0);
+  private Limit hour = new Limit(30, 1_000_000);
+  private Limit day = new Limit(100, 2_000_000);
+
+  // 口座の状態を守るロックの数（2 のべき乗に切り上げる）
+  private int stripes = 64;
+
+  // 1 日以上出金のない口座の状態を捨てる間隔
+  private Duration evictInterval = Duration.ofMinutes(10);
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Limit {
+
+    // 期間内に許す出金の回数。0 の場合は上限なし
+    private int count;
+
+    // 期間内に許す出金の合計金額。0 の場合は上限なし
+    private long amount;
+  }
+}
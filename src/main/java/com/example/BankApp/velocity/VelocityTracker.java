@@ -0,0 +1,301 @@
+package com.example.BankApp.velocity;
+
+import com.example.BankApp.velocity.VelocityProperties.Limit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 口座ごとに直近 1 分・1 時間・1 日の出金の回数と金額を数え、上限を超える出金を拒否します。
+ * <p>
+ * 期間ごとに固定長のリングバッファ（1 分は 5 秒 × 12、1 時間は 5 分 × 12、1 日は 1 時間 × 24）で数え、
+ * 期間内の合計も持つため、確認と記録は取引履歴を読まずに一定の時間で済みます。
+ * 期間の境界はバケットの幅で丸めるため、「直近の期間」は最大でバケット 1 つ分短くなります。
+ * <p>
+ * 口座の状態は口座番号のハッシュで選んだロックで守り、別の口座の出金どうしは待ち合わせません。
+ * 1 日以上出金のない口座の状態は evict-interval ごとに捨て、起動時は直近 1 日の成功した出金の取引履歴から作り直します。
+ */
+@Slf4j
+public class VelocityTracker {
+
+  private static final String RECENT_WITHDRAWALS = """
+      SELECT account_number, amount, timestamp FROM account_log
+      WHERE timestamp >= ? AND account_log_type = 'WITHDRAW' AND account_log_status = 'SUCCESS'
+      ORDER BY timestamp""";
+
+  /**
+   * 上限を数える期間です。
+   */
+  public enum Period {
+    MINUTE(5_000L, 12),
+    HOUR(300_000L, 12),
+    DAY(3_600_000L, 24);
+
+    final long bucketMillis;
+    final int buckets;
+
+    Period(long bucketMillis, int buckets) {
+      this.bucketMillis = bucketMillis;
+      this.buckets = buckets;
+    }
+  }
+
+  private static final Period[] PERIODS = Period.values();
+  private static final int[] OFFSETS = new int[PERIODS.length];
+  private static final int SLOTS;
+
+  static {
+    int slots = 0;
+    for (Period period : PERIODS) {
+      OFFSETS[period.ordinal()] = slots;
+      slots += period.buckets;
+    }
+    SLOTS = slots;
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+  private final VelocityProperties properties;
+  private final Clock clock;
+  private final Object[] locks;
+  private final Map<String, Counters> accounts = new ConcurrentHashMap<>();
+  private final Map<Period, Counter> rejected = new EnumMap<>(Period.class);
+  private ScheduledExecutorService evictor;
+
+  public VelocityTracker(JdbcTemplate jdbcTemplate, VelocityProperties properties, Clock clock,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+    this.clock = clock;
+    this.locks = new Object[Integer.highestOneBit(Math.max(1, properties.getStripes() * 2 - 1))];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new Object();
+    }
+    for (Period period : PERIODS) {
+      rejected.put(period, Counter.builder("bankapp.velocity.rejected")
+          .description("出金の回数または金額の上限を超えたため拒否した出金の数")
+          .tag("period", period.name().toLowerCase())
+          .register(meterRegistry));
+    }
+    Gauge.builder("bankapp.velocity.accounts", accounts, Map::size)
+        .description("直近の出金を数えている口座の数")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 直近の出金の取引履歴から状態を作り直し、出金のない口座の状態を定期的に捨て始めます。
+   * bankapp.velocity.enabled が false の場合は何もしません。
+   */
+  public synchronized void start() {
+    if (!properties.isEnabled() || evictor != null) {
+      return;
+    }
+    int rebuilt = rebuild();
+    long intervalMillis = properties.getEvictInterval().toMillis();
+    evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "velocity-evictor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    evictor.scheduleWithFixedDelay(this::evictIdle, intervalMillis, intervalMillis,
+        TimeUnit.MILLISECONDS);
+    log.info("出金の上限の確認を開始しました: 直近 1 日の出金={}, 口座={}", rebuilt, accounts.size());
+  }
+
+  @PreDestroy
+  public void stop() {
+    ScheduledExecutorService evictor;
+    synchronized (this) {
+      evictor = this.evictor;
+    }
+    if (evictor != null) {
+      evictor.shutdownNow();
+    }
+  }
+
+  /**
+   * 出金が上限を超えるかを確認し、超えない場合は出金として数えます。
+   * トランザクションの中で呼び出した場合、ロールバックされたら数えた出金を取り消します。
+   *
+   * @param accountNumber 口座番号
+   * @param amount        出金額
+   * @return 上限を超える場合は true（数えない）、超えない場合は false
+   */
+  public boolean limitExceeded(String accountNumber, int amount) {
+    if (!properties.isEnabled()) {
+      return false;
+    }
+    long now = clock.millis();
+    synchronized (lockFor(accountNumber)) {
+      Counters counters = accounts.computeIfAbsent(accountNumber, key -> new Counters(now));
+      for (Period period : PERIODS) {
+        counters.advance(period, now);
+        Limit limit = limit(period);
+        if ((limit.getCount() > 0 && counters.count[period.ordinal()] + 1 > limit.getCount())
+            || (limit.getAmount() > 0
+            && counters.amount[period.ordinal()] + amount > limit.getAmount())) {
+          rejected.get(period).increment();
+          return true;
+        }
+      }
+      counters.add(now, amount);
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            release(accountNumber, amount, now);
+          }
+        }
+      });
+    }
+    return false;
+  }
+
+  // 取引日時の順に数えるため、リングバッファは古い出金から順に埋まる
+  int rebuild() {
+    LocalDateTime from = LocalDateTime.now(clock).minusDays(1);
+    int[] rows = {0};
+    jdbcTemplate.query(RECENT_WITHDRAWALS, rs -> {
+      String accountNumber = rs.getString("account_number");
+      long at = rs.getObject("timestamp", LocalDateTime.class)
+          .atZone(clock.getZone()).toInstant().toEpochMilli();
+      int amount = rs.getInt("amount");
+      synchronized (lockFor(accountNumber)) {
+        accounts.computeIfAbsent(accountNumber, key -> new Counters(at)).add(at, amount);
+      }
+      rows[0]++;
+    }, from);
+    return rows[0];
+  }
+
+  int evictIdle() {
+    long now = clock.millis();
+    long idleMillis = Period.DAY.bucketMillis * Period.DAY.buckets;
+    int evicted = 0;
+    for (String accountNumber : accounts.keySet()) {
+      synchronized (lockFor(accountNumber)) {
+        Counters counters = accounts.get(accountNumber);
+        if (counters != null && now - counters.lastAt > idleMillis) {
+          accounts.remove(accountNumber);
+          evicted++;
+        }
+      }
+    }
+    return evicted;
+  }
+
+  int trackedAccounts() {
+    return accounts.size();
+  }
+
+  private void release(String accountNumber, int amount, long at) {
+    synchronized (lockFor(accountNumber)) {
+      Counters counters = accounts.get(accountNumber);
+      if (counters != null) {
+        counters.remove(at, amount);
+      }
+    }
+  }
+
+  private Object lockFor(String accountNumber) {
+    int hash = accountNumber.hashCode();
+    return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+  }
+
+  private Limit limit(Period period) {
+    return switch (period) {
+      case MINUTE -> properties.getMinute();
+      case HOUR -> properties.getHour();
+      case DAY -> properties.getDay();
+    };
+  }
+
+  // 期間ごとのリングバッファと期間内の合計。ロックを持つスレッドだけが触る
+  private static final class Counters {
+
+    final int[] slotCounts = new int[SLOTS];
+    final long[] slotAmounts = new long[SLOTS];
+    // 期間ごとの、最も新しいバケットの番号（時刻 ÷ バケットの幅）
+    final long[] heads = new long[PERIODS.length];
+    final int[] count = new int[PERIODS.length];
+    final long[] amount = new long[PERIODS.length];
+    long lastAt;
+
+    Counters(long now) {
+      for (Period period : PERIODS) {
+        heads[period.ordinal()] = now / period.bucketMillis;
+      }
+      lastAt = now;
+    }
+
+    // 期間から外れたバケットを空にする。空にするのは最大でバケットの数だけ
+    void advance(Period period, long now) {
+      int p = period.ordinal();
+      long bucket = now / period.bucketMillis;
+      long head = heads[p];
+      if (bucket <= head) {
+        return;
+      }
+      long steps = Math.min(bucket - head, period.buckets);
+      for (long s = 1; s <= steps; s++) {
+        int slot = OFFSETS[p] + (int) ((head + s) % period.buckets);
+        count[p] -= slotCounts[slot];
+        amount[p] -= slotAmounts[slot];
+        slotCounts[slot] = 0;
+        slotAmounts[slot] = 0;
+      }
+      heads[p] = bucket;
+    }
+
+    void add(long at, int value) {
+      for (Period period : PERIODS) {
+        advance(period, at);
+        int slot = slot(period, at);
+        if (slot >= 0) {
+          int p = period.ordinal();
+          slotCounts[slot]++;
+          slotAmounts[slot] += value;
+          count[p]++;
+          amount[p] += value;
+        }
+      }
+      lastAt = Math.max(lastAt, at);
+    }
+
+    void remove(long at, int value) {
+      for (Period period : PERIODS) {
+        int slot = slot(period, at);
+        if (slot >= 0 && slotCounts[slot] > 0) {
+          int p = period.ordinal();
+          slotCounts[slot]--;
+          slotAmounts[slot] -= value;
+          count[p]--;
+          amount[p] -= value;
+        }
+      }
+    }
+
+    // 既に期間から外れた時刻なら -1
+    private int slot(Period period, long at) {
+      long bucket = at / period.bucketMillis;
+      if (bucket <= heads[period.ordinal()] - period.buckets) {
+        return -1;
+      }
+      return OFFSETS[period.ordinal()] + (int) (bucket % period.buckets);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+-- embedded プロファイル（H2）用。mysql/ のマイグレーションと同じ構成にする
+CREATE TABLE bank_account (
+    account_number      VARCHAR(255) NOT NULL,
+    password            VARCHAR(255) NOT NULL,
+    account_holder_name VARCHAR(255),
+    balance             INT          NOT NULL,
+    is_active           BOOLEAN      NOT NULL,
+    role                VARCHAR(20)  NOT NULL,
+    PRIMARY KEY (account_number)
+);
+
+CREATE TABLE account_log (
+    account_log_id            VARCHAR(255) NOT NULL,
+    account_number            VARCHAR(255),
+    account_log_type          VARCHAR(10),
+    amount                    INT          NOT NULL,
+    balance_after_transaction INT          NOT NULL,
+    timestamp                 TIMESTAMP(6),
+    account_log_status        VARCHAR(10),
+    PRIMARY KEY (account_log_id)
+);
+
+CREATE TABLE admin_user (
+    admin_id        VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    admin_user_name VARCHAR(255),
+    role            VARCHAR(20)  NOT NULL,
+    PRIMARY KEY (admin_id)
+);
@@ -0,0 +1,6 @@
+-- AccountLogRepository の取引履歴の検索（口座番号で絞り込み、日時の降順）
+CREATE INDEX idx_account_log_account_number_timestamp
+    ON account_log (account_number, timestamp);
+-- 取引タイプを指定した検索
+CREATE INDEX idx_account_log_account_number_type_timestamp
+    ON account_log (account_number, account_log_type, timestamp);
@@ -0,0 +1,4 @@
+-- H2 はパーティション分割に対応していないため、主キーと NOT NULL 制約だけ MySQL とそろえる
+ALTER TABLE account_log ALTER COLUMN timestamp SET NOT NULL;
+ALTER TABLE account_log DROP PRIMARY KEY;
+ALTER TABLE account_log ADD PRIMARY KEY (account_log_id, timestamp);
@@ -0,0 +1,6 @@
+-- 口座ごとの取引履歴の連番と、残高に反映済みの最後の連番（イベントソーシングのスナップショット位置）
+ALTER TABLE account_log ADD COLUMN sequence_number BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bank_account ADD COLUMN ledger_sequence BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_account_log_account_number_sequence
+    ON account_log (account_number, sequence_number);
@@ -0,0 +1,7 @@
+-- 入金が集中する口座の残高を分けて持つ行（bankapp.ledger.hot-accounts）。口座の残高は bank_account.balance との合計
+CREATE TABLE balance_shard (
+    account_number VARCHAR(255) NOT NULL,
+    shard_no       INT          NOT NULL,
+    balance        INT          NOT NULL,
+    PRIMARY KEY (account_number, shard_no)
+);
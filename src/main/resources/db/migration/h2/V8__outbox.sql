@@ -0,0 +1,19 @@
+-- 口座のイベントを外部へ届けるための送信箱。取引履歴と同じトランザクションで追加し、OutboxRelay が event_id の順に配信する
+CREATE TABLE outbox_event (
+    event_id                  BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    account_log_id            VARCHAR(255) NOT NULL,
+    account_number            VARCHAR(255) NOT NULL,
+    event_type                VARCHAR(10)  NOT NULL,
+    amount                    INT          NOT NULL,
+    balance_after_transaction INT          NOT NULL,
+    sequence_number           BIGINT       NOT NULL,
+    occurred_at               TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (event_id)
+);
+
+-- 配信先ごとの、配信済みの最後の event_id
+CREATE TABLE outbox_cursor (
+    subscriber    VARCHAR(64) NOT NULL,
+    last_event_id BIGINT      NOT NULL,
+    PRIMARY KEY (subscriber)
+);
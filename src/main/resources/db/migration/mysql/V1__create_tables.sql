@@ -0,0 +1,30 @@
+-- 口座・取引履歴・管理者のテーブル
+-- ddl-auto=update で作成済みの環境では何もしない（列の型の変更は V2 で行う）
+CREATE TABLE IF NOT EXISTS bank_account (
+    account_number      VARCHAR(255) NOT NULL,
+    password            VARCHAR(255) NOT NULL,
+    account_holder_name VARCHAR(255),
+    balance             INT          NOT NULL,
+    is_active           BIT          NOT NULL,
+    role                VARCHAR(20)  NOT NULL,
+    PRIMARY KEY (account_number)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS account_log (
+    account_log_id            VARCHAR(255) NOT NULL,
+    account_number            VARCHAR(255),
+    account_log_type          VARCHAR(10),
+    amount                    INT          NOT NULL,
+    balance_after_transaction INT          NOT NULL,
+    timestamp                 DATETIME(6),
+    account_log_status        VARCHAR(10),
+    PRIMARY KEY (account_log_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS admin_user (
+    admin_id        VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    admin_user_name VARCHAR(255),
+    role            VARCHAR(20)  NOT NULL,
+    PRIMARY KEY (admin_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- ddl-auto=update が作った ENUM 型の列を VARCHAR にそろえる（取引タイプを追加しても ALTER が要らないように）
+ALTER TABLE bank_account MODIFY role VARCHAR(20) NOT NULL;
+ALTER TABLE admin_user MODIFY role VARCHAR(20) NOT NULL;
+ALTER TABLE account_log
+    MODIFY account_log_type VARCHAR(10),
+    MODIFY account_log_status VARCHAR(10);
+
+-- AccountLogRepository の取引履歴の検索（口座番号で絞り込み、日時の降順）
+CREATE INDEX idx_account_log_account_number_timestamp
+    ON account_log (account_number, timestamp);
+-- 取引タイプを指定した検索
+CREATE INDEX idx_account_log_account_number_type_timestamp
+    ON account_log (account_number, account_log_type, timestamp);
@@ -0,0 +1,26 @@
+-- 取引履歴を日時で月ごとにパーティション分割する
+-- パーティションのキーは主キーに含める必要があるため、主キーを (account_log_id, timestamp) にする
+ALTER TABLE account_log
+    MODIFY timestamp DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (account_log_id, timestamp);
+
+-- 適用した時点の月（UTC）を基準に、それより前の取引履歴を 1 つのパーティションにまとめ、
+-- 当月から 3 か月先までの月ごとのパーティションと pmax を作る。
+-- 以降の月は AccountLogPartitionMaintainer が pmax を分割して追加する
+SET @m0 = DATE_FORMAT(UTC_DATE(), '%Y-%m-01');
+SET @m1 = DATE_ADD(@m0, INTERVAL 1 MONTH);
+SET @m2 = DATE_ADD(@m0, INTERVAL 2 MONTH);
+SET @m3 = DATE_ADD(@m0, INTERVAL 3 MONTH);
+SET @m4 = DATE_ADD(@m0, INTERVAL 4 MONTH);
+SET @ddl = CONCAT(
+    'ALTER TABLE account_log PARTITION BY RANGE COLUMNS (timestamp) (',
+    'PARTITION p_before_', DATE_FORMAT(@m0, '%Y%m'), ' VALUES LESS THAN (''', @m0, '''), ',
+    'PARTITION p', DATE_FORMAT(@m0, '%Y%m'), ' VALUES LESS THAN (''', @m1, '''), ',
+    'PARTITION p', DATE_FORMAT(@m1, '%Y%m'), ' VALUES LESS THAN (''', @m2, '''), ',
+    'PARTITION p', DATE_FORMAT(@m2, '%Y%m'), ' VALUES LESS THAN (''', @m3, '''), ',
+    'PARTITION p', DATE_FORMAT(@m3, '%Y%m'), ' VALUES LESS THAN (''', @m4, '''), ',
+    'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_account_log FROM @ddl;
+EXECUTE partition_account_log;
+DEALLOCATE PREPARE partition_account_log;
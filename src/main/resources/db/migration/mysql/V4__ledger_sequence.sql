@@ -0,0 +1,22 @@
+-- 口座ごとの取引履歴の連番と、残高に反映済みの最後の連番（イベントソーシングのスナップショット位置）
+ALTER TABLE account_log ADD COLUMN sequence_number BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bank_account ADD COLUMN ledger_sequence BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_account_log_account_number_sequence
+    ON account_log (account_number, sequence_number);
+
+-- 既存の取引履歴に日時の順で連番を振る。失敗した取引は残高を変えないため、直前の成功した取引と同じ番号にする
+UPDATE account_log l
+    JOIN (SELECT account_log_id, timestamp,
+                 SUM(CASE WHEN account_log_status = 'SUCCESS' THEN 1 ELSE 0 END)
+                     OVER (PARTITION BY account_number ORDER BY timestamp, account_log_id
+                           ROWS UNBOUNDED PRECEDING) AS seq
+          FROM account_log) s
+    ON l.account_log_id = s.account_log_id AND l.timestamp = s.timestamp
+SET l.sequence_number = s.seq;
+
+UPDATE bank_account a
+    JOIN (SELECT account_number, MAX(sequence_number) AS seq
+          FROM account_log GROUP BY account_number) s
+    ON a.account_number = s.account_number
+SET a.ledger_sequence = s.seq;
@@ -0,0 +1,2 @@
+-- 利息を最後に付けた営業日。同じ営業日の利息を二重に付けないために使う
+ALTER TABLE bank_account ADD COLUMN interest_accrued_on DATE;
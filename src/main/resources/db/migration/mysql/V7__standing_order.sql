@@ -0,0 +1,16 @@
+-- 自動振替（定期的な出金・振替）の指示。next_run_at が近いものから読み込み、タイミングホイールで実行時刻を待つ
+CREATE TABLE standing_order (
+    order_id          VARCHAR(255) NOT NULL,
+    account_number    VARCHAR(255) NOT NULL,
+    order_type        VARCHAR(10)  NOT NULL,
+    to_account_number VARCHAR(255),
+    amount            INT          NOT NULL,
+    interval_seconds  BIGINT       NOT NULL,
+    next_run_at       DATETIME(6)  NOT NULL,
+    attempts          INT          NOT NULL DEFAULT 0,
+    is_active         BOOLEAN      NOT NULL,
+    PRIMARY KEY (order_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_standing_order_next_run_at ON standing_order (is_active, next_run_at);
+CREATE INDEX idx_standing_order_account_number ON standing_order (account_number);
@@ -0,0 +1,3 @@
+-- AnalyticsLoader が取引日時の順に新しい取引履歴を読み取るため
+CREATE INDEX idx_account_log_timestamp
+    ON account_log (timestamp);
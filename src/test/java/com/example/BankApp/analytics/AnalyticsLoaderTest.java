@@ -0,0 +1,123 @@
+package com.example.BankApp.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+// 読み込みは poll() を直接呼んで進める
+@SpringBootTest(properties = {
+    "bankapp.analytics.enabled=true",
+    "bankapp.analytics.poll-interval=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class AnalyticsLoaderTest {
+
+  private static final String ACCOUNT = "0000001";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AnalyticsLoader analyticsLoader;
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER));
+  }
+
+  @AfterEach
+  void tearDown() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+  }
+
+  @Test
+  void 集計_正常系_新しい取引履歴を読み込みデータベースに問い合わせずに集計すること() throws Exception {
+    // 他のテストクラスが残した取引履歴を含めないよう、この時刻以降だけを集計する
+    LocalDateTime from = LocalDateTime.now();
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(500));
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(300));
+    bankAccountService.withdraw(ACCOUNT, new AmountRequest(200));
+    assertThatThrownBy(() -> bankAccountService.withdraw(ACCOUNT, new AmountRequest(5000)))
+        .isSameAs(BankOperationException.INSUFFICIENT_BALANCE);
+
+    assertThat(analyticsLoader.poll()).isGreaterThanOrEqualTo(4);
+    // 読み直した範囲の取引履歴は重ねて追加しない
+    assertThat(analyticsLoader.poll()).isZero();
+
+    String to = from.plusHours(1).toString();
+    mockMvc.perform(get("/admin/analytics")
+            .param("from", from.toString())
+            .param("to", to)
+            .param("granularity", "ALL"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.buckets.length()").value(2))
+        .andExpect(jsonPath("$.buckets[0].type").value("DEPOSIT"))
+        .andExpect(jsonPath("$.buckets[0].count").value(2))
+        .andExpect(jsonPath("$.buckets[0].amount").value(800))
+        .andExpect(jsonPath("$.buckets[1].type").value("WITHDRAW"))
+        .andExpect(jsonPath("$.buckets[1].amount").value(200));
+    mockMvc.perform(get("/admin/analytics")
+            .param("from", from.toString())
+            .param("to", to)
+            .param("granularity", "ALL")
+            .param("status", "FAILED"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.buckets[0].type").value("WITHDRAW"))
+        .andExpect(jsonPath("$.buckets[0].amount").value(5000));
+  }
+
+  @Test
+  void 集計_異常系_区間が多すぎる場合は400を返すこと() throws Exception {
+    analyticsLoader.poll();
+
+    mockMvc.perform(get("/admin/analytics")
+            .param("from", "2020-01-01T00:00:00")
+            .param("to", "2026-01-01T00:00:00")
+            .param("granularity", "HOUR"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = ACCOUNT)
+  void 集計_異常系_管理者以外は403を返すこと() throws Exception {
+    mockMvc.perform(get("/admin/analytics")
+            .param("from", "2026-01-01T00:00:00")
+            .param("to", "2026-01-02T00:00:00"))
+        .andExpect(status().isForbidden());
+  }
+}
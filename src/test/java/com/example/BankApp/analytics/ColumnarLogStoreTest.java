@@ -0,0 +1,109 @@
+package com.example.BankApp.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.BankApp.analytics.AnalyticsReport.Bucket;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnarLogStoreTest {
+
+  private static final LocalDateTime DAY1 = LocalDateTime.of(2026, 3, 1, 0, 0);
+  private static final LocalDateTime DAY2 = DAY1.plusDays(1);
+
+  private ColumnarLogStore store;
+
+  @BeforeEach
+  void setUp() {
+    // チャンクをまたぐ集計と、チャンク単位の読み飛ばし・削除を確かめるため小さくする
+    store = new ColumnarLogStore(4, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void 集計_正常系_時と取引種類ごとに成功した取引の件数と金額を数えること() {
+    store.append(DAY1.withHour(9).withMinute(5), AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS, 500);
+    store.append(DAY1.withHour(9).withMinute(59), AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS, 300);
+    store.append(DAY1.withHour(9).withMinute(30), AccountLogType.WITHDRAW, AccountLogStatus.SUCCESS, 200);
+    store.append(DAY1.withHour(9).withMinute(40), AccountLogType.WITHDRAW, AccountLogStatus.FAILED, 9000);
+    store.append(DAY1.withHour(11), AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS, 100);
+    // 期間の終了は含まない
+    store.append(DAY2, AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS, 700);
+    store.markLoaded(DAY2);
+
+    AnalyticsReport report = store.query(DAY1, DAY2, Granularity.HOUR, AccountLogStatus.SUCCESS,
+        100);
+
+    assertThat(report.buckets())
+        .extracting(Bucket::start, Bucket::type, Bucket::count, Bucket::amount)
+        .containsExactly(
+            tuple(DAY1.withHour(9), AccountLogType.DEPOSIT, 2L, 800L),
+            tuple(DAY1.withHour(9), AccountLogType.WITHDRAW, 1L, 200L),
+            tuple(DAY1.withHour(11), AccountLogType.DEPOSIT, 1L, 100L));
+    assertThat(report.asOf()).isEqualTo(DAY2);
+    assertThat(store.query(DAY1, DAY2, Granularity.ALL, AccountLogStatus.FAILED, 100).buckets())
+        .extracting(Bucket::start, Bucket::type, Bucket::count, Bucket::amount)
+        .containsExactly(tuple(DAY1, AccountLogType.WITHDRAW, 1L, 9000L));
+  }
+
+  @Test
+  void 集計_正常系_区間の境界にそろえ期間と重ならないチャンクは読まないこと() {
+    Random random = new Random(42);
+    long[] expectedCounts = new long[3];
+    long[] expectedAmounts = new long[3];
+    for (int i = 0; i < 3 * 24 * 60; i += 7) {
+      LocalDateTime timestamp = DAY1.plusMinutes(i);
+      int amount = 1 + random.nextInt(10_000);
+      store.append(timestamp, AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS, amount);
+      int day = i / (24 * 60);
+      expectedCounts[day]++;
+      expectedAmounts[day] += amount;
+    }
+
+    // 2 日目の 12 時からでも、最初の区間は 2 日目の 0 時から始まる
+    AnalyticsReport report = store.query(DAY2.withHour(12), DAY2.plusDays(1).withHour(12),
+        Granularity.DAY, AccountLogStatus.SUCCESS, 100);
+
+    assertThat(report.buckets()).extracting(Bucket::start)
+        .containsExactly(DAY2, DAY2.plusDays(1));
+    assertThat(report.rowsScanned()).isLessThan(store.rows() / 2);
+    AnalyticsReport whole = store.query(DAY1, DAY1.plusDays(3), Granularity.DAY,
+        AccountLogStatus.SUCCESS, 100);
+    assertThat(whole.buckets()).extracting(Bucket::count)
+        .containsExactly(expectedCounts[0], expectedCounts[1], expectedCounts[2]);
+    assertThat(whole.buckets()).extracting(Bucket::amount)
+        .containsExactly(expectedAmounts[0], expectedAmounts[1], expectedAmounts[2]);
+  }
+
+  @Test
+  void 古い取引履歴の削除_正常系_指定日時より前だけを含むチャンクを捨てること() {
+    for (int i = 0; i < 10; i++) {
+      store.append(DAY1.plusHours(i), AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS, 100);
+    }
+
+    store.evictBefore(DAY1.plusHours(5));
+
+    // 0〜3 時のチャンクだけを捨て、4 時の行を含むチャンクは残す
+    assertThat(store.rows()).isEqualTo(6);
+    assertThat(store.query(DAY1, DAY2, Granularity.ALL, AccountLogStatus.SUCCESS, 1).buckets())
+        .extracting(Bucket::count)
+        .containsExactly(6L);
+  }
+
+  @Test
+  void 集計_異常系_期間が逆または区間が多すぎる場合は例外を投げること() {
+    assertThatThrownBy(() -> store.query(DAY2, DAY1, Granularity.HOUR, AccountLogStatus.SUCCESS,
+        100))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> store.query(DAY1, DAY1.plusDays(10), Granularity.HOUR,
+        AccountLogStatus.SUCCESS, 100))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("240");
+  }
+}
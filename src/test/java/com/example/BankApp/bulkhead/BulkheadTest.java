@@ -0,0 +1,108 @@
+package com.example.BankApp.bulkhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "bankapp.bulkhead.enabled=true",
+    "bankapp.bulkhead.admin.max-concurrent=1",
+    "bankapp.bulkhead.max-wait=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class BulkheadTest {
+
+  private static final String ACCOUNT = "0000001";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private Bulkheads bulkheads;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER));
+  }
+
+  @AfterEach
+  void tearDown() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+  }
+
+  @Test
+  void 口座一覧_異常系_管理者向けの上限に達している場合は503を返し他の種類の処理は続けること()
+      throws Exception {
+    double rejected = rejected(Workload.ADMIN);
+    // 重い一覧の処理が実行中の状態にする
+    bulkheads.enter(Workload.ADMIN);
+    try {
+      mockMvc.perform(get("/admin/accounts"))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string("Retry-After", "1"))
+          .andExpect(jsonPath("$.error").exists());
+
+      mockMvc.perform(get("/balance/" + ACCOUNT))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.balance").value("1,000円"));
+    } finally {
+      bulkheads.leave(Workload.ADMIN);
+    }
+    assertThat(rejected(Workload.ADMIN)).isEqualTo(rejected + 1);
+    assertThat(rejected(Workload.READ)).isZero();
+
+    mockMvc.perform(get("/admin/accounts"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].accountNumber").value(ACCOUNT));
+    assertThat(meterRegistry.get("bankapp.bulkhead.active").tag("workload", "admin").gauge()
+        .value()).isZero();
+  }
+
+  @Test
+  void 残高照会_正常系_処理の種類ごとのプールからコネクションを取得すること() throws Exception {
+    mockMvc.perform(get("/balance/" + ACCOUNT)).andExpect(status().isOk());
+
+    assertThat(bulkheads.dataSource(Workload.READ).getHikariPoolMXBean().getTotalConnections())
+        .isPositive();
+    // 一度も呼ばれていない種類のプールはコネクションを持たない
+    assertThat(bulkheads.dataSource(Workload.AUTH).getHikariPoolMXBean()).isNull();
+  }
+
+  private double rejected(Workload workload) {
+    return meterRegistry.get("bankapp.bulkhead.rejected")
+        .tag("workload", workload.name().toLowerCase())
+        .counter()
+        .count();
+  }
+}
@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.BankApp.exception.GlobalExceptionHandler;
+import com.example.BankApp.metrics.BankMetrics;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,8 @@ class AuthControllerTest {
 
   @MockitoBean
   AuthenticationManager authenticationManager;
+  @MockitoBean
+  BankMetrics bankMetrics;
   @Autowired
   private MockMvc mockMvc;
 
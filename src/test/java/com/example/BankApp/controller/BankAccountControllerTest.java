@@ -2,6 +2,7 @@ package com.example.BankApp.controller;
 
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -10,8 +11,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
 import com.example.BankApp.exception.GlobalExceptionHandler;
 import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.ledger.GroupCommitter;
 import com.example.BankApp.model.AccountLog;
 import com.example.BankApp.model.AccountLog.AccountLogType;
 import com.example.BankApp.repository.AccountLogRepository;
@@ -40,6 +44,9 @@ class BankAccountControllerTest {
   @MockitoBean
   private AccountLogRepository accountLogRepository;
 
+  @MockitoBean
+  private GroupCommitter groupCommitter;
+
 
   @Test
   void 口座一覧取得_正常系_口座一覧を取得できること() throws Exception {
@@ -156,6 +163,23 @@ class BankAccountControllerTest {
     );
   }
 
+  @Test
+  void 口座出金_正常系_グループコミットが有効な場合はグループコミットで処理されること() throws Exception {
+    String accountNumber = "0000001";
+    when(groupCommitter.handles(accountNumber)).thenReturn(true);
+    when(groupCommitter.withdraw(accountNumber, 1000)).thenReturn(
+        new BankAccountResponse("1,000円出金しました。", accountNumber, "テスト氏名", "0円"));
+
+    mockMvc.perform(post("/withdraw/{accountNumber}", accountNumber)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\": 1000}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("1,000円出金しました。"));
+
+    verify(groupCommitter).withdraw(accountNumber, 1000);
+    verifyNoInteractions(bankAccountService);
+  }
+
   @Test
   void 口座入金_異常系_入金金額が0円の場合は400エラーが返されること() throws Exception {
     String accountNumber = "0000001";
@@ -296,6 +320,26 @@ class BankAccountControllerTest {
     verify(bankAccountService).withdraw(accountNumber, new AmountRequest(10000));
   }
 
+  @Test
+  void 口座出金_異常系_業務エラーの場合は事前に組み立てたエラーボディで400エラーが返されること()
+      throws Exception {
+    String accountNumber = "0000001";
+    String validJson = """
+        {
+          "amount": 10000
+        }
+        """;
+
+    when(bankAccountService.withdraw(accountNumber, new AmountRequest(10000)))
+        .thenThrow(BankOperationException.INSUFFICIENT_BALANCE);
+
+    mockMvc.perform(post("/withdraw/{accountNumber}", accountNumber)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(validJson))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("残高が不足しています。"));
+  }
+
   @Test
   void 口座出金_異常系_口座が解約済の場合は400エラーが返されること() throws Exception {
     String accountNumber = "0000001";
@@ -0,0 +1,140 @@
+package com.example.BankApp.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.GlobalExceptionHandler;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.service.ReactiveBankAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveBankAccountController.class)
+@Import(GlobalExceptionHandler.class)
+@WithMockUser(username = "0000001")
+class ReactiveBankAccountControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @MockitoBean
+  private ReactiveBankAccountService reactiveBankAccountService;
+
+  @Test
+  void 残高照会_正常系_口座情報を取得できること() {
+    when(reactiveBankAccountService.getBalance("0000001"))
+        .thenReturn(Mono.just(new BankAccountResponse(null, "0000001", "テスト氏名", "1,000円")));
+
+    webTestClient.get().uri("/balance/{accountNumber}", "0000001")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.accountNumber").isEqualTo("0000001")
+        .jsonPath("$.balance").isEqualTo("1,000円")
+        .jsonPath("$.message").doesNotExist();
+  }
+
+  @Test
+  void 残高照会_異常系_口座番号が存在しない場合は404エラーが返されること() {
+    when(reactiveBankAccountService.getBalance("0000001"))
+        .thenReturn(Mono.error(ResourceNotFoundException.ACCOUNT_NOT_FOUND));
+
+    webTestClient.get().uri("/balance/{accountNumber}", "0000001")
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody()
+        .jsonPath("$.error").isEqualTo("口座が存在しません。");
+  }
+
+  @Test
+  void 口座入金_正常系_入金が成功すること() {
+    when(reactiveBankAccountService.deposit("0000001", new AmountRequest(1000)))
+        .thenReturn(Mono.just(
+            new BankAccountResponse("1,000円入金しました。", "0000001", "テスト氏名", "2,000円")));
+
+    webTestClient.mutateWith(csrf()).post().uri("/deposit/{accountNumber}", "0000001")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"amount\": 1000}")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("1,000円入金しました。");
+
+    verify(reactiveBankAccountService).deposit("0000001", new AmountRequest(1000));
+  }
+
+  @Test
+  void 口座入金_異常系_入金金額が0円の場合は400エラーが返されること() {
+    webTestClient.mutateWith(csrf()).post().uri("/deposit/{accountNumber}", "0000001")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"amount\": 0}")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.amount").isEqualTo("金額は1以上でなければなりません。");
+  }
+
+  @Test
+  void 口座出金_異常系_残高不足の場合は400エラーが返されること() {
+    when(reactiveBankAccountService.withdraw("0000001", new AmountRequest(5000)))
+        .thenReturn(Mono.error(BankOperationException.INSUFFICIENT_BALANCE));
+
+    webTestClient.mutateWith(csrf()).post().uri("/withdraw/{accountNumber}", "0000001")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"amount\": 5000}")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.error").isEqualTo("残高が不足しています。");
+  }
+
+  @Test
+  void 取引履歴取得_正常系_取引タイプ指定時はフィルタして取得できること() {
+    AccountLog log = AccountLog.builder()
+        .accountLogId("log-1")
+        .accountNumber("0000001")
+        .accountLogType(AccountLogType.DEPOSIT)
+        .amount(1000)
+        .build();
+    when(reactiveBankAccountService.getAccountLog("0000001", AccountLogType.DEPOSIT))
+        .thenReturn(Flux.just(log));
+
+    webTestClient.get()
+        .uri(uri -> uri.path("/accountLog/{accountNumber}")
+            .queryParam("accountLogType", "DEPOSIT")
+            .build("0000001"))
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$[0].accountLogId").isEqualTo("log-1")
+        .jsonPath("$[0].accountLogType").isEqualTo("DEPOSIT");
+  }
+
+  @Test
+  void 取引履歴取得_異常系_取引履歴が存在しない場合は404エラーが返されること() {
+    when(reactiveBankAccountService.getAccountLog("0000001", null))
+        .thenReturn(Flux.error(ResourceNotFoundException.ACCOUNT_LOG_NOT_FOUND));
+
+    webTestClient.get().uri("/accountLog/{accountNumber}", "0000001")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody()
+        .jsonPath("$.error").isEqualTo("指定された口座のログが存在しません。");
+  }
+}
@@ -0,0 +1,182 @@
+package com.example.BankApp.interest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.interest.InterestProgress.Status;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.reconciliation.ReconciliationJob;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = {
+    "bankapp.interest.annual-rate=0.0365",
+    "bankapp.interest.chunk-size=4",
+    "bankapp.interest.parallelism=3"})
+@ActiveProfiles("embedded")
+class InterestAccrualJobTest {
+
+  private static final int ACCOUNTS = 25;
+  // 2025 年は 365 日のため、年利 3.65% の 1 日分は残高の 0.01%
+  private static final LocalDate BUSINESS_DATE = LocalDate.of(2025, 3, 31);
+
+  @TempDir
+  static Path reportDir;
+
+  @DynamicPropertySource
+  static void reportDir(DynamicPropertyRegistry registry) {
+    registry.add("bankapp.reconciliation.report-dir", () -> reportDir.toString());
+  }
+
+  @Autowired
+  private InterestAccrualJob interestAccrualJob;
+
+  @Autowired
+  private ReconciliationJob reconciliationJob;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    List<BankAccount> accounts = new ArrayList<>();
+    List<AccountLog> logs = new ArrayList<>();
+    for (int i = 1; i <= ACCOUNTS; i++) {
+      String accountNumber = String.format("%07d", i);
+      // 残高は i 万円。最後の口座は解約済みにする
+      int balance = i * 10_000;
+      accounts.add(new BankAccount(accountNumber, "encoded", "テスト氏名", balance, i != ACCOUNTS,
+          Role.ACCOUNT_USER, 2));
+      logs.add(log(accountNumber, AccountLogType.OPEN, 0, 0, 1));
+      logs.add(log(accountNumber, AccountLogType.DEPOSIT, balance, balance, 2));
+    }
+    // 利息が 1 円未満になる口座
+    accounts.add(new BankAccount("0000099", "encoded", "テスト氏名", 9_999, true,
+        Role.ACCOUNT_USER, 2));
+    logs.add(log("0000099", AccountLogType.OPEN, 0, 0, 1));
+    logs.add(log("0000099", AccountLogType.DEPOSIT, 9_999, 9_999, 2));
+    bankAccountRepository.saveAll(accounts);
+    accountLogRepository.saveAll(logs);
+  }
+
+  @Test
+  void 利息入金_正常系_有効な口座に1日分の利息と取引履歴が記録され突き合わせで不一致がないこと()
+      throws Exception {
+    InterestProgress progress = interestAccrualJob.run(BUSINESS_DATE);
+
+    assertThat(progress.status()).isEqualTo(Status.COMPLETED);
+    assertThat(progress.accountsScanned()).isEqualTo(ACCOUNTS);
+    assertThat(progress.accountsCredited()).isEqualTo(ACCOUNTS - 1);
+    assertThat(progress.totalInterest()).isEqualTo((ACCOUNTS - 1) * ACCOUNTS / 2);
+
+    BankAccount account = bankAccountRepository.findById("0000007").orElseThrow();
+    assertThat(account.getBalance()).isEqualTo(70_007);
+    assertThat(account.getLedgerSequence()).isEqualTo(3);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc("0000007"))
+        .filteredOn(log -> log.getAccountLogType() == AccountLogType.INTEREST)
+        .singleElement()
+        .satisfies(log -> {
+          assertThat(log.getAmount()).isEqualTo(7);
+          assertThat(log.getBalanceAfterTransaction()).isEqualTo(70_007);
+          assertThat(log.getSequenceNumber()).isEqualTo(3);
+        });
+    assertThat(bankAccountRepository.findById("0000025").orElseThrow().getBalance())
+        .isEqualTo(250_000);
+    assertThat(bankAccountRepository.findById("0000099").orElseThrow().getBalance())
+        .isEqualTo(9_999);
+    assertThat(reconciliationJob.run()).isEmpty();
+  }
+
+  @Test
+  void 利息入金_正常系_同じ営業日で再実行しても二重に入金しないこと() {
+    interestAccrualJob.run(BUSINESS_DATE);
+
+    InterestProgress rerun = interestAccrualJob.run(BUSINESS_DATE);
+    assertThat(rerun.accountsScanned()).isZero();
+    assertThat(rerun.totalInterest()).isZero();
+    // 過去の営業日を指定しても付け直さない
+    assertThat(interestAccrualJob.run(BUSINESS_DATE.minusDays(1)).accountsScanned()).isZero();
+
+    InterestProgress nextDay = interestAccrualJob.run(BUSINESS_DATE.plusDays(1));
+    assertThat(nextDay.accountsCredited()).isEqualTo(ACCOUNTS - 1);
+    assertThat(bankAccountRepository.findById("0000001").orElseThrow().getBalance())
+        .isEqualTo(10_002);
+    assertThat(accountLogRepository.findAll())
+        .filteredOn(log -> log.getAccountLogType() == AccountLogType.INTEREST)
+        .hasSize((ACCOUNTS - 1) * 2);
+  }
+
+  @Test
+  void 利息入金_異常系_残高が上限を超える口座には入金せず失敗を取引履歴に残すこと() {
+    bankAccountRepository.save(new BankAccount("0000098", "encoded", "テスト氏名",
+        Integer.MAX_VALUE - 1, true, Role.ACCOUNT_USER, 2));
+    accountLogRepository.saveAll(List.of(
+        log("0000098", AccountLogType.OPEN, 0, 0, 1),
+        log("0000098", AccountLogType.DEPOSIT, Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 1, 2)));
+
+    InterestProgress progress = interestAccrualJob.run(BUSINESS_DATE);
+
+    assertThat(progress.status()).isEqualTo(Status.COMPLETED);
+    assertThat(progress.accountsCredited()).isEqualTo(ACCOUNTS - 1);
+    BankAccount account = bankAccountRepository.findById("0000098").orElseThrow();
+    assertThat(account.getBalance()).isEqualTo(Integer.MAX_VALUE - 1);
+    assertThat(account.getLedgerSequence()).isEqualTo(2);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc("0000098"))
+        .filteredOn(log -> log.getAccountLogType() == AccountLogType.INTEREST)
+        .singleElement()
+        .satisfies(log -> {
+          assertThat(log.getAccountLogStatus()).isEqualTo(AccountLogStatus.FAILED);
+          assertThat(log.getAmount()).isEqualTo(214_748);
+          assertThat(log.getBalanceAfterTransaction()).isEqualTo(Integer.MAX_VALUE - 1);
+        });
+    assertThat(reconciliationJob.run()).isEmpty();
+    // 同じ営業日で再実行しても付け直さない
+    assertThat(interestAccrualJob.run(BUSINESS_DATE).accountsScanned()).isZero();
+  }
+
+  @Test
+  void 利息計算_正常系_1円未満を切り捨てうるう年は366日で割ること() {
+    long rateNanos = 36_500_000L;
+    assertThat(InterestAccrualJob.dailyInterest(19_999, rateNanos, BUSINESS_DATE)).isEqualTo(1);
+    assertThat(InterestAccrualJob.dailyInterest(0, rateNanos, BUSINESS_DATE)).isZero();
+    assertThat(InterestAccrualJob.dailyInterest(-100, rateNanos, BUSINESS_DATE)).isZero();
+    assertThat(InterestAccrualJob.dailyInterest(366_000_000, 1_000_000_000L,
+        LocalDate.of(2024, 2, 29))).isEqualTo(1_000_000);
+  }
+
+  private static AccountLog log(String accountNumber, AccountLogType type, int amount,
+      int balanceAfter, long sequence) {
+    return AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber(accountNumber)
+        .accountLogType(type)
+        .amount(amount)
+        .balanceAfterTransaction(balanceAfter)
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(sequence)
+        .build();
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.BankApp.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.dto.AdminBankAccountResponse;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class BankAppJsonModuleTest {
+
+  // リフレクションによる既定の変換（Spring Boot と同じ設定）
+  private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+
+  private final ObjectMapper custom = Jackson2ObjectMapperBuilder.json()
+      .modulesToInstall(new BankAppJsonModule())
+      .build();
+
+  @Test
+  void 口座レスポンス_正常系_既定の変換と同じJSONになること() throws Exception {
+    assertSameJson(new BankAccountResponse("1,000円入金しました。", "0000001", "テスト\"氏名\"",
+        "2,000円"));
+    // null の項目は出力しない
+    assertSameJson(new BankAccountResponse(null, "0000001", "テスト氏名", "2,000円"));
+    assertSameJson(new BankAccountResponse(null, null, null, null));
+  }
+
+  @Test
+  void 管理者向け口座レスポンス_正常系_既定の変換と同じJSONになること() throws Exception {
+    assertSameJson(new AdminBankAccountResponse("0000001", "テスト氏名", 123456789, true));
+    assertSameJson(new AdminBankAccountResponse(null, null, -1, false));
+  }
+
+  @Test
+  void 取引履歴_正常系_既定の変換と同じJSONになること() throws Exception {
+    AccountLog log = AccountLog.builder()
+        .accountLogId("log-1")
+        .accountNumber("0000001")
+        .accountLogType(AccountLogType.WITHDRAW)
+        .amount(1000)
+        .balanceAfterTransaction(0)
+        .timestamp(LocalDateTime.of(2025, 1, 1, 9, 0, 0, 123456789))
+        .accountLogStatus(AccountLogStatus.FAILED)
+        .build();
+    assertSameJson(log);
+    assertSameJson(List.of(log, new AccountLog()));
+  }
+
+  private void assertSameJson(Object value) throws Exception {
+    assertThat(custom.writeValueAsString(value)).isEqualTo(reflective.writeValueAsString(value));
+  }
+}
@@ -0,0 +1,190 @@
+package com.example.BankApp.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.reconciliation.ReconciliationJob;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = {
+    "bankapp.ledger.hot-accounts=0000001",
+    "bankapp.ledger.balance-shards=4"})
+@ActiveProfiles("embedded")
+@WithMockUser(username = "0000001")
+class BalanceShardsTest {
+
+  private static final String ACCOUNT = "0000001";
+
+  @TempDir
+  static Path reportDir;
+
+  @DynamicPropertySource
+  static void reportDir(DynamicPropertyRegistry registry) {
+    registry.add("bankapp.reconciliation.report-dir", () -> reportDir.toString());
+  }
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private BalanceShards balanceShards;
+
+  @Autowired
+  private ReconciliationJob reconciliationJob;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("DELETE FROM balance_shard");
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER, 1));
+    accountLogRepository.save(AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber(ACCOUNT)
+        .accountLogType(AccountLogType.OPEN)
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(1)
+        .build());
+    balanceShards.synchronize();
+  }
+
+  // 組み込み DB は他のテストクラスと共有するため、分割した行を残さない
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM balance_shard");
+  }
+
+  @Test
+  void 入金_正常系_分割した行に加算されbank_accountの残高は変わらないこと() {
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(500));
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(300));
+
+    assertThat(bankAccountService.getBalance(ACCOUNT).getBalance()).isEqualTo("800円");
+    assertThat(storedBalance()).isZero();
+    assertThat(balanceShards.shardTotal(ACCOUNT)).isEqualTo(800);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM balance_shard WHERE account_number = ?", Integer.class, ACCOUNT))
+        .isEqualTo(4);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc(ACCOUNT))
+        .filteredOn(log -> log.getAccountLogType() == AccountLogType.DEPOSIT)
+        .extracting(AccountLog::getSequenceNumber)
+        .containsOnly(1L);
+  }
+
+  @Test
+  void 出金_正常系_bank_accountの残高で足りない場合だけ分割した残高を集約すること() {
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(1000));
+
+    assertThat(bankAccountService.withdraw(ACCOUNT, new AmountRequest(400)).getBalance())
+        .isEqualTo("600円");
+    assertThat(storedBalance()).isEqualTo(600);
+    assertThat(balanceShards.shardTotal(ACCOUNT)).isZero();
+
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(100));
+    bankAccountService.withdraw(ACCOUNT, new AmountRequest(200));
+
+    // bank_account の残高で足りるため、分割した残高はそのまま残る
+    assertThat(storedBalance()).isEqualTo(400);
+    assertThat(balanceShards.shardTotal(ACCOUNT)).isEqualTo(100);
+    assertThat(bankAccountService.getBalance(ACCOUNT).getBalance()).isEqualTo("500円");
+  }
+
+  @Test
+  void 解約_異常系_分割した行に残高があれば解約できないこと() {
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(100));
+
+    assertThrows(BankOperationException.class, () -> bankAccountService.closeAccount(ACCOUNT));
+
+    assertThat(storedBalance()).isZero();
+    assertThat(balanceShards.shardTotal(ACCOUNT)).isEqualTo(100);
+  }
+
+  @Test
+  void 入金_正常系_同じ口座への並行入金で更新が失われず突き合わせで不一致が出ないこと() throws Exception {
+    int threads = 8;
+    int depositsPerThread = 25;
+    var authentication = SecurityContextHolder.getContext().getAuthentication();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          SecurityContextHolder.getContext().setAuthentication(
+              new UsernamePasswordAuthenticationToken(authentication.getPrincipal(), null,
+                  authentication.getAuthorities()));
+          start.await();
+          for (int i = 0; i < depositsPerThread; i++) {
+            bankAccountService.deposit(ACCOUNT, new AmountRequest(2));
+            if (i % 5 == 4) {
+              bankAccountService.withdraw(ACCOUNT, new AmountRequest(3));
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int expected = threads * (depositsPerThread * 2 - depositsPerThread / 5 * 3);
+    assertThat(balanceShards.balance(ACCOUNT)).isEqualTo(expected);
+    assertThat(reconciliationJob.run()).isEmpty();
+
+    // 再起動を想定して、分割した残高を bank_account に戻す
+    balanceShards.synchronize();
+    assertThat(storedBalance()).isEqualTo(expected);
+    assertThat(balanceShards.shardTotal(ACCOUNT)).isZero();
+  }
+
+  private int storedBalance() {
+    return jdbcTemplate.queryForObject(
+        "SELECT balance FROM bank_account WHERE account_number = ?", Integer.class, ACCOUNT);
+  }
+}
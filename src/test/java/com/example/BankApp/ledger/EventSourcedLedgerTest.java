@@ -0,0 +1,201 @@
+package com.example.BankApp.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "bankapp.ledger.event-sourced=true",
+    "bankapp.ledger.snapshot-interval=1h"})
+@ActiveProfiles("embedded")
+@WithMockUser(username = "0000001")
+class EventSourcedLedgerTest {
+
+  private static final String ACCOUNT = "0000001";
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private EventSourcedLedger eventSourcedLedger;
+
+  @Autowired
+  private LedgerRebuilder ledgerRebuilder;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER));
+    eventSourcedLedger.recover();
+  }
+
+  @Test
+  void 入金_正常系_取引履歴の追加だけで処理されbank_accountはスナップショットまで更新されないこと() {
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(500));
+
+    assertThat(bankAccountService.getBalance(ACCOUNT).getBalance()).isEqualTo("1,500円");
+    assertThat(storedBalance()).isEqualTo(1000);
+    List<AccountLog> logs = accountLogRepository.findByAccountNumberOrderByTimestampDesc(ACCOUNT);
+    assertThat(logs).singleElement()
+        .satisfies(log -> {
+          assertThat(log.getSequenceNumber()).isEqualTo(1);
+          assertThat(log.getBalanceAfterTransaction()).isEqualTo(1500);
+        });
+
+    assertThat(eventSourcedLedger.snapshot()).isEqualTo(1);
+    assertThat(storedBalance()).isEqualTo(1500);
+    assertThat(bankAccountRepository.findById(ACCOUNT).orElseThrow().getLedgerSequence())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void 復元_正常系_スナップショット以降の取引履歴を再生して残高を復元できること() {
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(500));
+    eventSourcedLedger.snapshot();
+    bankAccountService.withdraw(ACCOUNT, new AmountRequest(300));
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(50));
+
+    // 再起動を想定して、射影を作り直す
+    eventSourcedLedger.recover();
+
+    assertThat(storedBalance()).isEqualTo(1500);
+    assertThat(eventSourcedLedger.current(ACCOUNT).orElseThrow())
+        .isEqualTo(new AccountState(ACCOUNT, "テスト氏名", 1250, true, 3));
+  }
+
+  @Test
+  void 出金_異常系_残高不足の場合は失敗の取引履歴を残し残高は変わらないこと() {
+    assertThrows(BankOperationException.class,
+        () -> bankAccountService.withdraw(ACCOUNT, new AmountRequest(5000)));
+
+    assertThat(eventSourcedLedger.current(ACCOUNT).orElseThrow().balance()).isEqualTo(1000);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc(ACCOUNT))
+        .singleElement()
+        .satisfies(log -> {
+          assertThat(log.getAccountLogStatus()).isEqualTo(AccountLogStatus.FAILED);
+          assertThat(log.getSequenceNumber()).isZero();
+        });
+  }
+
+  @Test
+  void 入金_正常系_ロールバックされた取引は射影に反映されないこと() {
+    transactionTemplate.executeWithoutResult(status -> {
+      bankAccountService.deposit(ACCOUNT, new AmountRequest(500));
+      status.setRollbackOnly();
+    });
+
+    assertThat(eventSourcedLedger.current(ACCOUNT).orElseThrow().balance()).isEqualTo(1000);
+    assertThat(accountLogRepository.count()).isZero();
+  }
+
+  @Test
+  void 入金_正常系_同じ口座への並行入金で更新が失われず連番が重複しないこと() throws Exception {
+    int threads = 8;
+    int depositsPerThread = 25;
+    var authentication = SecurityContextHolder.getContext().getAuthentication();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          SecurityContextHolder.getContext().setAuthentication(
+              new UsernamePasswordAuthenticationToken(authentication.getPrincipal(), null,
+                  authentication.getAuthorities()));
+          start.await();
+          for (int i = 0; i < depositsPerThread; i++) {
+            bankAccountService.deposit(ACCOUNT, new AmountRequest(1));
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int total = threads * depositsPerThread;
+    assertThat(eventSourcedLedger.current(ACCOUNT).orElseThrow().balance())
+        .isEqualTo(1000 + total);
+    assertThat(accountLogRepository.findAll())
+        .extracting(AccountLog::getSequenceNumber)
+        .doesNotHaveDuplicates()
+        .hasSize(total);
+  }
+
+  @Test
+  void 作り直し_正常系_取引履歴と一致しない口座の残高を取引履歴から作り直すこと() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER, 1));
+    accountLogRepository.save(AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber(ACCOUNT)
+        .accountLogType(AccountLogType.OPEN)
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(AccountLogStatus.SUCCESS)
+        .sequenceNumber(1)
+        .build());
+    eventSourcedLedger.recover();
+    bankAccountService.deposit(ACCOUNT, new AmountRequest(500));
+    eventSourcedLedger.snapshot();
+    jdbcTemplate.update("UPDATE bank_account SET balance = 999999 WHERE account_number = ?",
+        ACCOUNT);
+
+    LedgerRebuilder.Result result = ledgerRebuilder.rebuild();
+
+    assertThat(result).isEqualTo(new LedgerRebuilder.Result(1, 1, 0));
+    assertThat(storedBalance()).isEqualTo(500);
+  }
+
+  private int storedBalance() {
+    return jdbcTemplate.queryForObject(
+        "SELECT balance FROM bank_account WHERE account_number = ?", Integer.class, ACCOUNT);
+  }
+}
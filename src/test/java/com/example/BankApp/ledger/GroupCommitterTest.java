@@ -0,0 +1,133 @@
+package com.example.BankApp.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "bankapp.ledger.group-commit.enabled=true",
+    "bankapp.ledger.group-commit.window=20ms",
+    "bankapp.ledger.group-commit.max-batch-size=16"})
+@ActiveProfiles("embedded")
+class GroupCommitterTest {
+
+  private static final String RICH = "0000001";
+  private static final String POOR = "0000002";
+  private static final String CLOSED = "0000003";
+
+  @Autowired
+  private GroupCommitter groupCommitter;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.saveAll(List.of(
+        new BankAccount(RICH, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER),
+        new BankAccount(POOR, "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER),
+        new BankAccount(CLOSED, "encoded", "テスト氏名", 0, false, Role.ACCOUNT_USER)));
+  }
+
+  @Test
+  void 入出金_正常系_並行に届いた取引をまとめてコミットし残高と連番が正しいこと() throws Exception {
+    int threads = 8;
+    int operationsPerThread = 20;
+    List<Future<?>> futures = new ArrayList<>();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < operationsPerThread; i++) {
+            groupCommitter.deposit(RICH, 3);
+            groupCommitter.withdraw(RICH, 1);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int operations = threads * operationsPerThread * 2;
+    BankAccount account = bankAccountRepository.findById(RICH).orElseThrow();
+    assertThat(account.getBalance()).isEqualTo(1000 + threads * operationsPerThread * 2);
+    assertThat(account.getLedgerSequence()).isEqualTo(operations);
+    assertThat(accountLogRepository.findAll())
+        .extracting(AccountLog::getSequenceNumber)
+        .doesNotHaveDuplicates()
+        .hasSize(operations);
+    assertThat(meterRegistry.get("bankapp.ledger.group-commit.batch-size").summary().max())
+        .isGreaterThan(1);
+  }
+
+  @Test
+  void 出金_異常系_残高不足の取引だけが失敗し同じまとまりの他の取引はコミットされること() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      Future<?> deposit = executor.submit(() -> groupCommitter.deposit(RICH, 500));
+      Future<?> insufficient = executor.submit(() -> groupCommitter.withdraw(POOR, 5000));
+      Future<?> withdraw = executor.submit(() -> groupCommitter.withdraw(RICH, 200));
+
+      deposit.get();
+      withdraw.get();
+      Exception e = assertThrows(Exception.class, insufficient::get);
+      assertSame(BankOperationException.INSUFFICIENT_BALANCE, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(bankAccountRepository.findById(RICH).orElseThrow().getBalance()).isEqualTo(1300);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc(POOR))
+        .singleElement()
+        .satisfies(log -> {
+          assertThat(log.getAccountLogStatus()).isEqualTo(AccountLogStatus.FAILED);
+          assertThat(log.getSequenceNumber()).isZero();
+        });
+  }
+
+  @Test
+  void 入金_異常系_解約済みや存在しない口座への入金は失敗し取引履歴を残さないこと() {
+    assertSame(BankOperationException.ACCOUNT_CLOSED,
+        assertThrows(BankOperationException.class, () -> groupCommitter.deposit(CLOSED, 100)));
+    assertSame(ResourceNotFoundException.ACCOUNT_NOT_FOUND,
+        assertThrows(ResourceNotFoundException.class, () -> groupCommitter.deposit("9999999", 1)));
+
+    assertThat(accountLogRepository.count()).isZero();
+  }
+}
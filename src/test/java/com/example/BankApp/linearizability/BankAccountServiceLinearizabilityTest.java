@@ -0,0 +1,191 @@
+package com.example.BankApp.linearizability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.linearizability.LedgerHistory.OpType;
+import com.example.BankApp.linearizability.LedgerHistory.Outcome;
+import com.example.BankApp.linearizability.LinearizabilityChecker.Result;
+import com.example.BankApp.linearizability.LinearizabilityChecker.State;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * 少数の口座に対して入金・出金・解約を並行に実行し、その履歴が線形化可能であることを確認します。
+ * <p>
+ * 操作の選び方はシードで決まります。失敗したシードは {@code -Dlinearizability.seed=<シード>}
+ * で再実行でき、{@code -Dlinearizability.seeds=<件数>} で試行回数を変えられます。
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class BankAccountServiceLinearizabilityTest {
+
+  private static final List<String> ACCOUNTS = List.of("0000001", "0000002", "0000003");
+  private static final int THREADS = 6;
+  private static final int OPERATIONS_PER_THREAD = 10;
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  static Stream<Long> seeds() {
+    String fixed = System.getProperty("linearizability.seed");
+    if (fixed != null) {
+      return Stream.of(Long.parseLong(fixed));
+    }
+    int count = Integer.getInteger("linearizability.seeds", 20);
+    long base = new Random().nextLong();
+    return LongStream.range(0, count).mapToObj(i -> base + i);
+  }
+
+  @ParameterizedTest(name = "seed={0}")
+  @MethodSource("seeds")
+  void 入出金と解約_正常系_並行実行の履歴が逐次実行で説明できること(long seed) throws Exception {
+    Random random = new Random(seed);
+    Map<String, State> initial = new HashMap<>();
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    for (String accountNumber : ACCOUNTS) {
+      // 残高 0 の口座は解約が成功しうるようにする
+      int balance = random.nextInt(3) * 2000;
+      bankAccountRepository.save(
+          new BankAccount(accountNumber, "encoded", "テスト氏名", balance, true, Role.ACCOUNT_USER));
+      initial.put(accountNumber, new State(balance, true));
+    }
+    accountsSeeded();
+
+    LedgerHistory history = new LedgerHistory();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        Random threadRandom = new Random(random.nextLong());
+        futures.add(executor.submit(() -> {
+          runClient(threadRandom, history, start);
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    operationsFinished();
+
+    Map<String, State> actual = new HashMap<>();
+    for (BankAccount account : bankAccountRepository.findAll()) {
+      actual.put(account.getAccountNumber(), new State(account.getBalance(), account.isActive()));
+    }
+
+    Result result = LinearizabilityChecker.check(history, initial, actual);
+    assertThat(result.anomalies())
+        .as("seed=%d history=%s", seed, history.events())
+        .isEmpty();
+  }
+
+  /**
+   * 口座を用意した後、操作を始める前に呼び出されます。
+   */
+  protected void accountsSeeded() {
+  }
+
+  /**
+   * すべての操作が終わった後、口座の状態を読み取る前に呼び出されます。
+   */
+  protected void operationsFinished() {
+  }
+
+  private void runClient(Random random, LedgerHistory history, CountDownLatch start)
+      throws InterruptedException {
+    // ensureOwner はスレッドごとの SecurityContext を見るため、管理者として実行する
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("admin", null,
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    try {
+      start.await();
+      for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+        String accountNumber = ACCOUNTS.get(random.nextInt(ACCOUNTS.size()));
+        int choice = random.nextInt(100);
+        OpType type = choice < 40 ? OpType.DEPOSIT : choice < 85 ? OpType.WITHDRAW : OpType.CLOSE;
+        int amount = type == OpType.CLOSE ? 0 : 1 + random.nextInt(3000);
+        invoke(history, accountNumber, type, amount);
+      }
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  private void invoke(LedgerHistory history, String accountNumber, OpType type, int amount) {
+    Outcome outcome;
+    Long balanceAfter = null;
+    long invokedAt = System.nanoTime();
+    try {
+      switch (type) {
+        case DEPOSIT -> balanceAfter = balanceOf(
+            bankAccountService.deposit(accountNumber, new AmountRequest(amount)));
+        case WITHDRAW -> balanceAfter = balanceOf(
+            bankAccountService.withdraw(accountNumber, new AmountRequest(amount)));
+        case CLOSE -> bankAccountService.closeAccount(accountNumber);
+      }
+      outcome = Outcome.OK;
+    } catch (BankOperationException e) {
+      outcome = toOutcome(e);
+    } catch (RuntimeException e) {
+      outcome = Outcome.ERROR;
+    }
+    history.record(accountNumber, type, amount, invokedAt, System.nanoTime(), outcome,
+        balanceAfter);
+  }
+
+  private static Long balanceOf(BankAccountResponse response) {
+    return Long.parseLong(response.getBalance().replaceAll("[^0-9-]", ""));
+  }
+
+  private static Outcome toOutcome(BankOperationException e) {
+    if (e == BankOperationException.INSUFFICIENT_BALANCE) {
+      return Outcome.INSUFFICIENT_BALANCE;
+    }
+    if (e == BankOperationException.ACCOUNT_CLOSED) {
+      return Outcome.ACCOUNT_CLOSED;
+    }
+    if (e == BankOperationException.BALANCE_REMAINING) {
+      return Outcome.BALANCE_REMAINING;
+    }
+    if (e == BankOperationException.ALREADY_CLOSED) {
+      return Outcome.ALREADY_CLOSED;
+    }
+    return Outcome.ERROR;
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.BankApp.linearizability;
+
+import com.example.BankApp.ledger.EventSourcedLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link BankAccountServiceLinearizabilityTest} をイベントソーシングのモードで実行します。
+ * 口座の状態は、操作の後に射影を bank_account に書き戻したスナップショットから読み取ります。
+ */
+@TestPropertySource(properties = {
+    "bankapp.ledger.event-sourced=true",
+    "bankapp.ledger.snapshot-interval=1h"})
+class EventSourcedLinearizabilityTest extends BankAccountServiceLinearizabilityTest {
+
+  @Autowired
+  private EventSourcedLedger eventSourcedLedger;
+
+  @Override
+  protected void accountsSeeded() {
+    eventSourcedLedger.recover();
+  }
+
+  @Override
+  protected void operationsFinished() {
+    eventSourcedLedger.snapshot();
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.BankApp.linearizability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 並行に実行した口座操作の呼び出しと応答を、時刻付きで記録します。
+ */
+final class LedgerHistory {
+
+  enum OpType {
+    DEPOSIT, WITHDRAW, CLOSE
+  }
+
+  enum Outcome {
+    OK, INSUFFICIENT_BALANCE, ACCOUNT_CLOSED, BALANCE_REMAINING, ALREADY_CLOSED, ERROR
+  }
+
+  /**
+   * 1 回の操作です。
+   *
+   * @param invokedAt    呼び出し直前の時刻（ナノ秒）
+   * @param returnedAt   応答を受け取った直後の時刻（ナノ秒）
+   * @param balanceAfter 入出金が成功した場合に応答に含まれる残高。それ以外は null
+   */
+  record Event(int id, String accountNumber, OpType type, int amount, long invokedAt,
+               long returnedAt, Outcome outcome, Long balanceAfter) {
+
+    @Override
+    public String toString() {
+      return String.format("#%d %s %s %d -> %s%s [%d, %d]", id, accountNumber, type, amount,
+          outcome, balanceAfter != null ? "(" + balanceAfter + ")" : "", invokedAt, returnedAt);
+    }
+  }
+
+  private final AtomicInteger sequence = new AtomicInteger();
+  private final List<Event> events = new ArrayList<>();
+
+  Event record(String accountNumber, OpType type, int amount, long invokedAt, long returnedAt,
+      Outcome outcome, Long balanceAfter) {
+    Event event = new Event(sequence.incrementAndGet(), accountNumber, type, amount, invokedAt,
+        returnedAt, outcome, balanceAfter);
+    synchronized (events) {
+      events.add(event);
+    }
+    return event;
+  }
+
+  /**
+   * @return 呼び出し時刻順の操作
+   */
+  List<Event> events() {
+    synchronized (events) {
+      return events.stream().sorted(Comparator.comparingLong(Event::invokedAt)).toList();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package com.example.BankApp.linearizability;
+
+import com.example.BankApp.linearizability.LedgerHistory.Event;
+import com.example.BankApp.linearizability.LedgerHistory.OpType;
+import com.example.BankApp.linearizability.LedgerHistory.Outcome;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 並行実行の履歴が、1 件ずつ順に実行する口座のモデルで説明できる（線形化可能である）か確認します。
+ * <p>
+ * 各操作は 1 口座にしか触れないため、口座ごとに分けて探索します。探索は Wing &amp; Gong の方法で、
+ * 実時間の前後関係（応答が先に返った操作は後から呼び出された操作より前）を守る順序を、
+ * 試した（実行済み集合, 状態）の組を記録しながら深さ優先で探します。
+ * 線形化できなかった場合は、失われた更新・残高のマイナス・解約後の取引のどれに当たるかを診断します。
+ */
+final class LinearizabilityChecker {
+
+  /**
+   * 口座の状態です。
+   */
+  record State(long balance, boolean active) {
+
+  }
+
+  /**
+   * @param linearizable 全口座で線形化可能な順序が見つかったか
+   * @param anomalies    見つかった問題（線形化可能なら空）
+   */
+  record Result(boolean linearizable, List<String> anomalies) {
+
+  }
+
+  private LinearizabilityChecker() {
+  }
+
+  /**
+   * @param history 記録した操作
+   * @param initial 口座ごとの開始時の状態
+   * @param actual  すべての操作が終わった後に DB から読み込んだ口座ごとの状態
+   */
+  static Result check(LedgerHistory history, Map<String, State> initial,
+      Map<String, State> actual) {
+    Map<String, List<Event>> byAccount = new LinkedHashMap<>();
+    for (Event event : history.events()) {
+      byAccount.computeIfAbsent(event.accountNumber(), k -> new ArrayList<>()).add(event);
+    }
+
+    List<String> anomalies = new ArrayList<>();
+    for (Map.Entry<String, State> entry : initial.entrySet()) {
+      String accountNumber = entry.getKey();
+      List<Event> events = byAccount.getOrDefault(accountNumber, List.of());
+      State finalState = actual.get(accountNumber);
+      if (!new Search(events, finalState).linearize(entry.getValue())) {
+        anomalies.addAll(diagnose(accountNumber, events, entry.getValue(), finalState));
+      }
+    }
+    return new Result(anomalies.isEmpty(), anomalies);
+  }
+
+  /**
+   * 1 件の操作をモデルに適用します。
+   *
+   * @return 観測した結果とモデルの結果が一致すれば適用後の状態、一致しなければ null
+   */
+  static State apply(State state, Event event) {
+    Outcome expected;
+    State next = state;
+    switch (event.type()) {
+      case DEPOSIT -> {
+        if (!state.active()) {
+          expected = Outcome.ACCOUNT_CLOSED;
+        } else {
+          expected = Outcome.OK;
+          next = new State(state.balance() + event.amount(), true);
+        }
+      }
+      case WITHDRAW -> {
+        if (!state.active()) {
+          expected = Outcome.ACCOUNT_CLOSED;
+        } else if (event.amount() <= state.balance()) {
+          expected = Outcome.OK;
+          next = new State(state.balance() - event.amount(), true);
+        } else {
+          expected = Outcome.INSUFFICIENT_BALANCE;
+        }
+      }
+      case CLOSE -> {
+        if (state.balance() > 0) {
+          expected = Outcome.BALANCE_REMAINING;
+        } else if (!state.active()) {
+          expected = Outcome.ALREADY_CLOSED;
+        } else {
+          expected = Outcome.OK;
+          next = new State(state.balance(), false);
+        }
+      }
+      default -> throw new IllegalStateException(event.type().name());
+    }
+    if (event.outcome() != expected) {
+      return null;
+    }
+    if (event.balanceAfter() != null && event.balanceAfter() != next.balance()) {
+      return null;
+    }
+    return next;
+  }
+
+  private static final class Search {
+
+    private final List<Event> events;
+    private final State finalState;
+    private final Set<Visited> visited = new HashSet<>();
+
+    private Search(List<Event> events, State finalState) {
+      this.events = events;
+      this.finalState = finalState;
+    }
+
+    private record Visited(BitSet done, State state) {
+
+    }
+
+    boolean linearize(State initial) {
+      return search(new BitSet(events.size()), initial);
+    }
+
+    private boolean search(BitSet done, State state) {
+      if (done.cardinality() == events.size()) {
+        return finalState == null || finalState.equals(state);
+      }
+      if (!visited.add(new Visited((BitSet) done.clone(), state))) {
+        return false;
+      }
+      // 未実行の操作のうち最も早く応答が返った時刻より前に呼び出された操作だけが、次に線形化できる
+      long earliestReturn = Long.MAX_VALUE;
+      for (int i = done.nextClearBit(0); i < events.size(); i = done.nextClearBit(i + 1)) {
+        earliestReturn = Math.min(earliestReturn, events.get(i).returnedAt());
+      }
+      for (int i = done.nextClearBit(0); i < events.size(); i = done.nextClearBit(i + 1)) {
+        Event event = events.get(i);
+        if (event.invokedAt() > earliestReturn) {
+          break;
+        }
+        State next = apply(state, event);
+        if (next == null) {
+          continue;
+        }
+        done.set(i);
+        boolean found = search(done, next);
+        done.clear(i);
+        if (found) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static List<String> diagnose(String accountNumber, List<Event> events, State initial,
+      State finalState) {
+    List<String> anomalies = new ArrayList<>();
+    String prefix = "口座 " + accountNumber + ": ";
+
+    long expectedBalance = initial.balance();
+    for (Event event : events) {
+      if (event.outcome() == Outcome.ERROR) {
+        anomalies.add(prefix + "想定外のエラー " + event);
+      }
+      if (event.outcome() == Outcome.OK && event.type() == OpType.DEPOSIT) {
+        expectedBalance += event.amount();
+      }
+      if (event.outcome() == Outcome.OK && event.type() == OpType.WITHDRAW) {
+        expectedBalance -= event.amount();
+      }
+      if (event.balanceAfter() != null && event.balanceAfter() < 0) {
+        anomalies.add(prefix + "残高がマイナスになりました " + event);
+      }
+    }
+    if (finalState != null && finalState.balance() < 0) {
+      anomalies.add(prefix + "最終残高がマイナスです: " + finalState.balance());
+    }
+    if (finalState != null && finalState.balance() != expectedBalance) {
+      anomalies.add(prefix + "更新が失われました: 最終残高 " + finalState.balance()
+          + " / 成功した入出金から計算した残高 " + expectedBalance);
+    }
+
+    for (Event close : events) {
+      if (close.type() != OpType.CLOSE || close.outcome() != Outcome.OK) {
+        continue;
+      }
+      for (Event event : events) {
+        if (event.type() != OpType.CLOSE && event.outcome() == Outcome.OK
+            && event.invokedAt() > close.returnedAt()) {
+          anomalies.add(prefix + "解約後に取引が成功しました " + event + " (解約 " + close + ")");
+        }
+      }
+    }
+
+    if (anomalies.isEmpty()) {
+      anomalies.add(prefix + "逐次実行で説明できる順序が見つかりません " + events);
+    }
+    return anomalies;
+  }
+}
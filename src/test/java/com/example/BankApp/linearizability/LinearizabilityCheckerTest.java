@@ -0,0 +1,81 @@
+package com.example.BankApp.linearizability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.linearizability.LedgerHistory.OpType;
+import com.example.BankApp.linearizability.LedgerHistory.Outcome;
+import com.example.BankApp.linearizability.LinearizabilityChecker.Result;
+import com.example.BankApp.linearizability.LinearizabilityChecker.State;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LinearizabilityCheckerTest {
+
+  private static final String ACCOUNT = "0000001";
+
+  @Test
+  void 線形化_正常系_重なった入金はどちらの順でも説明できれば問題なしとなること() {
+    LedgerHistory history = new LedgerHistory();
+    // 2 件の入金が重なっており、後から呼び出した方が先に適用されている
+    history.record(ACCOUNT, OpType.DEPOSIT, 100, 0, 10, Outcome.OK, 1300L);
+    history.record(ACCOUNT, OpType.DEPOSIT, 200, 1, 5, Outcome.OK, 1200L);
+
+    Result result = LinearizabilityChecker.check(history,
+        Map.of(ACCOUNT, new State(1000, true)), Map.of(ACCOUNT, new State(1300, true)));
+
+    assertThat(result.linearizable()).isTrue();
+    assertThat(result.anomalies()).isEmpty();
+  }
+
+  @Test
+  void 線形化_異常系_同じ残高から更新した入金は失われた更新として検出されること() {
+    LedgerHistory history = new LedgerHistory();
+    history.record(ACCOUNT, OpType.DEPOSIT, 100, 0, 10, Outcome.OK, 1100L);
+    history.record(ACCOUNT, OpType.DEPOSIT, 200, 1, 11, Outcome.OK, 1200L);
+
+    Result result = LinearizabilityChecker.check(history,
+        Map.of(ACCOUNT, new State(1000, true)), Map.of(ACCOUNT, new State(1200, true)));
+
+    assertThat(result.linearizable()).isFalse();
+    assertThat(result.anomalies()).anyMatch(a -> a.contains("更新が失われました"));
+  }
+
+  @Test
+  void 線形化_異常系_残高を超える出金が成功した場合はマイナス残高として検出されること() {
+    LedgerHistory history = new LedgerHistory();
+    history.record(ACCOUNT, OpType.WITHDRAW, 800, 0, 10, Outcome.OK, 200L);
+    history.record(ACCOUNT, OpType.WITHDRAW, 800, 1, 11, Outcome.OK, -600L);
+
+    Result result = LinearizabilityChecker.check(history,
+        Map.of(ACCOUNT, new State(1000, true)), Map.of(ACCOUNT, new State(-600, true)));
+
+    assertThat(result.linearizable()).isFalse();
+    assertThat(result.anomalies()).anyMatch(a -> a.contains("マイナス"));
+  }
+
+  @Test
+  void 線形化_異常系_解約の完了後に成功した入金は解約後の取引として検出されること() {
+    LedgerHistory history = new LedgerHistory();
+    history.record(ACCOUNT, OpType.CLOSE, 0, 0, 10, Outcome.OK, null);
+    history.record(ACCOUNT, OpType.DEPOSIT, 500, 20, 30, Outcome.OK, 500L);
+
+    Result result = LinearizabilityChecker.check(history,
+        Map.of(ACCOUNT, new State(0, true)), Map.of(ACCOUNT, new State(500, false)));
+
+    assertThat(result.linearizable()).isFalse();
+    assertThat(result.anomalies()).anyMatch(a -> a.contains("解約後に取引が成功しました"));
+  }
+
+  @Test
+  void 線形化_異常系_先に完了した操作より前に並べないと説明できない履歴は検出されること() {
+    LedgerHistory history = new LedgerHistory();
+    // 出金は入金の応答後に呼び出しているのに、入金前の残高で残高不足になっている
+    history.record(ACCOUNT, OpType.DEPOSIT, 1000, 0, 10, Outcome.OK, 1000L);
+    history.record(ACCOUNT, OpType.WITHDRAW, 500, 20, 30, Outcome.INSUFFICIENT_BALANCE, null);
+
+    Result result = LinearizabilityChecker.check(history,
+        Map.of(ACCOUNT, new State(0, true)), Map.of(ACCOUNT, new State(1000, true)));
+
+    assertThat(result.linearizable()).isFalse();
+  }
+}
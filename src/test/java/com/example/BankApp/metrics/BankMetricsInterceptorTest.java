@@ -0,0 +1,88 @@
+package com.example.BankApp.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.BankApp.dto.AmountRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+class BankMetricsInterceptorTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private Operations operations;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("bankMetrics", new BankMetrics(meterRegistry));
+    ProxyFactory proxyFactory = new ProxyFactory(new Operations());
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+        AnnotationMatchingPointcut.forMethodAnnotation(Measured.class),
+        new BankMetricsInterceptor(beanFactory.getBeanProvider(BankMetrics.class))));
+    operations = (Operations) proxyFactory.getProxy();
+  }
+
+  @Test
+  void 業務操作の記録_正常系_戻った操作を成功として金額とともに記録すること() {
+    operations.deposit("0000001", new AmountRequest(1000));
+    operations.withdraw("0000001", 300);
+
+    assertThat(meterRegistry.get("bankapp.operation.results")
+        .tag("operation", "deposit").tag("status", "SUCCESS").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("bankapp.operation.amount")
+        .tag("operation", "deposit").summary().totalAmount()).isEqualTo(1000);
+    assertThat(meterRegistry.get("bankapp.operation.amount")
+        .tag("operation", "withdraw").summary().totalAmount()).isEqualTo(300);
+    assertThat(meterRegistry.get("bankapp.operation.latency")
+        .tag("operation", "withdraw").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void 業務操作の記録_異常系_例外を投げた操作を失敗として記録し例外はそのまま投げること() {
+    assertThatThrownBy(() -> operations.closeAccount("0000001"))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(meterRegistry.get("bankapp.operation.results")
+        .tag("operation", "closeAccount").tag("status", "FAILED").counter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("bankapp.operation.latency")
+        .tag("operation", "closeAccount").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void 業務操作の記録_正常系_付けていないメソッドは記録しないこと() {
+    operations.unmeasured();
+
+    assertThat(meterRegistry.get("bankapp.operation.latency").timers())
+        .allSatisfy(timer -> assertThat(timer.count()).isZero());
+  }
+
+  static class Operations {
+
+    @Measured(Operation.DEPOSIT)
+    public String deposit(String accountNumber, AmountRequest amountRequest) {
+      return accountNumber;
+    }
+
+    @Measured(Operation.WITHDRAW)
+    public String withdraw(String accountNumber, int amount) {
+      return accountNumber;
+    }
+
+    @Measured(Operation.CLOSE_ACCOUNT)
+    public String closeAccount(String accountNumber) {
+      throw new IllegalStateException("解約できません");
+    }
+
+    public void unmeasured() {
+    }
+  }
+}
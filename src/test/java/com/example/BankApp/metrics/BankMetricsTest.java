@@ -0,0 +1,52 @@
+package com.example.BankApp.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BankMetricsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private BankMetrics bankMetrics;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    bankMetrics = new BankMetrics(meterRegistry);
+  }
+
+  @Test
+  void メトリクス記録_成功時は処理時間と成功件数と金額が記録されること() {
+    bankMetrics.record(Operation.DEPOSIT, AccountLogStatus.SUCCESS, 1000, System.nanoTime());
+
+    assertThat(meterRegistry.get("bankapp.operation.latency")
+        .tag("operation", "deposit").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("bankapp.operation.results")
+        .tag("operation", "deposit").tag("status", "SUCCESS").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("bankapp.operation.amount")
+        .tag("operation", "deposit").summary().totalAmount()).isEqualTo(1000);
+  }
+
+  @Test
+  void メトリクス記録_失敗時は失敗件数のみ加算され金額は記録されないこと() {
+    bankMetrics.record(Operation.WITHDRAW, AccountLogStatus.FAILED, 5000, System.nanoTime());
+
+    assertThat(meterRegistry.get("bankapp.operation.results")
+        .tag("operation", "withdraw").tag("status", "FAILED").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("bankapp.operation.results")
+        .tag("operation", "withdraw").tag("status", "SUCCESS").counter().count()).isZero();
+    assertThat(meterRegistry.get("bankapp.operation.amount")
+        .tag("operation", "withdraw").summary().count()).isZero();
+  }
+
+  @Test
+  void メトリクス記録_すべての操作のメーターが起動時に登録されていること() {
+    for (Operation operation : Operation.values()) {
+      assertThat(meterRegistry.find("bankapp.operation.latency")
+          .tag("operation", operation.getTagValue()).timer()).isNotNull();
+    }
+  }
+}
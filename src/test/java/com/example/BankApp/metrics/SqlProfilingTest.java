@@ -0,0 +1,170 @@
+package com.example.BankApp.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * 各エンドポイントが発行する SQL の件数を、実際の DB（H2）に対して確認します。
+ * test プロファイルでは {@link SqlBudget} を超えるとリクエストが例外になります。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"embedded", "test"})
+@WithMockUser(username = "0000001")
+class SqlProfilingTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount("0000001", "encoded", "テスト氏名", 10000, true, Role.ACCOUNT_USER));
+    bankAccountRepository.save(
+        new BankAccount("0000002", "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER));
+    accountLogRepository.save(AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber("0000001")
+        .accountLogType(AccountLogType.OPEN)
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(AccountLogStatus.SUCCESS)
+        .build());
+  }
+
+  @Test
+  void 残高照会_正常系_SQLは1件であること() throws Exception {
+    MvcResult result = mockMvc.perform(get("/balance/0000001"))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    assertThat(stats(result).getStatements()).isEqualTo(1);
+    assertThat(stats(result).getRows()).isEqualTo(1);
+  }
+
+  @Test
+  void 口座入金_正常系_取引履歴の存在確認をせずにSQLは3件であること() throws Exception {
+    MvcResult result = mockMvc.perform(post("/deposit/0000001")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\": 1000}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.balance").value("11,000円"))
+        .andReturn();
+
+    // 口座の SELECT、取引履歴の INSERT、口座の UPDATE
+    assertThat(stats(result).getStatements()).isEqualTo(3);
+  }
+
+  @Test
+  void 口座出金_異常系_残高不足でもSQLは上限内であること() throws Exception {
+    MvcResult result = mockMvc.perform(post("/withdraw/0000001")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\": 20000}"))
+        .andExpect(status().isBadRequest())
+        .andReturn();
+
+    // 口座の SELECT、失敗ログの INSERT
+    assertThat(stats(result).getStatements()).isEqualTo(2);
+  }
+
+  @Test
+  void 取引履歴取得_正常系_SQLは1件であること() throws Exception {
+    MvcResult result = mockMvc.perform(get("/accountLog/0000001"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andReturn();
+
+    assertThat(stats(result).getStatements()).isEqualTo(1);
+    assertThat(stats(result).getRows()).isEqualTo(1);
+  }
+
+  @Test
+  @WithMockUser(username = "0000002")
+  void 口座解約_正常系_SQLは上限内であること() throws Exception {
+    mockMvc.perform(post("/closeAccount/0000002"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void 口座開設_正常系_SQLは上限内であること() throws Exception {
+    mockMvc.perform(post("/createAccount")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"accountHolderName\": \"テスト氏名\", \"password\": \"password123\"}"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void 集計_正常系_同じSQLが閾値以上発行されたらN1として記録されること() {
+    RequestDbStats stats = RequestDbStats.begin(3);
+    try {
+      stats.statementExecuted("select * from account_log where account_number=?", 10);
+      stats.statementExecuted("select * from bank_account where account_number=?", 10);
+      stats.statementExecuted("select * from account_log where account_number=?", 10);
+      assertThat(stats.getRepeatedSql()).isNull();
+
+      stats.statementExecuted("select * from account_log where account_number=?", 10);
+      assertThat(stats.getRepeatedSql())
+          .isEqualTo("select * from account_log where account_number=?");
+      assertThat(stats.getStatements()).isEqualTo(4);
+      assertThat(stats.getDbNanos()).isEqualTo(40);
+    } finally {
+      RequestDbStats.end();
+    }
+  }
+
+  @Test
+  void JDBCのプロキシ_正常系_同一性とunwrapはプロキシ自身で判定すること() throws Exception {
+    SqlProfilingDataSource profiling = new SqlProfilingDataSource(dataSource);
+    try (Connection connection = profiling.getConnection();
+        Connection other = profiling.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+      assertThat(connection).isEqualTo(connection).isNotEqualTo(other);
+      assertThat(connection.hashCode()).isEqualTo(System.identityHashCode(connection));
+      assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+      assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+      assertThat(statement.unwrap(Statement.class)).isSameAs(statement);
+      assertThat(statement.isWrapperFor(PreparedStatement.class)).isTrue();
+    }
+  }
+
+  private static RequestDbStats stats(MvcResult result) {
+    return (RequestDbStats) result.getRequest().getAttribute(SqlProfilingFilter.STATS_ATTRIBUTE);
+  }
+}
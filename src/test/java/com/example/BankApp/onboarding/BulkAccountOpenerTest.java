@@ -0,0 +1,125 @@
+package com.example.BankApp.onboarding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.onboarding.BulkAccountOpener.Summary;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "bankapp.bulk-open.hash-parallelism=2",
+    "bankapp.bulk-open.chunk-size=2",
+    "bankapp.bulk-open.max-rows=6"})
+@ActiveProfiles("embedded")
+class BulkAccountOpenerTest {
+
+  @Autowired
+  private BulkAccountOpener bulkAccountOpener;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount("0000005", "encoded", "既存の口座", 0, true, Role.ACCOUNT_USER));
+  }
+
+  // 組み込み DB は他のテストクラスと共有するため、開設した口座を残さない
+  @AfterEach
+  void tearDown() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+  }
+
+  @Test
+  void 一括開設_正常系_有効な行だけを既存の口座番号に続けて開設し行ごとの結果を返すこと()
+      throws Exception {
+    String csv = """
+        accountHolderName,password
+        山田太郎,password1
+        "佐藤, 花子",Passw0rdX
+
+        ,password2
+        鈴木一郎,short1
+        田中次郎,password3,余分な列
+        高橋三郎,password4
+        """;
+    StringWriter results = new StringWriter();
+
+    Summary summary = bulkAccountOpener.open(new StringReader(csv), results);
+
+    assertThat(summary).isEqualTo(new Summary(6, 3, 3));
+    assertThat(results.toString().lines().toList()).satisfiesExactly(
+        line -> assertThat(line).isEqualTo("line,account_number,status,message"),
+        line -> assertThat(line).isEqualTo("2,0000006,CREATED,"),
+        line -> assertThat(line).isEqualTo("3,0000007,CREATED,"),
+        line -> assertThat(line).startsWith("5,,REJECTED,口座名義は必須です。"),
+        line -> assertThat(line).startsWith("6,,REJECTED,パスワードは8文字以上"),
+        line -> assertThat(line).startsWith("7,,REJECTED,"),
+        line -> assertThat(line).isEqualTo("8,0000008,CREATED,"));
+
+    BankAccount quoted = bankAccountRepository.findById("0000007").orElseThrow();
+    assertThat(quoted.getAccountHolderName()).isEqualTo("佐藤, 花子");
+    assertThat(passwordEncoder.matches("Passw0rdX", quoted.getPassword())).isTrue();
+    assertThat(quoted.getBalance()).isZero();
+    assertThat(quoted.getRole()).isEqualTo(Role.ACCOUNT_USER);
+    assertThat(quoted.getLedgerSequence()).isEqualTo(1L);
+    assertThat(accountLogRepository.findAll())
+        .hasSize(3)
+        .allSatisfy(log -> {
+          assertThat(log.getAccountLogType()).isEqualTo(AccountLogType.OPEN);
+          assertThat(log.getAccountLogStatus()).isEqualTo(AccountLogStatus.SUCCESS);
+          assertThat(log.getSequenceNumber()).isEqualTo(1L);
+        })
+        .extracting(AccountLog::getAccountNumber)
+        .containsExactlyInAnyOrder("0000006", "0000007", "0000008");
+  }
+
+  @Test
+  void 一括開設_異常系_上限を超えた行は開設せずに理由を返すこと() throws Exception {
+    StringBuilder csv = new StringBuilder();
+    for (int i = 1; i <= 8; i++) {
+      csv.append("テスト氏名").append(i).append(",password").append(i).append('\n');
+    }
+    StringWriter results = new StringWriter();
+
+    Summary summary = bulkAccountOpener.open(new StringReader(csv.toString()), results);
+
+    assertThat(summary).isEqualTo(new Summary(8, 6, 2));
+    assertThat(results.toString().lines().skip(7).toList()).containsExactly(
+        "7,,REJECTED,1 回に開設できるのは 6 行までです。",
+        "8,,REJECTED,1 回に開設できるのは 6 行までです。");
+    assertThat(bankAccountRepository.count()).isEqualTo(7);
+  }
+
+  @Test
+  void 列の分割_正常系_クォートとエスケープを扱えること() {
+    assertThat(BulkAccountOpener.parseCsvLine("\"a,\"\"b\"\"\",c"))
+        .containsExactly("a,\"b\"", "c");
+    assertThat(BulkAccountOpener.parseCsvLine("a,,")).containsExactly("a", "", "");
+    assertThat(BulkAccountOpener.parseCsvLine("\"a,b")).isNull();
+  }
+}
@@ -0,0 +1,246 @@
+package com.example.BankApp.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "bankapp.outbox.enabled=true",
+    "bankapp.outbox.poll-interval=50ms",
+    "bankapp.outbox.gap-timeout=500ms",
+    "bankapp.outbox.file.enabled=true"})
+@ActiveProfiles("embedded")
+class OutboxRelayTest {
+
+  private static final String PAYER = "0000001";
+  private static final String EMPTY = "0000002";
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir
+  static Path outboxDir;
+
+  @DynamicPropertySource
+  static void outboxFile(DynamicPropertyRegistry registry) {
+    registry.add("bankapp.outbox.file.path",
+        () -> outboxDir.resolve("account-events.jsonl").toString());
+  }
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private OutboxWriter outboxWriter;
+
+  @Autowired
+  private Recorder recorder;
+
+  @Autowired
+  private FlakySubscriber flakySubscriber;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.saveAll(List.of(
+        new BankAccount(PAYER, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER),
+        new BankAccount(EMPTY, "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER)));
+    recorder.events.clear();
+    flakySubscriber.events.clear();
+    Files.deleteIfExists(outboxDir.resolve("account-events.jsonl"));
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+        "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+  }
+
+  // 組み込み DB は他のテストクラスと共有するため、配信し終えてから口座を消す
+  @AfterEach
+  void tearDown() {
+    flakySubscriber.failing.set(false);
+    await().atMost(TIMEOUT).untilAsserted(() ->
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Long.class))
+            .isZero());
+    SecurityContextHolder.clearContext();
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+  }
+
+  @Test
+  void 配信_正常系_成功した取引を口座ごとの順にすべての配信先へ届け送信箱から削除すること() throws Exception {
+    bankAccountService.deposit(PAYER, new AmountRequest(500));
+    bankAccountService.withdraw(PAYER, new AmountRequest(300));
+    assertThatThrownBy(() -> bankAccountService.withdraw(PAYER, new AmountRequest(5000)))
+        .isSameAs(BankOperationException.INSUFFICIENT_BALANCE);
+    bankAccountService.closeAccount(EMPTY);
+
+    await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.events).hasSize(3));
+    assertThat(recorder.events)
+        .extracting(OutboxEvent::accountNumber, OutboxEvent::type, OutboxEvent::amount,
+            OutboxEvent::balanceAfterTransaction)
+        .containsExactly(
+            tuple(PAYER, AccountLogType.DEPOSIT, 500, 1500),
+            tuple(PAYER, AccountLogType.WITHDRAW, 300, 1200),
+            tuple(EMPTY, AccountLogType.CLOSE, 0, 0));
+    assertThat(recorder.events).extracting(OutboxEvent::accountLogId)
+        .containsExactlyElementsOf(accountLogRepository.findAll().stream()
+            .filter(log -> log.getAccountLogStatus() == AccountLogStatus.SUCCESS)
+            .sorted((a, b) -> a.getTimestamp().compareTo(b.getTimestamp()))
+            .map(AccountLog::getAccountLogId)
+            .toList());
+
+    await().atMost(TIMEOUT).untilAsserted(() -> assertThat(flakySubscriber.events).hasSize(3));
+    List<String> lines = Files.readAllLines(outboxDir.resolve("account-events.jsonl"));
+    assertThat(lines).hasSize(3);
+    assertThat(lines.get(0))
+        .contains("\"accountLogId\":\"" + recorder.events.get(0).accountLogId() + "\"")
+        .contains("\"type\":\"DEPOSIT\"");
+  }
+
+  @Test
+  void 配信_異常系_受け取りに失敗した配信先には同じイベントを渡し直し他の配信先は先へ進むこと() {
+    double failuresBefore = meterRegistry.counter("bankapp.outbox.delivery-failures",
+        "subscriber", FlakySubscriber.NAME).count();
+    flakySubscriber.failing.set(true);
+
+    bankAccountService.deposit(PAYER, new AmountRequest(100));
+    bankAccountService.deposit(PAYER, new AmountRequest(200));
+
+    await().atMost(TIMEOUT).untilAsserted(() -> {
+      assertThat(recorder.events).hasSize(2);
+      assertThat(meterRegistry.counter("bankapp.outbox.delivery-failures",
+          "subscriber", FlakySubscriber.NAME).count()).isGreaterThan(failuresBefore);
+    });
+    assertThat(flakySubscriber.events).isEmpty();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Long.class))
+        .isEqualTo(2);
+
+    flakySubscriber.failing.set(false);
+
+    await().atMost(TIMEOUT).untilAsserted(() ->
+        assertThat(flakySubscriber.events).extracting(OutboxEvent::amount)
+            .containsExactly(100, 200));
+    assertThat(recorder.events).hasSize(2);
+  }
+
+  @Test
+  void 配信_正常系_ロールバックで生じた欠番はgap_timeoutを過ぎてから読み飛ばすこと() {
+    // 採番済みの event_id をロールバックして欠番を作る
+    transactionTemplate.executeWithoutResult(status -> {
+      outboxWriter.append(AccountLog.builder()
+          .accountLogId(UUID.randomUUID().toString())
+          .accountNumber(PAYER)
+          .accountLogType(AccountLogType.DEPOSIT)
+          .amount(999)
+          .timestamp(LocalDateTime.now())
+          .accountLogStatus(AccountLogStatus.SUCCESS)
+          .build());
+      status.setRollbackOnly();
+    });
+    long before = System.nanoTime();
+
+    bankAccountService.deposit(PAYER, new AmountRequest(100));
+
+    await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.events).hasSize(1));
+    assertThat(Duration.ofNanos(System.nanoTime() - before)).isGreaterThan(Duration.ofMillis(400));
+    assertThat(recorder.events.get(0).amount()).isEqualTo(100);
+  }
+
+  @TestConfiguration
+  static class SubscriberConfig {
+
+    @Bean
+    Recorder recorder() {
+      return new Recorder();
+    }
+
+    @Bean
+    FlakySubscriber flakySubscriber() {
+      return new FlakySubscriber();
+    }
+  }
+
+  // 同じプロセスのリスナーとして受け取る
+  static class Recorder {
+
+    final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    void on(OutboxEvent event) {
+      events.add(event);
+    }
+  }
+
+  // failing の間は受け取りに失敗する配信先
+  static class FlakySubscriber implements OutboxSubscriber {
+
+    static final String NAME = "flaky";
+
+    final AtomicBoolean failing = new AtomicBoolean();
+    final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> batch) throws IOException {
+      if (failing.get()) {
+        throw new IOException("配信先が停止しています");
+      }
+      events.addAll(batch);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.BankApp.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.StackWalker.StackFrame;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptivePoolSizerTest {
+
+  private static final long MILLIS = 1_000_000L;
+
+  private PoolProperties.Adaptive properties;
+
+  @BeforeEach
+  void setup() {
+    properties = new PoolProperties.Adaptive();
+    properties.setMinSize(10);
+    properties.setMaxSize(30);
+    properties.setStep(2);
+    properties.setAcquireWaitHigh(Duration.ofMillis(20));
+    properties.setAcquireWaitLow(Duration.ofMillis(1));
+    properties.setDbLatencyHigh(Duration.ofMillis(200));
+  }
+
+  @Test
+  void プールサイズ調整_接続待ちが長くDBに余裕がある場合は増えること() {
+    int next = AdaptivePoolSizer.nextPoolSize(properties, 20, 50 * MILLIS, 10 * MILLIS, 5, 0);
+
+    assertThat(next).isEqualTo(22);
+  }
+
+  @Test
+  void プールサイズ調整_DBの応答が遅い場合は接続待ちがあっても増えないこと() {
+    int next = AdaptivePoolSizer.nextPoolSize(properties, 20, 50 * MILLIS, 500 * MILLIS, 5, 0);
+
+    assertThat(next).isEqualTo(20);
+  }
+
+  @Test
+  void プールサイズ調整_接続待ちが無く空きコネクションが多い場合は減ること() {
+    int next = AdaptivePoolSizer.nextPoolSize(properties, 20, 0, 10 * MILLIS, 0, 12);
+
+    assertThat(next).isEqualTo(18);
+  }
+
+  @Test
+  void プールサイズ調整_上限と下限を超えないこと() {
+    assertThat(AdaptivePoolSizer.nextPoolSize(properties, 30, 50 * MILLIS, 10 * MILLIS, 5, 0))
+        .isEqualTo(30);
+    assertThat(AdaptivePoolSizer.nextPoolSize(properties, 10, 0, 10 * MILLIS, 0, 10))
+        .isEqualTo(10);
+  }
+
+  @Test
+  void 保持者の特定_CGLIBプロキシのクラス名は元のクラス名で返されること() {
+    assertThat(ConnectionHolderTracker.simpleClassName(
+        "com.example.BankApp.service.BankAccountService$$SpringCGLIB$$0"))
+        .isEqualTo("BankAccountService");
+  }
+
+  @Test
+  void 保持者の特定_DataSourceのラッパーのフレームは飛ばしてサービスのメソッドを返すこと() {
+    Stream<StackFrame> frames = Stream.of(
+        frame("com.example.BankApp.pool.ConnectionHolderTracker$1", "getConnection"),
+        frame("com.example.BankApp.metrics.SqlProfilingDataSource", "getConnection"),
+        frame("com.example.BankApp.sharding.ShardRoutingDataSource", "getConnection"),
+        frame("com.example.BankApp.bulkhead.BulkheadDataSource", "getConnection"),
+        frame("org.springframework.orm.jpa.JpaTransactionManager", "doBegin"),
+        frame("com.example.BankApp.sharding.ShardKeyInterceptor", "invoke"),
+        frame("com.example.BankApp.service.BankAccountService$$SpringCGLIB$$0", "deposit"));
+
+    assertThat(ConnectionHolderTracker.callerMethod(frames))
+        .isEqualTo("BankAccountService.deposit");
+  }
+
+  private static StackFrame frame(String className, String methodName) {
+    StackFrame frame = mock(StackFrame.class);
+    when(frame.getClassName()).thenReturn(className);
+    when(frame.getMethodName()).thenReturn(methodName);
+    return frame;
+  }
+}
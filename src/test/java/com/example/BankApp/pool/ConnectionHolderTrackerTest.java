@@ -0,0 +1,123 @@
+package com.example.BankApp.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.metrics.SqlProfilingDataSource;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = "bankapp.pool.leak-detection-threshold=1ms")
+@ActiveProfiles("embedded")
+@WithMockUser(username = ConnectionHolderTrackerTest.ACCOUNT)
+class ConnectionHolderTrackerTest {
+
+  static final String ACCOUNT = "0000001";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private ConnectionHolderTracker connectionHolderTracker;
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER));
+  }
+
+  @AfterEach
+  void tearDown() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+  }
+
+  @Test
+  void 保持者の記録_正常系_他のDataSourceのラッパーより外側で記録すること() {
+    assertThat(dataSource.getClass().getEnclosingClass())
+        .isEqualTo(ConnectionHolderTracker.class);
+    assertThat(((DelegatingDataSource) dataSource).getTargetDataSource())
+        .isInstanceOf(SqlProfilingDataSource.class);
+  }
+
+  @Test
+  void 保持者の記録_正常系_ラッパーを通して取得したコネクションの保持者はサービスのメソッドになること()
+      throws Exception {
+    ExecutorService executor = new DelegatingSecurityContextExecutorService(
+        Executors.newSingleThreadExecutor());
+    try {
+      Future<?> deposit = new TransactionTemplate(transactionManager).execute(status -> {
+        // 口座の行をロックして、入金がコネクションを持ったまま待つ状態にする
+        jdbcTemplate.queryForObject(
+            "SELECT balance FROM bank_account WHERE account_number = ? FOR UPDATE",
+            Integer.class, ACCOUNT);
+        Future<?> future = executor.submit(
+            () -> bankAccountService.deposit(ACCOUNT, new AmountRequest(100)));
+        for (int i = 0; i < 100 && leaks("BankAccountService.deposit") == 0; i++) {
+          connectionHolderTracker.reportLongHeldConnections();
+          sleep();
+        }
+        return future;
+      });
+      deposit.get();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(leaks("BankAccountService.deposit")).isEqualTo(1);
+  }
+
+  private double leaks(String method) {
+    var counter = meterRegistry.find("bankapp.pool.connection.leaks").tag("method", method)
+        .counter();
+    return counter == null ? 0 : counter.count();
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(50);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
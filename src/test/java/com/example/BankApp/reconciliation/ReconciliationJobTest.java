@@ -0,0 +1,134 @@
+package com.example.BankApp.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.reconciliation.Discrepancy.Type;
+import com.example.BankApp.reconciliation.ReconciliationProgress.Status;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = {
+    "bankapp.reconciliation.range-size=4",
+    "bankapp.reconciliation.parallelism=3"})
+@ActiveProfiles("embedded")
+class ReconciliationJobTest {
+
+  private static final int ACCOUNTS = 25;
+
+  @TempDir
+  static Path reportDir;
+
+  @DynamicPropertySource
+  static void reportDir(DynamicPropertyRegistry registry) {
+    registry.add("bankapp.reconciliation.report-dir", () -> reportDir.toString());
+  }
+
+  @Autowired
+  private ReconciliationJob reconciliationJob;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    List<BankAccount> accounts = new ArrayList<>();
+    List<AccountLog> logs = new ArrayList<>();
+    for (int i = 1; i <= ACCOUNTS; i++) {
+      String accountNumber = String.format("%07d", i);
+      // OPEN → 入金 1000 → 出金 i → 残高不足の出金（失敗）
+      int balance = 1000 - i;
+      accounts.add(new BankAccount(accountNumber, "encoded", "テスト氏名", balance, true,
+          Role.ACCOUNT_USER, 3));
+      logs.add(log(accountNumber, AccountLogType.OPEN, 0, 0, 1, AccountLogStatus.SUCCESS));
+      logs.add(log(accountNumber, AccountLogType.DEPOSIT, 1000, 1000, 2,
+          AccountLogStatus.SUCCESS));
+      logs.add(log(accountNumber, AccountLogType.WITHDRAW, i, balance, 3,
+          AccountLogStatus.SUCCESS));
+      logs.add(log(accountNumber, AccountLogType.WITHDRAW, 5000, balance, 3,
+          AccountLogStatus.FAILED));
+    }
+    bankAccountRepository.saveAll(accounts);
+    accountLogRepository.saveAll(logs);
+  }
+
+  @Test
+  void 突き合わせ_正常系_残高と取引履歴が一致していれば不一致がないこと() throws Exception {
+    List<Discrepancy> discrepancies = reconciliationJob.run();
+
+    assertThat(discrepancies).isEmpty();
+    ReconciliationProgress progress = reconciliationJob.progress();
+    assertThat(progress.status()).isEqualTo(Status.COMPLETED);
+    assertThat(progress.accountsChecked()).isEqualTo(ACCOUNTS);
+    assertThat(progress.rangesChecked()).isEqualTo(7);
+    assertThat(Files.readAllLines(Path.of(progress.reportFile())))
+        .containsExactly("account_number,type,expected,actual");
+  }
+
+  @Test
+  void 突き合わせ_異常系_残高や取引履歴の食い違いをレポートに書き出すこと() throws Exception {
+    // 残高だけが書き換えられた口座
+    BankAccount tampered = bankAccountRepository.findById("0000005").orElseThrow();
+    tampered.setBalance(tampered.getBalance() + 100);
+    bankAccountRepository.save(tampered);
+    // 残高に反映済みの最後の取引履歴が欠けている口座
+    accountLogRepository.findByAccountNumberOrderByTimestampDesc("0000020").stream()
+        .filter(l -> l.getSequenceNumber() == 3
+            && l.getAccountLogStatus() == AccountLogStatus.SUCCESS)
+        .forEach(accountLogRepository::delete);
+
+    List<Discrepancy> discrepancies = reconciliationJob.run();
+
+    assertThat(discrepancies).containsExactly(
+        new Discrepancy("0000005", Type.BALANCE_NOT_EQUAL_TO_LOG_TOTAL, 995, 1095),
+        new Discrepancy("0000005", Type.BALANCE_NOT_EQUAL_TO_LATEST_LOG, 995, 1095),
+        new Discrepancy("0000020", Type.BALANCE_NOT_EQUAL_TO_LOG_TOTAL, 1000, 980),
+        new Discrepancy("0000020", Type.LATEST_LOG_MISSING, 3, 980));
+    ReconciliationProgress progress = reconciliationJob.progress();
+    assertThat(progress.discrepancies()).isEqualTo(4);
+    assertThat(progress.accountsChecked()).isEqualTo(ACCOUNTS);
+    assertThat(Files.readAllLines(Path.of(progress.reportFile()))).containsExactly(
+        "account_number,type,expected,actual",
+        "0000005,BALANCE_NOT_EQUAL_TO_LOG_TOTAL,995,1095",
+        "0000005,BALANCE_NOT_EQUAL_TO_LATEST_LOG,995,1095",
+        "0000020,BALANCE_NOT_EQUAL_TO_LOG_TOTAL,1000,980",
+        "0000020,LATEST_LOG_MISSING,3,980");
+  }
+
+  private static AccountLog log(String accountNumber, AccountLogType type, int amount,
+      int balanceAfter, long sequence, AccountLogStatus status) {
+    return AccountLog.builder()
+        .accountLogId(UUID.randomUUID().toString())
+        .accountNumber(accountNumber)
+        .accountLogType(type)
+        .amount(amount)
+        .balanceAfterTransaction(balanceAfter)
+        .timestamp(LocalDateTime.now())
+        .accountLogStatus(status)
+        .sequenceNumber(sequence)
+        .build();
+  }
+}
@@ -0,0 +1,156 @@
+package com.example.BankApp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.AdminUser;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 各リポジトリのメソッドが発行する SQL の実行計画を、マイグレーションで作成したスキーマ（H2）に対して確認します。
+ * テーブル全体の走査（tableScan）にならず、想定したインデックスか主キーで検索されることを検証します。
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class QueryPlanTest {
+
+  private static final List<String> STATEMENTS = new ArrayList<>();
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private AdminUserRepository adminUserRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    adminUserRepository.deleteAll();
+    for (int i = 1; i <= 20; i++) {
+      String accountNumber = String.format("%07d", i);
+      bankAccountRepository.save(
+          new BankAccount(accountNumber, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER));
+      for (int j = 0; j < 5; j++) {
+        accountLogRepository.save(AccountLog.builder()
+            .accountLogId(UUID.randomUUID().toString())
+            .accountNumber(accountNumber)
+            .accountLogType(j % 2 == 0 ? AccountLogType.DEPOSIT : AccountLogType.WITHDRAW)
+            .amount(100)
+            .balanceAfterTransaction(1000)
+            .timestamp(LocalDateTime.now().minusDays(j))
+            .accountLogStatus(AccountLogStatus.SUCCESS)
+            .build());
+      }
+    }
+    adminUserRepository.save(
+        new AdminUser("admin001", "encoded", "管理者", AdminUser.Role.ADMIN));
+    jdbcTemplate.execute("ANALYZE");
+    STATEMENTS.clear();
+  }
+
+  @Test
+  void 取引履歴取得_正常系_口座番号と日時のインデックスで検索されること() {
+    accountLogRepository.findByAccountNumberOrderByTimestampDesc("0000001");
+
+    assertThat(explainLastQuery("0000001"))
+        .contains("IDX_ACCOUNT_LOG_ACCOUNT_NUMBER_TIMESTAMP")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void 取引履歴取得_正常系_取引タイプ指定時は口座番号と取引タイプのインデックスで検索されること() {
+    accountLogRepository.findByAccountNumberAndAccountLogTypeOrderByTimestampDesc(
+        "0000001", AccountLogType.DEPOSIT);
+
+    assertThat(explainLastQuery("0000001", "DEPOSIT"))
+        .contains("IDX_ACCOUNT_LOG_ACCOUNT_NUMBER_TYPE_TIMESTAMP")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void 取引履歴取得_正常系_スナップショット以降の再生は口座番号と連番のインデックスで検索されること() {
+    accountLogRepository.findByAccountNumberAndSequenceNumberGreaterThanOrderBySequenceNumber(
+        "0000001", 0);
+
+    assertThat(explainLastQuery("0000001", 0))
+        .contains("IDX_ACCOUNT_LOG_ACCOUNT_NUMBER_SEQUENCE")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void 口座取得_正常系_行ロック付きの取得は主キーで検索されること() {
+    transactionTemplate.executeWithoutResult(status ->
+        bankAccountRepository.findForUpdateByAccountNumber("0000001"));
+
+    assertThat(explainLastQuery("0000001"))
+        .contains("PRIMARY_KEY")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void 口座取得_正常系_IDでの取得は主キーで検索されること() {
+    bankAccountRepository.findById("0000001");
+
+    assertThat(explainLastQuery("0000001"))
+        .contains("PRIMARY_KEY")
+        .doesNotContain("tableScan");
+  }
+
+  @Test
+  void 管理者取得_正常系_管理者IDでの取得は主キーで検索されること() {
+    adminUserRepository.findByAdminId("admin001");
+
+    assertThat(explainLastQuery("admin001"))
+        .contains("PRIMARY_KEY")
+        .doesNotContain("tableScan");
+  }
+
+  private String explainLastQuery(Object... args) {
+    assertThat(STATEMENTS).isNotEmpty();
+    String sql = STATEMENTS.get(STATEMENTS.size() - 1);
+    return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+  }
+
+  @TestConfiguration
+  static class StatementCaptureConfig {
+
+    // Hibernate が発行する SQL を記録する
+    @Bean
+    HibernatePropertiesCustomizer statementCapture() {
+      StatementInspector inspector = sql -> {
+        STATEMENTS.add(sql);
+        return sql;
+      };
+      return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+  }
+}
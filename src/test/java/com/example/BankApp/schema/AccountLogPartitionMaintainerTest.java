@@ -0,0 +1,33 @@
+package com.example.BankApp.schema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AccountLogPartitionMaintainerTest {
+
+  @Test
+  void パーティション追加_正常系_不足している月のパーティションをpmaxの分割で追加すること() {
+    String ddl = AccountLogPartitionMaintainer.reorganizeDdl(
+        List.of("p_before_202501", "p202611", "p202612", "pmax"), YearMonth.of(2026, 12), 2);
+
+    assertThat(ddl).isEqualTo("ALTER TABLE account_log REORGANIZE PARTITION pmax INTO ("
+        + "PARTITION p202701 VALUES LESS THAN ('2027-02-01'), "
+        + "PARTITION p202702 VALUES LESS THAN ('2027-03-01'), "
+        + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+  }
+
+  @Test
+  void パーティション追加_正常系_既に用意されている場合は何もしないこと() {
+    assertThat(AccountLogPartitionMaintainer.reorganizeDdl(
+        List.of("p202610", "p202611", "pmax"), YearMonth.of(2026, 10), 1)).isNull();
+  }
+
+  @Test
+  void パーティション追加_正常系_パーティション分割されていないテーブルには何もしないこと() {
+    assertThat(AccountLogPartitionMaintainer.reorganizeDdl(
+        List.of(), YearMonth.of(2026, 10), 3)).isNull();
+  }
+}
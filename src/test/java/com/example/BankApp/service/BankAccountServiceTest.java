@@ -3,6 +3,7 @@ package com.example.BankApp.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -10,14 +11,21 @@ import com.example.BankApp.dto.AccountCreationRequest;
 import com.example.BankApp.dto.AdminBankAccountResponse;
 import com.example.BankApp.dto.AmountRequest;
 import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.exception.BankOperationException;
 import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.ledger.BalanceShards;
+import com.example.BankApp.ledger.EventSourcedLedger;
 import com.example.BankApp.model.AccountLog;
 import com.example.BankApp.model.AccountLog.AccountLogStatus;
 import com.example.BankApp.model.AccountLog.AccountLogType;
 import com.example.BankApp.model.BankAccount;
 import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.outbox.OutboxWriter;
 import com.example.BankApp.repository.AccountLogRepository;
 import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.sharding.ShardRouter;
+import com.example.BankApp.stream.BalanceStreamRegistry;
+import com.example.BankApp.velocity.VelocityTracker;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +54,18 @@ class BankAccountServiceTest {
   private BankAccountRepository bankAccountRepository;
   @Mock
   private AccountLogRepository accountLogRepository;
+  @Mock
+  private EventSourcedLedger eventSourcedLedger;
+  @Mock
+  private BalanceShards balanceShards;
+  @Mock
+  private OutboxWriter outboxWriter;
+  @Mock
+  private BalanceStreamRegistry balanceStreamRegistry;
+  @Mock
+  private VelocityTracker velocityTracker;
+  @Mock
+  private ShardRouter shardRouter;
 
   @InjectMocks
   private BankAccountService bankAccountService;
@@ -179,7 +199,7 @@ class BankAccountServiceTest {
         true, Role.ACCOUNT_USER);
     AmountRequest amountRequest = new AmountRequest(500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         Optional.of(existingAccount));
     when(bankAccountRepository.save(any(BankAccount.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
@@ -210,7 +230,7 @@ class BankAccountServiceTest {
     String accountNumber = "0000001";
     AmountRequest amountRequest = new AmountRequest(500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(java.util.Optional.empty());
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(java.util.Optional.empty());
 
     Exception e = assertThrows(ResourceNotFoundException.class, () -> {
       bankAccountService.deposit(accountNumber, amountRequest);
@@ -226,10 +246,10 @@ class BankAccountServiceTest {
         false, Role.ACCOUNT_USER);
     AmountRequest amountRequest = new AmountRequest(500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         java.util.Optional.of(existingAccount));
 
-    Exception e = assertThrows(IllegalArgumentException.class, () -> {
+    Exception e = assertThrows(BankOperationException.class, () -> {
       bankAccountService.deposit(accountNumber, amountRequest);
     });
 
@@ -243,7 +263,7 @@ class BankAccountServiceTest {
         true, Role.ACCOUNT_USER);
     AmountRequest amountRequest = new AmountRequest(500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         Optional.of(existingAccount));
     when(bankAccountRepository.save(any(BankAccount.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
@@ -279,22 +299,70 @@ class BankAccountServiceTest {
         true, Role.ACCOUNT_USER);
     AmountRequest amountRequest = new AmountRequest(1500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         java.util.Optional.of(existingAccount));
 
-    Exception e = assertThrows(IllegalArgumentException.class, () -> {
+    Exception e = assertThrows(BankOperationException.class, () -> {
       bankAccountService.withdraw(accountNumber, amountRequest);
     });
 
     assertThat(e).hasMessageContaining("残高が不足しています。");
   }
 
+  @Test
+  void 口座出金_異常系_残高不足の例外はスタックトレースを持たない共有インスタンスであること() {
+    String accountNumber = "0000001";
+    BankAccount existingAccount = new BankAccount(accountNumber, "password", "テスト氏名", 1000,
+        true, Role.ACCOUNT_USER);
+
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
+        Optional.of(existingAccount));
+
+    Exception e = assertThrows(BankOperationException.class, () -> {
+      bankAccountService.withdraw(accountNumber, new AmountRequest(1500));
+    });
+
+    assertThat(e).isSameAs(BankOperationException.INSUFFICIENT_BALANCE);
+    assertThat(e.getStackTrace()).isEmpty();
+    e.addSuppressed(new RuntimeException());
+    assertThat(e.getSuppressed()).isEmpty();
+
+    ArgumentCaptor<AccountLog> transactionCaptor = ArgumentCaptor.forClass(AccountLog.class);
+    verify(accountLogRepository).save(transactionCaptor.capture());
+    assertThat(transactionCaptor.getValue().getAccountLogStatus()).isEqualTo(
+        AccountLogStatus.FAILED);
+  }
+
+  @Test
+  void 口座出金_異常系_出金の上限を超える場合は残高を変えず失敗を記録してエラーが返されること() {
+    String accountNumber = "0000001";
+    BankAccount existingAccount = new BankAccount(accountNumber, "password", "テスト氏名", 1000,
+        true, Role.ACCOUNT_USER);
+
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
+        Optional.of(existingAccount));
+    when(velocityTracker.limitExceeded(accountNumber, 500)).thenReturn(true);
+
+    Exception e = assertThrows(BankOperationException.class, () -> {
+      bankAccountService.withdraw(accountNumber, new AmountRequest(500));
+    });
+
+    assertThat(e).isSameAs(BankOperationException.VELOCITY_LIMIT_EXCEEDED);
+    assertThat(existingAccount.getBalance()).isEqualTo(1000);
+    verify(bankAccountRepository, never()).save(any(BankAccount.class));
+    ArgumentCaptor<AccountLog> transactionCaptor = ArgumentCaptor.forClass(AccountLog.class);
+    verify(accountLogRepository).save(transactionCaptor.capture());
+    assertThat(transactionCaptor.getValue().getAccountLogStatus()).isEqualTo(
+        AccountLogStatus.FAILED);
+    assertThat(transactionCaptor.getValue().getBalanceAfterTransaction()).isEqualTo(1000);
+  }
+
   @Test
   void 口座出金_異常系_口座が存在しない場合はエラーが返されること() {
     String accountNumber = "0000001";
     AmountRequest amountRequest = new AmountRequest(500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(java.util.Optional.empty());
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(java.util.Optional.empty());
 
     Exception e = assertThrows(ResourceNotFoundException.class, () -> {
       bankAccountService.withdraw(accountNumber, amountRequest);
@@ -310,10 +378,10 @@ class BankAccountServiceTest {
         false, Role.ACCOUNT_USER);
     AmountRequest amountRequest = new AmountRequest(500);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         java.util.Optional.of(existingAccount));
 
-    Exception e = assertThrows(IllegalArgumentException.class, () -> {
+    Exception e = assertThrows(BankOperationException.class, () -> {
       bankAccountService.withdraw(accountNumber, amountRequest);
     });
 
@@ -326,7 +394,7 @@ class BankAccountServiceTest {
     BankAccount existingAccount = new BankAccount(accountNumber, "password", "テスト氏名", 0, true,
         Role.ACCOUNT_USER);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         Optional.of(existingAccount));
     when(bankAccountRepository.save(any(BankAccount.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
@@ -352,7 +420,7 @@ class BankAccountServiceTest {
   void 口座解約_異常系_口座が存在しない場合はエラーが返されること() {
     String accountNumber = "0000001";
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(java.util.Optional.empty());
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(java.util.Optional.empty());
 
     Exception e = assertThrows(ResourceNotFoundException.class, () -> {
       bankAccountService.closeAccount(accountNumber);
@@ -367,10 +435,10 @@ class BankAccountServiceTest {
     BankAccount existingAccount = new BankAccount(accountNumber, "password", "テスト氏名", 1000,
         true, Role.ACCOUNT_USER);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         java.util.Optional.of(existingAccount));
 
-    Exception e = assertThrows(IllegalArgumentException.class, () -> {
+    Exception e = assertThrows(BankOperationException.class, () -> {
       bankAccountService.closeAccount(accountNumber);
     });
 
@@ -383,10 +451,10 @@ class BankAccountServiceTest {
     BankAccount existingAccount = new BankAccount(accountNumber, "password", "テスト氏名", 0, false,
         Role.ACCOUNT_USER);
 
-    when(bankAccountRepository.findById(accountNumber)).thenReturn(
+    when(bankAccountRepository.findForUpdateByAccountNumber(accountNumber)).thenReturn(
         java.util.Optional.of(existingAccount));
 
-    Exception e = assertThrows(IllegalArgumentException.class, () -> {
+    Exception e = assertThrows(BankOperationException.class, () -> {
       bankAccountService.closeAccount(accountNumber);
     });
 
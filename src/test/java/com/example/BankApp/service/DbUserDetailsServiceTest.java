@@ -10,6 +10,7 @@ import com.example.BankApp.model.AdminUser;
 import com.example.BankApp.model.BankAccount;
 import com.example.BankApp.repository.AdminUserRepository;
 import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.sharding.ShardRouter;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +29,9 @@ class DbUserDetailsServiceTest {
   @Mock
   BankAccountRepository bankAccountRepository;
 
+  @Mock
+  ShardRouter shardRouter;
+
   @InjectMocks
   DbUserDetailsService service;
 
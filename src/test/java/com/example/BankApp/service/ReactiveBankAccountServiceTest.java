@@ -0,0 +1,193 @@
+package com.example.BankApp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.exception.BankOperationException;
+import com.example.BankApp.exception.ResourceNotFoundException;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+// R2DBC と JDBC で同じ組み込み DB を開き、JDBC でスキーマの作成と結果の確認を行う
+class ReactiveBankAccountServiceTest {
+
+  private static final String ACCOUNT = "0000001";
+  private static final String JDBC_URL =
+      "jdbc:h2:mem:bankapp_reactive;MODE=MySQL;DB_CLOSE_DELAY=-1";
+  private static final String R2DBC_URL =
+      "r2dbc:h2:mem:///bankapp_reactive;MODE=MySQL;DB_CLOSE_DELAY=-1";
+  private static final Context OWNER = ReactiveSecurityContextHolder.withAuthentication(
+      new TestingAuthenticationToken(ACCOUNT, null));
+
+  private static JdbcTemplate jdbcTemplate;
+  private static ConnectionFactory connectionFactory;
+
+  private ReactiveBankAccountService reactiveBankAccountService;
+
+  @BeforeAll
+  static void migrate() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(JDBC_URL, "sa", "");
+    Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration/h2")
+        .load()
+        .migrate();
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(R2DBC_URL)
+        .mutate()
+        .option(ConnectionFactoryOptions.USER, "sa")
+        .build());
+  }
+
+  @BeforeEach
+  void setup() {
+    jdbcTemplate.update("DELETE FROM account_log");
+    jdbcTemplate.update("DELETE FROM bank_account");
+    jdbcTemplate.update("""
+        INSERT INTO bank_account (account_number, password, account_holder_name, balance,
+                                  is_active, role, ledger_sequence)
+        VALUES (?, 'encoded', 'テスト氏名', 1000, TRUE, 'ACCOUNT_USER', 0)""", ACCOUNT);
+
+    reactiveBankAccountService = new ReactiveBankAccountService(
+        DatabaseClient.create(connectionFactory),
+        TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory)));
+  }
+
+  @Test
+  void 口座入金_正常系_残高が増え取引履歴が記録されること() {
+    StepVerifier.create(reactiveBankAccountService.deposit(ACCOUNT, new AmountRequest(500))
+            .contextWrite(OWNER))
+        .assertNext(response -> {
+          assertThat(response.getMessage()).isEqualTo("500円入金しました。");
+          assertThat(response.getBalance()).isEqualTo("1,500円");
+        })
+        .verifyComplete();
+
+    assertThat(account()).containsEntry("BALANCE", 1500).containsEntry("LEDGER_SEQUENCE", 1L);
+    assertThat(logs()).singleElement().satisfies(log -> {
+      assertThat(log).containsEntry("ACCOUNT_LOG_TYPE", "DEPOSIT");
+      assertThat(log).containsEntry("ACCOUNT_LOG_STATUS", "SUCCESS");
+      assertThat(log).containsEntry("BALANCE_AFTER_TRANSACTION", 1500);
+      assertThat(log).containsEntry("SEQUENCE_NUMBER", 1L);
+    });
+  }
+
+  @Test
+  void 口座出金_正常系_残高が足りていれば条件付きの更新で引き落とされること() {
+    StepVerifier.create(reactiveBankAccountService.withdraw(ACCOUNT, new AmountRequest(300))
+            .contextWrite(OWNER))
+        .assertNext(response -> {
+          assertThat(response.getMessage()).isEqualTo("300円出金しました。");
+          assertThat(response.getBalance()).isEqualTo("700円");
+        })
+        .verifyComplete();
+
+    assertThat(account()).containsEntry("BALANCE", 700).containsEntry("LEDGER_SEQUENCE", 1L);
+    assertThat(logs()).singleElement().satisfies(log -> {
+      assertThat(log).containsEntry("ACCOUNT_LOG_TYPE", "WITHDRAW");
+      assertThat(log).containsEntry("ACCOUNT_LOG_STATUS", "SUCCESS");
+      assertThat(log).containsEntry("BALANCE_AFTER_TRANSACTION", 700);
+    });
+  }
+
+  @Test
+  void 口座出金_異常系_残高不足の場合はエラーを返し失敗の取引履歴はコミットされること() {
+    StepVerifier.create(reactiveBankAccountService.withdraw(ACCOUNT, new AmountRequest(1001))
+            .contextWrite(OWNER))
+        .expectErrorMatches(e -> e == BankOperationException.INSUFFICIENT_BALANCE)
+        .verify();
+
+    // 条件付きの UPDATE が 0 件のため、残高と連番は変わらない
+    assertThat(account()).containsEntry("BALANCE", 1000).containsEntry("LEDGER_SEQUENCE", 0L);
+    assertThat(logs()).singleElement().satisfies(log -> {
+      assertThat(log).containsEntry("ACCOUNT_LOG_TYPE", "WITHDRAW");
+      assertThat(log).containsEntry("ACCOUNT_LOG_STATUS", "FAILED");
+      assertThat(log).containsEntry("AMOUNT", 1001);
+      assertThat(log).containsEntry("BALANCE_AFTER_TRANSACTION", 1000);
+    });
+  }
+
+  @Test
+  void 口座出金_異常系_口座保有者以外は残高を変更できないこと() {
+    StepVerifier.create(reactiveBankAccountService.withdraw(ACCOUNT, new AmountRequest(300))
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                new TestingAuthenticationToken("0000002", null))))
+        .expectError(AccessDeniedException.class)
+        .verify();
+
+    assertThat(account()).containsEntry("BALANCE", 1000);
+    assertThat(logs()).isEmpty();
+  }
+
+  @Test
+  void 取引履歴取得_正常系_新しい順に1件ずつ流れてくること() {
+    LocalDateTime now = LocalDateTime.of(2025, 4, 1, 10, 0);
+    insertLog("log-1", AccountLogType.OPEN, 0, now.minusMinutes(2));
+    insertLog("log-2", AccountLogType.DEPOSIT, 1000, now.minusMinutes(1));
+    insertLog("log-3", AccountLogType.WITHDRAW, 100, now);
+
+    StepVerifier.create(reactiveBankAccountService.getAccountLog(ACCOUNT, null)
+            .map(AccountLog::getAccountLogId)
+            .contextWrite(OWNER))
+        .expectNext("log-3", "log-2", "log-1")
+        .verifyComplete();
+
+    StepVerifier.create(reactiveBankAccountService.getAccountLog(ACCOUNT, AccountLogType.DEPOSIT)
+            .contextWrite(OWNER))
+        .assertNext(log -> {
+          assertThat(log.getAccountLogId()).isEqualTo("log-2");
+          assertThat(log.getAmount()).isEqualTo(1000);
+          assertThat(log.getTimestamp()).isEqualTo(now.minusMinutes(1));
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void 取引履歴取得_異常系_取引履歴が無い場合は404のエラーになること() {
+    StepVerifier.create(reactiveBankAccountService.getAccountLog(ACCOUNT, null)
+            .contextWrite(OWNER))
+        .expectErrorMatches(e -> e == ResourceNotFoundException.ACCOUNT_LOG_NOT_FOUND)
+        .verify();
+  }
+
+  private Map<String, Object> account() {
+    return jdbcTemplate.queryForMap(
+        "SELECT balance, ledger_sequence FROM bank_account WHERE account_number = ?", ACCOUNT);
+  }
+
+  private List<Map<String, Object>> logs() {
+    return jdbcTemplate.queryForList("""
+        SELECT account_log_type, account_log_status, amount, balance_after_transaction,
+               sequence_number
+        FROM account_log WHERE account_number = ?""", ACCOUNT);
+  }
+
+  private void insertLog(String id, AccountLogType type, int amount, LocalDateTime timestamp) {
+    jdbcTemplate.update("""
+        INSERT INTO account_log (account_log_id, account_number, account_log_type, amount,
+                                 balance_after_transaction, timestamp, account_log_status,
+                                 sequence_number)
+        VALUES (?, ?, ?, ?, 1000, ?, 'SUCCESS', 0)""",
+        id, ACCOUNT, type.name(), amount, timestamp);
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.BankApp.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.sharding.ShardingProperties.Shard;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ShardRouterTest {
+
+  @Test
+  void シャードの選択_正常系_口座番号をシャードの数で割った余りで選び数字でないキーはシャード0にすること() {
+    ShardRouter router = router(3);
+
+    assertThat(router.shardOf("0000001")).isEqualTo(1);
+    assertThat(router.shardOf("0000006")).isZero();
+    assertThat(router.shardOf("9999998")).isEqualTo(2);
+    assertThat(router.shardOf("admin001")).isZero();
+    assertThat(router(1).shardOf("0000001")).isZero();
+  }
+
+  @Test
+  void 採番_正常系_現在のシャードに置かれる番号のうち最大値より大きい最小の番号を返すこと() {
+    ShardRouter router = router(3);
+
+    for (int shard = 0; shard < 3; shard++) {
+      Integer previous = ShardContext.bind(shard);
+      try {
+        long first = router.nextAccountNumber(0);
+        long next = router.nextAccountNumber(first);
+        assertThat(router.shardOf(String.valueOf(first))).isEqualTo(shard);
+        assertThat(first).isBetween(1L, 3L);
+        assertThat(next).isEqualTo(first + 3);
+      } finally {
+        ShardContext.restore(previous);
+      }
+    }
+    // 無効な場合は最大値 + 1
+    assertThat(router(1).nextAccountNumber(41)).isEqualTo(42);
+  }
+
+  @Test
+  void 併合_正常系_シャードごとに並んだ結果を1つの順序に併合すること() {
+    List<List<String>> sorted = List.of(
+        List.of("0000009", "0000006", "0000003"),
+        List.of(),
+        List.of("0000008", "0000002"),
+        List.of("0000007"));
+
+    assertThat(ShardRouter.merge(sorted, Comparator.<String>reverseOrder()))
+        .containsExactly("0000009", "0000008", "0000007", "0000006", "0000003", "0000002");
+  }
+
+  private static ShardRouter router(int shards) {
+    ShardingProperties properties = new ShardingProperties();
+    properties.setEnabled(shards > 1);
+    for (int i = 1; i < shards; i++) {
+      properties.getShards().add(new Shard());
+    }
+    return new ShardRouter(properties, true);
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.BankApp.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.BankApp.schema.SchemaProperties;
+import com.example.BankApp.sharding.ShardingProperties.Shard;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class ShardingConfigTest {
+
+  @Test
+  void 起動_異常系_添字の形で指定した高頻度口座もシャーディングと同時には使えないこと() {
+    MockEnvironment environment = new MockEnvironment()
+        .withProperty("bankapp.ledger.hot-accounts[0]", "0000001");
+
+    assertThatThrownBy(() -> shardRouter(environment))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("bankapp.ledger.hot-accounts");
+  }
+
+  @Test
+  void 起動_正常系_高頻度口座を指定しなければシャーディングを有効にできること() {
+    assertThat(shardRouter(new MockEnvironment())).isNotNull();
+  }
+
+  private static ShardRouter shardRouter(MockEnvironment environment) {
+    ShardingProperties properties = new ShardingProperties();
+    properties.setEnabled(true);
+    properties.getShards().add(new Shard());
+    return new ShardingConfig().shardRouter(properties, new SchemaProperties(), environment);
+  }
+}
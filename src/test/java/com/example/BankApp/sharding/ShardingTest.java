@@ -0,0 +1,236 @@
+package com.example.BankApp.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.BankApp.dto.AccountCreationRequest;
+import com.example.BankApp.dto.AdminBankAccountResponse;
+import com.example.BankApp.dto.AmountRequest;
+import com.example.BankApp.dto.BankAccountResponse;
+import com.example.BankApp.interest.InterestAccrualJob;
+import com.example.BankApp.interest.InterestProgress;
+import com.example.BankApp.onboarding.BulkAccountOpener;
+import com.example.BankApp.onboarding.BulkAccountOpener.Summary;
+import com.example.BankApp.reconciliation.ReconciliationJob;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.service.BankAccountService;
+import com.example.BankApp.service.DbUserDetailsService;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// spring.datasource（bankapp）をシャード 0 とし、組み込み DB を 2 つ追加する
+@SpringBootTest(properties = {
+    "bankapp.sharding.enabled=true",
+    "bankapp.sharding.shards[0].url=" + ShardingTest.SHARD1_URL,
+    "bankapp.sharding.shards[0].username=sa",
+    "bankapp.sharding.shards[1].url=" + ShardingTest.SHARD2_URL,
+    "bankapp.sharding.shards[1].username=sa",
+    "bankapp.interest.chunk-size=1",
+    "bankapp.reconciliation.range-size=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ShardingTest {
+
+  static final String PRIMARY_URL =
+      "jdbc:h2:mem:bankapp;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+  static final String SHARD1_URL = "jdbc:h2:mem:bankapp_shard1;MODE=MySQL;DB_CLOSE_DELAY=-1";
+  static final String SHARD2_URL = "jdbc:h2:mem:bankapp_shard2;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+  @TempDir
+  static Path reportDir;
+
+  @DynamicPropertySource
+  static void reportDir(DynamicPropertyRegistry registry) {
+    registry.add("bankapp.reconciliation.report-dir", () -> reportDir.toString());
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BankAccountService bankAccountService;
+
+  @Autowired
+  private DbUserDetailsService dbUserDetailsService;
+
+  @Autowired
+  private BulkAccountOpener bulkAccountOpener;
+
+  @Autowired
+  private InterestAccrualJob interestAccrualJob;
+
+  @Autowired
+  private ReconciliationJob reconciliationJob;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  // シャードの中身を振り分けを通さずに確かめる
+  private final List<JdbcTemplate> shards = List.of(
+      jdbcTemplate(PRIMARY_URL),
+      jdbcTemplate(SHARD1_URL),
+      jdbcTemplate(SHARD2_URL));
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    for (JdbcTemplate shard : shards.subList(1, shards.size())) {
+      shard.update("DELETE FROM account_log");
+      shard.update("DELETE FROM bank_account");
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    setUp();
+  }
+
+  @Test
+  void 口座開設_正常系_口座番号で決まるシャードに口座と取引履歴を置き一覧は全シャードを降順に併合すること()
+      throws Exception {
+    for (int i = 0; i < 6; i++) {
+      bankAccountService.createAccount(new AccountCreationRequest("テスト氏名" + i, "password"));
+    }
+
+    List<String> numbers = bankAccountService.getAllAccountsForAdmin().stream()
+        .map(AdminBankAccountResponse::getAccountNumber)
+        .toList();
+    // シャードごとに採番しても口座番号は重ならず、すき間なく並ぶ
+    assertThat(numbers).containsExactly(
+        "0000006", "0000005", "0000004", "0000003", "0000002", "0000001");
+    for (int shard = 0; shard < shards.size(); shard++) {
+      int expected = shard;
+      assertThat(accountNumbers(shard, "bank_account"))
+          .as("shard %d", shard)
+          .hasSize(2)
+          .allMatch(n -> Long.parseLong(n) % 3 == expected);
+    }
+
+    BankAccountResponse deposited = bankAccountService.deposit("0000004", new AmountRequest(700));
+    assertThat(deposited.getBalance()).isEqualTo("700円");
+    bankAccountService.withdraw("0000004", new AmountRequest(200));
+    assertThat(bankAccountService.getBalance("0000004").getBalance()).isEqualTo("500円");
+    assertThat(shards.get(1).queryForObject(
+        "SELECT COUNT(*) FROM account_log WHERE account_number = '0000004'", Integer.class))
+        .isEqualTo(3);
+    assertThat(accountNumbers(0, "account_log")).doesNotContain("0000004");
+
+    mockMvc.perform(get("/accountLog/0000004"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3));
+    assertThat(dbUserDetailsService.loadUserByUsername("0000005").getUsername())
+        .isEqualTo("0000005");
+  }
+
+  @Test
+  void 入金_異常系_別のシャードのトランザクションの中からは呼び出せないこと() {
+    // 3 つのシャードに 1 つずつ開設する
+    for (int i = 0; i < 3; i++) {
+      bankAccountService.createAccount(new AccountCreationRequest("テスト氏名", "password"));
+    }
+    String onShard1 = "0000001";
+
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    assertThatThrownBy(() -> transaction.executeWithoutResult(status ->
+        bankAccountService.deposit(onShard1, new AmountRequest(100))))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(bankAccountService.getBalance(onShard1).getBalance()).isEqualTo("0円");
+  }
+
+  @Test
+  void 一括開設_正常系_シャードごとに採番して開設し口座番号で選んだシャードから読めること() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      bankAccountService.createAccount(new AccountCreationRequest("テスト氏名", "password"));
+    }
+    StringBuilder csv = new StringBuilder("accountHolderName,password\n");
+    for (int i = 0; i < 6; i++) {
+      csv.append("一括").append(i).append(",password").append(i).append('\n');
+    }
+
+    Summary summary = bulkAccountOpener.open(new StringReader(csv.toString()), new StringWriter());
+
+    assertThat(summary.created()).isEqualTo(6);
+    // 開設済みの口座と番号が重ならず、各シャードに 2 口座ずつ置く
+    assertThat(bankAccountService.getAllAccountsForAdmin())
+        .extracting(AdminBankAccountResponse::getAccountNumber)
+        .containsExactly("0000009", "0000008", "0000007", "0000006", "0000005", "0000004",
+            "0000003", "0000002", "0000001");
+    for (int shard = 0; shard < shards.size(); shard++) {
+      int expected = shard;
+      assertThat(accountNumbers(shard, "account_log"))
+          .hasSize(3)
+          .allMatch(n -> Long.parseLong(n) % 3 == expected);
+    }
+    for (int n = 4; n <= 9; n++) {
+      String accountNumber = String.format("%07d", n);
+      assertThat(bankAccountService.getBalance(accountNumber).getBalance()).isEqualTo("0円");
+      assertThat(dbUserDetailsService.loadUserByUsername(accountNumber).getUsername())
+          .isEqualTo(accountNumber);
+    }
+  }
+
+  @Test
+  void 利息入金_正常系_すべてのシャードの口座に入金し突き合わせも全シャードを確認すること() {
+    for (int i = 0; i < 6; i++) {
+      BankAccountResponse created = bankAccountService.createAccount(
+          new AccountCreationRequest("テスト氏名" + i, "password"));
+      // 2025 年は 365 日のため、既定の年利 0.1% の 1 日分は 10 円
+      bankAccountService.deposit(created.getAccountNumber(), new AmountRequest(3_650_000));
+    }
+
+    InterestProgress progress = interestAccrualJob.run(LocalDate.of(2025, 3, 31));
+
+    assertThat(progress.accountsCredited()).isEqualTo(6);
+    assertThat(progress.totalInterest()).isEqualTo(60);
+    for (int shard = 0; shard < shards.size(); shard++) {
+      assertThat(shards.get(shard).queryForObject(
+          "SELECT COUNT(*) FROM account_log WHERE account_log_type = 'INTEREST'", Integer.class))
+          .as("shard %d", shard)
+          .isEqualTo(2);
+    }
+    assertThat(bankAccountService.getBalance("0000005").getBalance()).isEqualTo("3,650,010円");
+
+    assertThat(reconciliationJob.run()).isEmpty();
+    assertThat(reconciliationJob.progress().accountsChecked()).isEqualTo(6);
+  }
+
+  private List<String> accountNumbers(int shard, String table) {
+    return shards.get(shard).queryForList(
+        "SELECT account_number FROM " + table, String.class);
+  }
+
+  private static JdbcTemplate jdbcTemplate(String url) {
+    return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+  }
+}
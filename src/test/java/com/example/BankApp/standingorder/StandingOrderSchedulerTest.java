@@ -0,0 +1,165 @@
+package com.example.BankApp.standingorder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+import com.example.BankApp.dto.StandingOrderRequest;
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.AccountLog.AccountLogType;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import com.example.BankApp.standingorder.StandingOrder.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "bankapp.standing-order.enabled=true",
+    "bankapp.standing-order.tick=50ms",
+    "bankapp.standing-order.retry-delay=200ms",
+    "bankapp.standing-order.max-attempts=2"})
+@ActiveProfiles("embedded")
+class StandingOrderSchedulerTest {
+
+  private static final String PAYER = "0000001";
+  private static final String PAYEE = "0000002";
+  private static final String CLOSED = "0000003";
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Autowired
+  private StandingOrderService standingOrderService;
+
+  @Autowired
+  private StandingOrderScheduler standingOrderScheduler;
+
+  @Autowired
+  private StandingOrderStore standingOrderStore;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("DELETE FROM standing_order");
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.saveAll(List.of(
+        new BankAccount(PAYER, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER),
+        new BankAccount(PAYEE, "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER),
+        new BankAccount(CLOSED, "encoded", "テスト氏名", 0, false, Role.ACCOUNT_USER)));
+  }
+
+  // 組み込み DB は他のテストクラスと共有するため、指示を残さない
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM standing_order");
+  }
+
+  @Test
+  void 振替_正常系_実行時刻になると1回だけ振り替えて次の回を予約すること() throws Exception {
+    LocalDateTime firstRunAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    StandingOrder order = standingOrderService.create(PAYER,
+        new StandingOrderRequest(Type.TRANSFER, PAYEE, 300, Duration.ofDays(1), firstRunAt));
+
+    await().atMost(TIMEOUT).untilAsserted(() ->
+        assertThat(balance(PAYEE)).isEqualTo(300));
+    Thread.sleep(300);
+
+    assertThat(balance(PAYER)).isEqualTo(700);
+    assertThat(balance(PAYEE)).isEqualTo(300);
+    assertThat(accountLogRepository.findAll())
+        .extracting(AccountLog::getAccountNumber, AccountLog::getAccountLogType,
+            AccountLog::getAccountLogStatus)
+        .containsExactlyInAnyOrder(
+            tuple(PAYER, AccountLogType.WITHDRAW, AccountLogStatus.SUCCESS),
+            tuple(PAYEE, AccountLogType.DEPOSIT, AccountLogStatus.SUCCESS));
+    assertThat(standingOrderService.list(PAYER)).singleElement().satisfies(stored -> {
+      assertThat(stored.orderId()).isEqualTo(order.orderId());
+      assertThat(stored.nextRunAt()).isEqualTo(firstRunAt.plusDays(1));
+      assertThat(stored.attempts()).isZero();
+    });
+  }
+
+  @Test
+  void 出金_異常系_残高不足は再試行して失敗を取引履歴に残し上限に達したら次の回へ進むこと() {
+    LocalDateTime firstRunAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    standingOrderService.create(PAYER,
+        new StandingOrderRequest(Type.WITHDRAW, null, 5000, Duration.ofHours(1), firstRunAt));
+
+    await().atMost(TIMEOUT).untilAsserted(() ->
+        assertThat(standingOrderService.list(PAYER).get(0).nextRunAt())
+            .isEqualTo(firstRunAt.plusHours(1)));
+
+    assertThat(balance(PAYER)).isEqualTo(1000);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc(PAYER))
+        .hasSize(2)
+        .allSatisfy(log -> {
+          assertThat(log.getAccountLogType()).isEqualTo(AccountLogType.WITHDRAW);
+          assertThat(log.getAccountLogStatus()).isEqualTo(AccountLogStatus.FAILED);
+          assertThat(log.getAmount()).isEqualTo(5000);
+        });
+    assertThat(standingOrderService.list(PAYER).get(0).attempts()).isZero();
+  }
+
+  @Test
+  void 再起動_正常系_停止中に過ぎた指示は読み込み時に1回だけ実行し解約済みの口座の指示は停止すること() {
+    // 2 時間半前から止まっていたものとして、1 時間ごとの指示を DB に直接用意する
+    LocalDateTime overdue = LocalDateTime.now().minusMinutes(150).truncatedTo(ChronoUnit.SECONDS);
+    StandingOrder hourly = new StandingOrder(UUID.randomUUID().toString(), PAYER, Type.WITHDRAW,
+        null, 100, Duration.ofHours(1), overdue, 0, true);
+    StandingOrder closed = new StandingOrder(UUID.randomUUID().toString(), CLOSED, Type.WITHDRAW,
+        null, 100, Duration.ofHours(1), overdue, 0, true);
+    standingOrderStore.insert(hourly);
+    standingOrderStore.insert(closed);
+
+    standingOrderScheduler.load();
+
+    await().atMost(TIMEOUT).untilAsserted(() -> {
+      assertThat(standingOrderService.list(PAYER).get(0).nextRunAt())
+          .isEqualTo(overdue.plusHours(3));
+      assertThat(standingOrderService.list(CLOSED).get(0).active()).isFalse();
+    });
+    assertThat(balance(PAYER)).isEqualTo(900);
+    assertThat(accountLogRepository.findByAccountNumberOrderByTimestampDesc(CLOSED))
+        .singleElement()
+        .extracting(AccountLog::getAccountLogStatus)
+        .isEqualTo(AccountLogStatus.FAILED);
+  }
+
+  @Test
+  void 停止_正常系_停止した指示は実行されないこと() throws Exception {
+    StandingOrder order = standingOrderService.create(PAYER,
+        new StandingOrderRequest(Type.WITHDRAW, null, 100, Duration.ofDays(1),
+            LocalDateTime.now().plusSeconds(1)));
+
+    standingOrderService.cancel(PAYER, order.orderId());
+    Thread.sleep(1500);
+
+    assertThat(balance(PAYER)).isEqualTo(1000);
+    assertThat(standingOrderService.list(PAYER)).singleElement()
+        .satisfies(stored -> assertThat(stored.active()).isFalse());
+  }
+
+  private int balance(String accountNumber) {
+    return bankAccountRepository.findById(accountNumber).orElseThrow().getBalance();
+  }
+}
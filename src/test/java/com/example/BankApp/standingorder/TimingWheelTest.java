@@ -0,0 +1,70 @@
+package com.example.BankApp.standingorder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+  // 10 ms × 8 スロット × 3 階層で、5120 ms 先まで振り分けられる
+  private static final long TICK = 10;
+
+  @Test
+  void 時刻を進める_正常系_各階層と範囲外の要素が期限のtickでちょうど返ること() {
+    TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 8, 3, 0);
+    Random random = new Random(42);
+    Map<Integer, Long> deadlines = new HashMap<>();
+    for (int i = 0; i < 2000; i++) {
+      long deadline = TICK + random.nextInt(20_000);
+      deadlines.put(i, deadline);
+      wheel.schedule(i, deadline);
+    }
+
+    Map<Integer, Long> firedAt = new HashMap<>();
+    for (long now = TICK; now <= 20_000 + 2 * TICK; now += TICK) {
+      for (int item : wheel.advance(now)) {
+        assertThat(firedAt.put(item, now)).isNull();
+      }
+    }
+
+    assertThat(firedAt).hasSize(deadlines.size());
+    deadlines.forEach((item, deadline) ->
+        assertThat(firedAt.get(item) / TICK).as("item %d", item).isEqualTo(deadline / TICK));
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void 時刻を進める_正常系_期限を過ぎた要素は次の呼び出しで返り飛ばした時間の要素もまとめて返ること() {
+    TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 3, 1_000);
+    wheel.schedule("past", 500);
+    wheel.schedule("soon", 1_050);
+    wheel.schedule("later", 3_000);
+
+    assertThat(wheel.advance(1_000)).containsExactly("past");
+    assertThat(wheel.advance(2_000)).containsExactly("soon");
+    assertThat(wheel.size()).isEqualTo(1);
+    assertThat(wheel.advance(2_990)).isEmpty();
+    assertThat(wheel.advance(3_000)).containsExactly("later");
+  }
+
+  @Test
+  void 取り消し_正常系_取り消した要素は返らず二度目の取り消しはfalseになること() {
+    TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 3, 0);
+    TimingWheel<String>.Timer cancelled = wheel.schedule("cancelled", 2_000);
+    TimingWheel<String>.Timer fired = wheel.schedule("fired", 100);
+    wheel.schedule("kept", 2_000);
+
+    assertThat(cancelled.cancel()).isTrue();
+    assertThat(cancelled.cancel()).isFalse();
+    assertThat(wheel.size()).isEqualTo(2);
+
+    assertThat(wheel.advance(100)).containsExactly("fired");
+    assertThat(fired.cancel()).isFalse();
+    assertThat(wheel.advance(2_000)).isEqualTo(List.of("kept"));
+    assertThat(wheel.size()).isZero();
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.BankApp.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.controller.AdminUserController;
+import com.example.BankApp.controller.BankAccountController;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ConfigurationClassPostProcessor;
+
+class LazyBeansPostProcessorTest {
+
+  @Test
+  void 遅延生成_正常系_指定したクラスのBeanだけが遅延生成になること() {
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerBeanDefinition("adminUserController",
+        new RootBeanDefinition(AdminUserController.class));
+    beanFactory.registerBeanDefinition("bankAccountController",
+        new RootBeanDefinition(BankAccountController.class));
+
+    new LazyBeansPostProcessor(List.of(AdminUserController.class.getName()))
+        .postProcessBeanFactory(beanFactory);
+
+    assertThat(beanFactory.getBeanDefinition("adminUserController").isLazyInit()).isTrue();
+    assertThat(beanFactory.getBeanDefinition("bankAccountController").isLazyInit()).isFalse();
+  }
+
+  @Test
+  void 遅延生成_正常系_Beanメソッドで定義されたBeanは宣言した設定クラスのパッケージで判定されること() {
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    new AnnotatedBeanDefinitionReader(beanFactory).register(SampleConfig.class);
+    new ConfigurationClassPostProcessor().postProcessBeanFactory(beanFactory);
+
+    new LazyBeansPostProcessor(List.of("com.example.BankApp.startup."))
+        .postProcessBeanFactory(beanFactory);
+
+    assertThat(beanFactory.getBeanDefinition("sampleBean").isLazyInit()).isTrue();
+  }
+
+  @Configuration
+  static class SampleConfig {
+
+    @Bean
+    String sampleBean() {
+      return "sample";
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.example.BankApp.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest(properties = {
+    "bankapp.balance-stream.heartbeat-interval=100ms",
+    "bankapp.balance-stream.idle-timeout=1s",
+    "bankapp.balance-stream.max-subscriptions-per-account=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@WithMockUser(username = "0000001")
+class BalanceStreamTest {
+
+  private static final String ACCOUNT = "0000001";
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BalanceStreamRegistry balanceStreamRegistry;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.saveAll(List.of(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER),
+        new BankAccount("0000002", "encoded", "テスト氏名", 0, true, Role.ACCOUNT_USER)));
+  }
+
+  // 前のテストの接続を閉じる
+  @AfterEach
+  void tearDown() {
+    balanceStreamRegistry.closeAll();
+    await().atMost(TIMEOUT).until(() -> balanceStreamRegistry.subscriptionCount() == 0);
+  }
+
+  @Test
+  void 残高の通知_正常系_開いた直後とコミットのたびに残高を送ること() throws Exception {
+    MvcResult stream = open(ACCOUNT);
+
+    await().atMost(TIMEOUT).untilAsserted(() ->
+        assertThat(content(stream)).contains("event:balance").contains("\"balance\":\"1,000円\""));
+
+    mockMvc.perform(post("/deposit/" + ACCOUNT)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\": 500}"))
+        .andExpect(status().isOk());
+    mockMvc.perform(post("/withdraw/" + ACCOUNT)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\": 5000}"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(post("/withdraw/" + ACCOUNT)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\": 200}"))
+        .andExpect(status().isOk());
+
+    await().atMost(TIMEOUT).untilAsserted(() -> assertThat(content(stream))
+        .contains("\"balance\":\"1,500円\"", "\"balance\":\"1,300円\"", ":heartbeat"));
+    // 残高不足の出金は残高が変わらないため送らない
+    assertThat(content(stream).split("event:balance", -1)).hasSize(4);
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = "ADMIN")
+  void 残高の通知_正常系_解約を送った後に接続を閉じること() throws Exception {
+    MvcResult stream = open("0000002");
+
+    mockMvc.perform(post("/closeAccount/0000002"))
+        .andExpect(status().isOk());
+
+    await().atMost(TIMEOUT).untilAsserted(() -> {
+      assertThat(content(stream)).contains("口座解約が完了しました");
+      assertThat(balanceStreamRegistry.subscriptionCount()).isZero();
+    });
+  }
+
+  @Test
+  void 残高の通知_正常系_上限を超えた口座の最も古い接続を閉じること() throws Exception {
+    open(ACCOUNT);
+    open(ACCOUNT);
+    open(ACCOUNT);
+
+    assertThat(balanceStreamRegistry.subscriptionCount()).isEqualTo(2);
+  }
+
+  @Test
+  void 残高の通知_正常系_残高が変わらなくてもハートビートを書き込める接続は閉じないこと() throws Exception {
+    MvcResult stream = open(ACCOUNT);
+
+    // idle-timeout（1 秒）を超えて待っても、ハートビートが届いている間は開いたまま
+    await().atMost(TIMEOUT).during(Duration.ofMillis(1500))
+        .until(() -> balanceStreamRegistry.subscriptionCount() == 1);
+    assertThat(content(stream)).contains(":heartbeat");
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = "ADMIN")
+  void 残高の通知_異常系_存在しない口座は接続を開かず404を返すこと() throws Exception {
+    mockMvc.perform(get("/balance/0000009/stream"))
+        .andExpect(status().isNotFound());
+
+    assertThat(balanceStreamRegistry.subscriptionCount()).isZero();
+  }
+
+  private MvcResult open(String accountNumber) throws Exception {
+    return mockMvc.perform(get("/balance/" + accountNumber + "/stream")
+            .accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+  }
+
+  private static String content(MvcResult result) throws Exception {
+    return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+  }
+}
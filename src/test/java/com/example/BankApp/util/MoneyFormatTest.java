@@ -0,0 +1,39 @@
+package com.example.BankApp.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MoneyFormatTest {
+
+  @Test
+  void 円表記_正常系_NumberFormatと同じ表記になること() {
+    int[] amounts = {0, 1, 9, 10, 999, 1000, 9999, 100000, 999999, 1000000, 123456789,
+        Integer.MAX_VALUE, -1, -1000, -123456789, Integer.MIN_VALUE};
+    for (int amount : amounts) {
+      assertThat(MoneyFormat.yen(amount)).isEqualTo(expected(amount));
+    }
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      int amount = random.nextInt();
+      assertThat(MoneyFormat.yen(amount)).isEqualTo(expected(amount));
+    }
+  }
+
+  @Test
+  void 円表記_正常系_バッファの末尾に右詰めで書き込まれること() {
+    char[] buffer = new char[MoneyFormat.MAX_YEN_LENGTH + 5];
+
+    int start = MoneyFormat.writeYen(Integer.MIN_VALUE, buffer);
+
+    assertThat(new String(buffer, start, buffer.length - start)).isEqualTo("-2,147,483,648円");
+    assertThat(buffer.length - start).isEqualTo(MoneyFormat.MAX_YEN_LENGTH);
+  }
+
+  private static String expected(int amount) {
+    return NumberFormat.getNumberInstance(Locale.JAPAN).format(amount) + "円";
+  }
+}
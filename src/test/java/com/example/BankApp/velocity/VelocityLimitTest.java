@@ -0,0 +1,95 @@
+package com.example.BankApp.velocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.BankApp.model.AccountLog;
+import com.example.BankApp.model.AccountLog.AccountLogStatus;
+import com.example.BankApp.model.BankAccount;
+import com.example.BankApp.model.BankAccount.Role;
+import com.example.BankApp.repository.AccountLogRepository;
+import com.example.BankApp.repository.BankAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest(properties = {
+    "bankapp.velocity.enabled=true",
+    "bankapp.velocity.minute.count=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@WithMockUser(username = "0001234")
+class VelocityLimitTest {
+
+  // 起動時に他のテストクラスが残した出金を数えていない口座を使う
+  private static final String ACCOUNT = "0001234";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private VelocityProperties velocityProperties;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BankAccountRepository bankAccountRepository;
+
+  @Autowired
+  private AccountLogRepository accountLogRepository;
+
+  @BeforeEach
+  void setUp() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+    bankAccountRepository.save(
+        new BankAccount(ACCOUNT, "encoded", "テスト氏名", 1000, true, Role.ACCOUNT_USER));
+  }
+
+  @AfterEach
+  void tearDown() {
+    accountLogRepository.deleteAll();
+    bankAccountRepository.deleteAll();
+  }
+
+  @Test
+  void 出金_異常系_上限を超える出金は失敗を記録して拒否し起動時に取引履歴から数え直すこと() throws Exception {
+    withdraw(100).andExpect(status().isOk());
+    withdraw(100).andExpect(status().isOk());
+    withdraw(100)
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("一定時間内の出金の回数または金額が上限を超えています。"));
+
+    assertThat(bankAccountRepository.findById(ACCOUNT).orElseThrow().getBalance()).isEqualTo(800);
+    assertThat(accountLogRepository.findAll()).extracting(AccountLog::getAccountLogStatus)
+        .containsExactlyInAnyOrder(AccountLogStatus.SUCCESS, AccountLogStatus.SUCCESS,
+            AccountLogStatus.FAILED);
+
+    // 再起動した場合と同じく、成功した出金の取引履歴だけから数え直す
+    VelocityTracker restarted = new VelocityTracker(jdbcTemplate, velocityProperties,
+        Clock.systemDefaultZone(), new SimpleMeterRegistry());
+    assertThat(restarted.rebuild()).isEqualTo(2);
+    assertThat(restarted.limitExceeded(ACCOUNT, 100)).isTrue();
+    assertThat(restarted.limitExceeded("0000002", 100)).isFalse();
+  }
+
+  private ResultActions withdraw(int amount) throws Exception {
+    return mockMvc.perform(post("/withdraw/" + ACCOUNT)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"amount\": " + amount + "}"));
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.BankApp.velocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.BankApp.velocity.VelocityProperties.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class VelocityTrackerTest {
+
+  private static final String ACCOUNT = "0000001";
+
+  private MutableClock clock;
+  private VelocityTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    VelocityProperties properties = new VelocityProperties();
+    properties.setEnabled(true);
+    properties.setMinute(new Limit(3, 0));
+    properties.setHour(new Limit(0, 1000));
+    properties.setDay(new Limit(0, 0));
+    // バケットの境界から始める
+    clock = new MutableClock(Instant.parse("2026-03-01T09:00:00Z"));
+    tracker = new VelocityTracker(null, properties, clock, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void 出金の確認_正常系_1分間の回数の上限を超える出金を拒否し期間が過ぎたら許すこと() {
+    assertThat(tracker.limitExceeded(ACCOUNT, 10)).isFalse();
+    clock.advance(Duration.ofSeconds(20));
+    assertThat(tracker.limitExceeded(ACCOUNT, 10)).isFalse();
+    assertThat(tracker.limitExceeded(ACCOUNT, 10)).isFalse();
+    assertThat(tracker.limitExceeded(ACCOUNT, 10)).isTrue();
+    // 他の口座は数えない
+    assertThat(tracker.limitExceeded("0000002", 10)).isFalse();
+
+    // 最初の出金が 1 分の期間から外れると 1 回分空く
+    clock.advance(Duration.ofSeconds(41));
+    assertThat(tracker.limitExceeded(ACCOUNT, 10)).isFalse();
+    assertThat(tracker.limitExceeded(ACCOUNT, 10)).isTrue();
+  }
+
+  @Test
+  void 出金の確認_正常系_1時間の金額の上限を超える出金だけを拒否し拒否した出金は数えないこと() {
+    assertThat(tracker.limitExceeded(ACCOUNT, 600)).isFalse();
+    clock.advance(Duration.ofMinutes(10));
+    assertThat(tracker.limitExceeded(ACCOUNT, 500)).isTrue();
+    assertThat(tracker.limitExceeded(ACCOUNT, 400)).isFalse();
+    clock.advance(Duration.ofMinutes(10));
+    assertThat(tracker.limitExceeded(ACCOUNT, 1)).isTrue();
+
+    clock.advance(Duration.ofMinutes(41));
+    // 600 円の出金だけが期間から外れる
+    assertThat(tracker.limitExceeded(ACCOUNT, 601)).isTrue();
+    assertThat(tracker.limitExceeded(ACCOUNT, 600)).isFalse();
+  }
+
+  @Test
+  void 出金の確認_正常系_ロールバックされた出金は数えないこと() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      assertThat(tracker.limitExceeded(ACCOUNT, 900)).isFalse();
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(tracker.limitExceeded(ACCOUNT, 1000)).isFalse();
+  }
+
+  @Test
+  void 状態の破棄_正常系_1日以上出金のない口座だけを捨てること() {
+    tracker.limitExceeded(ACCOUNT, 10);
+    clock.advance(Duration.ofHours(23));
+    tracker.limitExceeded("0000002", 10);
+    clock.advance(Duration.ofHours(2));
+
+    assertThat(tracker.evictIdle()).isEqualTo(1);
+    assertThat(tracker.trackedAccounts()).isEqualTo(1);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}